@@ -1,6 +1,6 @@
 import React from 'react';
 import { Modal, Button, Row, Col, Card, Badge } from 'react-bootstrap';
-import { QRCodeSVG } from 'qrcode.react';
+import TicketQRCode from './TicketQRCode';
 
 const EnhancedTicketDetail = ({ ticket, onClose }) => {
     const formatDate = (dateString) => {
@@ -254,22 +254,7 @@ const EnhancedTicketDetail = ({ ticket, onClose }) => {
                                         </h5>
 
                                         <div className="p-3 bg-white border rounded mb-3">
-                                            {ticket.qrCodeUrl ? (
-                                                <img
-                                                    src={`data:image/png;base64,${ticket.qrCodeUrl}`}
-                                                    alt="Ticket QR Code"
-                                                    style={{ width: '100%', maxWidth: '200px' }}
-                                                />
-                                            ) : (
-                                                <QRCodeSVG
-                                                    value={ticket.ticketNumber || 'TICKET'}
-                                                    size={200}
-                                                    level="H"
-                                                    includeMargin={true}
-                                                    bgColor="#ffffff"
-                                                    fgColor="#000000"
-                                                />
-                                            )}
+                                            <TicketQRCode ticketId={ticket.id} />
                                         </div>
 
                                         <p className="small text-muted mb-3">
@@ -1,7 +1,7 @@
 // src/components/tickets/TicketDetail.js
 import React from 'react';
 import { Modal, Button, Row, Col } from 'react-bootstrap';
-import { QRCodeSVG } from 'qrcode.react';
+import TicketQRCode from './TicketQRCode';
 
 const TicketDetail = ({ ticket, onClose }) => {
     const formatDate = (dateString) => {
@@ -92,19 +92,7 @@ const TicketDetail = ({ ticket, onClose }) => {
 
                     <Col md={4} className="text-center">
                         <div className="p-3 border rounded">
-                            {ticket.qrCodeUrl ? (
-                                <img
-                                    src={`data:image/png;base64,${ticket.qrCodeUrl}`}
-                                    alt="Ticket QR Code"
-                                    style={{ width: '100%', maxWidth: '200px' }}
-                                />
-                            ) : (
-                                <QRCodeSVG
-                                    value={ticket.ticketNumber || 'TICKET'}
-                                    size={200}
-                                    level="H"
-                                />
-                            )}
+                            <TicketQRCode ticketId={ticket.id} />
                             <p className="mt-2 mb-0 small">Scan for entry</p>
                         </div>
 
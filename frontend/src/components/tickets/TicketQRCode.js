@@ -0,0 +1,51 @@
+// src/components/tickets/TicketQRCode.js
+import React, { useState, useEffect } from 'react';
+import { Spinner } from 'react-bootstrap';
+import { getTicketQRCode } from '../../api/ticketApi';
+
+// The entry code is the signed token rendered by the server; a code drawn from the ticket number
+// alone is turned away at the gate, so nothing is shown until the server has answered
+const TicketQRCode = ({ ticketId }) => {
+    const [qrCode, setQrCode] = useState(null);
+    const [loading, setLoading] = useState(false);
+    const [error, setError] = useState('');
+
+    useEffect(() => {
+        if (ticketId) {
+            fetchQRCode();
+        }
+    }, [ticketId]);
+
+    const fetchQRCode = async () => {
+        try {
+            setLoading(true);
+            setError('');
+            const response = await getTicketQRCode(ticketId);
+            setQrCode(response.data.qrCode);
+        } catch (err) {
+            console.error('Error fetching ticket QR code:', err);
+            setError('Entry code could not be loaded. Please try again.');
+            setQrCode(null);
+        } finally {
+            setLoading(false);
+        }
+    };
+
+    if (loading) {
+        return <Spinner animation="border" variant="primary" />;
+    }
+
+    if (error || !qrCode) {
+        return <p className="small text-danger mb-0">{error || 'Entry code not available'}</p>;
+    }
+
+    return (
+        <img
+            src={`data:image/png;base64,${qrCode}`}
+            alt="Ticket QR Code"
+            style={{ width: '100%', maxWidth: '200px' }}
+        />
+    );
+};
+
+export default TicketQRCode;
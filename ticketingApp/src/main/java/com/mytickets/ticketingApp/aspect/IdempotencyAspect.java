@@ -0,0 +1,210 @@
+package com.mytickets.ticketingApp.aspect;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.annotation.Annotation;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses retries of {@link Idempotent} methods onto the first request with the same key. Keys
+ * are scoped to the caller and the method, and kept in a bounded in-memory store for
+ * app.idempotency.ttl-seconds together with a SHA-256 fingerprint of the request body, path variables
+ * and query parameters, so reusing a key for a different request is refused rather than answered with
+ * someone else's response. Headers such as X-Queue-Pass are left out: a retry may carry a fresh one.
+ *
+ * Only finished requests are remembered. A request that throws, or answers with a server error,
+ * gives up its key so the client's next retry runs for real. Duplicates counted under
+ * {@code ticketing.idempotency.collapsed} are requests that did not run the method a second time.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+public class IdempotencyAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyAspect.class);
+
+    static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.idempotency.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${app.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private Cache<String, StoredRequest> requests;
+
+    @PostConstruct
+    public void init() {
+        requests = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        Gauge.builder("ticketing.idempotency.keys", this, aspect -> aspect.requests.estimatedSize())
+                .description("Idempotency keys remembered for replay")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(idempotent)")
+    public Object collapse(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+        String key = currentKey();
+        if (key == null) {
+            return joinPoint.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        StoredRequest request = new StoredRequest(fingerprint(joinPoint));
+        String storeKey = caller() + "\n" + method + "\n" + key;
+
+        StoredRequest first = requests.asMap().putIfAbsent(storeKey, request);
+        if (first != null) {
+            return replay(first, request, method);
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof ResponseEntity<?> response && response.getStatusCode().is5xxServerError()) {
+                requests.asMap().remove(storeKey, request);
+            }
+            request.response.complete(result);
+            return result;
+        } catch (Throwable e) {
+            requests.asMap().remove(storeKey, request);
+            request.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object replay(StoredRequest first, StoredRequest duplicate, String method) throws Throwable {
+        if (!MessageDigest.isEqual(first.fingerprint, duplicate.fingerprint)) {
+            counter("ticketing.idempotency.mismatched", method).increment();
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", HEADER + " was already used for a different request"));
+        }
+
+        boolean inFlight = !first.response.isDone();
+        try {
+            Object response = first.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            Counter.builder("ticketing.idempotency.collapsed")
+                    .tag("method", method)
+                    .tag("state", inFlight ? "in_flight" : "completed")
+                    .register(meterRegistry)
+                    .increment();
+            logger.debug("Replayed {} for a repeated {}", method, HEADER);
+            return response;
+        } catch (TimeoutException e) {
+            counter("ticketing.idempotency.timeouts", method).increment();
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "A request with this " + HEADER + " is still being processed"));
+        } catch (ExecutionException e) {
+            // The first request failed and released the key; this one reports the same failure
+            throw e.getCause();
+        }
+    }
+
+    private byte[] fingerprint(ProceedingJoinPoint joinPoint) {
+        Annotation[][] annotations = ((MethodSignature) joinPoint.getSignature()).getMethod().getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+        List<Object> requestArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof RequestBody || annotation instanceof PathVariable || annotation instanceof RequestParam) {
+                    requestArgs.add(args[i]);
+                    break;
+                }
+            }
+        }
+
+        try {
+            // Sorted map keys, so the same JSON body always serializes to the same bytes
+            byte[] serialized = objectMapper.writer()
+                    .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValueAsBytes(requestArgs);
+            return MessageDigest.getInstance("SHA-256").digest(serialized);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not fingerprint request: " + e.getMessage(), e);
+        }
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private static String currentKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String key = request.getHeader(HEADER);
+        return key == null || key.isBlank() ? null : key.trim();
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private static final class StoredRequest {
+        private final byte[] fingerprint;
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private StoredRequest(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
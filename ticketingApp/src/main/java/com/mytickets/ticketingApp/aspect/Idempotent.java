@@ -0,0 +1,19 @@
+package com.mytickets.ticketingApp.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets clients retry a controller method safely by sending an {@code Idempotency-Key} header. A
+ * repeat of a key by the same user gets the response of the first request instead of running the
+ * method again; a repeat that arrives while the first is still running waits for its response.
+ * Requests without the header run as before.
+ *
+ * @see IdempotencyAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,112 @@
+package com.mytickets.ticketingApp.aspect;
+
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods that fail on a stale entity version. Ordered ahead of
+ * the transaction interceptor so every attempt runs in a fresh transaction with freshly read rows.
+ * Between attempts the thread sleeps a random time up to an exponentially growing bound ("full
+ * jitter"), which spreads out buyers that collided on the same row instead of re-colliding them.
+ *
+ * Per-method counters under {@code ticketing.optimistic.*} show how often each method is called,
+ * how often it conflicts, how often it gives up, and how often it ends in a sold-out answer, which
+ * is an expected outcome of contention rather than an error.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetryAspect.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.retry.max-attempts:4}")
+    private int defaultMaxAttempts;
+
+    @Value("${app.retry.backoff-ms:20}")
+    private long defaultBackoffMs;
+
+    @Value("${app.retry.max-backoff-ms:500}")
+    private long maxBackoffMs;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        counter("ticketing.optimistic.calls", method).increment();
+
+        // Nested inside someone else's transaction: let the conflict surface to the outermost retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return proceed(joinPoint, method);
+        }
+
+        int maxAttempts = Math.max(1, retryOnConflict.maxAttempts() > 0 ? retryOnConflict.maxAttempts() : defaultMaxAttempts);
+        long backoffMs = retryOnConflict.backoffMs() > 0 ? retryOnConflict.backoffMs() : defaultBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return proceed(joinPoint, method);
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                counter("ticketing.optimistic.conflicts", method).increment();
+
+                if (attempt >= maxAttempts) {
+                    counter("ticketing.optimistic.exhausted", method).increment();
+                    logger.warn("{} still conflicting after {} attempts: {}", method, attempt, e.getMessage());
+                    throw e;
+                }
+
+                long bound = Math.min(maxBackoffMs, backoffMs << (attempt - 1));
+                logger.debug("{} hit a version conflict on attempt {}, retrying", method, attempt);
+                Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+            }
+        }
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint, String method) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (TicketUnavailableException e) {
+            counter("ticketing.optimistic.sold", method).increment();
+            throw e;
+        }
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
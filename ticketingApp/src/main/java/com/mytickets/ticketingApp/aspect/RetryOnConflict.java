@@ -0,0 +1,29 @@
+package com.mytickets.ticketingApp.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a service method whose transaction lost an optimistic-lock race on a versioned entity.
+ * Only the outermost annotated call retries, since a conflict inside an enclosing transaction has
+ * already doomed that transaction and has to be retried from its start.
+ *
+ * @see OptimisticRetryAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Total attempts including the first call; a value of 0 uses {@code app.retry.max-attempts}.
+     */
+    int maxAttempts() default 0;
+
+    /**
+     * Upper bound of the first backoff in milliseconds, doubled on each further attempt;
+     * a value of 0 uses {@code app.retry.backoff-ms}.
+     */
+    long backoffMs() default 0;
+}
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/audit")
@@ -37,6 +38,18 @@ public class AuditLogController {
         return ResponseEntity.ok(logs);
     }
 
+    // Newest first without OFFSET, so deep pages cost the same as the first
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(auditService.scrollLogs(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/entity/{entityType}/{entityId}")
     public ResponseEntity<List<AuditLog>> getLogsByEntity(
             @PathVariable String entityType,
@@ -1,27 +1,44 @@
 package com.mytickets.ticketingApp.controller;
 
+import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
+import com.mytickets.ticketingApp.exception.TooManyStreamsException;
 import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.EventStatus;
 import com.mytickets.ticketingApp.model.EventType;
+import com.mytickets.ticketingApp.payload.request.EventDiscoveryRequest;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
 import com.mytickets.ticketingApp.security.services.UserDetailsImpl;
+import com.mytickets.ticketingApp.service.AvailabilityStreamService;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
+import com.mytickets.ticketingApp.service.CatalogSnapshotService;
 import com.mytickets.ticketingApp.service.EventService;
+import com.mytickets.ticketingApp.service.InventoryService;
+import com.mytickets.ticketingApp.service.VenueGeoSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -31,49 +48,25 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
-    @GetMapping
-    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Map<String, Object>>> getAllEvents() {
-        List<Event> events = eventService.getAllEvents();
+    @Autowired
+    private InventoryService inventoryService;
 
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
 
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        venueMap.put("state", event.getVenue().getState());
-                        venueMap.put("country", event.getVenue().getCountry());
-                        map.put("venue", venueMap);
-                    }
+    @Autowired
+    private CatalogSearchService catalogSearchService;
 
-                    // Add simplified creator info
-                    if (event.getCreator() != null) {
-                        Map<String, Object> creatorMap = new HashMap<>();
-                        creatorMap.put("id", event.getCreator().getId());
-                        creatorMap.put("firstName", event.getCreator().getFirstName());
-                        creatorMap.put("lastName", event.getCreator().getLastName());
-                        map.put("creator", creatorMap);
-                    }
+    @Autowired
+    private VenueGeoSearchService venueGeoSearchService;
 
-                    return map;
-                })
-                .collect(Collectors.toList());
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
 
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    @GetMapping
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<byte[]> getAllEvents(WebRequest webRequest) {
+        return catalogResponse(CatalogSnapshotService.Listing.ALL, false, webRequest);
     }
 
     @GetMapping("/page")
@@ -87,38 +80,11 @@ public class EventController {
                 Sort.Direction.DESC : Sort.Direction.ASC;
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        Page<Event> eventsPage = eventService.getEventsPage(pageable);
-
-        // Convert page content to simplified format
-        List<Map<String, Object>> simplifiedEvents = eventsPage.getContent().stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
+        Page<EventSummaryResponse> eventsPage = eventService.getEventsPage(pageable);
 
         // Create response with pagination info
         Map<String, Object> response = new HashMap<>();
-        response.put("content", simplifiedEvents);
+        response.put("content", eventsPage.getContent());
         response.put("currentPage", eventsPage.getNumber());
         response.put("totalItems", eventsPage.getTotalElements());
         response.put("totalPages", eventsPage.getTotalPages());
@@ -126,6 +92,18 @@ public class EventController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Same summaries as /page ordered by date, but seeking to a cursor instead of counting and skipping rows
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(eventService.scrollEvents(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getEventById(@PathVariable Long id) {
         return eventService.getEventById(id)
@@ -171,260 +149,92 @@ public class EventController {
 
     @GetMapping("/creator")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Map<String, Object>>> getEventsByCreator() {
+    public ResponseEntity<List<EventSummaryResponse>> getEventsByCreator() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
 
-        List<Event> events = eventService.findEventsByCreator(userDetails.getId());
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+        return new ResponseEntity<>(eventService.findEventsByCreator(userDetails.getId()), HttpStatus.OK);
     }
 
     @GetMapping("/type/{eventType}")
-    public ResponseEntity<List<Map<String, Object>>> getEventsByType(@PathVariable EventType eventType) {
-        List<Event> events = eventService.findEventsByType(eventType);
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    public ResponseEntity<List<EventSummaryResponse>> getEventsByType(@PathVariable EventType eventType) {
+        return new ResponseEntity<>(eventService.findEventsByType(eventType), HttpStatus.OK);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Map<String, Object>>> getEventsByStatus(@PathVariable EventStatus status) {
-        List<Event> events = eventService.findEventsByStatus(status);
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    public ResponseEntity<List<EventSummaryResponse>> getEventsByStatus(@PathVariable EventStatus status) {
+        return new ResponseEntity<>(eventService.findEventsByStatus(status), HttpStatus.OK);
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<Map<String, Object>>> getUpcomingEvents() {
-        List<Event> events = eventService.findUpcomingEvents();
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    public ResponseEntity<byte[]> getUpcomingEvents(WebRequest webRequest) {
+        return catalogResponse(CatalogSnapshotService.Listing.UPCOMING, true, webRequest);
     }
 
     @GetMapping("/venue/{venueId}")
-    public ResponseEntity<List<Map<String, Object>>> getEventsByVenue(@PathVariable Long venueId) {
-        List<Event> events = eventService.findEventsByVenue(venueId);
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    public ResponseEntity<List<EventSummaryResponse>> getEventsByVenue(@PathVariable Long venueId) {
+        return new ResponseEntity<>(eventService.findEventsByVenue(venueId), HttpStatus.OK);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Map<String, Object>>> searchEvents(@RequestParam String name) {
-        List<Event> events = eventService.searchEventsByName(name);
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
+    public ResponseEntity<List<EventSummaryResponse>> searchEvents(@RequestParam String name,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        return new ResponseEntity<>(catalogSearchService.searchEvents(name, limit), HttpStatus.OK);
+    }
 
-                    return map;
-                })
-                .collect(Collectors.toList());
+    @GetMapping("/discover")
+    public ResponseEntity<?> discoverEvents(
+            @RequestParam(required = false) List<String> city,
+            @RequestParam(required = false) List<EventType> type,
+            @RequestParam(required = false) List<EventStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "false") boolean available,
+            @RequestParam(defaultValue = "date") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        EventDiscoveryRequest request = new EventDiscoveryRequest();
+        request.setCities(city);
+        request.setTypes(type);
+        request.setStatuses(status);
+        request.setFrom(from);
+        request.setTo(to);
+        request.setMinPrice(minPrice);
+        request.setMaxPrice(maxPrice);
+        request.setAvailableOnly(available);
+        request.setSort(sort);
+        request.setPage(page);
+        request.setSize(size);
+        try {
+            return new ResponseEntity<>(catalogSearchService.discoverEvents(request), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
 
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    @GetMapping("/near")
+    public ResponseEntity<?> getUpcomingEventsNear(@RequestParam double lat,
+                                                   @RequestParam double lon,
+                                                   @RequestParam(defaultValue = "25") double radiusKm,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return new ResponseEntity<>(venueGeoSearchService.findUpcomingEventsNear(lat, lon, radiusKm, limit),
+                    HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Map<String, Object>>> getEventsWithAvailableTickets() {
-        List<Event> events = eventService.findUpcomingEventsWithAvailableTickets();
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    public ResponseEntity<byte[]> getEventsWithAvailableTickets(WebRequest webRequest) {
+        return catalogResponse(CatalogSnapshotService.Listing.AVAILABLE, true, webRequest);
     }
 
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<Map<String, Object>>> getEventsByCity(@PathVariable String city) {
-        List<Event> events = eventService.findUpcomingEventsByCity(city);
-
-        List<Map<String, Object>> simplifiedEvents = events.stream()
-                .map(event -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", event.getId());
-                    map.put("name", event.getName());
-                    map.put("description", event.getDescription());
-                    map.put("eventDate", event.getEventDate());
-                    map.put("imageUrl", event.getImageUrl());
-                    map.put("totalTickets", event.getTotalTickets());
-                    map.put("availableTickets", event.getAvailableTickets());
-                    map.put("eventType", event.getEventType());
-                    map.put("status", event.getStatus());
-
-                    // Add simplified venue info
-                    if (event.getVenue() != null) {
-                        Map<String, Object> venueMap = new HashMap<>();
-                        venueMap.put("id", event.getVenue().getId());
-                        venueMap.put("name", event.getVenue().getName());
-                        venueMap.put("city", event.getVenue().getCity());
-                        map.put("venue", venueMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedEvents, HttpStatus.OK);
+    public ResponseEntity<List<EventSummaryResponse>> getEventsByCity(@PathVariable String city) {
+        return new ResponseEntity<>(eventService.findUpcomingEventsByCity(city), HttpStatus.OK);
     }
 
     @PostMapping
@@ -451,4 +261,99 @@ public class EventController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
-}
\ No newline at end of file
+    /**
+     * Live availability of an event as server-sent "availability" events: the current figures
+     * first, then a fresh set whenever tickets are sold or released or the resale listings move.
+     * Streams are capped per signed-in user, or per client address for anonymous callers; the
+     * address is only as good as the forwarded headers the proxy in front of us sets, so anonymous
+     * clients behind one shared NAT or proxy share one cap.
+     */
+    @GetMapping(value = "/{id}/availability", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(@PathVariable Long id, HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(availabilityStreamService.subscribe(id, streamClientId(request)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (TooManyStreamsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (IllegalStateException e) {
+            // Node is full; EventSource clients retry, and the balancer may place them elsewhere
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private String streamClientId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return "user:" + userDetails.getId();
+        }
+        // Resolved from X-Forwarded-For by the container, and only when a trusted proxy set it
+        return request.getRemoteAddr();
+    }
+
+    @GetMapping("/{id}/inventory")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getInventoryDrift(@PathVariable Long id) {
+        return new ResponseEntity<>(inventoryService.getDrift(id), HttpStatus.OK);
+    }
+
+    @GetMapping("/inventory/drift")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getInventoryDriftReport() {
+        return new ResponseEntity<>(inventoryService.getDriftReport(), HttpStatus.OK);
+    }
+
+    @PostMapping("/inventory/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildInventory() {
+        int flushed = inventoryService.flush();
+        inventoryService.rebuild();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("flushedUnits", flushed);
+        response.put("events", inventoryService.getDriftReport().size());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    // The busiest listings are served as pre-encoded bytes; clients revalidate every time and an
+    // unchanged catalog answers 304 without a body. Shared caches may only keep the public listings.
+    private ResponseEntity<byte[]> catalogResponse(CatalogSnapshotService.Listing listing, boolean shared,
+                                                   WebRequest webRequest) {
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.get(listing);
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String eTag = gzip ? snapshot.getGzipETag() : snapshot.getETag();
+        CacheControl cacheControl = shared ? CacheControl.noCache().cachePublic() : CacheControl.noCache().cachePrivate();
+        // The 304 repeats the validator and Vary, so a cache never pairs one encoding's ETag with the other's body
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // gzip;q=0 means the client refuses it
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mytickets.ticketingApp.controller;
+
+import com.mytickets.ticketingApp.payload.request.BulkScanRequest;
+import com.mytickets.ticketingApp.payload.response.BulkScanResponse;
+import com.mytickets.ticketingApp.payload.response.ScanResponse;
+import com.mytickets.ticketingApp.service.GateScanService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/gates")
+public class GateController {
+
+    @Autowired
+    private GateScanService gateScanService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getOpenGates() {
+        return new ResponseEntity<>(gateScanService.getOpenGates(), HttpStatus.OK);
+    }
+
+    @PostMapping("/events/{eventId}/open")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> openDoors(@PathVariable Long eventId) {
+        try {
+            return new ResponseEntity<>(gateScanService.openDoors(eventId), HttpStatus.OK);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/events/{eventId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HttpStatus> closeDoors(@PathVariable Long eventId) {
+        gateScanService.closeDoors(eventId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    // A rejected ticket is a normal answer at the door, so every outcome is a 200
+    @PostMapping("/events/{eventId}/scan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> scan(@PathVariable Long eventId, @RequestParam String code) {
+        try {
+            ScanResponse response = gateScanService.scan(eventId, code);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // One round trip for everything a scanner buffered, with a verdict per code in scan order
+    @PostMapping("/events/{eventId}/scans")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> scanBatch(@PathVariable Long eventId, @Valid @RequestBody BulkScanRequest request) {
+        try {
+            List<ScanResponse> results = gateScanService.scanBatch(eventId, request.getCodes());
+
+            BulkScanResponse response = new BulkScanResponse();
+            response.setEventId(eventId);
+            response.setResults(results);
+            response.setAdmitted((int) results.stream().filter(ScanResponse::isAdmitted).count());
+            response.setRejected(results.size() - response.getAdmitted());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
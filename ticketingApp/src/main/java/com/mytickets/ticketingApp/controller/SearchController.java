@@ -0,0 +1,25 @@
+package com.mytickets.ticketingApp.controller;
+
+import com.mytickets.ticketingApp.payload.response.SuggestionResponse;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(@RequestParam("q") String prefix,
+                                                            @RequestParam(defaultValue = "8") int limit) {
+        return new ResponseEntity<>(catalogSearchService.suggest(prefix, limit), HttpStatus.OK);
+    }
+}
@@ -1,26 +1,44 @@
 package com.mytickets.ticketingApp.controller;
 
 import com.mytickets.ticketingApp.config.BatchTicketRequest;
-import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
-import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.PricingTier;
 import com.mytickets.ticketingApp.model.Ticket;
 import com.mytickets.ticketingApp.model.TicketStatus;
-import com.mytickets.ticketingApp.repository.EventRepository;
-import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.payload.request.SeatAllocationRequest;
+import com.mytickets.ticketingApp.payload.request.SeatReleaseRequest;
+import com.mytickets.ticketingApp.payload.request.TicketImportRequest;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
+import com.mytickets.ticketingApp.payload.response.SeatAllocationResponse;
+import com.mytickets.ticketingApp.payload.response.TicketViewResponse;
 import com.mytickets.ticketingApp.repository.TicketRepository;
 import com.mytickets.ticketingApp.security.services.UserDetailsImpl;
+import com.mytickets.ticketingApp.service.ExportService;
 import com.mytickets.ticketingApp.service.QRCodeService;
+import com.mytickets.ticketingApp.service.SeatAllocationService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
+import com.mytickets.ticketingApp.service.StoredQRCodeCleanupService;
+import com.mytickets.ticketingApp.service.TicketImportService;
 import com.mytickets.ticketingApp.service.TicketService;
+import com.mytickets.ticketingApp.util.ExportWriter;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,119 +50,38 @@ public class TicketController {
 
     @Autowired
     private TicketService ticketService;
-    @Autowired
-    private EventRepository eventRepository;
 
     @Autowired
     private TicketRepository ticketRepository;
 
     @Autowired
-    private PricingTierRepository pricingTierRepository;
+    private TicketImportService ticketImportService;
     @Autowired
-    private QRCodeService qRCodeService;
+    private SeatHoldService seatHoldService;
 
-    @GetMapping
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getAllTickets() {
-        try {
-            System.out.println("AdminDashboard: Fetching all tickets...");
+    @Autowired
+    private SeatAllocationService seatAllocationService;
 
-            List<Ticket> tickets = ticketRepository.findAll();
-            System.out.println("Found " + tickets.size() + " tickets in database");
+    @Autowired
+    private QRCodeService qrCodeService;
 
-            if (tickets.isEmpty()) {
-                System.out.println("No tickets found in database");
-                return ResponseEntity.ok(new ArrayList<>());
-            }
+    @Autowired
+    private StoredQRCodeCleanupService storedQRCodeCleanupService;
 
-            List<Map<String, Object>> simplifiedTickets = new ArrayList<>();
-
-            for (Ticket ticket : tickets) {
-                try {
-                    Map<String, Object> map = new HashMap<>();
-
-                    // Basic ticket information (with null checks)
-                    map.put("id", ticket.getId());
-                    map.put("ticketNumber", ticket.getTicketNumber() != null ? ticket.getTicketNumber() : "");
-                    map.put("originalPrice", ticket.getOriginalPrice() != null ? ticket.getOriginalPrice() : 0.0);
-                    map.put("currentPrice", ticket.getCurrentPrice() != null ? ticket.getCurrentPrice() : 0.0);
-                    map.put("section", ticket.getSection());
-                    map.put("row", ticket.getRow());
-                    map.put("seat", ticket.getSeat());
-                    map.put("status", ticket.getStatus() != null ? ticket.getStatus().toString() : "AVAILABLE");
-                    map.put("purchaseDate", ticket.getPurchaseDate());
-                    map.put("used", ticket.getUsed() != null ? ticket.getUsed() : false);
-                    map.put("qrCodeUrl", ticket.getQrCodeUrl());
-
-                    // Add event info (with null checks)
-                    Map<String, Object> eventMap = new HashMap<>();
-                    if (ticket.getEvent() != null) {
-                        eventMap.put("id", ticket.getEvent().getId());
-                        eventMap.put("name", ticket.getEvent().getName() != null ? ticket.getEvent().getName() : "Unknown Event");
-                        eventMap.put("eventDate", ticket.getEvent().getEventDate());
-
-                        // Add venue info
-                        Map<String, Object> venueMap = new HashMap<>();
-                        if (ticket.getEvent().getVenue() != null) {
-                            venueMap.put("id", ticket.getEvent().getVenue().getId());
-                            venueMap.put("name", ticket.getEvent().getVenue().getName() != null ?
-                                    ticket.getEvent().getVenue().getName() : "Unknown Venue");
-                            venueMap.put("city", ticket.getEvent().getVenue().getCity());
-                        } else {
-                            venueMap.put("id", null);
-                            venueMap.put("name", "No Venue");
-                            venueMap.put("city", "");
-                        }
-                        eventMap.put("venue", venueMap);
-                    } else {
-                        eventMap.put("id", null);
-                        eventMap.put("name", "No Event");
-                        eventMap.put("eventDate", null);
-                        eventMap.put("venue", Map.of("id", (Object) null, "name", "No Venue", "city", ""));
-                    }
-                    map.put("event", eventMap);
-
-                    // Add owner info (with null checks)
-                    if (ticket.getOwner() != null) {
-                        Map<String, Object> ownerMap = new HashMap<>();
-                        ownerMap.put("id", ticket.getOwner().getId());
-                        ownerMap.put("firstName", ticket.getOwner().getFirstName() != null ?
-                                ticket.getOwner().getFirstName() : "Unknown");
-                        ownerMap.put("lastName", ticket.getOwner().getLastName() != null ?
-                                ticket.getOwner().getLastName() : "User");
-                        map.put("owner", ownerMap);
-                    } else {
-                        map.put("owner", null);
-                    }
-
-                    // Add pricing tier info if available
-                    if (ticket.getPricingTier() != null) {
-                        Map<String, Object> tierMap = new HashMap<>();
-                        tierMap.put("id", ticket.getPricingTier().getId());
-                        tierMap.put("name", ticket.getPricingTier().getName() != null ?
-                                ticket.getPricingTier().getName() : "Unknown Tier");
-                        tierMap.put("price", ticket.getPricingTier().getPrice());
-                        map.put("pricingTier", tierMap);
-                    } else {
-                        map.put("pricingTier", null);
-                    }
-
-                    simplifiedTickets.add(map);
-
-                } catch (Exception e) {
-                    System.err.println("Error processing ticket ID " + ticket.getId() + ": " + e.getMessage());
-                    // Continue with next ticket instead of failing completely
-                }
-            }
+    @Autowired
+    private ExportService exportService;
 
-            System.out.println("Successfully processed " + simplifiedTickets.size() + " tickets");
-            return ResponseEntity.ok(simplifiedTickets);
+    @Value("${app.ticket.import.stream-timeout-ms:900000}")
+    private long importTimeoutMs;
 
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getAllTickets() {
+        try {
+            return ResponseEntity.ok(ticketRepository.findAllViews());
         } catch (Exception e) {
-            System.err.println("Error in getAllTickets: " + e.getMessage());
             e.printStackTrace();
 
-            // Return error response
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to fetch tickets: " + e.getMessage());
             errorResponse.put("tickets", new ArrayList<>());
@@ -152,6 +89,36 @@ public class TicketController {
         }
     }
 
+    // Keyset-paged admin list; pass the nextCursor of one page to get the next
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> scrollTickets(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            long afterId = cursor == null || cursor.isEmpty() ? 0L : KeysetCursor.decode(cursor, false).getId();
+            Pageable limit = CursorPage.limit(size);
+            return ResponseEntity.ok(CursorPage.of(ticketRepository.findViewsAfter(afterId, limit), limit,
+                    view -> KeysetCursor.of(view.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Written to the response as rows are read, so exporting a stadium never holds it in memory
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportTickets(
+            @RequestParam(defaultValue = ExportWriter.DEFAULT_FORMAT) String format,
+            @RequestParam(required = false) Long eventId,
+            HttpServletResponse response) throws IOException {
+        ExportWriter.Format exportFormat = exportService.parseFormat(format);
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets"
+                + (eventId != null ? "-event-" + eventId : "") + "." + exportFormat.getExtension() + "\"");
+        exportService.exportTickets(eventId, exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
         return ticketService.getTicketById(id)
@@ -179,72 +146,8 @@ public class TicketController {
             UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                     .getAuthentication().getPrincipal();
 
-            System.out.println("User " + userDetails.getId() + " requesting their tickets");
-
-            List<Ticket> tickets = ticketRepository.findByOwnerId(userDetails.getId());
-            System.out.println("Found " + tickets.size() + " tickets for user " + userDetails.getId());
-
-            if (tickets.isEmpty()) {
-                System.out.println("No tickets found for user " + userDetails.getId());
-                return ResponseEntity.ok(new ArrayList<>());
-            }
-
-            List<Map<String, Object>> simplifiedTickets = new ArrayList<>();
-
-            for (Ticket ticket : tickets) {
-                try {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", ticket.getId());
-                    map.put("ticketNumber", ticket.getTicketNumber() != null ? ticket.getTicketNumber() : "");
-                    map.put("originalPrice", ticket.getOriginalPrice() != null ? ticket.getOriginalPrice() : 0.0);
-                    map.put("currentPrice", ticket.getCurrentPrice() != null ? ticket.getCurrentPrice() : 0.0);
-                    map.put("section", ticket.getSection());
-                    map.put("row", ticket.getRow());
-                    map.put("seat", ticket.getSeat());
-                    map.put("status", ticket.getStatus() != null ? ticket.getStatus().toString() : "AVAILABLE");
-                    map.put("purchaseDate", ticket.getPurchaseDate());
-                    map.put("used", ticket.getUsed() != null ? ticket.getUsed() : false);
-
-                    // Add event info
-                    Map<String, Object> eventMap = new HashMap<>();
-                    if (ticket.getEvent() != null) {
-                        eventMap.put("id", ticket.getEvent().getId());
-                        eventMap.put("name", ticket.getEvent().getName() != null ? ticket.getEvent().getName() : "Unknown Event");
-                        eventMap.put("eventDate", ticket.getEvent().getEventDate());
-
-                        // Add venue info
-                        Map<String, Object> venueMap = new HashMap<>();
-                        if (ticket.getEvent().getVenue() != null) {
-                            venueMap.put("id", ticket.getEvent().getVenue().getId());
-                            venueMap.put("name", ticket.getEvent().getVenue().getName() != null ?
-                                    ticket.getEvent().getVenue().getName() : "Unknown Venue");
-                            venueMap.put("city", ticket.getEvent().getVenue().getCity());
-                        } else {
-                            venueMap.put("id", null);
-                            venueMap.put("name", "No Venue");
-                            venueMap.put("city", "");
-                        }
-                        eventMap.put("venue", venueMap);
-                    } else {
-                        eventMap.put("id", null);
-                        eventMap.put("name", "No Event");
-                        eventMap.put("eventDate", null);
-                        eventMap.put("venue", Map.of("id", (Object) null, "name", "No Venue", "city", ""));
-                    }
-                    map.put("event", eventMap);
-
-                    simplifiedTickets.add(map);
-
-                } catch (Exception e) {
-                    System.err.println("Error processing user ticket ID " + ticket.getId() + ": " + e.getMessage());
-                }
-            }
-
-            System.out.println("Successfully processed " + simplifiedTickets.size() + " user tickets");
-            return ResponseEntity.ok(simplifiedTickets);
-
+            return ResponseEntity.ok(ticketRepository.findViewsByOwnerId(userDetails.getId()));
         } catch (Exception e) {
-            System.err.println("Error in getMyTickets: " + e.getMessage());
             e.printStackTrace();
 
             Map<String, Object> errorResponse = new HashMap<>();
@@ -283,131 +186,63 @@ public class TicketController {
 
     @GetMapping("/available-by-pricing-tier/{pricingTierId}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Map<String, Object>>> getAvailableTicketsByPricingTier(@PathVariable Long pricingTierId) {
+    public ResponseEntity<List<TicketViewResponse>> getAvailableTicketsByPricingTier(@PathVariable Long pricingTierId) {
         try {
-            // Get all tickets for this pricing tier that are available
-            List<Ticket> availableTickets = ticketRepository.findByPricingTierIdAndStatus(pricingTierId, TicketStatus.AVAILABLE);
-
-            if (availableTickets.isEmpty()) {
-                return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
-            }
-
-            // Convert to simplified format
-            List<Map<String, Object>> simplifiedTickets = availableTickets.stream()
-                    .map(ticket -> {
-                        Map<String, Object> map = new HashMap<>();
-                        map.put("id", ticket.getId());
-                        map.put("ticketNumber", ticket.getTicketNumber());
-                        map.put("originalPrice", ticket.getOriginalPrice());
-                        map.put("currentPrice", ticket.getCurrentPrice());
-                        map.put("section", ticket.getSection());
-                        map.put("row", ticket.getRow());
-                        map.put("seat", ticket.getSeat());
-                        map.put("status", ticket.getStatus());
-
-                        // Add simplified event info
-                        if (ticket.getEvent() != null) {
-                            Map<String, Object> eventMap = new HashMap<>();
-                            eventMap.put("id", ticket.getEvent().getId());
-                            eventMap.put("name", ticket.getEvent().getName());
-                            eventMap.put("eventDate", ticket.getEvent().getEventDate());
-
-                            // Add simplified venue info
-                            if (ticket.getEvent().getVenue() != null) {
-                                Map<String, Object> venueMap = new HashMap<>();
-                                venueMap.put("id", ticket.getEvent().getVenue().getId());
-                                venueMap.put("name", ticket.getEvent().getVenue().getName());
-                                venueMap.put("city", ticket.getEvent().getVenue().getCity());
-                                eventMap.put("venue", venueMap);
-                            }
-
-                            map.put("event", eventMap);
-                        }
-
-                        // Add simplified pricing tier info
-                        if (ticket.getPricingTier() != null) {
-                            Map<String, Object> tierMap = new HashMap<>();
-                            tierMap.put("id", ticket.getPricingTier().getId());
-                            tierMap.put("name", ticket.getPricingTier().getName());
-                            tierMap.put("price", ticket.getPricingTier().getPrice());
-                            map.put("pricingTier", tierMap);
-                        }
-
-                        return map;
-                    })
+            // Seats in another buyer's checkout are not offered until the hold is released or expires
+            List<TicketViewResponse> availableTickets = ticketRepository
+                    .findViewsByPricingTierIdAndStatus(pricingTierId, TicketStatus.AVAILABLE)
+                    .stream()
+                    .filter(ticket -> !seatHoldService.isTicketHeld(ticket.getId()))
                     .collect(Collectors.toList());
 
-            return new ResponseEntity<>(simplifiedTickets, HttpStatus.OK);
+            return new ResponseEntity<>(availableTickets, HttpStatus.OK);
         } catch (Exception e) {
             e.printStackTrace();
             return new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
-    @PostMapping("/batch-with-seating")
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Ticket>> createTicketsBatchWithSeating(
-            @RequestBody BatchTicketRequest request) {
-
-        try {
-            Event event = eventRepository.findById(request.getEventId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Event", "id", request.getEventId()));
-
-            PricingTier pricingTier = pricingTierRepository.findById(request.getPricingTierId())
-                    .orElseThrow(() -> new ResourceNotFoundException("PricingTier", "id", request.getPricingTierId()));
-
-            List<Ticket> tickets = new ArrayList<>();
-            int quantity = request.getTickets().size();
-
-            for (BatchTicketRequest.TicketInfo ticketInfo : request.getTickets()) {
-                Ticket ticket = new Ticket();
-                ticket.setTicketNumber(UUID.randomUUID().toString());
-                ticket.setOriginalPrice(pricingTier.getPrice());
-                ticket.setCurrentPrice(pricingTier.getPrice());
-                ticket.setStatus(TicketStatus.AVAILABLE);
-                ticket.setEvent(event);
-                ticket.setPricingTier(pricingTier);
-
-                // Set seating information
-                ticket.setSection(ticketInfo.getSection());
-                ticket.setRow(ticketInfo.getRow());
-                ticket.setSeat(ticketInfo.getSeat());
-
-                // Generate QR code with enhanced content
-                String qrCodeContent = String.format("TICKET:%s|EVENT:%s|SEAT:%s",
-                        ticket.getTicketNumber(),
-                        event.getName(),
-                        getSeatDisplayString(ticketInfo.getSection(), ticketInfo.getRow(), ticketInfo.getSeat()));
-
-                try {
-                    String qrCodeBase64 = qRCodeService.generateQRCodeAsBase64(qrCodeContent, 200, 200);
-                    ticket.setQrCodeUrl(qrCodeBase64);
-                } catch (Exception e) {
-                    // Fallback if QR generation fails
-                    ticket.setQrCodeUrl("placeholder-" + ticket.getTicketNumber());
-                }
-
-                tickets.add(ticketRepository.save(ticket));
-            }
-
-            // Update event ticket counts
-            int totalTickets = event.getTotalTickets() != null ? event.getTotalTickets() : 0;
-            event.setTotalTickets(totalTickets + quantity);
+    // Free seats per section and row, enough to draw a seat picker without listing every ticket
+    @GetMapping("/seat-map/{pricingTierId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Map<String, Integer>>> getSeatMap(@PathVariable Long pricingTierId) {
+        return new ResponseEntity<>(seatAllocationService.getAvailability(pricingTierId), HttpStatus.OK);
+    }
 
-            int availableTickets = event.getAvailableTickets() != null ? event.getAvailableTickets() : 0;
-            event.setAvailableTickets(availableTickets + quantity);
+    // Picks the seats server-side and holds them, so buyers no longer race for seats they picked from a list
+    @PostMapping("/best-available")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> allocateBestAvailable(@Valid @RequestBody SeatAllocationRequest request) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
 
-            eventRepository.save(event);
+        try {
+            SeatAllocationResponse response = seatAllocationService.allocateBestAvailable(request.getPricingTierId(),
+                    request.getSection(), request.getQuantity(), userDetails.getId());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            // Update pricing tier counts
-            int tierQuantity = pricingTier.getQuantity() != null ? pricingTier.getQuantity() : 0;
-            pricingTier.setQuantity(tierQuantity + quantity);
+    @PostMapping("/best-available/release")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<HttpStatus> releaseAllocatedSeats(@Valid @RequestBody SeatReleaseRequest request) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
 
-            int tierAvailable = pricingTier.getAvailable() != null ? pricingTier.getAvailable() : 0;
-            pricingTier.setAvailable(tierAvailable + quantity);
+        seatAllocationService.release(request.getPricingTierId(), request.getTicketIds(), userDetails.getId());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 
-            pricingTierRepository.save(pricingTier);
+    @PostMapping("/batch-with-seating")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Ticket>> createTicketsBatchWithSeating(
+            @RequestBody BatchTicketRequest request) {
 
+        try {
+            List<Ticket> tickets = ticketImportService.importAndLoad(
+                    request.getEventId(), request.getPricingTierId(), request.getTickets(), true);
             return new ResponseEntity<>(tickets, HttpStatus.CREATED);
         } catch (Exception e) {
             e.printStackTrace();
@@ -424,55 +259,51 @@ public class TicketController {
             @RequestParam int quantity) {
 
         try {
-            Event event = eventRepository.findById(eventId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
-
-            PricingTier pricingTier = pricingTierRepository.findById(pricingTierId)
-                    .orElseThrow(() -> new ResourceNotFoundException("PricingTier", "id", pricingTierId));
-
-            List<Ticket> tickets = new ArrayList<>();
-
-            for (int i = 0; i < quantity; i++) {
-                Ticket ticket = new Ticket();
-                ticket.setTicketNumber(UUID.randomUUID().toString());
-                ticket.setOriginalPrice(pricingTier.getPrice());
-                ticket.setCurrentPrice(pricingTier.getPrice());
-                ticket.setStatus(TicketStatus.AVAILABLE);
-                ticket.setEvent(event);
-                ticket.setPricingTier(pricingTier);
+            // General admission tickets; QR codes are rendered when first requested
+            List<Ticket> tickets = ticketImportService.importAndLoad(eventId, pricingTierId,
+                    Collections.nCopies(quantity, new BatchTicketRequest.TicketInfo()), false);
+            return new ResponseEntity<>(tickets, HttpStatus.CREATED);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 
-                // Use a shorter QR code or placeholder
-                String qrCodeContent = "TICKET:" + ticket.getTicketNumber();
-                // Optional: generate a smaller QR code or skip for now
-                ticket.setQrCodeUrl("placeholder-" + ticket.getTicketNumber());
+    /**
+     * Bulk inventory import for large venues. Progress is streamed as server-sent events, one
+     * "progress" event per committed chunk followed by a final "complete" or "error" event.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter importTickets(@Valid @RequestBody TicketImportRequest request) {
+        SseEmitter emitter = new SseEmitter(importTimeoutMs);
 
-                tickets.add(ticketRepository.save(ticket));
+        ticketImportService.submitImport(request, progress -> {
+            if (!progress.isDone()) {
+                send(emitter, "progress", progress);
             }
+        }).whenComplete((progress, error) -> {
+            if (error == null) {
+                send(emitter, "complete", progress);
+            } else {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                send(emitter, "error", Map.of("error", String.valueOf(cause.getMessage())));
+            }
+            emitter.complete();
+        });
 
-            // Update event ticket counts
-            int totalTickets = event.getTotalTickets() != null ? event.getTotalTickets() : 0;
-            event.setTotalTickets(totalTickets + quantity);
-
-            int availableTickets = event.getAvailableTickets() != null ? event.getAvailableTickets() : 0;
-            event.setAvailableTickets(availableTickets + quantity);
-
-            eventRepository.save(event);
-
-            // Update pricing tier counts
-            int tierQuantity = pricingTier.getQuantity() != null ? pricingTier.getQuantity() : 0;
-            pricingTier.setQuantity(tierQuantity + quantity);
-
-            int tierAvailable = pricingTier.getAvailable() != null ? pricingTier.getAvailable() : 0;
-            pricingTier.setAvailable(tierAvailable + quantity);
-
-            pricingTierRepository.save(pricingTier);
+        return emitter;
+    }
 
-            return new ResponseEntity<>(tickets, HttpStatus.CREATED);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    // A client that stops listening does not stop the import; it just no longer hears about it
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
         }
     }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Ticket> updateTicket(@PathVariable Long id, @Valid @RequestBody Ticket ticket) {
@@ -482,49 +313,11 @@ public class TicketController {
 
     @GetMapping("/my-upcoming-tickets")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Map<String, Object>>> getMyUpcomingTickets() {
+    public ResponseEntity<List<TicketViewResponse>> getMyUpcomingTickets() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
 
-        List<Ticket> tickets = ticketService.getUpcomingTicketsByOwner(userDetails.getId());
-
-        // Convert to simplified format to avoid circular references
-        List<Map<String, Object>> simplifiedTickets = tickets.stream()
-                .map(ticket -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", ticket.getId());
-                    map.put("ticketNumber", ticket.getTicketNumber());
-                    map.put("originalPrice", ticket.getOriginalPrice());
-                    map.put("currentPrice", ticket.getCurrentPrice());
-                    map.put("section", ticket.getSection());
-                    map.put("row", ticket.getRow());
-                    map.put("seat", ticket.getSeat());
-                    map.put("status", ticket.getStatus());
-
-                    // Add simplified event info
-                    if (ticket.getEvent() != null) {
-                        Map<String, Object> eventMap = new HashMap<>();
-                        eventMap.put("id", ticket.getEvent().getId());
-                        eventMap.put("name", ticket.getEvent().getName());
-                        eventMap.put("eventDate", ticket.getEvent().getEventDate());
-
-                        // Add simplified venue info
-                        if (ticket.getEvent().getVenue() != null) {
-                            Map<String, Object> venueMap = new HashMap<>();
-                            venueMap.put("id", ticket.getEvent().getVenue().getId());
-                            venueMap.put("name", ticket.getEvent().getVenue().getName());
-                            venueMap.put("city", ticket.getEvent().getVenue().getCity());
-                            eventMap.put("venue", venueMap);
-                        }
-
-                        map.put("event", eventMap);
-                    }
-
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-        return new ResponseEntity<>(simplifiedTickets, HttpStatus.OK);
+        return new ResponseEntity<>(ticketService.getUpcomingTicketsByOwner(userDetails.getId()), HttpStatus.OK);
     }
 
     @PutMapping("/{id}/status")
@@ -608,7 +401,12 @@ public class TicketController {
 
     @GetMapping("/{id}/qrcode")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Map<String, String>> getTicketQRCode(@PathVariable Long id) {
+    public ResponseEntity<?> getTicketQRCode(@PathVariable Long id) {
+        if (!canViewQRCode(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "You do not own this ticket"));
+        }
+
         String qrCodeBase64 = ticketService.generateQRCode(id);
 
         Map<String, String> response = new HashMap<>();
@@ -617,6 +415,62 @@ public class TicketController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Chosen over the JSON variant when the client asks for an image, e.g. an <img> tag
+    @GetMapping(value = "/{id}/qrcode", produces = MediaType.IMAGE_PNG_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<byte[]> getTicketQRCodeImage(@PathVariable Long id,
+                                                       @RequestParam(required = false) Integer size,
+                                                       WebRequest webRequest) {
+        if (!canViewQRCode(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        Optional<String> token = ticketService.findQRCodeToken(id);
+        if (token.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        int pixels = qrCodeService.normalizeTicketQRCodeSize(size);
+        String eTag = qrCodeService.getTicketQRCodeETag(token.get(), pixels);
+        // Revalidation answers 304 without rendering or touching the cache
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        // The image at this URL changes when the ticket is reissued or the signing key rotates,
+        // so browsers must revalidate every time; an unchanged code still costs only a 304
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.IMAGE_PNG)
+                .body(qrCodeService.getTicketQRCodePng(token.get(), pixels));
+    }
+
+    // The QR code admits whoever holds it, so only the ticket's owner or an admin may see it
+    private boolean canViewQRCode(Long ticketId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        return admin || ticketRepository.findOwnerIdById(ticketId)
+                .map(ownerId -> ownerId.equals(userDetails.getId()))
+                .orElse(false);
+    }
+
+    @GetMapping("/qrcode-cleanup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getQRCodeCleanupStatus() {
+        return ResponseEntity.ok(storedQRCodeCleanupService.getStatus());
+    }
+
+    @PostMapping("/qrcode-cleanup/restart")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> restartQRCodeCleanup() {
+        storedQRCodeCleanupService.restart();
+        return ResponseEntity.ok(storedQRCodeCleanupService.getStatus());
+    }
+
     @PostMapping("/validate")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Boolean>> validateTicket(@RequestParam String ticketNumber) {
@@ -637,26 +491,6 @@ public class TicketController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    private String getSeatDisplayString(String section, String row, String seat) {
-        List<String> parts = new ArrayList<>();
-        if (section != null && !section.trim().isEmpty()) {
-            parts.add("Sec " + section);
-        }
-        if (row != null && !row.trim().isEmpty()) {
-            parts.add("Row " + row);
-        }
-        if (seat != null && !seat.trim().isEmpty()) {
-            parts.add("Seat " + seat);
-        }
-
-        if (parts.isEmpty()) {
-            return "GA"; // General Admission
-        }
-
-        return String.join(" ", parts);
-    }
-
-
     private Map<String, Object> createPricingTierResponse(PricingTier tier) {
         Map<String, Object> response = new HashMap<>();
         response.put("id", tier.getId());
@@ -677,6 +511,3 @@ public class TicketController {
         return response;
     }
 }
-
-
-
@@ -2,7 +2,9 @@ package com.mytickets.ticketingApp.controller;
 
 import com.mytickets.ticketingApp.model.ListingStatus;
 import com.mytickets.ticketingApp.model.TicketListing;
+import com.mytickets.ticketingApp.payload.response.ListingSummaryResponse;
 import com.mytickets.ticketingApp.security.services.UserDetailsImpl;
+import com.mytickets.ticketingApp.service.ResaleOrderBookService;
 import com.mytickets.ticketingApp.service.TicketListingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,6 +27,9 @@ public class TicketListingController {
     @Autowired
     private TicketListingService ticketListingService;
 
+    @Autowired
+    private ResaleOrderBookService resaleOrderBookService;
+
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getAllListings() {
         // Get all listings from service
@@ -37,62 +42,24 @@ public class TicketListingController {
 
         // Transform to simplified format to avoid circular references
         List<Map<String, Object>> simplifiedListings = activeListings.stream()
-                .map(listing -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", listing.getId());
-                    map.put("askingPrice", listing.getAskingPrice());
-                    map.put("description", listing.getDescription());
-                    map.put("listingDate", listing.getListingDate());
-                    map.put("status", listing.getStatus());
-
-                    // Add simplified ticket info
-                    if (listing.getTicket() != null) {
-                        Map<String, Object> ticketMap = new HashMap<>();
-                        ticketMap.put("id", listing.getTicket().getId());
-                        ticketMap.put("ticketNumber", listing.getTicket().getTicketNumber());
-                        ticketMap.put("originalPrice", listing.getTicket().getOriginalPrice());
-                        ticketMap.put("section", listing.getTicket().getSection());
-                        ticketMap.put("row", listing.getTicket().getRow());
-                        ticketMap.put("seat", listing.getTicket().getSeat());
-
-                        // Add simplified event info
-                        if (listing.getTicket().getEvent() != null) {
-                            Map<String, Object> eventMap = new HashMap<>();
-                            eventMap.put("id", listing.getTicket().getEvent().getId());
-                            eventMap.put("name", listing.getTicket().getEvent().getName());
-                            eventMap.put("eventDate", listing.getTicket().getEvent().getEventDate());
-
-                            // Add simplified venue info
-                            if (listing.getTicket().getEvent().getVenue() != null) {
-                                Map<String, Object> venueMap = new HashMap<>();
-                                venueMap.put("id", listing.getTicket().getEvent().getVenue().getId());
-                                venueMap.put("name", listing.getTicket().getEvent().getVenue().getName());
-                                venueMap.put("city", listing.getTicket().getEvent().getVenue().getCity());
-                                eventMap.put("venue", venueMap);
-                            }
-
-                            ticketMap.put("event", eventMap);
-                        }
-
-                        map.put("ticket", ticketMap);
-                    }
-
-                    // Add simplified seller info
-                    if (listing.getSeller() != null) {
-                        Map<String, Object> sellerMap = new HashMap<>();
-                        sellerMap.put("id", listing.getSeller().getId());
-                        sellerMap.put("firstName", listing.getSeller().getFirstName());
-                        sellerMap.put("lastName", listing.getSeller().getLastName());
-                        map.put("seller", sellerMap);
-                    }
-
-                    return map;
-                })
+                .map(this::toMap)
                 .collect(Collectors.toList());
 
         return new ResponseEntity<>(simplifiedListings, HttpStatus.OK);
     }
 
+    // Active listings a page at a time, oldest first
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollListings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(ticketListingService.scrollActiveListings(cursor, size).map(this::toMap));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getListingById(@PathVariable Long id) {
         return ticketListingService.getListingById(id)
@@ -193,93 +160,47 @@ public class TicketListingController {
         return new ResponseEntity<>(simplifiedListings, HttpStatus.OK);
     }
 
+    // Active listings for an event, cheapest first, served from its resale order book
     @GetMapping("/event/{eventId}")
-    public ResponseEntity<List<Map<String, Object>>> getListingsByEvent(@PathVariable Long eventId) {
-        List<TicketListing> listings = ticketListingService.getActiveListingsByEvent(eventId);
-
-        List<Map<String, Object>> simplifiedListings = listings.stream()
-                .map(listing -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", listing.getId());
-                    map.put("askingPrice", listing.getAskingPrice());
-                    map.put("description", listing.getDescription());
-                    map.put("listingDate", listing.getListingDate());
-                    map.put("status", listing.getStatus());
-
-                    // Add simplified ticket info
-                    if (listing.getTicket() != null) {
-                        Map<String, Object> ticketMap = new HashMap<>();
-                        ticketMap.put("id", listing.getTicket().getId());
-                        ticketMap.put("ticketNumber", listing.getTicket().getTicketNumber());
-                        ticketMap.put("originalPrice", listing.getTicket().getOriginalPrice());
-                        ticketMap.put("section", listing.getTicket().getSection());
-                        ticketMap.put("row", listing.getTicket().getRow());
-                        ticketMap.put("seat", listing.getTicket().getSeat());
-
-                        map.put("ticket", ticketMap);
-                    }
-
-                    // Add simplified seller info
-                    if (listing.getSeller() != null) {
-                        Map<String, Object> sellerMap = new HashMap<>();
-                        sellerMap.put("id", listing.getSeller().getId());
-                        sellerMap.put("firstName", listing.getSeller().getFirstName());
-                        sellerMap.put("lastName", listing.getSeller().getLastName());
-                        map.put("seller", sellerMap);
-                    }
-
-                    return map;
-                })
+    public ResponseEntity<List<Map<String, Object>>> getListingsByEvent(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        List<Map<String, Object>> simplifiedListings = resaleOrderBookService.getCheapestListings(eventId, limit).stream()
+                .map(listing -> toMap(listing, listing.getSellerLastName()))
                 .collect(Collectors.toList());
 
         return new ResponseEntity<>(simplifiedListings, HttpStatus.OK);
     }
 
     @GetMapping("/event/{eventId}/cheapest")
-    public ResponseEntity<List<Map<String, Object>>> getCheapestListingsByEvent(@PathVariable Long eventId) {
-        List<TicketListing> listings = ticketListingService.getActiveListingsByEventOrderByPrice(eventId);
-
-        List<Map<String, Object>> simplifiedListings = listings.stream()
-                .map(listing -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", listing.getId());
-                    map.put("askingPrice", listing.getAskingPrice());
-                    map.put("description", listing.getDescription());
-                    map.put("listingDate", listing.getListingDate());
-                    map.put("status", listing.getStatus());
-
-                    // Add simplified ticket info
-                    if (listing.getTicket() != null) {
-                        Map<String, Object> ticketMap = new HashMap<>();
-                        ticketMap.put("id", listing.getTicket().getId());
-                        ticketMap.put("ticketNumber", listing.getTicket().getTicketNumber());
-                        ticketMap.put("originalPrice", listing.getTicket().getOriginalPrice());
-                        ticketMap.put("section", listing.getTicket().getSection());
-                        ticketMap.put("row", listing.getTicket().getRow());
-                        ticketMap.put("seat", listing.getTicket().getSeat());
-
-                        map.put("ticket", ticketMap);
-                    }
-
-                    // Add simplified seller info
-                    if (listing.getSeller() != null) {
-                        Map<String, Object> sellerMap = new HashMap<>();
-                        sellerMap.put("id", listing.getSeller().getId());
-                        sellerMap.put("firstName", listing.getSeller().getFirstName());
-                        sellerMap.put("lastName", listing.getSeller().getLastName().charAt(0) + "."); // Only first initial of last name
-                        map.put("seller", sellerMap);
-                    }
-
-                    return map;
-                })
+    public ResponseEntity<List<Map<String, Object>>> getCheapestListingsByEvent(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        List<Map<String, Object>> simplifiedListings = resaleOrderBookService.getCheapestListings(eventId, limit).stream()
+                .map(listing -> toMap(listing, listing.getSellerLastName() == null || listing.getSellerLastName().isEmpty()
+                        ? listing.getSellerLastName()
+                        : listing.getSellerLastName().charAt(0) + ".")) // Only first initial of last name
                 .collect(Collectors.toList());
 
         return new ResponseEntity<>(simplifiedListings, HttpStatus.OK);
     }
 
+    // Listing count, best price, price depth and optionally a price histogram for an event
+    @GetMapping("/event/{eventId}/book")
+    public ResponseEntity<?> getOrderBook(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "10") int depth,
+            @RequestParam(required = false) Double bucketWidth) {
+        try {
+            return ResponseEntity.ok(resaleOrderBookService.getOrderBook(eventId, depth, bucketWidth));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/event/{eventId}/count")
     public ResponseEntity<Map<String, Long>> countListingsByEvent(@PathVariable Long eventId) {
-        Long count = ticketListingService.countActiveListingsByEvent(eventId);
+        Long count = (long) resaleOrderBookService.countListings(eventId);
 
         Map<String, Long> response = new HashMap<>();
         response.put("count", count);
@@ -329,4 +250,84 @@ public class TicketListingController {
         TicketListing purchasedListing = ticketListingService.purchaseListing(id, userDetails.getId());
         return new ResponseEntity<>(purchasedListing, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> toMap(TicketListing listing) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", listing.getId());
+        map.put("askingPrice", listing.getAskingPrice());
+        map.put("description", listing.getDescription());
+        map.put("listingDate", listing.getListingDate());
+        map.put("status", listing.getStatus());
+
+        // Add simplified ticket info
+        if (listing.getTicket() != null) {
+            Map<String, Object> ticketMap = new HashMap<>();
+            ticketMap.put("id", listing.getTicket().getId());
+            ticketMap.put("ticketNumber", listing.getTicket().getTicketNumber());
+            ticketMap.put("originalPrice", listing.getTicket().getOriginalPrice());
+            ticketMap.put("section", listing.getTicket().getSection());
+            ticketMap.put("row", listing.getTicket().getRow());
+            ticketMap.put("seat", listing.getTicket().getSeat());
+
+            // Add simplified event info
+            if (listing.getTicket().getEvent() != null) {
+                Map<String, Object> eventMap = new HashMap<>();
+                eventMap.put("id", listing.getTicket().getEvent().getId());
+                eventMap.put("name", listing.getTicket().getEvent().getName());
+                eventMap.put("eventDate", listing.getTicket().getEvent().getEventDate());
+
+                // Add simplified venue info
+                if (listing.getTicket().getEvent().getVenue() != null) {
+                    Map<String, Object> venueMap = new HashMap<>();
+                    venueMap.put("id", listing.getTicket().getEvent().getVenue().getId());
+                    venueMap.put("name", listing.getTicket().getEvent().getVenue().getName());
+                    venueMap.put("city", listing.getTicket().getEvent().getVenue().getCity());
+                    eventMap.put("venue", venueMap);
+                }
+
+                ticketMap.put("event", eventMap);
+            }
+
+            map.put("ticket", ticketMap);
+        }
+
+        // Add simplified seller info
+        if (listing.getSeller() != null) {
+            Map<String, Object> sellerMap = new HashMap<>();
+            sellerMap.put("id", listing.getSeller().getId());
+            sellerMap.put("firstName", listing.getSeller().getFirstName());
+            sellerMap.put("lastName", listing.getSeller().getLastName());
+            map.put("seller", sellerMap);
+        }
+
+        return map;
+    }
+
+    private Map<String, Object> toMap(ListingSummaryResponse listing, String sellerLastName) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", listing.getId());
+        map.put("askingPrice", listing.getAskingPrice());
+        map.put("description", listing.getDescription());
+        map.put("listingDate", listing.getListingDate());
+        map.put("status", ListingStatus.ACTIVE);
+
+        Map<String, Object> ticketMap = new HashMap<>();
+        ticketMap.put("id", listing.getTicketId());
+        ticketMap.put("ticketNumber", listing.getTicketNumber());
+        ticketMap.put("originalPrice", listing.getOriginalPrice());
+        ticketMap.put("section", listing.getSection());
+        ticketMap.put("row", listing.getRow());
+        ticketMap.put("seat", listing.getSeat());
+        map.put("ticket", ticketMap);
+
+        if (listing.getSellerId() != null) {
+            Map<String, Object> sellerMap = new HashMap<>();
+            sellerMap.put("id", listing.getSellerId());
+            sellerMap.put("firstName", listing.getSellerFirstName());
+            sellerMap.put("lastName", sellerLastName);
+            map.put("seller", sellerMap);
+        }
+
+        return map;
+    }
+}
@@ -1,18 +1,29 @@
 package com.mytickets.ticketingApp.controller;
 
+import com.mytickets.ticketingApp.aspect.Idempotent;
+import com.mytickets.ticketingApp.exception.AdmissionRequiredException;
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
 import com.mytickets.ticketingApp.model.Transaction;
 import com.mytickets.ticketingApp.model.TransactionStatus;
 import com.mytickets.ticketingApp.security.services.UserDetailsImpl;
+import com.mytickets.ticketingApp.service.ExportService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
 import com.mytickets.ticketingApp.service.TransactionService;
+import com.mytickets.ticketingApp.service.WaitingRoomService;
+import com.mytickets.ticketingApp.util.ExportWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -28,64 +39,39 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private ExportService exportService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getAllTransactions() {
         List<Transaction> transactions = transactionService.getAllTransactions();
 
         List<Map<String, Object>> simplifiedTransactions = transactions.stream()
-                .map(transaction -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", transaction.getId());
-                    map.put("transactionNumber", transaction.getTransactionNumber());
-                    map.put("amount", transaction.getAmount());
-                    map.put("transactionDate", transaction.getTransactionDate());
-                    map.put("type", transaction.getType());
-                    map.put("status", transaction.getStatus());
-                    map.put("paymentIntentId", transaction.getPaymentIntentId());
-
-                    // Add simplified buyer info
-                    if (transaction.getBuyer() != null) {
-                        Map<String, Object> buyerMap = new HashMap<>();
-                        buyerMap.put("id", transaction.getBuyer().getId());
-                        buyerMap.put("firstName", transaction.getBuyer().getFirstName());
-                        buyerMap.put("lastName", transaction.getBuyer().getLastName());
-                        map.put("buyer", buyerMap);
-                    }
-
-                    // Add simplified seller info
-                    if (transaction.getSeller() != null) {
-                        Map<String, Object> sellerMap = new HashMap<>();
-                        sellerMap.put("id", transaction.getSeller().getId());
-                        sellerMap.put("firstName", transaction.getSeller().getFirstName());
-                        sellerMap.put("lastName", transaction.getSeller().getLastName());
-                        map.put("seller", sellerMap);
-                    }
-
-                    // Add simplified ticket info
-                    if (transaction.getTicket() != null) {
-                        Map<String, Object> ticketMap = new HashMap<>();
-                        ticketMap.put("id", transaction.getTicket().getId());
-                        ticketMap.put("ticketNumber", transaction.getTicket().getTicketNumber());
-
-                        // Add simplified event info
-                        if (transaction.getTicket().getEvent() != null) {
-                            Map<String, Object> eventMap = new HashMap<>();
-                            eventMap.put("id", transaction.getTicket().getEvent().getId());
-                            eventMap.put("name", transaction.getTicket().getEvent().getName());
-                            ticketMap.put("event", eventMap);
-                        }
-
-                        map.put("ticket", ticketMap);
-                    }
-
-                    return map;
-                })
+                .map(this::toMap)
                 .collect(Collectors.toList());
 
         return new ResponseEntity<>(simplifiedTransactions, HttpStatus.OK);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> scrollTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(transactionService.scrollTransactions(cursor, size).map(this::toMap));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getTransactionById(@PathVariable Long id) {
@@ -262,6 +248,11 @@ public class TransactionController {
             response.put("message", "Payment confirmed successfully");
 
             return ResponseEntity.ok(response);
+        } catch (TicketUnavailableException | OptimisticLockingFailureException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             System.err.println("Error confirming stripe payment: " + e.getMessage());
             e.printStackTrace();
@@ -376,6 +367,21 @@ public class TransactionController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Same range as /date-range, streamed for accounting instead of built up as a list
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportTransactions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = ExportWriter.DEFAULT_FORMAT) String format,
+            HttpServletResponse response) throws IOException {
+        ExportWriter.Format exportFormat = exportService.parseFormat(format);
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"");
+        exportService.exportTransactions(startDate, endDate, exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getTransactionsByDateRange(
@@ -437,6 +443,7 @@ public class TransactionController {
 
     @PostMapping("/{id}/process-payment")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Idempotent
     public ResponseEntity<Transaction> processPayment(
             @PathVariable Long id,
             @RequestParam String paymentMethod,
@@ -458,6 +465,7 @@ public class TransactionController {
 
     @PostMapping("/{id}/pay-with-balance")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Idempotent
     public ResponseEntity<?> payWithBalance(@PathVariable Long id) {
         try {
             UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
@@ -483,6 +491,11 @@ public class TransactionController {
             response.put("message", "Payment completed with balance");
 
             return ResponseEntity.ok(response);
+        } catch (TicketUnavailableException | OptimisticLockingFailureException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -495,7 +508,10 @@ public class TransactionController {
 
     @PostMapping("/purchase-ticket")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<?> createTicketPurchaseTransaction(@Valid @RequestBody Map<String, Object> requestData) {
+    @Idempotent
+    public ResponseEntity<?> createTicketPurchaseTransaction(
+            @Valid @RequestBody Map<String, Object> requestData,
+            @RequestHeader(value = "X-Queue-Pass", required = false) String admissionPass) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
 
@@ -503,11 +519,15 @@ public class TransactionController {
             Long ticketId = Long.valueOf(requestData.get("ticketId").toString());
             String paymentMethod = requestData.getOrDefault("paymentMethod", "card").toString();
 
+            // Forged or expired passes are turned away before any database work
+            Long admittedEventId = waitingRoomService.verifyPass(admissionPass, userDetails.getId());
+
             // Create a transaction for ticket purchase
             Transaction transaction = transactionService.createTicketPurchaseTransaction(
                     ticketId,
                     userDetails.getId(),
-                    paymentMethod
+                    paymentMethod,
+                    admittedEventId
             );
 
             // Convert to simplified format
@@ -519,6 +539,8 @@ public class TransactionController {
             response.put("type", transaction.getType());
             response.put("paymentIntentId", transaction.getPaymentIntentId());
             response.put("transactionDate", transaction.getTransactionDate());
+            seatHoldService.getTicketHoldExpiry(ticketId)
+                    .ifPresent(expiresAt -> response.put("holdExpiresAt", expiresAt));
 
             // Add ticket info
             if (transaction.getTicket() != null) {
@@ -541,6 +563,12 @@ public class TransactionController {
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Invalid ticket ID format"));
+        } catch (AdmissionRequiredException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (TicketUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
@@ -549,6 +577,7 @@ public class TransactionController {
 
     @PostMapping("/purchase-listing")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Idempotent
     public ResponseEntity<?> createListingPurchaseTransaction(@Valid @RequestBody Map<String, Object> requestData) {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
@@ -573,6 +602,8 @@ public class TransactionController {
             response.put("type", transaction.getType());
             response.put("paymentIntentId", transaction.getPaymentIntentId());
             response.put("transactionDate", transaction.getTransactionDate());
+            seatHoldService.getListingHoldExpiry(listingId)
+                    .ifPresent(expiresAt -> response.put("holdExpiresAt", expiresAt));
 
             // Add buyer info
             if (transaction.getBuyer() != null) {
@@ -625,9 +656,60 @@ public class TransactionController {
         } catch (NumberFormatException e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", "Invalid listing ID format"));
+        } catch (TicketUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> toMap(Transaction transaction) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", transaction.getId());
+        map.put("transactionNumber", transaction.getTransactionNumber());
+        map.put("amount", transaction.getAmount());
+        map.put("transactionDate", transaction.getTransactionDate());
+        map.put("type", transaction.getType());
+        map.put("status", transaction.getStatus());
+        map.put("paymentIntentId", transaction.getPaymentIntentId());
+
+        // Add simplified buyer info
+        if (transaction.getBuyer() != null) {
+            Map<String, Object> buyerMap = new HashMap<>();
+            buyerMap.put("id", transaction.getBuyer().getId());
+            buyerMap.put("firstName", transaction.getBuyer().getFirstName());
+            buyerMap.put("lastName", transaction.getBuyer().getLastName());
+            map.put("buyer", buyerMap);
+        }
+
+        // Add simplified seller info
+        if (transaction.getSeller() != null) {
+            Map<String, Object> sellerMap = new HashMap<>();
+            sellerMap.put("id", transaction.getSeller().getId());
+            sellerMap.put("firstName", transaction.getSeller().getFirstName());
+            sellerMap.put("lastName", transaction.getSeller().getLastName());
+            map.put("seller", sellerMap);
+        }
+
+        // Add simplified ticket info
+        if (transaction.getTicket() != null) {
+            Map<String, Object> ticketMap = new HashMap<>();
+            ticketMap.put("id", transaction.getTicket().getId());
+            ticketMap.put("ticketNumber", transaction.getTicket().getTicketNumber());
+
+            // Add simplified event info
+            if (transaction.getTicket().getEvent() != null) {
+                Map<String, Object> eventMap = new HashMap<>();
+                eventMap.put("id", transaction.getTicket().getEvent().getId());
+                eventMap.put("name", transaction.getTicket().getEvent().getName());
+                ticketMap.put("event", eventMap);
+            }
+
+            map.put("ticket", ticketMap);
+        }
+
+        return map;
+    }
+}
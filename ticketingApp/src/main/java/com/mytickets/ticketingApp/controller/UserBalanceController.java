@@ -46,28 +46,28 @@ public class UserBalanceController {
 
         // Convert to simplified format to avoid JSON serialization issues
         List<Map<String, Object>> simplifiedTransactions = transactions.stream()
-                .map(transaction -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", transaction.getId());
-                    map.put("amount", transaction.getAmount());
-                    map.put("type", transaction.getType().toString());
-                    map.put("description", transaction.getDescription());
-                    map.put("transactionDate", transaction.getTransactionDate());
-                    map.put("referenceType", transaction.getReferenceType());
-                    map.put("referenceId", transaction.getReferenceId());
-
-                    // Don't include the full user object to avoid circular references
-                    if (transaction.getUser() != null) {
-                        map.put("userId", transaction.getUser().getId());
-                    }
-
-                    return map;
-                })
+                .map(this::toMap)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(simplifiedTransactions);
     }
 
+    @GetMapping("/history/scroll")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> scrollBalanceHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        try {
+            return ResponseEntity.ok(userBalanceService.scrollBalanceHistory(userDetails.getId(), cursor, size)
+                    .map(this::toMap));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/use")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> useBalance(
@@ -115,4 +115,22 @@ public class UserBalanceController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> toMap(BalanceTransaction transaction) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", transaction.getId());
+        map.put("amount", transaction.getAmount());
+        map.put("type", transaction.getType().toString());
+        map.put("description", transaction.getDescription());
+        map.put("transactionDate", transaction.getTransactionDate());
+        map.put("referenceType", transaction.getReferenceType());
+        map.put("referenceId", transaction.getReferenceId());
+
+        // Don't include the full user object to avoid circular references
+        if (transaction.getUser() != null) {
+            map.put("userId", transaction.getUser().getId());
+        }
+
+        return map;
+    }
+}
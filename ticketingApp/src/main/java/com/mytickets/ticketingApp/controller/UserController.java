@@ -36,35 +36,24 @@ public class UserController {
         List<User> users = userService.getAllUsers();
 
         List<Map<String, Object>> simplifiedUsers = users.stream()
-                .map(user -> {
-                    Map<String, Object> userMap = new HashMap<>();
-                    userMap.put("id", user.getId());
-                    userMap.put("email", user.getEmail());
-                    userMap.put("firstName", user.getFirstName());
-                    userMap.put("lastName", user.getLastName());
-                    userMap.put("enabled", user.isEnabled());
-                    userMap.put("provider", user.getProvider());
-
-                    // Add roles as simple strings
-                    List<String> roleNames = user.getRoles().stream()
-                            .map(role -> role.getName().toString())
-                            .collect(Collectors.toList());
-                    userMap.put("roles", roleNames);
-
-                    // Add balance if available
-                    if (user.getUserBalance() != null) {
-                        userMap.put("balance", user.getUserBalance().getBalance());
-                    } else {
-                        userMap.put("balance", 0.0);
-                    }
-
-                    return userMap;
-                })
+                .map(this::toMap)
                 .collect(Collectors.toList());
 
         return new ResponseEntity<>(simplifiedUsers, HttpStatus.OK);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<?> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(userService.scrollUsers(cursor, size).map(this::toMap));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
@@ -178,4 +167,29 @@ public class UserController {
         List<Object> transactions = userService.getUserTransactionHistory(id);
         return new ResponseEntity<>(transactions, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    private Map<String, Object> toMap(User user) {
+        Map<String, Object> userMap = new HashMap<>();
+        userMap.put("id", user.getId());
+        userMap.put("email", user.getEmail());
+        userMap.put("firstName", user.getFirstName());
+        userMap.put("lastName", user.getLastName());
+        userMap.put("enabled", user.isEnabled());
+        userMap.put("provider", user.getProvider());
+
+        // Add roles as simple strings
+        List<String> roleNames = user.getRoles().stream()
+                .map(role -> role.getName().toString())
+                .collect(Collectors.toList());
+        userMap.put("roles", roleNames);
+
+        // Add balance if available
+        if (user.getUserBalance() != null) {
+            userMap.put("balance", user.getUserBalance().getBalance());
+        } else {
+            userMap.put("balance", 0.0);
+        }
+
+        return userMap;
+    }
+}
@@ -1,6 +1,7 @@
 package com.mytickets.ticketingApp.controller;
 
 import com.mytickets.ticketingApp.model.Venue;
+import com.mytickets.ticketingApp.service.VenueGeoSearchService;
 import com.mytickets.ticketingApp.service.VenueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,6 +24,9 @@ public class VenueController {
     @Autowired
     private VenueService venueService;
 
+    @Autowired
+    private VenueGeoSearchService venueGeoSearchService;
+
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<List<Map<String, Object>>> getAllVenues() {
@@ -40,6 +44,8 @@ public class VenueController {
                     map.put("country", venue.getCountry());
                     map.put("capacity", venue.getCapacity());
                     map.put("venueMap", venue.getVenueMap());
+                    map.put("latitude", venue.getLatitude());
+                    map.put("longitude", venue.getLongitude());
                     // Don't include events
                     return map;
                 })
@@ -87,4 +93,30 @@ public class VenueController {
         List<Venue> venues = venueService.searchVenuesByName(name);
         return new ResponseEntity<>(venues, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/near")
+    public ResponseEntity<?> findVenuesNear(@RequestParam double lat,
+                                            @RequestParam double lon,
+                                            @RequestParam(defaultValue = "10") double radiusKm,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return new ResponseEntity<>(venueGeoSearchService.findVenuesNear(lat, lon, radiusKm, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<?> findVenuesWithin(@RequestParam double minLat,
+                                              @RequestParam double minLon,
+                                              @RequestParam double maxLat,
+                                              @RequestParam double maxLon,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return new ResponseEntity<>(venueGeoSearchService.findVenuesWithin(minLat, minLon, maxLat, maxLon, limit),
+                    HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
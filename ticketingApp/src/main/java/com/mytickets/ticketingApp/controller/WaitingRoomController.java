@@ -0,0 +1,77 @@
+package com.mytickets.ticketingApp.controller;
+
+import com.mytickets.ticketingApp.payload.response.QueueStatusResponse;
+import com.mytickets.ticketingApp.security.services.UserDetailsImpl;
+import com.mytickets.ticketingApp.service.WaitingRoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/waiting-room")
+public class WaitingRoomController {
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @PostMapping("/events/{eventId}/join")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<QueueStatusResponse> joinQueue(@PathVariable Long eventId) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+
+        return new ResponseEntity<>(waitingRoomService.join(eventId, userDetails.getId()), HttpStatus.OK);
+    }
+
+    // Public and database-free: the queue token alone identifies the buyer and their position
+    @GetMapping("/status")
+    public ResponseEntity<?> getQueueStatus(@RequestHeader("X-Queue-Token") String queueToken) {
+        try {
+            QueueStatusResponse status = waitingRoomService.getStatus(queueToken);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .header("Retry-After", String.valueOf(status.getPollAfterSeconds()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getRooms() {
+        return new ResponseEntity<>(waitingRoomService.getRooms(), HttpStatus.OK);
+    }
+
+    @PostMapping("/events/{eventId}/open")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> openRoom(@PathVariable Long eventId, @RequestParam int admitPerSecond) {
+        try {
+            waitingRoomService.openRoom(eventId, admitPerSecond);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("eventId", eventId);
+            response.put("admitPerSecond", admitPerSecond);
+            response.put("open", true);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/events/{eventId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HttpStatus> closeRoom(@PathVariable Long eventId) {
+        waitingRoomService.closeRoom(eventId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
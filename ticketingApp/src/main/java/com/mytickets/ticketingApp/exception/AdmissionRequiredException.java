@@ -0,0 +1,18 @@
+package com.mytickets.ticketingApp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a purchase for an event with an open waiting room arrives without a valid admission pass.
+ * Expected in volume during on-sales, so no stack trace is captured.
+ */
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class AdmissionRequiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmissionRequiredException(String message) {
+        super(message, null, false, false);
+    }
+}
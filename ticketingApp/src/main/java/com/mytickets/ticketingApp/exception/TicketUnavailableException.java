@@ -0,0 +1,22 @@
+package com.mytickets.ticketingApp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a buyer loses the race for a ticket that another buyer has already claimed.
+ * This is an expected outcome during busy on-sales, so no stack trace is captured.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class TicketUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TicketUnavailableException(String message) {
+        super(message, null, false, false);
+    }
+
+    public TicketUnavailableException(Long ticketId) {
+        this("Ticket " + ticketId + " is sold out");
+    }
+}
@@ -0,0 +1,18 @@
+package com.mytickets.ticketingApp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a client opens more availability streams than one client is allowed to hold.
+ * Expected whenever a misbehaving page reconnects in a loop, so no stack trace is captured.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyStreamsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyStreamsException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -33,6 +33,13 @@ public interface TicketMapper {
     @Mapping(target = "status", source = "status")
     @Mapping(target = "venueName", source = "venue.name")
     @Mapping(target = "venueCity", source = "venue.city")
+    @Mapping(target = "description", ignore = true)
+    @Mapping(target = "totalTickets", ignore = true)
+    @Mapping(target = "availableTickets", ignore = true)
+    @Mapping(target = "venue", ignore = true)
+    @Mapping(target = "creator", ignore = true)
+    @Mapping(target = "fromPrice", ignore = true)
+    @Mapping(target = "distanceKm", ignore = true)
     EventSummaryResponse eventToSummary(Event event);
 
     default String getOwnerName(Ticket ticket) {
@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = @Index(name = "idx_audit_logs_timestamp_id", columnList = "timestamp, id"))
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
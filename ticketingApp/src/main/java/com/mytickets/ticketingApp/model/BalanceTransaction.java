@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "balance_transactions")
+@Table(name = "balance_transactions",
+        indexes = @Index(name = "idx_balance_transactions_user_date_id", columnList = "user_id, transaction_date, id"))
 public class BalanceTransaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,12 +16,19 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_date_id", columnList = "event_date, id"),
+        @Index(name = "idx_events_venue_date", columnList = "venue_id, event_date")
+})
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @NotBlank
     private String name;
 
@@ -163,4 +170,12 @@ public class Event {
     public void setPricingTiers(List<PricingTier> pricingTiers) {
         this.pricingTiers = pricingTiers;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -17,6 +17,10 @@ public class PricingTier {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @NotBlank
     private String name; // VIP, Standard, Economy, etc.
 
@@ -99,5 +103,11 @@ public class PricingTier {
         this.event = event;
     }
 
+    public Long getVersion() {
+        return version;
+    }
 
-}
\ No newline at end of file
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
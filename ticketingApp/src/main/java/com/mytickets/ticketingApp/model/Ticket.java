@@ -19,6 +19,11 @@ public class Ticket {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Default lets the column be added to tables that already hold rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(unique = true, nullable = false)
     private String ticketNumber = UUID.randomUUID().toString();
 
@@ -44,6 +49,10 @@ public class Ticket {
     @Column(columnDefinition = "TEXT")
     private String qrCodeUrl;
 
+    // Signed into the ticket's QR token and bumped on resale, so the previous owner's code stops scanning
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private Integer qrGeneration = 0;
+
     @ManyToOne
     @JoinColumn(name = "event_id", nullable = false)
     private Event event;
@@ -178,4 +187,20 @@ public class Ticket {
     public void setListing(TicketListing listing) {
         this.listing = listing;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getQrGeneration() {
+        return qrGeneration;
+    }
+
+    public void setQrGeneration(Integer qrGeneration) {
+        this.qrGeneration = qrGeneration;
+    }
+}
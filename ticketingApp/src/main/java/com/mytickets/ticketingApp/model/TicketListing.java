@@ -12,12 +12,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "ticket_listings")
+@Table(name = "ticket_listings", indexes = @Index(name = "idx_ticket_listings_status_id", columnList = "status, id"))
 public class TicketListing {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @NotNull
     private Double askingPrice;
 
@@ -101,4 +105,12 @@ public class TicketListing {
     public void setSeller(User seller) {
         this.seller = seller;
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
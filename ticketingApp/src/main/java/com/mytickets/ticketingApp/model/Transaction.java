@@ -13,7 +13,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_date_id", columnList = "transaction_date, id"))
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
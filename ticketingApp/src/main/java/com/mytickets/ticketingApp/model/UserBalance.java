@@ -16,6 +16,10 @@ public class UserBalance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToOne
     @JoinColumn(name = "user_id", unique = true)
     private User user;
@@ -63,6 +67,11 @@ public class UserBalance {
         this.lastUpdated = lastUpdated;
     }
 
+    public Long getVersion() {
+        return version;
+    }
 
-
-}
\ No newline at end of file
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -2,6 +2,8 @@ package com.mytickets.ticketingApp.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -38,6 +40,15 @@ public class Venue {
 
     private String venueMap; // URL to venue map image
 
+    // Optional; venues without both are left out of proximity search
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
     @OneToMany(mappedBy = "venue")
     @JsonIgnoreProperties("venue")
     private List<Event> events = new ArrayList<>();
@@ -74,6 +85,14 @@ public class Venue {
         return venueMap;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
     public List<Event> getEvents() {
         return events;
     }
@@ -110,6 +129,14 @@ public class Venue {
         this.venueMap = venueMap;
     }
 
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public void setEvents(List<Event> events) {
         this.events = events;
     }
@@ -0,0 +1,30 @@
+package com.mytickets.ticketingApp.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whether an event is selling through a waiting room, shared by every node. Queue positions are
+ * not stored here; they live in memory and in the buyers' queue tokens.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "waiting_rooms")
+public class WaitingRoomState {
+    @Id
+    private Long eventId;
+
+    @Column(name = "is_open", nullable = false)
+    private boolean open;
+
+    @Column(nullable = false)
+    private int admitPerSecond;
+
+    // Epoch millis of the opening; tells an on-sale apart from an earlier one of the same event
+    @Column(nullable = false)
+    private long openedAt;
+}
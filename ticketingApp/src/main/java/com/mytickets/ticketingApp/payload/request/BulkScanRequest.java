@@ -0,0 +1,15 @@
+package com.mytickets.ticketingApp.payload.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkScanRequest {
+    // Ticket numbers or QR contents, in the order they were scanned
+    @NotEmpty(message = "At least one scan is required")
+    @Size(max = 500, message = "At most 500 scans can be sent at once")
+    private List<String> codes;
+}
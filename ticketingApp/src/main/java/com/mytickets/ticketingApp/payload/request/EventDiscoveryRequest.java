@@ -0,0 +1,31 @@
+package com.mytickets.ticketingApp.payload.request;
+
+import com.mytickets.ticketingApp.model.EventStatus;
+import com.mytickets.ticketingApp.model.EventType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class EventDiscoveryRequest {
+    // Each list matches any of its values; empty lists do not filter
+    private List<String> cities;
+    private List<EventType> types;
+    private List<EventStatus> statuses;
+
+    // Defaults to now, so past events only show when asked for
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    // Compared with the lowest tier price still on sale
+    private Double minPrice;
+    private Double maxPrice;
+
+    private boolean availableOnly;
+
+    // date, price, -date or -price
+    private String sort;
+    private int page;
+    private int size = 20;
+}
@@ -0,0 +1,18 @@
+package com.mytickets.ticketingApp.payload.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SeatAllocationRequest {
+    @NotNull(message = "Pricing tier is required")
+    private Long pricingTierId;
+
+    // Leave empty to take the best block in any section of the tier
+    private String section;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "At least one seat is required")
+    private Integer quantity;
+}
@@ -0,0 +1,16 @@
+package com.mytickets.ticketingApp.payload.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SeatReleaseRequest {
+    @NotNull(message = "Pricing tier is required")
+    private Long pricingTierId;
+
+    @NotEmpty(message = "At least one ticket is required")
+    private List<Long> ticketIds;
+}
@@ -0,0 +1,43 @@
+package com.mytickets.ticketingApp.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TicketImportRequest {
+    @NotNull(message = "Event ID is required")
+    private Long eventId;
+
+    @NotNull(message = "Pricing tier ID is required")
+    private Long pricingTierId;
+
+    // Seated sections, expanded row by row into one ticket per seat
+    @Valid
+    private List<SectionLayout> sections;
+
+    // General admission tickets without a seat, added after any seated sections
+    @PositiveOrZero(message = "Quantity cannot be negative")
+    private Integer quantity;
+
+    private boolean generateQrCodes;
+
+    @Data
+    public static class SectionLayout {
+        @NotBlank(message = "Section is required")
+        private String section;
+
+        @NotNull(message = "Row count is required")
+        @Positive(message = "Row count must be a positive number")
+        private Integer rows;
+
+        @NotNull(message = "Seats per row is required")
+        @Positive(message = "Seats per row must be a positive number")
+        private Integer seatsPerRow;
+    }
+}
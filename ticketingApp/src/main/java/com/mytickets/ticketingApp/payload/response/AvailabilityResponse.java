@@ -0,0 +1,18 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResponse {
+    private Long eventId;
+    // Primary tickets still on sale
+    private long availableTickets;
+    // Active resale listings
+    private int listingCount;
+    // Lowest resale asking price; null when nothing is listed
+    private Double cheapestListingPrice;
+}
@@ -0,0 +1,13 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkScanResponse {
+    private Long eventId;
+    private int admitted;
+    private int rejected;
+    private List<ScanResponse> results;
+}
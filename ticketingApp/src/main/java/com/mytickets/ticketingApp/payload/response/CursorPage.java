@@ -0,0 +1,55 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import com.mytickets.ticketingApp.util.KeysetCursor;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paged list. Pass {@code nextCursor} back to get the page after it; it is
+ * null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    /**
+     * @return Limit to query with: the page size clamped to 1..MAX_SIZE, plus one row that is only
+     * fetched to tell whether another page follows
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SIZE)) + 1);
+    }
+
+    /**
+     * @param rows Rows fetched with {@link #limit(int)}
+     * @param cursorOf Cursor pointing at a row
+     */
+    public static <T> CursorPage<T> of(List<T> rows, Pageable limit, Function<T, KeysetCursor> cursorOf) {
+        int size = limit.getPageSize() - 1;
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(List.copyOf(items), cursorOf.apply(items.get(size - 1)).encode(), true);
+    }
+
+    /**
+     * @return The same page with each item converted, for controllers that reshape entities
+     */
+    public <R> CursorPage<R> map(Function<T, R> converter) {
+        return new CursorPage<>(items.stream().map(converter).collect(Collectors.toList()), nextCursor, hasMore);
+    }
+}
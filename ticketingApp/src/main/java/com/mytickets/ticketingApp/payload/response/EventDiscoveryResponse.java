@@ -0,0 +1,20 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDiscoveryResponse {
+    private List<EventSummaryResponse> events;
+    private int total;
+    private int page;
+    private int size;
+    // city, type, status and available, each mapping a value to the events it would match
+    private Map<String, Map<String, Integer>> facets;
+}
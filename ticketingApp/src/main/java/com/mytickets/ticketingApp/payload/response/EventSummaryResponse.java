@@ -1,12 +1,16 @@
 package com.mytickets.ticketingApp.payload.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.mytickets.ticketingApp.model.EventStatus;
 import com.mytickets.ticketingApp.model.EventType;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class EventSummaryResponse {
     private Long id;
     private String name;
@@ -16,4 +20,78 @@ public class EventSummaryResponse {
     private EventStatus status;
     private String venueName;
     private String venueCity;
-}
\ No newline at end of file
+
+    // Filled by the event listing queries; left out of ticket responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String description;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalTickets;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer availableTickets;
+    // Lowest tier price still on sale; filled by event discovery only
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double fromPrice;
+    // Distance of the venue from the searched point; filled by nearby event search only
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private VenueSummary venue;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CreatorSummary creator;
+
+    /**
+     * Constructor expression used by the EventRepository summary queries, one row per event.
+     */
+    public EventSummaryResponse(Long id, String name, String description, LocalDateTime eventDate, String imageUrl,
+                                Integer totalTickets, Integer availableTickets, EventType eventType, EventStatus status,
+                                Long venueId, String venueName, String venueCity, String venueState, String venueCountry) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.eventDate = eventDate;
+        this.imageUrl = imageUrl;
+        this.totalTickets = totalTickets;
+        this.availableTickets = availableTickets;
+        this.eventType = eventType;
+        this.status = status;
+        this.venueName = venueName;
+        this.venueCity = venueCity;
+        if (venueId != null) {
+            this.venue = new VenueSummary(venueId, venueName, venueCity, venueState, venueCountry);
+        }
+    }
+
+    /**
+     * As above, with the creator's name for the full event listing.
+     */
+    public EventSummaryResponse(Long id, String name, String description, LocalDateTime eventDate, String imageUrl,
+                                Integer totalTickets, Integer availableTickets, EventType eventType, EventStatus status,
+                                Long venueId, String venueName, String venueCity, String venueState, String venueCountry,
+                                Long creatorId, String creatorFirstName, String creatorLastName) {
+        this(id, name, description, eventDate, imageUrl, totalTickets, availableTickets, eventType, status,
+                venueId, venueName, venueCity, venueState, venueCountry);
+        if (creatorId != null) {
+            this.creator = new CreatorSummary(creatorId, creatorFirstName, creatorLastName);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VenueSummary {
+        private Long id;
+        private String name;
+        private String city;
+        private String state;
+        private String country;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreatorSummary {
+        private Long id;
+        private String firstName;
+        private String lastName;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import com.mytickets.ticketingApp.model.TicketListing;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An active resale listing with the ticket and seller details the listing pages show, as held in
+ * the resale order books.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingSummaryResponse {
+    private Long id;
+    private Long eventId;
+    private Double askingPrice;
+    private String description;
+    private LocalDateTime listingDate;
+    private Long ticketId;
+    private String ticketNumber;
+    private Double originalPrice;
+    private String section;
+    private String row;
+    private String seat;
+    private Long sellerId;
+    private String sellerFirstName;
+    private String sellerLastName;
+
+    public static ListingSummaryResponse of(TicketListing listing) {
+        ListingSummaryResponse summary = new ListingSummaryResponse();
+        summary.setId(listing.getId());
+        summary.setAskingPrice(listing.getAskingPrice());
+        summary.setDescription(listing.getDescription());
+        summary.setListingDate(listing.getListingDate());
+        if (listing.getTicket() != null) {
+            summary.setTicketId(listing.getTicket().getId());
+            summary.setTicketNumber(listing.getTicket().getTicketNumber());
+            summary.setOriginalPrice(listing.getTicket().getOriginalPrice());
+            summary.setSection(listing.getTicket().getSection());
+            summary.setRow(listing.getTicket().getRow());
+            summary.setSeat(listing.getTicket().getSeat());
+            if (listing.getTicket().getEvent() != null) {
+                summary.setEventId(listing.getTicket().getEvent().getId());
+            }
+        }
+        if (listing.getSeller() != null) {
+            summary.setSellerId(listing.getSeller().getId());
+            summary.setSellerFirstName(listing.getSeller().getFirstName());
+            summary.setSellerLastName(listing.getSeller().getLastName());
+        }
+        return summary;
+    }
+}
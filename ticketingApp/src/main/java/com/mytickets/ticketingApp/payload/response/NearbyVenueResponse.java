@@ -0,0 +1,32 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyVenueResponse {
+    private Long id;
+    private String name;
+    private String city;
+    private String state;
+    private String country;
+    private Double latitude;
+    private Double longitude;
+    // From the searched point, or from the centre of the searched box
+    private Double distanceKm;
+
+    /**
+     * Constructor expression used by VenueRepository.findLocatedVenues, one row per venue.
+     */
+    public NearbyVenueResponse(Long id, String name, String city, String state, String country,
+                               Double latitude, Double longitude) {
+        this(id, name, city, state, country, latitude, longitude, null);
+    }
+
+    public NearbyVenueResponse withDistance(double distanceKm) {
+        return new NearbyVenueResponse(id, name, city, state, country, latitude, longitude, distanceKm);
+    }
+}
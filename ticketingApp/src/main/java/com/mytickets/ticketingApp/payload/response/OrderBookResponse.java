@@ -0,0 +1,23 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import com.mytickets.ticketingApp.util.ListingOrderBook;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBookResponse {
+    private Long eventId;
+    // Active listings, including any held in a buyer's checkout
+    private int count;
+    // Null when nothing is listed
+    private Double bestPrice;
+    // Cheapest distinct prices and the listings at each
+    private List<ListingOrderBook.Level> depth;
+    // Listings per price bucket, each starting at its price; empty unless a bucket width was asked for
+    private List<ListingOrderBook.Level> histogram;
+}
@@ -0,0 +1,20 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class QueueStatusResponse {
+    private Long eventId;
+    private boolean open;
+    private boolean admitted;
+    private long position;
+    private long admittedUpTo;
+    private long ahead;
+    private long estimatedWaitSeconds;
+    private int pollAfterSeconds;
+    private String queueToken;
+    private String admissionPass;
+    private LocalDateTime passExpiresAt;
+}
@@ -0,0 +1,20 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ScanResponse {
+    private Long eventId;
+    private String ticketNumber;
+    private Long ticketId;
+    // ADMITTED, ALREADY_USED, NOT_VALID, UNKNOWN, EVENT_CANCELLED, or for signed tokens FORGED,
+    // WRONG_EVENT or REVOKED
+    private String outcome;
+    // Seat printed in a signed token, so staff can direct the holder without a lookup
+    private String seat;
+    private boolean admitted;
+    // For a repeated scan, when the ticket was first let in, if known
+    private LocalDateTime firstScannedAt;
+}
@@ -0,0 +1,18 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class SeatAllocationResponse {
+    private Long pricingTierId;
+    private String section;
+    private String row;
+    // Left to right, seats[i] being the seat of ticketIds[i]
+    private List<Long> ticketIds;
+    private List<String> seats;
+    // The seats are held for the buyer until then; checkout must start before it
+    private LocalDateTime holdExpiresAt;
+}
@@ -0,0 +1,25 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    public static final String EVENT = "event";
+    public static final String VENUE = "venue";
+    public static final String CITY = "city";
+
+    // event, venue or city
+    private String type;
+    // Event or venue id; cities have none
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long id;
+    private String text;
+    // Where an event or venue is, or the country of a city
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String detail;
+}
@@ -0,0 +1,23 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TicketImportProgress {
+    private Long eventId;
+    private Long pricingTierId;
+    private int total;
+    private int imported;
+    private int chunks;
+    private long elapsedMs;
+    private double ticketsPerSecond;
+    private boolean done;
+    private String error;
+
+    // Ticket numbers written by the chunk this update reports; handed to in-process callers only
+    @JsonIgnore
+    private List<String> chunkTicketNumbers;
+}
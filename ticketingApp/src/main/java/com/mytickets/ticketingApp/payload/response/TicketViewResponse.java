@@ -0,0 +1,96 @@
+package com.mytickets.ticketingApp.payload.response;
+
+import com.mytickets.ticketingApp.model.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ticket as shown in the ticket lists, with the event, venue, owner and tier names it needs.
+ * Built straight from one query row by the TicketRepository view queries.
+ */
+@Data
+@NoArgsConstructor
+public class TicketViewResponse {
+    private Long id;
+    private String ticketNumber;
+    private Double originalPrice;
+    private Double currentPrice;
+    private String section;
+    private String row;
+    private String seat;
+    private TicketStatus status;
+    private LocalDateTime purchaseDate;
+    private boolean used;
+    private EventView event;
+    private OwnerView owner;
+    private PricingTierView pricingTier;
+
+    public TicketViewResponse(Long id, String ticketNumber, Double originalPrice, Double currentPrice,
+                              String section, String row, String seat, TicketStatus status,
+                              LocalDateTime purchaseDate, Boolean used,
+                              Long eventId, String eventName, LocalDateTime eventDate,
+                              Long venueId, String venueName, String venueCity,
+                              Long ownerId, String ownerFirstName, String ownerLastName,
+                              Long pricingTierId, String pricingTierName, Double pricingTierPrice) {
+        this.id = id;
+        this.ticketNumber = ticketNumber;
+        this.originalPrice = originalPrice;
+        this.currentPrice = currentPrice;
+        this.section = section;
+        this.row = row;
+        this.seat = seat;
+        this.status = status;
+        this.purchaseDate = purchaseDate;
+        this.used = Boolean.TRUE.equals(used);
+        // Placeholder venue as before, so clients can read event.venue.name without a null check
+        this.event = new EventView(eventId, eventName, eventDate, venueId != null
+                ? new VenueView(venueId, venueName, venueCity)
+                : new VenueView(null, "No Venue", ""));
+        if (ownerId != null) {
+            this.owner = new OwnerView(ownerId, ownerFirstName, ownerLastName);
+        }
+        if (pricingTierId != null) {
+            this.pricingTier = new PricingTierView(pricingTierId, pricingTierName, pricingTierPrice);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EventView {
+        private Long id;
+        private String name;
+        private LocalDateTime eventDate;
+        private VenueView venue;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VenueView {
+        private Long id;
+        private String name;
+        private String city;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OwnerView {
+        private Long id;
+        private String firstName;
+        private String lastName;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PricingTierView {
+        private Long id;
+        private String name;
+        private Double price;
+    }
+}
@@ -12,5 +12,7 @@ public class VenueResponse {
     private String country;
     private Integer capacity;
     private String venueMap;
+    private Double latitude;
+    private Double longitude;
     private int eventCount;
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.mytickets.ticketingApp.model.AuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -20,4 +21,11 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
 
     Page<AuditLog> findAll(Pageable pageable);
+
+    // Keyset pages, newest first, read off idx_audit_logs_timestamp_id
+    @Query("SELECT a FROM AuditLog a ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findFirstPage(Pageable limit);
+
+    @Query("SELECT a FROM AuditLog a WHERE (a.timestamp, a.id) < (?1, ?2) ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageBefore(LocalDateTime timestamp, Long id, Pageable limit);
 }
\ No newline at end of file
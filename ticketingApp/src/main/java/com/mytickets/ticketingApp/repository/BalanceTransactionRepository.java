@@ -1,11 +1,23 @@
 package com.mytickets.ticketingApp.repository;
 
 import com.mytickets.ticketingApp.model.BalanceTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BalanceTransactionRepository extends JpaRepository<BalanceTransaction, Long> {
     List<BalanceTransaction> findByUserIdOrderByTransactionDateDesc(Long userId);
+
+    // Keyset pages of one user's history, newest first, read off idx_balance_transactions_user_date_id
+    @Query("SELECT b FROM BalanceTransaction b WHERE b.user.id = ?1 ORDER BY b.transactionDate DESC, b.id DESC")
+    List<BalanceTransaction> findFirstPageByUserId(Long userId, Pageable limit);
+
+    @Query("SELECT b FROM BalanceTransaction b WHERE b.user.id = ?1 AND (b.transactionDate, b.id) < (?2, ?3) " +
+            "ORDER BY b.transactionDate DESC, b.id DESC")
+    List<BalanceTransaction> findPageByUserIdBefore(Long userId, LocalDateTime transactionDate, Long id, Pageable limit);
 }
\ No newline at end of file
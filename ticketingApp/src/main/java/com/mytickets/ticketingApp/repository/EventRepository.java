@@ -4,34 +4,96 @@ import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.EventStatus;
 import com.mytickets.ticketingApp.model.EventType;
 import com.mytickets.ticketingApp.model.User;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByCreator(User creator);
 
-    List<Event> findByEventType(EventType eventType);
+    Page<Event> findAll(Pageable pageable);
 
-    List<Event> findByStatus(EventStatus status);
+    // Listing queries: one row per event with its venue columns, so no entity, venue or creator is loaded
+    String SUMMARY = "SELECT new com.mytickets.ticketingApp.payload.response.EventSummaryResponse(" +
+            "e.id, e.name, e.description, e.eventDate, e.imageUrl, e.totalTickets, e.availableTickets, " +
+            "e.eventType, e.status, v.id, v.name, v.city, v.state, v.country";
 
-    List<Event> findByEventDateAfter(LocalDateTime date);
+    @Query(SUMMARY + ", c.id, c.firstName, c.lastName) FROM Event e LEFT JOIN e.venue v LEFT JOIN e.creator c")
+    List<EventSummaryResponse> findAllSummaries();
 
-    List<Event> findByNameContainingIgnoreCase(String name);
+    @Query(SUMMARY + ", c.id, c.firstName, c.lastName) FROM Event e LEFT JOIN e.venue v LEFT JOIN e.creator c WHERE e.id = ?1")
+    Optional<EventSummaryResponse> findSummaryById(Long id);
 
-    List<Event> findByVenueId(Long venueId);
+    // Without the creator, as the search index serves them
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v")
+    List<EventSummaryResponse> findSearchSummaries();
 
-    @Query("SELECT e FROM Event e WHERE e.eventDate > ?1 AND e.availableTickets > 0")
-    List<Event> findUpcomingEventsWithAvailableTickets(LocalDateTime currentDate);
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE e.id = ?1")
+    Optional<EventSummaryResponse> findSearchSummaryById(Long id);
 
-    @Query("SELECT e FROM Event e JOIN e.venue v WHERE v.city = ?1 AND e.eventDate > ?2")
-    List<Event> findUpcomingEventsByCity(String city, LocalDateTime currentDate);
+    @Query(value = SUMMARY + ") FROM Event e LEFT JOIN e.venue v",
+            countQuery = "SELECT COUNT(e) FROM Event e")
+    Page<EventSummaryResponse> findSummaries(Pageable pageable);
 
-    Page<Event> findAll(Pageable pageable);
-}
\ No newline at end of file
+    // Keyset pages by date for clients that walk the whole catalogue, read off idx_events_date_id
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v ORDER BY e.eventDate, e.id")
+    List<EventSummaryResponse> findFirstSummaryPage(Pageable limit);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE (e.eventDate, e.id) > (?1, ?2) ORDER BY e.eventDate, e.id")
+    List<EventSummaryResponse> findSummaryPageAfter(LocalDateTime eventDate, Long id, Pageable limit);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE e.creator.id = ?1")
+    List<EventSummaryResponse> findSummariesByCreatorId(Long creatorId);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE e.eventType = ?1")
+    List<EventSummaryResponse> findSummariesByEventType(EventType eventType);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE e.status = ?1")
+    List<EventSummaryResponse> findSummariesByStatus(EventStatus status);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE e.eventDate > ?1")
+    List<EventSummaryResponse> findSummariesByEventDateAfter(LocalDateTime date);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE v.id = ?1")
+    List<EventSummaryResponse> findSummariesByVenueId(Long venueId);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v " +
+            "WHERE UPPER(e.name) LIKE UPPER(CONCAT('%', ?#{escape([0])}, '%')) ESCAPE ?#{escapeCharacter()}")
+    List<EventSummaryResponse> findSummariesByNameContaining(String name);
+
+    // Read off idx_events_venue_date
+    @Query(SUMMARY + ") FROM Event e JOIN e.venue v WHERE v.id IN ?1 AND e.eventDate > ?2")
+    List<EventSummaryResponse> findUpcomingSummariesByVenueIds(Collection<Long> venueIds, LocalDateTime currentDate);
+
+    @Query(SUMMARY + ") FROM Event e LEFT JOIN e.venue v WHERE e.eventDate > ?1 AND e.availableTickets > 0")
+    List<EventSummaryResponse> findUpcomingSummariesWithAvailableTickets(LocalDateTime currentDate);
+
+    @Query(SUMMARY + ") FROM Event e JOIN e.venue v WHERE v.city = ?1 AND e.eventDate > ?2")
+    List<EventSummaryResponse> findUpcomingSummariesByCity(String city, LocalDateTime currentDate);
+
+    // Applies a batch of sales in one statement; clamps at zero rather than going negative.
+    // Bumps the version so an edit that read the old count fails instead of writing it back
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.availableTickets = CASE WHEN e.availableTickets > ?2 " +
+            "THEN e.availableTickets - ?2 ELSE 0 END, e.version = e.version + 1 WHERE e.id = ?1")
+    int subtractAvailableTickets(Long eventId, int quantity);
+
+    // Adds freshly imported tickets to both counts without loading the event
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.totalTickets = COALESCE(e.totalTickets, 0) + ?2, " +
+            "e.availableTickets = COALESCE(e.availableTickets, 0) + ?2, e.version = e.version + 1 WHERE e.id = ?1")
+    int addTickets(Long eventId, int quantity);
+
+    @Query("SELECT e.status FROM Event e WHERE e.id = ?1")
+    Optional<EventStatus> findStatusById(Long eventId);
+}
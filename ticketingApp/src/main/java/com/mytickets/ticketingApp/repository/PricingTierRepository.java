@@ -3,6 +3,8 @@ package com.mytickets.ticketingApp.repository;
 import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.PricingTier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +16,23 @@ public interface PricingTierRepository extends JpaRepository<PricingTier, Long>
     List<PricingTier> findByEventId(Long eventId);
 
     List<PricingTier> findByEventAndAvailableGreaterThan(Event event, Integer minAvailable);
-}
\ No newline at end of file
+
+    // Rows of [eventId, lowest price on sale] for the event discovery index
+    @Query("SELECT p.event.id, MIN(p.price) FROM PricingTier p WHERE p.available > 0 GROUP BY p.event.id")
+    List<Object[]> findLowestAvailablePrices();
+
+    @Query("SELECT MIN(p.price) FROM PricingTier p WHERE p.event.id = ?1 AND p.available > 0")
+    Double findLowestAvailablePrice(Long eventId);
+
+    // Same as EventRepository.subtractAvailableTickets
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PricingTier p SET p.available = CASE WHEN p.available > ?2 " +
+            "THEN p.available - ?2 ELSE 0 END, p.version = p.version + 1 WHERE p.id = ?1")
+    int subtractAvailable(Long pricingTierId, int quantity);
+
+    // Same as EventRepository.addTickets
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE PricingTier p SET p.quantity = COALESCE(p.quantity, 0) + ?2, " +
+            "p.available = COALESCE(p.available, 0) + ?2, p.version = p.version + 1 WHERE p.id = ?1")
+    int addTickets(Long pricingTierId, int quantity);
+}
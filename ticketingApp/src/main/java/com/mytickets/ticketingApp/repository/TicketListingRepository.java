@@ -2,6 +2,8 @@
 package com.mytickets.ticketingApp.repository;
 
 import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.ListingSummaryResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -25,6 +27,19 @@ public interface TicketListingRepository extends JpaRepository<TicketListing, Lo
     @Query("SELECT tl FROM TicketListing tl JOIN tl.ticket t JOIN t.event e WHERE e.id = ?1 AND tl.status = 'ACTIVE' ORDER BY tl.askingPrice ASC")
     List<TicketListing> findActiveListingsByEventOrderByPriceAsc(Long eventId);
 
+    // Keyset page of active listings on idx_ticket_listings_status_id, pass 0 for the first page
+    @Query("SELECT tl FROM TicketListing tl JOIN FETCH tl.ticket t JOIN FETCH t.event " +
+            "WHERE tl.status = com.mytickets.ticketingApp.model.ListingStatus.ACTIVE AND tl.id > ?1 ORDER BY tl.id")
+    List<TicketListing> findActivePageAfter(Long afterId, Pageable limit);
+
+    // Every active listing as the resale order books hold it
+    @Query("SELECT new com.mytickets.ticketingApp.payload.response.ListingSummaryResponse(tl.id, e.id, tl.askingPrice, " +
+            "tl.description, tl.listingDate, t.id, t.ticketNumber, t.originalPrice, t.section, t.row, t.seat, " +
+            "s.id, s.firstName, s.lastName) " +
+            "FROM TicketListing tl JOIN tl.ticket t JOIN t.event e LEFT JOIN tl.seller s " +
+            "WHERE tl.status = com.mytickets.ticketingApp.model.ListingStatus.ACTIVE")
+    List<ListingSummaryResponse> findActiveListingSummaries();
+
     @Query("SELECT COUNT(tl) FROM TicketListing tl JOIN tl.ticket t WHERE t.event.id = ?1 AND tl.status = 'ACTIVE'")
     Long countActiveListingsByEvent(Long eventId);
 }
\ No newline at end of file
@@ -4,12 +4,21 @@ import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.Ticket;
 import com.mytickets.ticketingApp.model.TicketStatus;
 import com.mytickets.ticketingApp.model.User;
+import com.mytickets.ticketingApp.payload.response.TicketViewResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
@@ -25,15 +34,128 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
     Optional<Ticket> findByTicketNumber(String ticketNumber);
 
-    @Query("SELECT t FROM Ticket t JOIN t.event e WHERE t.owner.id = ?1 AND e.eventDate > CURRENT_TIMESTAMP ORDER BY e.eventDate")
-    List<Ticket> findUpcomingTicketsByOwner(Long ownerId);
+    List<Ticket> findByTicketNumberIn(Collection<String> ticketNumbers);
 
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.event.id = ?1")
     Long countByEventId(Long eventId);
 
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.event.id = ?1 AND t.status = ?2")
     Long countByEventIdAndStatus(Long eventId, TicketStatus status);
+
+    @Query("SELECT t.owner.id FROM Ticket t WHERE t.id = ?1")
+    Optional<Long> findOwnerIdById(Long ticketId);
     List<Ticket> findByPricingTierIdAndStatus(Long pricingTierId, TicketStatus status);
 
+    // Ticket list views: one row per ticket with everything the list shows, where loading entities
+    // would add selects for each ticket's listing and for every event, venue, owner and tier
+    String VIEW = "SELECT new com.mytickets.ticketingApp.payload.response.TicketViewResponse(" +
+            "t.id, t.ticketNumber, t.originalPrice, t.currentPrice, t.section, t.row, t.seat, t.status, " +
+            "t.purchaseDate, t.isUsed, e.id, e.name, e.eventDate, v.id, v.name, v.city, " +
+            "o.id, o.firstName, o.lastName, p.id, p.name, p.price) " +
+            "FROM Ticket t JOIN t.event e LEFT JOIN e.venue v LEFT JOIN t.owner o LEFT JOIN t.pricingTier p";
+
+    @Query(VIEW + " ORDER BY t.id")
+    List<TicketViewResponse> findAllViews();
+
+    // Keyset page for the admin list: seeks past afterId on the primary key, pass 0 for the first page
+    @Query(VIEW + " WHERE t.id > ?1 ORDER BY t.id")
+    List<TicketViewResponse> findViewsAfter(Long afterId, Pageable limit);
+
+    @Query(VIEW + " WHERE o.id = ?1 ORDER BY t.id")
+    List<TicketViewResponse> findViewsByOwnerId(Long ownerId);
+
+    @Query(VIEW + " WHERE o.id = ?1 AND e.eventDate > CURRENT_TIMESTAMP ORDER BY e.eventDate")
+    List<TicketViewResponse> findUpcomingViewsByOwnerId(Long ownerId);
+
+    @Query(VIEW + " WHERE p.id = ?1 AND t.status = ?2 ORDER BY t.id")
+    List<TicketViewResponse> findViewsByPricingTierIdAndStatus(Long pricingTierId, TicketStatus status);
+
+    Long countByPricingTierIdAndStatus(Long pricingTierId, TicketStatus status);
+
+    // Export rows of [id, ticketNumber, eventId, eventName, eventDate, section, row, seat, status,
+    // originalPrice, currentPrice, purchaseDate, isUsed, ownerId, ownerEmail, pricingTier].
+    // Scalar rows never enter the persistence context, and the fetch size makes the driver read
+    // through a cursor instead of loading the whole result; consume inside a read-only transaction.
+    String EXPORT_FETCH_SIZE = "500";
+    String EXPORT = "SELECT t.id, t.ticketNumber, e.id, e.name, e.eventDate, t.section, t.row, t.seat, t.status, " +
+            "t.originalPrice, t.currentPrice, t.purchaseDate, t.isUsed, o.id, o.email, p.name " +
+            "FROM Ticket t JOIN t.event e LEFT JOIN t.owner o LEFT JOIN t.pricingTier p";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(EXPORT + " ORDER BY t.id")
+    Stream<Object[]> streamExportRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(EXPORT + " WHERE e.id = ?1 ORDER BY t.id")
+    Stream<Object[]> streamExportRowsByEventId(Long eventId);
+
+    // Rows of [eventId, count] used to rebuild in-memory inventory in one pass
+    @Query("SELECT t.event.id, COUNT(t) FROM Ticket t WHERE t.status = ?1 GROUP BY t.event.id")
+    List<Object[]> countByStatusGroupedByEvent(TicketStatus status);
+
+    // Rows of [eventId, pricingTierId, count]
+    @Query("SELECT t.event.id, t.pricingTier.id, COUNT(t) FROM Ticket t " +
+            "WHERE t.status = ?1 AND t.pricingTier IS NOT NULL GROUP BY t.event.id, t.pricingTier.id")
+    List<Object[]> countByStatusGroupedByPricingTier(TicketStatus status);
+
+    // Single conditional update so two concurrent buyers can never both claim the same ticket.
+    // Returns 1 when the caller won the ticket, 0 when it was no longer AVAILABLE. The version is
+    // left alone: the caller's managed copy is updated to match and bumps it when it is flushed.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = ?3, t.owner = ?2, t.purchaseDate = ?4 " +
+            "WHERE t.id = ?1 AND t.status = com.mytickets.ticketingApp.model.TicketStatus.AVAILABLE")
+    int claimAvailableTicket(Long ticketId, User owner, TicketStatus newStatus, LocalDateTime purchaseDate);
+
+    @Query("SELECT t.ticketNumber FROM Ticket t WHERE t.id = ?1")
+    Optional<String> findTicketNumberById(Long ticketId);
+
+    // Rows of [id, section, row, seat, status] for building a pricing tier's seat map
+    @Query("SELECT t.id, t.section, t.row, t.seat, t.status FROM Ticket t WHERE t.pricingTier.id = ?1")
+    List<Object[]> findSeatsByPricingTierId(Long pricingTierId);
+
+    // Rows of [id, eventId, section, row, seat, qrGeneration], what goes into a signed QR token
+    @Query("SELECT t.id, t.event.id, t.section, t.row, t.seat, t.qrGeneration FROM Ticket t WHERE t.id = ?1")
+    List<Object[]> findTokenFieldsById(Long ticketId);
+
+    @Query("SELECT t.id, t.event.id, t.section, t.row, t.seat, t.qrGeneration FROM Ticket t WHERE t.ticketNumber IN ?1")
+    List<Object[]> findTokenFieldsByTicketNumberIn(Collection<String> ticketNumbers);
+
+    // Rows of [id, ticketNumber, qrGeneration] for tickets that changed hands and whose event has not long passed
+    @Query("SELECT t.id, t.ticketNumber, t.qrGeneration FROM Ticket t " +
+            "WHERE t.qrGeneration > 0 AND t.event.eventDate > ?1")
+    List<Object[]> findReissuedQrTokens(LocalDateTime eventsAfter);
+
+    // Keyset scan for rows that still carry a QR code image stored before codes were rendered on demand
+    @Query("SELECT t.id FROM Ticket t WHERE t.id > ?1 AND t.qrCodeUrl IS NOT NULL ORDER BY t.id")
+    List<Long> findIdsWithStoredQrCode(Long afterId, Pageable pageable);
+
+    // Leaves the version alone so clearing a blob never fails a concurrent purchase of the same ticket
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ticket t SET t.qrCodeUrl = NULL WHERE t.id IN ?1")
+    int clearStoredQrCodes(Collection<Long> ticketIds);
+
+    // Rows of [id, ticketNumber, status, isUsed] for building an event's gate index
+    @Query("SELECT t.id, t.ticketNumber, t.status, t.isUsed FROM Ticket t WHERE t.event.id = ?1")
+    List<Object[]> findGateEntriesByEventId(Long eventId);
+
+    // Rows of [ticketNumber, id, eventId, status, isUsed, eventStatus]
+    @Query("SELECT t.ticketNumber, t.id, e.id, t.status, t.isUsed, e.status FROM Ticket t JOIN t.event e " +
+            "WHERE t.ticketNumber IN ?1")
+    List<Object[]> findGateEntriesByTicketNumberIn(Collection<String> ticketNumbers);
+
+    // Same rows as above, for tickets scanned by their signed QR token
+    @Query("SELECT t.ticketNumber, t.id, e.id, t.status, t.isUsed, e.status FROM Ticket t JOIN t.event e " +
+            "WHERE t.id IN ?1")
+    List<Object[]> findGateEntriesByIdIn(Collection<Long> ticketIds);
+
+    // Bumps the version so a purchase or resale holding a stale copy cannot write the flag back to false
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ticket t SET t.isUsed = true, t.version = t.version + 1 WHERE t.id IN ?1 AND t.isUsed = false")
+    int markUsed(Collection<Long> ticketIds);
 
-}
\ No newline at end of file
+    // Single conditional update used to admit a ticket when its event has no gate index loaded
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Ticket t SET t.isUsed = true, t.version = t.version + 1 " +
+            "WHERE t.ticketNumber = ?1 AND t.event.id = ?2 AND t.isUsed = false AND t.status IN ?3")
+    int consumeTicket(String ticketNumber, Long eventId, Collection<TicketStatus> admissibleStatuses);
+}
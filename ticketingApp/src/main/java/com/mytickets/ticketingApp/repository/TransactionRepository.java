@@ -4,13 +4,19 @@ import com.mytickets.ticketingApp.model.Transaction;
 import com.mytickets.ticketingApp.model.TransactionStatus;
 import com.mytickets.ticketingApp.model.TransactionType;
 import com.mytickets.ticketingApp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -30,9 +36,36 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
+    // Keyset pages, newest first, read off idx_transactions_date_id with the id breaking ties.
+    // The list shows buyer, seller, ticket and event, so they come in the same statement.
+    String PAGE = "SELECT t FROM Transaction t LEFT JOIN FETCH t.buyer LEFT JOIN FETCH t.seller " +
+            "LEFT JOIN FETCH t.ticket tk LEFT JOIN FETCH tk.event";
+
+    @Query(PAGE + " ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findFirstPage(Pageable limit);
+
+    @Query(PAGE + " WHERE (t.transactionDate, t.id) < (?1, ?2) ORDER BY t.transactionDate DESC, t.id DESC")
+    List<Transaction> findPageBefore(LocalDateTime transactionDate, Long id, Pageable limit);
+
+    // Export rows of [id, transactionNumber, transactionDate, type, status, amount, paymentIntentId,
+    // buyerId, buyerEmail, sellerId, sellerEmail, ticketId, ticketNumber, eventId, eventName] in date
+    // order along idx_transactions_date_id, read through a cursor like TicketRepository.EXPORT
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TicketRepository.EXPORT_FETCH_SIZE))
+    @Query("SELECT t.id, t.transactionNumber, t.transactionDate, t.type, t.status, t.amount, t.paymentIntentId, " +
+            "b.id, b.email, s.id, s.email, tk.id, tk.ticketNumber, e.id, e.name " +
+            "FROM Transaction t LEFT JOIN t.buyer b LEFT JOIN t.seller s LEFT JOIN t.ticket tk LEFT JOIN tk.event e " +
+            "WHERE t.transactionDate BETWEEN ?1 AND ?2 ORDER BY t.transactionDate, t.id")
+    Stream<Object[]> streamExportRows(LocalDateTime startDate, LocalDateTime endDate);
+
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.seller.id = ?1 AND t.status = 'COMPLETED'")
     Double sumCompletedSalesByUser(Long userId);
 
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.buyer.id = ?1 AND t.status = 'COMPLETED'")
     Double sumCompletedPurchasesByUser(Long userId);
+
+    // Used when checkout holds expire; only touches transactions that are still waiting for payment
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = com.mytickets.ticketingApp.model.TransactionStatus.FAILED " +
+            "WHERE t.id IN ?1 AND t.status = com.mytickets.ticketingApp.model.TransactionStatus.PENDING")
+    int failPendingTransactions(List<Long> transactionIds);
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.mytickets.ticketingApp.repository;
 
 import com.mytickets.ticketingApp.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByEmail(String email);
+
+    // Keyset page on the primary key, pass 0 for the first page
+    @Query("SELECT u FROM User u WHERE u.id > ?1 ORDER BY u.id")
+    List<User> findPageAfter(Long afterId, Pageable limit);
 }
\ No newline at end of file
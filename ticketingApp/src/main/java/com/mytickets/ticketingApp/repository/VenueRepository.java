@@ -1,13 +1,27 @@
 package com.mytickets.ticketingApp.repository;
 
 import com.mytickets.ticketingApp.model.Venue;
+import com.mytickets.ticketingApp.payload.response.NearbyVenueResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VenueRepository extends JpaRepository<Venue, Long> {
     List<Venue> findByCity(String city);
     List<Venue> findByNameContainingIgnoreCase(String name);
+
+    // Venues that can be placed on the map, for the proximity index
+    String LOCATED = "SELECT new com.mytickets.ticketingApp.payload.response.NearbyVenueResponse(" +
+            "v.id, v.name, v.city, v.state, v.country, v.latitude, v.longitude) FROM Venue v " +
+            "WHERE v.latitude IS NOT NULL AND v.longitude IS NOT NULL";
+
+    @Query(LOCATED)
+    List<NearbyVenueResponse> findLocatedVenues();
+
+    @Query(LOCATED + " AND v.id = ?1")
+    Optional<NearbyVenueResponse> findLocatedVenueById(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.mytickets.ticketingApp.repository;
+
+import com.mytickets.ticketingApp.model.WaitingRoomState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WaitingRoomStateRepository extends JpaRepository<WaitingRoomState, Long> {
+}
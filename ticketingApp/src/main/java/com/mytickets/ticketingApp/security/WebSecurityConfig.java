@@ -5,6 +5,7 @@ import com.mytickets.ticketingApp.security.jwt.AuthTokenFilter;
 import com.mytickets.ticketingApp.security.oauth2.CustomOAuth2UserService;
 import com.mytickets.ticketingApp.security.oauth2.OAuth2AuthenticationSuccessHandler;
 import com.mytickets.ticketingApp.security.services.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -67,19 +68,28 @@ public class WebSecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
                         auth
+                                // Completion of a streamed response that was already authorized
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .requestMatchers("/api/auth/**").permitAll()
                                 .requestMatchers("/api/test/**").permitAll()
                                 .requestMatchers("/api/events").permitAll()
                                 .requestMatchers("/api/events/page").permitAll()
                                 .requestMatchers("/api/events/{id}").permitAll()
+                                .requestMatchers("/api/events/{id}/availability").permitAll()
                                 .requestMatchers("/api/events/upcoming").permitAll()
                                 .requestMatchers("/api/events/available").permitAll()
                                 .requestMatchers("/api/events/type/**").permitAll()
                                 .requestMatchers("/api/events/search").permitAll()
+                                .requestMatchers("/api/events/discover").permitAll()
+                                .requestMatchers("/api/events/near").permitAll()
                                 .requestMatchers("/api/venues").permitAll()
                                 .requestMatchers("/api/venues/{id}").permitAll()
                                 .requestMatchers("/api/venues/city/**").permitAll()
                                 .requestMatchers("/api/venues/search").permitAll()
+                                .requestMatchers("/api/venues/near").permitAll()
+                                .requestMatchers("/api/venues/within").permitAll()
+                                .requestMatchers("/api/search/suggest").permitAll()
+                                .requestMatchers("/api/waiting-room/status").permitAll()
                                 .requestMatchers("/v3/api-docs/**").permitAll()
                                 .requestMatchers("/swagger-ui/**").permitAll()
                                 .requestMatchers("/swagger-ui.html").permitAll()
@@ -100,7 +110,8 @@ public class WebSecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key",
+                "X-Queue-Token", "X-Queue-Pass"));
         configuration.setExposedHeaders(List.of("Authorization"));
         configuration.setAllowCredentials(true);
 
@@ -51,6 +51,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Queue status polls arrive in huge volume during on-sales and must not cost a user lookup
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "/api/waiting-room/status".equals(request.getServletPath());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -1,6 +1,7 @@
 package com.mytickets.ticketingApp.service;
 
 import com.mytickets.ticketingApp.model.AuditLog;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -21,4 +22,9 @@ public interface AuditService {
     List<AuditLog> getLogsByDateRange(LocalDateTime start, LocalDateTime end);
 
     Page<AuditLog> getAllLogs(Pageable pageable);
+
+    /**
+     * Newest logs first, a page at a time; pass null for the first page and each page's nextCursor for the next.
+     */
+    CursorPage<AuditLog> scrollLogs(String cursor, int size);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.mytickets.ticketingApp.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface AvailabilityStreamService {
+
+    /**
+     * Open a stream of "availability" events for one event: its current figures straight away,
+     * then new figures whenever they change, at most once per coalescing window.
+     *
+     * @param clientId The signed-in user, or else the client's address, to cap the streams any one client can hold open
+     * @throws com.mytickets.ticketingApp.exception.ResourceNotFoundException If there is no such event
+     * @throws com.mytickets.ticketingApp.exception.TooManyStreamsException If the client already holds as many streams as it may
+     * @throws IllegalStateException If this node already holds as many streams as it allows
+     */
+    SseEmitter subscribe(Long eventId, String clientId);
+
+    /**
+     * Mark the event's availability as changed once the current transaction commits, or right away
+     * when there is none. Changes within one window go out as a single update.
+     */
+    void availabilityChanged(Long eventId);
+
+    int getSubscriberCount();
+}
@@ -0,0 +1,54 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.payload.request.EventDiscoveryRequest;
+import com.mytickets.ticketingApp.payload.response.EventDiscoveryResponse;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.SuggestionResponse;
+
+import java.util.List;
+
+public interface CatalogSearchService {
+
+    /**
+     * Ranked search over event name, description, venue name and city. Words still being typed
+     * match as prefixes.
+     *
+     * @param limit Clamped to between 1 and 100
+     * @return Best matches first
+     */
+    List<EventSummaryResponse> searchEvents(String query, int limit);
+
+    /**
+     * Filter by any mix of city, type, status, date range, price range and availability, and
+     * count each facet's values under the other filters.
+     *
+     * @throws IllegalArgumentException If the sort is not supported
+     */
+    EventDiscoveryResponse discoverEvents(EventDiscoveryRequest request);
+
+    /**
+     * Completions for a search box over the names of upcoming events, venues and cities, most
+     * popular first: events by tickets sold and how soon they start, venues and cities by the
+     * events they hold.
+     *
+     * @param limit Clamped to between 1 and 10
+     */
+    List<SuggestionResponse> suggest(String prefix, int limit);
+
+    /**
+     * Re-index one event once the current transaction commits, or right away when there is none.
+     * Also called when one of its pricing tiers changed.
+     */
+    void eventChanged(Long eventId);
+
+    /**
+     * Drop one event from the index once the current transaction commits.
+     */
+    void eventRemoved(Long eventId);
+
+    /**
+     * Re-index the events held at a venue once the current transaction commits, after it was
+     * renamed or moved.
+     */
+    void venueChanged(Long venueId);
+}
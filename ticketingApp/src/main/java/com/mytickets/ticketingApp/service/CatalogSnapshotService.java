@@ -0,0 +1,65 @@
+package com.mytickets.ticketingApp.service;
+
+public interface CatalogSnapshotService {
+
+    /**
+     * The public event listings served from the snapshot.
+     */
+    enum Listing {
+        // Every event, with its creator, as EventService.getAllEvents returns them
+        ALL,
+        // Events that have not started yet, soonest first
+        UPCOMING,
+        // Upcoming events that still have tickets
+        AVAILABLE
+    }
+
+    /**
+     * @return The listing as already-encoded JSON, re-encoded only when an event in it changed
+     */
+    Snapshot get(Listing listing);
+
+    /**
+     * Reload one event into the snapshot once the current transaction commits, or right away
+     * when there is none.
+     */
+    void eventChanged(Long eventId);
+
+    /**
+     * Drop one event from the snapshot once the current transaction commits.
+     */
+    void eventRemoved(Long eventId);
+
+    /**
+     * One encoded listing. Each encoding has its own strong ETag, as the two bodies differ byte for byte.
+     */
+    final class Snapshot {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String eTag;
+        private final String gzipETag;
+
+        public Snapshot(byte[] json, byte[] gzip, String eTag, String gzipETag) {
+            this.json = json;
+            this.gzip = gzip;
+            this.eTag = eTag;
+            this.gzipETag = gzipETag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public String getGzipETag() {
+            return gzipETag;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.mytickets.ticketingApp.service;
 import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.EventStatus;
 import com.mytickets.ticketingApp.model.EventType;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -10,18 +12,23 @@ import java.util.List;
 import java.util.Optional;
 
 public interface EventService {
-    List<Event> getAllEvents();
-    Page<Event> getEventsPage(Pageable pageable);
+    List<EventSummaryResponse> getAllEvents();
+    Page<EventSummaryResponse> getEventsPage(Pageable pageable);
+
+    /**
+     * Events by date, a page at a time, without the count and OFFSET scan of {@link #getEventsPage}.
+     */
+    CursorPage<EventSummaryResponse> scrollEvents(String cursor, int size);
     Optional<Event> getEventById(Long id);
     Event createEvent(Event event, Long creatorId);
     Event updateEvent(Long id, Event event);
     void deleteEvent(Long id);
-    List<Event> findEventsByCreator(Long creatorId);
-    List<Event> findEventsByType(EventType eventType);
-    List<Event> findEventsByStatus(EventStatus status);
-    List<Event> findUpcomingEvents();
-    List<Event> findEventsByVenue(Long venueId);
-    List<Event> searchEventsByName(String name);
-    List<Event> findUpcomingEventsWithAvailableTickets();
-    List<Event> findUpcomingEventsByCity(String city);
+    List<EventSummaryResponse> findEventsByCreator(Long creatorId);
+    List<EventSummaryResponse> findEventsByType(EventType eventType);
+    List<EventSummaryResponse> findEventsByStatus(EventStatus status);
+    List<EventSummaryResponse> findUpcomingEvents();
+    List<EventSummaryResponse> findEventsByVenue(Long venueId);
+    List<EventSummaryResponse> searchEventsByName(String name);
+    List<EventSummaryResponse> findUpcomingEventsWithAvailableTickets();
+    List<EventSummaryResponse> findUpcomingEventsByCity(String city);
 }
\ No newline at end of file
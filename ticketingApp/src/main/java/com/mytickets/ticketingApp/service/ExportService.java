@@ -0,0 +1,31 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.util.ExportWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface ExportService {
+
+    /**
+     * Resolve the format an export endpoint was asked for, by name or file extension.
+     * @throws com.mytickets.ticketingApp.exception.TicketingAppException If the format is not supported
+     */
+    ExportWriter.Format parseFormat(String format);
+
+    /**
+     * Write tickets to {@code out} as they are read from the database, so memory use does not grow
+     * with the number of rows. {@code out} is flushed as the export goes but not closed.
+     * @param eventId Only this event's tickets, or every ticket when null
+     * @return Rows written
+     */
+    long exportTickets(Long eventId, ExportWriter.Format format, OutputStream out) throws IOException;
+
+    /**
+     * Write the transactions made between the two dates, oldest first, the same way as {@link #exportTickets}.
+     * @return Rows written
+     */
+    long exportTransactions(LocalDateTime startDate, LocalDateTime endDate, ExportWriter.Format format,
+                            OutputStream out) throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.payload.response.ScanResponse;
+
+import java.util.List;
+import java.util.Map;
+
+public interface GateScanService {
+
+    /**
+     * Load an event's tickets into an in-memory validity index so scans no longer query the
+     * database. Opening an event that is already open reloads its index.
+     * @return The status of the event's gates
+     */
+    Map<String, Object> openDoors(Long eventId);
+
+    /**
+     * Write outstanding used flags and drop the event's index.
+     */
+    void closeDoors(Long eventId);
+
+    /**
+     * Validate a scanned ticket and mark it used in one step. Of several scans of the same ticket
+     * exactly one is admitted; the used flag reaches the database with the next flush.
+     * @param scannedCode The ticket number, or the content of its QR code
+     */
+    ScanResponse scan(Long eventId, String scannedCode);
+
+    /**
+     * Scan many tickets in one call, as a scanner that buffered scans on a poor connection sends
+     * them. Each ticket is validated and consumed on its own, in the given order, so a ticket that
+     * appears twice is admitted once.
+     * @return One verdict per scanned code, in the order of {@code scannedCodes}
+     */
+    List<ScanResponse> scanBatch(Long eventId, List<String> scannedCodes);
+
+    /**
+     * Keep an open index in step with a ticket marked used outside the gates.
+     */
+    void recordUsed(Long eventId, String ticketNumber);
+
+    /**
+     * Write used flags of admitted tickets to the database. If the write fails the flags stay
+     * queued for the next run.
+     * @return Number of tickets written
+     */
+    int flush();
+
+    List<Map<String, Object>> getOpenGates();
+}
@@ -0,0 +1,46 @@
+package com.mytickets.ticketingApp.service;
+
+import java.util.List;
+import java.util.Map;
+
+public interface InventoryService {
+
+    /**
+     * Reserve one unit of event (and pricing tier) inventory in memory without touching the database.
+     * Inside a transaction the unit is handed back on rollback and queued for the next flush on commit.
+     * @param eventId The event being sold
+     * @param pricingTierId The tier being sold, or null when the ticket has none
+     * @return true if a unit was reserved, false if the event or tier is sold out
+     */
+    boolean reserve(Long eventId, Long pricingTierId);
+
+    /**
+     * Cheap in-memory availability check for an event and, optionally, one of its pricing tiers.
+     * Seats held for a checkout still count: the ticket stays AVAILABLE until payment completes
+     * and goes back on sale if the hold lapses, so callers selling a specific seat must also check
+     * {@link SeatHoldService#isTicketHeldByOther}, as TicketServiceImpl.claimTicket does.
+     */
+    boolean isAvailable(Long eventId, Long pricingTierId);
+
+    long getAvailableTickets(Long eventId);
+
+    long getAvailableInTier(Long eventId, Long pricingTierId);
+
+    /**
+     * Drop the cached counters for an event once the current transaction commits,
+     * so the next read reloads them from the tickets table.
+     */
+    void refresh(Long eventId);
+
+    /**
+     * Write sold units accumulated since the last flush back to Event.availableTickets and PricingTier.available.
+     * @return Number of units written
+     */
+    int flush();
+
+    void rebuild();
+
+    Map<String, Object> getDrift(Long eventId);
+
+    List<Map<String, Object>> getDriftReport();
+}
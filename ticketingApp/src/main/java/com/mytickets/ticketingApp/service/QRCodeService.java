@@ -3,6 +3,8 @@ package com.mytickets.ticketingApp.service;
 import com.google.zxing.WriterException;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface QRCodeService {
     String generateQRCodeAsBase64(String content, int width, int height);
@@ -12,4 +14,29 @@ public interface QRCodeService {
     String readQRCode(BufferedImage image);
 
     byte[] generateQRCodeBytes(String content, int width, int height);
-}
\ No newline at end of file
+
+    /**
+     * Clamp a requested ticket QR code size to the supported range.
+     * @param requestedSize Edge length in pixels, or null for the configured default
+     */
+    int normalizeTicketQRCodeSize(Integer requestedSize);
+
+    /**
+     * PNG of a ticket's QR code, rendered from its signed token on first use and then served
+     * from a cache bounded by total encoded bytes. A resold ticket gets a new token and so a new
+     * cache entry; the old one ages out.
+     */
+    byte[] getTicketQRCodePng(String token, int size);
+
+    /**
+     * Strong ETag for {@link #getTicketQRCodePng}. The image is a pure function of the token, the
+     * size and the renderer, so the tag is derived from those without rendering.
+     */
+    String getTicketQRCodeETag(String token, int size);
+
+    /**
+     * Render ticket QR codes into the cache on the shared rendering pool, off the calling thread.
+     * @return Completes once every code is cached; codes that fail to render are skipped
+     */
+    CompletableFuture<Void> prerenderTicketQRCodes(List<String> tokens, int size);
+}
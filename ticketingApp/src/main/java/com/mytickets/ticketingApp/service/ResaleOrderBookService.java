@@ -0,0 +1,32 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.model.TicketListing;
+import com.mytickets.ticketingApp.payload.response.ListingSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.OrderBookResponse;
+
+import java.util.List;
+
+public interface ResaleOrderBookService {
+
+    /**
+     * @return Up to {@code limit} active listings for the event, cheapest first, leaving out those
+     * held in another buyer's checkout
+     */
+    List<ListingSummaryResponse> getCheapestListings(Long eventId, int limit);
+
+    int countListings(Long eventId);
+
+    /**
+     * @param depth Distinct prices to return, clamped to between 1 and 100
+     * @param bucketWidth Width of the histogram's price buckets; null for no histogram
+     * @throws IllegalArgumentException If the bucket width is not positive or splits the listed
+     * prices into more than 200 buckets
+     */
+    OrderBookResponse getOrderBook(Long eventId, int depth, Double bucketWidth);
+
+    /**
+     * Put the listing in its event's book at its current price once the current transaction
+     * commits, or take it out if it is no longer active.
+     */
+    void listingChanged(TicketListing listing);
+}
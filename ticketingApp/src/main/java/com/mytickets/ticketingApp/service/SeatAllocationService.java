@@ -0,0 +1,43 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.payload.response.SeatAllocationResponse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side seat picking. Each pricing tier's seats are kept in an in-memory seat map, so finding
+ * the best block of adjacent seats does not read the ticket rows, and the chosen seats are held for
+ * the buyer through {@link SeatHoldService} before they are returned.
+ */
+public interface SeatAllocationService {
+
+    /**
+     * Pick the best block of adjacent free seats and hold them for the buyer.
+     * @param section Only look in this section, or null for any
+     * @throws com.mytickets.ticketingApp.exception.TicketUnavailableException if no block that size is free
+     */
+    SeatAllocationResponse allocateBestAvailable(Long pricingTierId, String section, int quantity, Long buyerId);
+
+    /**
+     * Give back seats the buyer was allocated but does not want. Seats held by someone else are left alone.
+     */
+    void release(Long pricingTierId, List<Long> ticketIds, Long buyerId);
+
+    /**
+     * Take a ticket sold outside the allocator out of its tier's seat map.
+     */
+    void markSold(Long pricingTierId, Long ticketId);
+
+    /**
+     * @return Free seats per section and row, rows front to back
+     */
+    Map<String, Map<String, Integer>> getAvailability(Long pricingTierId);
+
+    /**
+     * Rebuild the seat maps in use from the ticket rows and current holds, picking up seats whose
+     * holds expired and sales made on other nodes.
+     * @return Number of seat maps rebuilt
+     */
+    int rebuildSeatMaps();
+}
@@ -0,0 +1,49 @@
+package com.mytickets.ticketingApp.service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface SeatHoldService {
+
+    /**
+     * Place a time-bounded hold on a primary ticket for a pending checkout.
+     * A buyer re-starting checkout on a ticket they already hold replaces their own hold.
+     * The hold is dropped again if the surrounding transaction rolls back.
+     * @param ticketId The ticket being checked out
+     * @param buyerId The buyer starting checkout
+     * @param transactionId The PENDING transaction that is failed if the hold expires
+     * @return When the hold expires
+     * @throws com.mytickets.ticketingApp.exception.TicketUnavailableException if another buyer holds the ticket
+     */
+    LocalDateTime holdTicket(Long ticketId, Long buyerId, Long transactionId);
+
+    /**
+     * Place a time-bounded hold on a resale listing for a pending checkout.
+     * @see #holdTicket(Long, Long, Long)
+     */
+    LocalDateTime holdListing(Long listingId, Long buyerId, Long transactionId);
+
+    boolean isTicketHeld(Long ticketId);
+
+    boolean isListingHeld(Long listingId);
+
+    boolean isTicketHeldByOther(Long ticketId, Long buyerId);
+
+    boolean isListingHeldByOther(Long listingId, Long buyerId);
+
+    Optional<LocalDateTime> getTicketHoldExpiry(Long ticketId);
+
+    Optional<LocalDateTime> getListingHoldExpiry(Long listingId);
+
+    void releaseTicket(Long ticketId);
+
+    void releaseListing(Long listingId);
+
+    /**
+     * Advance the expiry wheel, drop holds that have run out and fail their PENDING transactions.
+     * @return Number of holds that expired
+     */
+    int expireHolds();
+
+    int getActiveHoldCount();
+}
@@ -0,0 +1,23 @@
+package com.mytickets.ticketingApp.service;
+
+import java.util.Map;
+
+/**
+ * Clears the base64 QR code images that older versions stored in tickets.qr_code_url. Codes are
+ * now rendered from the ticket's signed token on demand, so the stored copies are dead weight.
+ */
+public interface StoredQRCodeCleanupService {
+
+    /**
+     * Clear the stored images of the next batch of tickets after the cleanup cursor.
+     * @return Number of tickets cleared; 0 once no ticket past the cursor has a stored image
+     */
+    int clearNextBatch();
+
+    /**
+     * Scan the tickets table again from the start, e.g. after rows were restored from a backup.
+     */
+    void restart();
+
+    Map<String, Object> getStatus();
+}
@@ -0,0 +1,44 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.config.BatchTicketRequest;
+import com.mytickets.ticketingApp.model.Ticket;
+import com.mytickets.ticketingApp.payload.request.TicketImportRequest;
+import com.mytickets.ticketingApp.payload.response.TicketImportProgress;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public interface TicketImportService {
+
+    /**
+     * Insert tickets for an event with JDBC batch inserts, committing every chunk on its own
+     * together with the matching event and pricing tier counts. A failure part-way leaves the
+     * chunks already committed in place and consistent.
+     * @param seats One entry per ticket; entries without a section, row and seat create general admission tickets
+     * @param generateQrCodes Warm the QR code cache for the new tickets once each chunk commits
+     * @param progressListener Called after every committed chunk and once more when the import finishes
+     * @return The final progress, with {@code done} set
+     */
+    TicketImportProgress importTickets(Long eventId, Long pricingTierId, List<BatchTicketRequest.TicketInfo> seats,
+                                       boolean generateQrCodes, Consumer<TicketImportProgress> progressListener);
+
+    /**
+     * Run an import on the background import thread. Imports are queued and run one at a time.
+     * @return Completes with the final progress, or exceptionally if the import failed
+     */
+    CompletableFuture<TicketImportProgress> submitImport(TicketImportRequest request,
+                                                         Consumer<TicketImportProgress> progressListener);
+
+    /**
+     * Expand the section layouts and general admission quantity of a request into one seat entry per ticket.
+     */
+    List<BatchTicketRequest.TicketInfo> expandSeats(TicketImportRequest request);
+
+    /**
+     * Import tickets and load them back as entities, for callers that return what they created.
+     * Meant for batches small enough to hold in memory.
+     */
+    List<Ticket> importAndLoad(Long eventId, Long pricingTierId, List<BatchTicketRequest.TicketInfo> seats,
+                               boolean generateQrCodes);
+}
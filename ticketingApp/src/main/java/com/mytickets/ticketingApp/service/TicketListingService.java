@@ -1,12 +1,14 @@
 package com.mytickets.ticketingApp.service;
 
 import com.mytickets.ticketingApp.model.TicketListing;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface TicketListingService {
     List<TicketListing> getAllListings();
+    CursorPage<TicketListing> scrollActiveListings(String cursor, int size);
     Optional<TicketListing> getListingById(Long id);
     List<TicketListing> getListingsBySeller(Long sellerId);
     List<TicketListing> getActiveListingsByEvent(Long eventId);
@@ -2,6 +2,8 @@ package com.mytickets.ticketingApp.service;
 
 import com.mytickets.ticketingApp.model.Ticket;
 import com.mytickets.ticketingApp.model.TicketStatus;
+import com.mytickets.ticketingApp.model.User;
+import com.mytickets.ticketingApp.payload.response.TicketViewResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,14 +14,24 @@ public interface TicketService {
     Optional<Ticket> getTicketByNumber(String ticketNumber);
     List<Ticket> getTicketsByEvent(Long eventId);
     List<Ticket> getTicketsByOwner(Long ownerId);
-    List<Ticket> getUpcomingTicketsByOwner(Long ownerId);
+    List<TicketViewResponse> getUpcomingTicketsByOwner(Long ownerId);
     Ticket createTicket(Ticket ticket);
     List<Ticket> createTicketsForEvent(Long eventId, Long pricingTierId, int quantity);
     Ticket updateTicket(Long id, Ticket ticket);
     Ticket updateTicketStatus(Long id, TicketStatus status);
     void deleteTicket(Long id);
     Ticket purchaseTicket(Long ticketId, Long buyerId);
+
+    /**
+     * Atomically hand an AVAILABLE ticket to a buyer and reserve a unit of event and pricing tier inventory.
+     * @param ticket The ticket to claim
+     * @param buyer The new owner
+     * @return The claimed ticket
+     * @throws com.mytickets.ticketingApp.exception.TicketUnavailableException if another buyer got there first
+     */
+    Ticket claimTicket(Ticket ticket, User buyer);
     String generateQRCode(Long ticketId);
+    Optional<String> findQRCodeToken(Long ticketId);
     boolean validateTicket(String ticketNumber);
     void markTicketAsUsed(Long ticketId);
     public boolean canTicketBeResold(Long ticketId);
@@ -0,0 +1,54 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.model.Ticket;
+import com.mytickets.ticketingApp.util.TicketTokenCodec;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Issues and checks the signed tokens printed in ticket QR codes. A token names the event, the
+ * ticket, its seat and a generation, so a scanner can turn away forged codes and codes for other
+ * events on its own. Codes issued before a ticket was resold are caught by a small revocation set
+ * of reissued tickets kept in memory.
+ */
+public interface TicketTokenService {
+
+    /**
+     * @return The QR token of the ticket, or empty if there is no such ticket
+     */
+    Optional<String> findToken(Long ticketId);
+
+    /**
+     * @return QR tokens of the given tickets, in no particular order
+     */
+    List<String> findTokens(Collection<String> ticketNumbers);
+
+    /**
+     * Invalidate the codes of a ticket that is changing hands by moving it to a new generation. The
+     * change is saved with the ticket; the old generation is revoked once the transaction commits.
+     */
+    void reissue(Ticket ticket);
+
+    /**
+     * @return The token's contents if it carries a valid signature under a known key, otherwise null
+     */
+    TicketTokenCodec.Token verify(String code);
+
+    /**
+     * Whether a token of this generation was replaced when the ticket was resold.
+     */
+    boolean isRevoked(long ticketId, int generation);
+
+    /**
+     * Whether codes carrying only this ticket number predate a resale of the ticket.
+     */
+    boolean isRevoked(String ticketNumber);
+
+    /**
+     * Reload the revocation set from the database, picking up resales made on other nodes.
+     * @return Number of reissued tickets now tracked
+     */
+    int refreshRevocations();
+}
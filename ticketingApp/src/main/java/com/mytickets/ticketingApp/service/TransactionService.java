@@ -2,6 +2,7 @@ package com.mytickets.ticketingApp.service;
 
 import com.mytickets.ticketingApp.model.Transaction;
 import com.mytickets.ticketingApp.model.TransactionStatus;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -9,6 +10,12 @@ import java.util.Optional;
 
 public interface TransactionService {
     List<Transaction> getAllTransactions();
+
+    /**
+     * Newest transactions first, a page at a time; pass null for the first page and each page's nextCursor for the next.
+     */
+    CursorPage<Transaction> scrollTransactions(String cursor, int size);
+
     Optional<Transaction> getTransactionById(Long id);
     Optional<Transaction> getTransactionByNumber(String transactionNumber);
     List<Transaction> getTransactionsByBuyer(Long buyerId);
@@ -32,6 +39,16 @@ public interface TransactionService {
      */
     Transaction createTicketPurchaseTransaction(Long ticketId, Long buyerId, String paymentMethod);
 
+    /**
+     * Create a transaction for ticket purchase on behalf of a buyer let through an event's waiting room
+     * @param ticketId The ID of the ticket to purchase
+     * @param buyerId The ID of the buyer
+     * @param paymentMethod The payment method (card/balance)
+     * @param admittedEventId The event named in the buyer's admission pass, or null if none was presented
+     * @return Created transaction
+     */
+    Transaction createTicketPurchaseTransaction(Long ticketId, Long buyerId, String paymentMethod, Long admittedEventId);
+
     /**
      * Create a transaction for listing purchase
      * @param listingId The ID of the listing to purchase
@@ -2,6 +2,7 @@ package com.mytickets.ticketingApp.service;
 
 import com.mytickets.ticketingApp.model.BalanceTransaction;
 import com.mytickets.ticketingApp.model.UserBalance;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +17,7 @@ public interface UserBalanceService {
 
     List<BalanceTransaction> getBalanceHistory(Long userId);
 
+    CursorPage<BalanceTransaction> scrollBalanceHistory(Long userId, String cursor, int size);
+
     Double getCurrentBalance(Long userId);
 }
\ No newline at end of file
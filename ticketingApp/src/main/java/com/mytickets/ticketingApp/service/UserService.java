@@ -1,6 +1,7 @@
 package com.mytickets.ticketingApp.service;
 
 import com.mytickets.ticketingApp.model.User;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -9,6 +10,8 @@ import java.util.Optional;
 public interface UserService {
     List<User> getAllUsers();
 
+    CursorPage<User> scrollUsers(String cursor, int size);
+
     Optional<User> getUserById(Long id);
 
     Optional<User> getUserByEmail(String email);
@@ -0,0 +1,40 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.NearbyVenueResponse;
+
+import java.util.List;
+
+public interface VenueGeoSearchService {
+
+    /**
+     * @return Venues within the radius, nearest first
+     * @throws IllegalArgumentException For coordinates off the globe or a radius out of range
+     */
+    List<NearbyVenueResponse> findVenuesNear(double latitude, double longitude, double radiusKm, int limit);
+
+    /**
+     * A box crossing the antimeridian has a minimum longitude greater than its maximum.
+     *
+     * @return Venues inside the box, nearest its centre first
+     * @throws IllegalArgumentException For coordinates off the globe
+     */
+    List<NearbyVenueResponse> findVenuesWithin(double minLatitude, double minLongitude,
+                                               double maxLatitude, double maxLongitude, int limit);
+
+    /**
+     * @return Events yet to start at venues within the radius, nearest venue first, then soonest
+     * @throws IllegalArgumentException For coordinates off the globe or a radius out of range
+     */
+    List<EventSummaryResponse> findUpcomingEventsNear(double latitude, double longitude, double radiusKm, int limit);
+
+    /**
+     * Re-index one venue once the current transaction commits, or right away when there is none.
+     */
+    void venueChanged(Long venueId);
+
+    /**
+     * Drop one venue from the index once the current transaction commits.
+     */
+    void venueRemoved(Long venueId);
+}
@@ -0,0 +1,52 @@
+package com.mytickets.ticketingApp.service;
+
+import com.mytickets.ticketingApp.payload.response.QueueStatusResponse;
+
+import java.util.List;
+import java.util.Map;
+
+public interface WaitingRoomService {
+
+    /**
+     * Start queueing purchases for an event, or change the admission rate of an open queue.
+     * @param eventId The event going on sale
+     * @param admitPerSecond How many queued buyers each node lets into checkout per second; divide the
+     *                       intended total by the number of nodes
+     */
+    void openRoom(Long eventId, int admitPerSecond);
+
+    void closeRoom(Long eventId);
+
+    boolean isOpen(Long eventId);
+
+    /**
+     * Put a buyer at the back of an event's queue, or return the place they already hold.
+     * @return The buyer's position together with a signed queue token to poll with
+     */
+    QueueStatusResponse join(Long eventId, Long userId);
+
+    /**
+     * Resolve a queue token to the holder's current standing. Never touches the database;
+     * an admission pass is included once the holder's position has been reached.
+     */
+    QueueStatusResponse getStatus(String queueToken);
+
+    /**
+     * Check an admission pass presented with a purchase.
+     * @param admissionPass The pass, or null if the request carried none
+     * @param userId The authenticated buyer
+     * Each call counts as one checkout against the admitted place.
+     * @return The event the pass admits to, or null when no pass was presented
+     * @throws com.mytickets.ticketingApp.exception.AdmissionRequiredException if the pass is invalid, expired,
+     *         not the buyer's, or its place has been used for as many checkouts as allowed
+     */
+    Long verifyPass(String admissionPass, Long userId);
+
+    /**
+     * Reject a purchase for an event whose waiting room is open unless the buyer was admitted to that event.
+     * @throws com.mytickets.ticketingApp.exception.AdmissionRequiredException if the buyer has not been admitted
+     */
+    void checkAdmission(Long eventId, Long admittedEventId);
+
+    List<Map<String, Object>> getRooms();
+}
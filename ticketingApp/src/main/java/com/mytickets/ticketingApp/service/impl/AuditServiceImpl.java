@@ -1,8 +1,10 @@
 package com.mytickets.ticketingApp.service.impl;
 
 import com.mytickets.ticketingApp.model.AuditLog;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import com.mytickets.ticketingApp.repository.AuditLogRepository;
 import com.mytickets.ticketingApp.service.AuditService;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -62,4 +64,17 @@ public class AuditServiceImpl implements AuditService {
     public Page<AuditLog> getAllLogs(Pageable pageable) {
         return auditLogRepository.findAll(pageable);
     }
+
+    @Override
+    public CursorPage<AuditLog> scrollLogs(String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<AuditLog> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = auditLogRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor, true);
+            rows = auditLogRepository.findPageBefore(after.getDate(), after.getId(), limit);
+        }
+        return CursorPage.of(rows, limit, log -> KeysetCursor.of(log.getTimestamp(), log.getId()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
+import com.mytickets.ticketingApp.exception.TooManyStreamsException;
+import com.mytickets.ticketingApp.payload.response.AvailabilityResponse;
+import com.mytickets.ticketingApp.payload.response.OrderBookResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.service.AvailabilityStreamService;
+import com.mytickets.ticketingApp.service.InventoryService;
+import com.mytickets.ticketingApp.service.ResaleOrderBookService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes each event's availability to the clients watching it over server-sent events, in place of
+ * polling the event and listing count endpoints. Inventory writes only mark an event as changed;
+ * a scheduled flush reads the figures of the changed events from memory (the inventory counters
+ * and the resale order books), and sends them to that event's streams when they differ from what
+ * was last sent, so a burst of sales becomes one update per window.
+ *
+ * An open stream is an async request parked by the servlet container, not a thread, so idle
+ * streams only cost their connection and a set entry. Updates are serialized once and written by a
+ * small fan-out pool, a chunk of streams per task. A stream that fails a write is dropped; the
+ * client's EventSource reconnects on its own.
+ *
+ * The endpoint is public, so a stream is only opened for an event that exists, and each client
+ * address may hold at most app.availability.max-streams-per-client of them.
+ */
+@Service
+public class AvailabilityStreamServiceImpl implements AvailabilityStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityStreamServiceImpl.class);
+
+    // Streams written by one fan-out task
+    private static final int FANOUT_CHUNK = 1000;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ResaleOrderBookService resaleOrderBookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.availability.max-subscribers:100000}")
+    private int maxSubscribers;
+
+    @Value("${app.availability.max-streams-per-client:10}")
+    private int maxStreamsPerClient;
+
+    @Value("${app.availability.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.availability.fanout-threads:2}")
+    private int fanoutThreads;
+
+    private final ConcurrentMap<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Open streams per client address, and the address each stream was opened from
+    private final ConcurrentMap<String, Integer> streamsPerClient = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SseEmitter, String> clients = new ConcurrentHashMap<>();
+    // Events changed since the last flush
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    // Figures last sent per watched event, also sent to each new stream as its first update
+    private final ConcurrentMap<Long, AvailabilityResponse> lastSent = new ConcurrentHashMap<>();
+
+    private final Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("keep-alive").build();
+    private ThreadPoolExecutor fanoutPool;
+    private Counter updatesSent;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        fanoutPool = new ThreadPoolExecutor(fanoutThreads, fanoutThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "availability-fanout-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        updatesSent = Counter.builder("ticketing.availability.updates.sent")
+                .description("Availability updates written to streams")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.availability.subscribers", this, AvailabilityStreamServiceImpl::getSubscriberCount)
+                .description("Open availability streams on this node")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutPool.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter subscribe(Long eventId, String clientId) {
+        // Checked before anything is kept for the event, so made-up ids cost one lookup and nothing more
+        if (!eventRepository.existsById(eventId)) {
+            throw new ResourceNotFoundException("Event", "id", eventId);
+        }
+        if (streamsPerClient.merge(clientId, 1, Integer::sum) > maxStreamsPerClient) {
+            releaseClient(clientId);
+            throw new TooManyStreamsException("Client already holds " + maxStreamsPerClient + " availability streams");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            releaseClient(clientId);
+            throw new IllegalStateException("This node is not accepting more availability streams");
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        clients.put(emitter, clientId);
+        subscribers.compute(eventId, (id, emitters) -> {
+            Set<SseEmitter> watching = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            watching.add(emitter);
+            return watching;
+        });
+        emitter.onCompletion(() -> unsubscribe(eventId, emitter));
+        emitter.onTimeout(() -> unsubscribe(eventId, emitter));
+        emitter.onError(error -> unsubscribe(eventId, emitter));
+
+        // Current figures first, so a client never waits for the next sale to learn where things stand
+        send(eventId, emitter, message(lastSent.computeIfAbsent(eventId, this::figures)));
+        return emitter;
+    }
+
+    @Override
+    public void availabilityChanged(Long eventId) {
+        if (eventId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            if (subscribers.containsKey(eventId)) {
+                changed.add(eventId);
+            } else {
+                // Nobody is watching; the next stream reads fresh figures
+                lastSent.remove(eventId);
+            }
+        });
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Send the events changed since the last run to their streams.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.coalesce-ms:500}")
+    public void flush() {
+        for (Iterator<Long> iterator = changed.iterator(); iterator.hasNext(); ) {
+            Long eventId = iterator.next();
+            iterator.remove();
+            Set<SseEmitter> emitters = subscribers.get(eventId);
+            if (emitters == null) {
+                lastSent.remove(eventId);
+                continue;
+            }
+            AvailabilityResponse figures = figures(eventId);
+            if (!figures.equals(lastSent.put(eventId, figures))) {
+                broadcast(eventId, emitters, message(figures));
+            }
+        }
+    }
+
+    /**
+     * Comment lines on every stream, so proxies keep idle connections open and dead ones are found.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.heartbeat-ms:30000}")
+    public void heartbeat() {
+        subscribers.forEach((eventId, emitters) -> broadcast(eventId, emitters, heartbeat));
+    }
+
+    private AvailabilityResponse figures(Long eventId) {
+        OrderBookResponse book = resaleOrderBookService.getOrderBook(eventId, 1, null);
+        return new AvailabilityResponse(eventId, inventoryService.getAvailableTickets(eventId),
+                book.getCount(), book.getBestPrice());
+    }
+
+    // Built once per update; the same lines are written to every stream
+    private Set<ResponseBodyEmitter.DataWithMediaType> message(AvailabilityResponse figures) {
+        try {
+            return SseEmitter.event()
+                    .name("availability")
+                    .data(objectMapper.writeValueAsString(figures), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize availability of event " + figures.getEventId(), e);
+        }
+    }
+
+    private void broadcast(Long eventId, Set<SseEmitter> emitters, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        List<SseEmitter> targets = new ArrayList<>(emitters);
+        for (int from = 0; from < targets.size(); from += FANOUT_CHUNK) {
+            List<SseEmitter> chunk = targets.subList(from, Math.min(from + FANOUT_CHUNK, targets.size()));
+            fanoutPool.execute(() -> chunk.forEach(emitter -> send(eventId, emitter, message)));
+        }
+    }
+
+    private void send(Long eventId, SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        try {
+            emitter.send(message);
+            if (message != heartbeat) {
+                updatesSent.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            logger.debug("Dropping availability stream for event {}: {}", eventId, e.getMessage());
+            unsubscribe(eventId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long eventId, SseEmitter emitter) {
+        Set<SseEmitter> remaining = subscribers.computeIfPresent(eventId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+                releaseClient(clients.remove(emitter));
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (remaining == null) {
+            // Nobody is watching any more; the next stream reads fresh figures
+            lastSent.remove(eventId);
+        }
+    }
+
+    private void releaseClient(String clientId) {
+        if (clientId != null) {
+            streamsPerClient.computeIfPresent(clientId, (id, streams) -> streams > 1 ? streams - 1 : null);
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.payload.request.EventDiscoveryRequest;
+import com.mytickets.ticketingApp.payload.response.EventDiscoveryResponse;
+import com.mytickets.ticketingApp.model.EventStatus;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.SuggestionResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
+import com.mytickets.ticketingApp.util.EventFacetIndex;
+import com.mytickets.ticketingApp.util.SuggestTrie;
+import com.mytickets.ticketingApp.util.TextIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers event search from a {@link TextIndex}, faceted browsing from an {@link EventFacetIndex}
+ * and search box completions from a {@link SuggestTrie}, all kept next to the summaries they
+ * return, instead of a LIKE '%name%' scan per keystroke and a separate query per filter. Event, pricing tier and venue writes on this
+ * node patch the indexes after their transaction commits; a periodic rebuild picks up writes made
+ * on other nodes and ticket sales. The first search on a node builds the indexes if no rebuild has
+ * run yet.
+ */
+@Service
+public class CatalogSearchServiceImpl implements CatalogSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchServiceImpl.class);
+
+    private static final int MAX_LIMIT = 100;
+    // Days over which an event's pull in suggestions halves, so the soonest events come first
+    private static final double POPULARITY_HALF_LIFE_DAYS = 30;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Swapped whole by a rebuild; patched in place by single writes
+    private volatile Catalog catalog;
+    private Timer searchTimer;
+    private Timer discoveryTimer;
+    private Timer suggestTimer;
+
+    @PostConstruct
+    public void init() {
+        searchTimer = Timer.builder("ticketing.search.events")
+                .description("Time to answer an event search from the index")
+                .register(meterRegistry);
+        discoveryTimer = Timer.builder("ticketing.search.discover")
+                .description("Time to filter, sort and count facets of the event index")
+                .register(meterRegistry);
+        suggestTimer = Timer.builder("ticketing.search.suggest")
+                .description("Time to complete a search box prefix from the suggestion trie")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.search.events.indexed", this, service -> service.catalog == null ? 0 : service.catalog.index.size())
+                .description("Events held in the search index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<EventSummaryResponse> searchEvents(String query, int limit) {
+        Catalog current = catalog();
+        return searchTimer.record(() -> {
+            List<EventSummaryResponse> results = new ArrayList<>();
+            for (Long id : current.index.search(query, Math.max(1, Math.min(limit, MAX_LIMIT)))) {
+                EventSummaryResponse event = current.events.get(id);
+                if (event != null) {
+                    results.add(event);
+                }
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public EventDiscoveryResponse discoverEvents(EventDiscoveryRequest request) {
+        int size = Math.max(1, Math.min(request.getSize(), MAX_LIMIT));
+        int page = Math.max(0, request.getPage());
+        LocalDateTime from = request.getFrom() != null ? request.getFrom() : LocalDateTime.now();
+        EventFacetIndex.Query query = new EventFacetIndex.Query()
+                .cities(request.getCities())
+                .types(names(request.getTypes()))
+                .statuses(names(request.getStatuses()))
+                .dates(epochSecond(from), request.getTo() != null ? epochSecond(request.getTo()) : Long.MAX_VALUE)
+                .prices(request.getMinPrice(), request.getMaxPrice())
+                .availableOnly(request.isAvailableOnly())
+                .sort(EventFacetIndex.Sort.of(request.getSort()))
+                .page(page * size, size);
+
+        Catalog current = catalog();
+        return discoveryTimer.record(() -> {
+            EventFacetIndex.Result result = current.facets.query(query);
+            List<EventSummaryResponse> events = new ArrayList<>(result.getIds().size());
+            for (Long id : result.getIds()) {
+                EventSummaryResponse event = current.events.get(id);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            return new EventDiscoveryResponse(events, result.getTotal(), page, size, result.getFacets());
+        });
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        Catalog current = catalog();
+        return suggestTimer.record(() ->
+                current.suggestions.suggest(prefix, Math.max(1, Math.min(limit, SuggestTrie.MAX_SUGGESTIONS))));
+    }
+
+    @Override
+    public void eventChanged(Long eventId) {
+        afterCommit(() -> {
+            Catalog current = catalog;
+            if (current != null) {
+                eventRepository.findSearchSummaryById(eventId).ifPresentOrElse(event -> {
+                    event.setFromPrice(pricingTierRepository.findLowestAvailablePrice(eventId));
+                    current.put(event);
+                }, () -> current.remove(eventId));
+            }
+        });
+    }
+
+    @Override
+    public void eventRemoved(Long eventId) {
+        afterCommit(() -> {
+            Catalog current = catalog;
+            if (current != null) {
+                current.remove(eventId);
+            }
+        });
+    }
+
+    @Override
+    public void venueChanged(Long venueId) {
+        afterCommit(() -> {
+            Catalog current = catalog;
+            if (current != null) {
+                for (EventSummaryResponse event : eventRepository.findSummariesByVenueId(venueId)) {
+                    EventSummaryResponse previous = current.events.get(event.getId());
+                    event.setFromPrice(previous == null ? null : previous.getFromPrice());
+                    current.put(event);
+                }
+            }
+        });
+    }
+
+    /**
+     * Build a fresh index from every event and swap it in. A write patched into the old index while
+     * this runs may be missing from the new one until the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Catalog rebuilt = new Catalog();
+        Map<Long, Double> prices = new HashMap<>();
+        for (Object[] row : pricingTierRepository.findLowestAvailablePrices()) {
+            prices.put((Long) row[0], ((Number) row[1]).doubleValue());
+        }
+        for (EventSummaryResponse event : eventRepository.findSearchSummaries()) {
+            event.setFromPrice(prices.get(event.getId()));
+            rebuilt.put(event);
+        }
+        rebuilt.suggestTallies();
+        catalog = rebuilt;
+        logger.debug("Rebuilt event search indexes of {} events in {} ms",
+                rebuilt.events.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    rebuild();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static List<String> names(List<? extends Enum<?>> values) {
+        List<String> names = new ArrayList<>();
+        if (values != null) {
+            values.forEach(value -> names.add(value.name()));
+        }
+        return names;
+    }
+
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Tickets sold, halved for every half-life until the event starts; zero once it has started or
+     * will not go ahead.
+     */
+    private static double popularity(EventSummaryResponse event, LocalDateTime now) {
+        if (event.getEventDate() == null || !event.getEventDate().isAfter(now)
+                || event.getStatus() == EventStatus.CANCELLED || event.getStatus() == EventStatus.COMPLETED) {
+            return 0;
+        }
+        int total = event.getTotalTickets() == null ? 0 : event.getTotalTickets();
+        int available = event.getAvailableTickets() == null ? 0 : event.getAvailableTickets();
+        double days = Duration.between(now, event.getEventDate()).toMinutes() / 1440.0;
+        return (1 + Math.max(0, total - available)) * Math.pow(0.5, days / POPULARITY_HALF_LIFE_DAYS);
+    }
+
+    private static String join(String first, String second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first + ", " + second;
+    }
+
+    private static final class Catalog {
+        // Name first, so a word in the title outranks the same word in the description
+        private final TextIndex index = new TextIndex(3.0f, 2.0f, 1.5f, 1.0f);
+        private final EventFacetIndex facets = new EventFacetIndex();
+        private final Map<Long, EventSummaryResponse> events = new ConcurrentHashMap<>();
+        private final SuggestTrie<SuggestionResponse> suggestions = new SuggestTrie<>();
+        // What each event added to its venue's and city's tallies, so a change can take it back out
+        private final Map<Long, Double> popularity = new HashMap<>();
+        private final Map<String, Tally> tallies = new HashMap<>();
+        // Off while a rebuild loads, so each venue and city enters the trie once, with its total
+        private boolean suggestTallies;
+
+        private synchronized void put(EventSummaryResponse event) {
+            untally(events.get(event.getId()));
+            EventSummaryResponse.VenueSummary venue = event.getVenue();
+            index.put(event.getId(), event.getName(),
+                    venue == null ? null : venue.getName(),
+                    venue == null ? null : venue.getCity(),
+                    event.getDescription());
+            facets.put(event.getId(),
+                    venue == null ? null : venue.getCity(),
+                    event.getEventType() == null ? null : event.getEventType().name(),
+                    event.getStatus() == null ? null : event.getStatus().name(),
+                    event.getEventDate() == null ? Long.MIN_VALUE : epochSecond(event.getEventDate()),
+                    event.getFromPrice(),
+                    event.getAvailableTickets() != null && event.getAvailableTickets() > 0);
+            events.put(event.getId(), event);
+            tally(event);
+        }
+
+        private synchronized void remove(Long eventId) {
+            untally(events.get(eventId));
+            index.remove(eventId);
+            facets.remove(eventId);
+            events.remove(eventId);
+        }
+
+        private synchronized void suggestTallies() {
+            suggestTallies = true;
+            tallies.forEach((key, tally) -> suggestions.put(key, tally.suggestion.getText(), tally.weight, tally.suggestion));
+        }
+
+        private void tally(EventSummaryResponse event) {
+            double weight = popularity(event, LocalDateTime.now());
+            popularity.put(event.getId(), weight);
+            EventSummaryResponse.VenueSummary venue = event.getVenue();
+            if (weight > 0) {
+                suggestions.put(SuggestionResponse.EVENT + ":" + event.getId(), event.getName(), weight,
+                        new SuggestionResponse(SuggestionResponse.EVENT, event.getId(), event.getName(),
+                                venue == null ? null : join(venue.getName(), venue.getCity())));
+            }
+            if (venue != null) {
+                count(SuggestionResponse.VENUE + ":" + venue.getId(), weight, 1,
+                        new SuggestionResponse(SuggestionResponse.VENUE, venue.getId(), venue.getName(), venue.getCity()));
+                if (venue.getCity() != null && !venue.getCity().isBlank()) {
+                    count(SuggestionResponse.CITY + ":" + SuggestTrie.fold(venue.getCity()), weight, 1,
+                            new SuggestionResponse(SuggestionResponse.CITY, null, venue.getCity(), venue.getCountry()));
+                }
+            }
+        }
+
+        private void untally(EventSummaryResponse previous) {
+            if (previous == null) {
+                return;
+            }
+            double weight = popularity.remove(previous.getId());
+            suggestions.remove(SuggestionResponse.EVENT + ":" + previous.getId());
+            EventSummaryResponse.VenueSummary venue = previous.getVenue();
+            if (venue != null) {
+                count(SuggestionResponse.VENUE + ":" + venue.getId(), -weight, -1, null);
+                if (venue.getCity() != null && !venue.getCity().isBlank()) {
+                    count(SuggestionResponse.CITY + ":" + SuggestTrie.fold(venue.getCity()), -weight, -1, null);
+                }
+            }
+        }
+
+        private void count(String key, double weight, int events, SuggestionResponse suggestion) {
+            Tally tally = tallies.computeIfAbsent(key, k -> new Tally());
+            tally.events += events;
+            tally.weight = Math.max(0, tally.weight + weight);
+            if (suggestion != null) {
+                tally.suggestion = suggestion;
+            }
+            if (tally.events <= 0) {
+                tallies.remove(key);
+                suggestions.remove(key);
+            } else if (suggestTallies) {
+                suggestions.put(key, tally.suggestion.getText(), tally.weight, tally.suggestion);
+            }
+        }
+    }
+
+    /**
+     * Events at a venue or in a city, and the popularity they add up to.
+     */
+    private static final class Tally {
+        private int events;
+        private double weight;
+        private SuggestionResponse suggestion;
+    }
+}
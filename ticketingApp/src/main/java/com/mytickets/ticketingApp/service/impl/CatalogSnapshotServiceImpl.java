@@ -0,0 +1,226 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.service.CatalogSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the public event listings as JSON bytes, plain and gzipped, so a catalog request is a
+ * byte copy instead of a query and a Jackson pass. The listings are derived from one in-memory
+ * map of event summaries: an event created, edited or deleted on this node is patched into the
+ * map after its transaction commits, and the whole map is reloaded periodically to pick up
+ * inventory flushes and changes made on other nodes. Listings are re-encoded on the first read
+ * after the map changed, or once the soonest upcoming event starts and drops out of them.
+ *
+ * ETags hash the encoded bytes, so every node serves the same validator for the same catalog
+ * and an unchanged catalog stays a 304 across reloads and restarts.
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Guards events, loaded and encoded together
+    private final Object lock = new Object();
+    private final Map<Long, EventSummaryResponse> events = new HashMap<>();
+    private boolean loaded;
+    private volatile Encoded encoded;
+
+    private ObjectWriter allWriter;
+    // The upcoming and available listings have never carried the creator
+    private ObjectWriter publicWriter;
+    private Counter encodes;
+
+    @PostConstruct
+    public void init() {
+        allWriter = objectMapper.writer();
+        publicWriter = objectMapper.copy().addMixIn(EventSummaryResponse.class, WithoutCreator.class).writer();
+
+        encodes = Counter.builder("ticketing.catalog.encodes")
+                .description("Times the public event listings were re-encoded")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.catalog.events", this, service -> service.size())
+                .description("Events held in the catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Snapshot get(Listing listing) {
+        Encoded current = encoded;
+        if (current == null || !LocalDateTime.now().isBefore(current.validUntil)) {
+            current = encode();
+        }
+        return current.snapshots.get(listing);
+    }
+
+    @Override
+    public void eventChanged(Long eventId) {
+        afterCommit(() -> {
+            Optional<EventSummaryResponse> summary = eventRepository.findSummaryById(eventId);
+            synchronized (lock) {
+                if (summary.isPresent()) {
+                    events.put(eventId, summary.get());
+                } else {
+                    events.remove(eventId);
+                }
+                encoded = null;
+            }
+        });
+    }
+
+    @Override
+    public void eventRemoved(Long eventId) {
+        afterCommit(() -> {
+            synchronized (lock) {
+                events.remove(eventId);
+                encoded = null;
+            }
+        });
+    }
+
+    /**
+     * Reload every event. Only drops the encoded listings when something differs, which is
+     * usually just available ticket counts written back by the inventory flush.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.refresh-interval-ms:30000}")
+    public void refresh() {
+        Map<Long, EventSummaryResponse> latest = eventRepository.findAllSummaries().stream()
+                .collect(Collectors.toMap(EventSummaryResponse::getId, summary -> summary));
+        synchronized (lock) {
+            // A patch applied while the query ran may be undone here until the next refresh
+            if (!loaded || !events.equals(latest)) {
+                events.clear();
+                events.putAll(latest);
+                encoded = null;
+            }
+            loaded = true;
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private Encoded encode() {
+        if (!loaded()) {
+            refresh();
+        }
+        synchronized (lock) {
+            LocalDateTime now = LocalDateTime.now();
+            Encoded current = encoded;
+            if (current != null && now.isBefore(current.validUntil)) {
+                return current;
+            }
+
+            List<EventSummaryResponse> all = new ArrayList<>(events.values());
+            all.sort(Comparator.comparing(EventSummaryResponse::getId));
+            List<EventSummaryResponse> upcoming = all.stream()
+                    .filter(event -> event.getEventDate() != null && event.getEventDate().isAfter(now))
+                    .sorted(Comparator.comparing(EventSummaryResponse::getEventDate)
+                            .thenComparing(EventSummaryResponse::getId))
+                    .collect(Collectors.toList());
+            List<EventSummaryResponse> available = upcoming.stream()
+                    .filter(event -> event.getAvailableTickets() != null && event.getAvailableTickets() > 0)
+                    .collect(Collectors.toList());
+
+            Map<Listing, Snapshot> snapshots = new EnumMap<>(Listing.class);
+            snapshots.put(Listing.ALL, snapshot(allWriter, all));
+            snapshots.put(Listing.UPCOMING, snapshot(publicWriter, upcoming));
+            snapshots.put(Listing.AVAILABLE, snapshot(publicWriter, available));
+
+            LocalDateTime validUntil = upcoming.isEmpty() ? LocalDateTime.MAX : upcoming.get(0).getEventDate();
+            encoded = new Encoded(snapshots, validUntil);
+            encodes.increment();
+            logger.debug("Encoded catalog snapshot of {} events, {} upcoming", all.size(), upcoming.size());
+            return encoded;
+        }
+    }
+
+    private Snapshot snapshot(ObjectWriter writer, List<EventSummaryResponse> listing) {
+        try {
+            byte[] json = writer.writeValueAsBytes(listing);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            String digest = HexFormat.of().formatHex(hash, 0, 16);
+            return new Snapshot(json, gzip.toByteArray(), "\"" + digest + "\"", "\"" + digest + "-gz\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode the event catalog", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private boolean loaded() {
+        synchronized (lock) {
+            return loaded;
+        }
+    }
+
+    private int size() {
+        synchronized (lock) {
+            return events.size();
+        }
+    }
+
+    @JsonIgnoreProperties("creator")
+    private abstract static class WithoutCreator {
+    }
+
+    private static final class Encoded {
+        private final Map<Listing, Snapshot> snapshots;
+        private final LocalDateTime validUntil;
+
+        private Encoded(Map<Listing, Snapshot> snapshots, LocalDateTime validUntil) {
+            this.snapshots = snapshots;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.mytickets.ticketingApp.service.impl;
 
+import com.mytickets.ticketingApp.aspect.RetryOnConflict;
 import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
 import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.EventStatus;
 import com.mytickets.ticketingApp.model.EventType;
 import com.mytickets.ticketingApp.model.User;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
 import com.mytickets.ticketingApp.repository.EventRepository;
 import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
+import com.mytickets.ticketingApp.service.CatalogSnapshotService;
 import com.mytickets.ticketingApp.service.EventService;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -31,15 +37,34 @@ public class EventServiceImpl implements EventService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
     @Override
-    @Cacheable("events")
-    public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+    @Cacheable(value = "events", key = "'all'")
+    public List<EventSummaryResponse> getAllEvents() {
+        return eventRepository.findAllSummaries();
     }
 
     @Override
-    public Page<Event> getEventsPage(Pageable pageable) {
-        return eventRepository.findAll(pageable);
+    public Page<EventSummaryResponse> getEventsPage(Pageable pageable) {
+        return eventRepository.findSummaries(pageable);
+    }
+
+    @Override
+    public CursorPage<EventSummaryResponse> scrollEvents(String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<EventSummaryResponse> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = eventRepository.findFirstSummaryPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor, true);
+            rows = eventRepository.findSummaryPageAfter(after.getDate(), after.getId(), limit);
+        }
+        return CursorPage.of(rows, limit, event -> KeysetCursor.of(event.getEventDate(), event.getId()));
     }
 
     @Override
@@ -66,10 +91,14 @@ public class EventServiceImpl implements EventService {
         event.setAvailableTickets(event.getTotalTickets()); // All tickets are available initially
         event.setStatus(EventStatus.SCHEDULED); // Default status
 
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        catalogSnapshotService.eventChanged(saved.getId());
+        catalogSearchService.eventChanged(saved.getId());
+        return saved;
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     @Caching(
             put = { @CachePut(value = "events", key = "#id") },
@@ -98,7 +127,10 @@ public class EventServiceImpl implements EventService {
             existingEvent.setAvailableTickets(existingEvent.getAvailableTickets() + additionalTickets);
         }
 
-        return eventRepository.save(existingEvent);
+        Event saved = eventRepository.save(existingEvent);
+        catalogSnapshotService.eventChanged(id);
+        catalogSearchService.eventChanged(id);
+        return saved;
     }
 
     @Override
@@ -111,54 +143,57 @@ public class EventServiceImpl implements EventService {
     })
     public void deleteEvent(Long id) {
         eventRepository.deleteById(id);
+        catalogSnapshotService.eventRemoved(id);
+        catalogSearchService.eventRemoved(id);
     }
 
     @Override
-    public List<Event> findEventsByCreator(Long creatorId) {
-        User creator = userRepository.findById(creatorId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", creatorId));
+    public List<EventSummaryResponse> findEventsByCreator(Long creatorId) {
+        if (!userRepository.existsById(creatorId)) {
+            throw new ResourceNotFoundException("User", "id", creatorId);
+        }
 
-        return eventRepository.findByCreator(creator);
+        return eventRepository.findSummariesByCreatorId(creatorId);
     }
 
     @Override
-    @Cacheable("events")
-    public List<Event> findEventsByType(EventType eventType) {
-        return eventRepository.findByEventType(eventType);
+    @Cacheable(value = "events", key = "'type:' + #eventType")
+    public List<EventSummaryResponse> findEventsByType(EventType eventType) {
+        return eventRepository.findSummariesByEventType(eventType);
     }
 
     @Override
-    @Cacheable("events")
-    public List<Event> findEventsByStatus(EventStatus status) {
-        return eventRepository.findByStatus(status);
+    @Cacheable(value = "events", key = "'status:' + #status")
+    public List<EventSummaryResponse> findEventsByStatus(EventStatus status) {
+        return eventRepository.findSummariesByStatus(status);
     }
 
     @Override
-    @Cacheable("upcomingEvents")
-    public List<Event> findUpcomingEvents() {
-        return eventRepository.findByEventDateAfter(LocalDateTime.now());
+    @Cacheable(value = "upcomingEvents", key = "'all'")
+    public List<EventSummaryResponse> findUpcomingEvents() {
+        return eventRepository.findSummariesByEventDateAfter(LocalDateTime.now());
     }
 
     @Override
     @Cacheable(value = "eventsByVenue", key = "#venueId")
-    public List<Event> findEventsByVenue(Long venueId) {
-        return eventRepository.findByVenueId(venueId);
+    public List<EventSummaryResponse> findEventsByVenue(Long venueId) {
+        return eventRepository.findSummariesByVenueId(venueId);
     }
 
     @Override
-    public List<Event> searchEventsByName(String name) {
-        return eventRepository.findByNameContainingIgnoreCase(name);
+    public List<EventSummaryResponse> searchEventsByName(String name) {
+        return eventRepository.findSummariesByNameContaining(name);
     }
 
     @Override
-    @Cacheable("upcomingEvents")
-    public List<Event> findUpcomingEventsWithAvailableTickets() {
-        return eventRepository.findUpcomingEventsWithAvailableTickets(LocalDateTime.now());
+    @Cacheable(value = "upcomingEvents", key = "'available'")
+    public List<EventSummaryResponse> findUpcomingEventsWithAvailableTickets() {
+        return eventRepository.findUpcomingSummariesWithAvailableTickets(LocalDateTime.now());
     }
 
     @Override
-    @Cacheable("upcomingEvents")
-    public List<Event> findUpcomingEventsByCity(String city) {
-        return eventRepository.findUpcomingEventsByCity(city, LocalDateTime.now());
+    @Cacheable(value = "upcomingEvents", key = "'city:' + #city")
+    public List<EventSummaryResponse> findUpcomingEventsByCity(String city) {
+        return eventRepository.findUpcomingSummariesByCity(city, LocalDateTime.now());
     }
 }
\ No newline at end of file
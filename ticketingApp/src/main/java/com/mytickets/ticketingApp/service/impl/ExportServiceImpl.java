@@ -0,0 +1,120 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.TicketingAppException;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.repository.TransactionRepository;
+import com.mytickets.ticketingApp.service.ExportService;
+import com.mytickets.ticketingApp.util.ExportWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Admin exports that go from a database cursor to the response one row at a time. The export
+ * queries select scalar columns, so nothing is added to the persistence context while they run,
+ * and their fetch size hint keeps the driver from buffering the whole result. The read-only
+ * transaction is what lets PostgreSQL keep the cursor open; it holds one connection for as long
+ * as the client takes to download.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    // Same order as the TicketRepository.EXPORT and TransactionRepository.streamExportRows rows
+    static final String[] TICKET_COLUMNS = {"id", "ticketNumber", "eventId", "eventName", "eventDate", "section",
+            "row", "seat", "status", "originalPrice", "currentPrice", "purchaseDate", "used", "ownerId", "ownerEmail",
+            "pricingTier"};
+    static final String[] TRANSACTION_COLUMNS = {"id", "transactionNumber", "transactionDate", "type", "status",
+            "amount", "paymentIntentId", "buyerId", "buyerEmail", "sellerId", "sellerEmail", "ticketId", "ticketNumber",
+            "eventId", "eventName"};
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Rows between flushes, so a long export reaches the client while it is still being read
+    @Value("${app.export.flush-every-rows:1000}")
+    private int flushEveryRows;
+
+    private Counter ticketRows;
+    private Counter transactionRows;
+
+    @PostConstruct
+    public void init() {
+        ticketRows = Counter.builder("ticketing.export.rows")
+                .description("Rows written by admin exports")
+                .tag("dataset", "tickets")
+                .register(meterRegistry);
+        transactionRows = Counter.builder("ticketing.export.rows")
+                .description("Rows written by admin exports")
+                .tag("dataset", "transactions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ExportWriter.Format parseFormat(String format) {
+        try {
+            return ExportWriter.Format.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new TicketingAppException(e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTickets(Long eventId, ExportWriter.Format format, OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = eventId == null
+                ? ticketRepository.streamExportRows()
+                : ticketRepository.streamExportRowsByEventId(eventId)) {
+            return write("tickets", rows, format, out, TICKET_COLUMNS, ticketRows);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTransactions(LocalDateTime startDate, LocalDateTime endDate, ExportWriter.Format format,
+                                   OutputStream out) throws IOException {
+        try (Stream<Object[]> rows = transactionRepository.streamExportRows(startDate, endDate)) {
+            return write("transactions", rows, format, out, TRANSACTION_COLUMNS, transactionRows);
+        }
+    }
+
+    private long write(String dataset, Stream<Object[]> rows, ExportWriter.Format format, OutputStream out,
+                       String[] columns, Counter counter) throws IOException {
+        long started = System.nanoTime();
+        long written = 0;
+        try (ExportWriter writer = ExportWriter.open(format, out, columns)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % flushEveryRows == 0) {
+                    writer.flush();
+                    counter.increment(flushEveryRows);
+                }
+            }
+        }
+        counter.increment(written % flushEveryRows);
+        logger.info("Exported {} {} as {} in {} ms", written, dataset, format,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return written;
+    }
+}
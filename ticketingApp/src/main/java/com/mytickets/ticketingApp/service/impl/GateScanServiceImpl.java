@@ -0,0 +1,458 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
+import com.mytickets.ticketingApp.model.Event;
+import com.mytickets.ticketingApp.model.EventStatus;
+import com.mytickets.ticketingApp.model.TicketStatus;
+import com.mytickets.ticketingApp.payload.response.ScanResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.service.GateScanService;
+import com.mytickets.ticketingApp.service.TicketTokenService;
+import com.mytickets.ticketingApp.util.TicketTokenCodec;
+import com.mytickets.ticketingApp.util.TicketValidityIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Door scanning. When an event's doors open its tickets are loaded once into a
+ * {@link TicketValidityIndex}, and from then on a scan is an in-memory compare-and-set: no query,
+ * no entity load and no transaction per ticket. Admitted ticket ids are queued and their used
+ * flags written behind, everything admitted during one flush interval in a single transaction,
+ * so the database sees one write per interval instead of a lookup and a save per scan. Only
+ * admissible tickets are indexed. Any other code, such as a ticket that was still on sale when
+ * doors opened and has been bought since, is looked up once per batch of scans and added to the
+ * index once it is admissible; until then it is turned away without being remembered.
+ *
+ * Signed QR tokens are checked before any of that: a bad signature, a token for another event or
+ * one revoked by a resale is turned away on the token alone, so forged codes never reach the
+ * index or the database. Valid tokens are looked up in the index by ticket id. Bare ticket numbers
+ * and the unsigned codes issued before tokens can be guessed, so they are turned away as forged
+ * unless app.qr.accept-unsigned is set while old printouts are still in circulation.
+ *
+ * An event cancelled while its doors are open is noticed within app.gate.status-refresh-ms. The
+ * index is not told about refunds that happen after it was built; reopening the doors reloads it.
+ * A flush the database refuses leaves its used flags queued for the next run, and reopening the
+ * doors keeps them as used. Used flags still in the queue when the node dies are lost, which at
+ * the default flush interval is well under a second of scans.
+ */
+@Service
+public class GateScanServiceImpl implements GateScanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GateScanServiceImpl.class);
+
+    private static final Set<TicketStatus> ADMISSIBLE = EnumSet.of(TicketStatus.PURCHASED, TicketStatus.RESOLD);
+    private static final String QR_PREFIX = "TICKET:";
+    private static final String EVENT_CANCELLED = "EVENT_CANCELLED";
+    // Verdicts on signed tokens, reached without the index or the database
+    private static final String FORGED = "FORGED";
+    private static final String WRONG_EVENT = "WRONG_EVENT";
+    private static final String REVOKED = "REVOKED";
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TicketTokenService ticketTokenService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.gate.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${app.qr.accept-unsigned:false}")
+    private boolean acceptUnsigned;
+
+    private final ConcurrentMap<Long, GateIndex> gates = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> pendingUsed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private TransactionTemplate transactionTemplate;
+    private final Map<String, Counter> scanCounters = new HashMap<>();
+    private Counter flushedTickets;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<String> outcomes = new ArrayList<>();
+        for (TicketValidityIndex.Outcome outcome : TicketValidityIndex.Outcome.values()) {
+            outcomes.add(outcome.name());
+        }
+        outcomes.addAll(List.of(EVENT_CANCELLED, FORGED, WRONG_EVENT, REVOKED));
+        for (String outcome : outcomes) {
+            scanCounters.put(outcome, Counter.builder("ticketing.gate.scans")
+                    .description("Tickets scanned at the doors")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        flushedTickets = Counter.builder("ticketing.gate.used.flushed")
+                .description("Used flags written to the tickets table")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.gate.used.pending", pendingCount, AtomicInteger::get)
+                .description("Admitted tickets whose used flag has not been written yet")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, Object> openDoors(Long eventId) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+        if (event.getStatus() == EventStatus.CANCELLED) {
+            throw new IllegalStateException("Event " + eventId + " is cancelled");
+        }
+
+        // Reloading must not forget scans that are still queued, including any the database refused
+        flush();
+        Set<Long> unwritten = new HashSet<>(pendingUsed);
+
+        long started = System.currentTimeMillis();
+        List<Object[]> rows = ticketRepository.findGateEntriesByEventId(eventId);
+        TicketValidityIndex index = new TicketValidityIndex(rows.size(), started);
+        for (Object[] row : rows) {
+            // Left out rather than indexed as not valid, so a later sale or resale can still admit it
+            if (ADMISSIBLE.contains((TicketStatus) row[2])) {
+                index.add((String) row[1], (Long) row[0], true,
+                        Boolean.TRUE.equals(row[3]) || unwritten.contains((Long) row[0]));
+            }
+        }
+
+        GateIndex gate = new GateIndex(eventId, index, started);
+        gates.put(eventId, gate);
+        logger.info("Doors open for event {}: {} tickets indexed in {} ms", eventId, index.size(),
+                System.currentTimeMillis() - started);
+        return describe(gate);
+    }
+
+    @Override
+    public void closeDoors(Long eventId) {
+        flush();
+        GateIndex gate = gates.remove(eventId);
+        if (gate != null) {
+            logger.info("Doors closed for event {} after admitting {} tickets", eventId, gate.admitted.get());
+        }
+    }
+
+    @Override
+    public ScanResponse scan(Long eventId, String scannedCode) {
+        if (scannedCode == null || scannedCode.isBlank()) {
+            throw new IllegalArgumentException("Nothing was scanned");
+        }
+        return scanBatch(eventId, Collections.singletonList(scannedCode)).get(0);
+    }
+
+    @Override
+    public List<ScanResponse> scanBatch(Long eventId, List<String> scannedCodes) {
+        int count = scannedCodes.size();
+        // Per code either a ticket number or a verified token, and a verdict reached without the index
+        String[] ticketNumbers = new String[count];
+        TicketTokenCodec.Token[] tokens = new TicketTokenCodec.Token[count];
+        String[] rejections = new String[count];
+        for (int i = 0; i < count; i++) {
+            String code = scannedCodes.get(i) != null ? scannedCodes.get(i).trim() : null;
+            if (code == null || code.isEmpty()) {
+                // A misread in a buffered batch gets its own verdict instead of failing the others
+                rejections[i] = TicketValidityIndex.Outcome.UNKNOWN.name();
+            } else if (TicketTokenCodec.isToken(code)) {
+                tokens[i] = ticketTokenService.verify(code);
+                rejections[i] = tokens[i] == null ? FORGED
+                        : tokens[i].getEventId() != eventId ? WRONG_EVENT
+                        : ticketTokenService.isRevoked(tokens[i].getTicketId(), tokens[i].getGeneration()) ? REVOKED
+                        : null;
+            } else if (!acceptUnsigned) {
+                rejections[i] = FORGED;
+            } else {
+                ticketNumbers[i] = ticketNumberOf(code);
+                // Unsigned codes cannot tell the new owner from the previous one
+                rejections[i] = ticketTokenService.isRevoked(ticketNumbers[i]) ? REVOKED : null;
+            }
+        }
+        long now = System.currentTimeMillis();
+
+        List<ScanResponse> responses = new ArrayList<>(count);
+        GateIndex gate = gates.get(eventId);
+        if (gate == null) {
+            for (int i = 0; i < count; i++) {
+                responses.add(rejections[i] != null
+                        ? respond(eventId, ticketNumbers[i], tokens[i], 0, rejections[i], 0)
+                        : scanWithoutIndex(eventId, ticketNumbers[i], tokens[i], now));
+            }
+            return responses;
+        }
+
+        if (gate.cancelled) {
+            for (int i = 0; i < count; i++) {
+                responses.add(respond(eventId, ticketNumbers[i], tokens[i], 0,
+                        rejections[i] != null ? rejections[i] : EVENT_CANCELLED, 0));
+            }
+            return responses;
+        }
+
+        TicketValidityIndex.Scan[] scans = new TicketValidityIndex.Scan[count];
+        Set<String> unknownNumbers = new HashSet<>();
+        Set<Long> unknownIds = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            if (rejections[i] != null) {
+                continue;
+            }
+            scans[i] = consume(gate, ticketNumbers[i], tokens[i], now);
+            if (scans[i].getOutcome() == TicketValidityIndex.Outcome.UNKNOWN) {
+                if (tokens[i] != null) {
+                    unknownIds.add(tokens[i].getTicketId());
+                } else {
+                    unknownNumbers.add(ticketNumbers[i]);
+                }
+            }
+        }
+
+        // Not in the index: not admissible when doors opened, for another event, or not a ticket at all.
+        // All of them are looked up in at most two queries, then scanned again in their original order.
+        if (!unknownNumbers.isEmpty() || !unknownIds.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>();
+            if (!unknownNumbers.isEmpty()) {
+                rows.addAll(ticketRepository.findGateEntriesByTicketNumberIn(unknownNumbers));
+            }
+            if (!unknownIds.isEmpty()) {
+                rows.addAll(ticketRepository.findGateEntriesByIdIn(unknownIds));
+            }
+            Set<String> otherEvent = new HashSet<>();
+            // Tickets of this event that cannot be admitted yet; kept out of the index like at doors open
+            Map<String, Long> notAdmissible = new HashMap<>();
+            Set<Long> notAdmissibleIds = new HashSet<>();
+            for (Object[] row : rows) {
+                String ticketNumber = (String) row[0];
+                Long ticketId = (Long) row[1];
+                if (!gate.eventId.equals(row[2])) {
+                    otherEvent.add(ticketNumber);
+                } else if (ADMISSIBLE.contains((TicketStatus) row[3])) {
+                    gate.index.addLate(ticketNumber, ticketId, true, Boolean.TRUE.equals(row[4]));
+                } else {
+                    notAdmissible.put(ticketNumber, ticketId);
+                    notAdmissibleIds.add(ticketId);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                if (scans[i] == null || scans[i].getOutcome() != TicketValidityIndex.Outcome.UNKNOWN) {
+                    continue;
+                }
+                if (tokens[i] == null && otherEvent.contains(ticketNumbers[i])) {
+                    scans[i] = TicketValidityIndex.Scan.of(TicketValidityIndex.Outcome.NOT_VALID, 0, 0);
+                } else if (tokens[i] == null && notAdmissible.containsKey(ticketNumbers[i])) {
+                    scans[i] = TicketValidityIndex.Scan.of(TicketValidityIndex.Outcome.NOT_VALID, notAdmissible.get(ticketNumbers[i]), 0);
+                } else if (tokens[i] != null && notAdmissibleIds.contains(tokens[i].getTicketId())) {
+                    scans[i] = TicketValidityIndex.Scan.of(TicketValidityIndex.Outcome.NOT_VALID, tokens[i].getTicketId(), 0);
+                } else {
+                    scans[i] = consume(gate, ticketNumbers[i], tokens[i], now);
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            TicketValidityIndex.Scan scan = scans[i];
+            if (scan == null) {
+                responses.add(respond(eventId, ticketNumbers[i], tokens[i], 0, rejections[i], 0));
+                continue;
+            }
+            if (scan.getOutcome() == TicketValidityIndex.Outcome.ADMITTED) {
+                gate.admitted.incrementAndGet();
+                pendingUsed.add(scan.getTicketId());
+                pendingCount.incrementAndGet();
+            }
+            responses.add(respond(eventId, ticketNumbers[i], tokens[i], scan.getTicketId(), scan.getOutcome().name(),
+                    scan.getUsedAtMillis()));
+        }
+        return responses;
+    }
+
+    @Override
+    public void recordUsed(Long eventId, String ticketNumber) {
+        GateIndex gate = gates.get(eventId);
+        if (gate != null) {
+            // The caller has written the flag itself, so nothing is queued
+            gate.index.consume(ticketNumber, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.gate.flush-interval-ms:500}")
+    public int flush() {
+        List<Long> ticketIds = new ArrayList<>(pendingCount.get());
+        Long ticketId;
+        while ((ticketId = pendingUsed.poll()) != null) {
+            ticketIds.add(ticketId);
+        }
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+
+        // Everything admitted since the last run goes out in one transaction
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < ticketIds.size(); from += flushBatchSize) {
+                    ticketRepository.markUsed(ticketIds.subList(from, Math.min(from + flushBatchSize, ticketIds.size())));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Put them back for the next run rather than forgetting admitted tickets; the doors keep
+            // working from the index in the meantime
+            pendingUsed.addAll(ticketIds);
+            logger.error("Could not write used flags for {} tickets, retrying on the next run: {}",
+                    ticketIds.size(), e.getMessage());
+            return 0;
+        }
+        pendingCount.addAndGet(-ticketIds.size());
+        flushedTickets.increment(ticketIds.size());
+        return ticketIds.size();
+    }
+
+    /**
+     * Pick up cancellations of events whose doors are open, so their tickets stop being admitted.
+     */
+    @Scheduled(fixedDelayString = "${app.gate.status-refresh-ms:5000}")
+    public void refreshEventStatus() {
+        for (GateIndex gate : gates.values()) {
+            gate.cancelled = eventRepository.findStatusById(gate.eventId)
+                    .map(status -> status == EventStatus.CANCELLED)
+                    .orElse(true);
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getOpenGates() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (GateIndex gate : gates.values()) {
+            result.add(describe(gate));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (pendingCount.get() > 0) {
+            logger.error("Could not write {} used flags on shutdown", pendingCount.get());
+        }
+    }
+
+    // Slow path for events whose doors were not opened: one lookup and one conditional update per scan
+    private ScanResponse scanWithoutIndex(Long eventId, String ticketNumber, TicketTokenCodec.Token token, long now) {
+        List<Object[]> rows = token != null
+                ? ticketRepository.findGateEntriesByIdIn(Collections.singleton(token.getTicketId()))
+                : ticketRepository.findGateEntriesByTicketNumberIn(Collections.singleton(ticketNumber));
+        if (rows.isEmpty()) {
+            return respond(eventId, ticketNumber, token, 0, TicketValidityIndex.Outcome.UNKNOWN.name(), 0);
+        }
+        Object[] row = rows.get(0);
+        String number = (String) row[0];
+        Long ticketId = (Long) row[1];
+        if (!eventId.equals(row[2]) || !ADMISSIBLE.contains((TicketStatus) row[3])) {
+            return respond(eventId, number, token, ticketId, TicketValidityIndex.Outcome.NOT_VALID.name(), 0);
+        }
+        if (row[5] == EventStatus.CANCELLED) {
+            return respond(eventId, number, token, ticketId, EVENT_CANCELLED, 0);
+        }
+
+        Integer updated = transactionTemplate.execute(status ->
+                ticketRepository.consumeTicket(number, eventId, ADMISSIBLE));
+        return updated != null && updated == 1
+                ? respond(eventId, number, token, ticketId, TicketValidityIndex.Outcome.ADMITTED.name(), now)
+                : respond(eventId, number, token, ticketId, TicketValidityIndex.Outcome.ALREADY_USED.name(), 0);
+    }
+
+    private static TicketValidityIndex.Scan consume(GateIndex gate, String ticketNumber, TicketTokenCodec.Token token, long now) {
+        return token != null ? gate.index.consumeById(token.getTicketId(), now) : gate.index.consume(ticketNumber, now);
+    }
+
+    private ScanResponse respond(Long eventId, String ticketNumber, TicketTokenCodec.Token token, long ticketId,
+                                 String outcome, long usedAtMillis) {
+        scanCounters.get(outcome).increment();
+
+        ScanResponse response = new ScanResponse();
+        response.setEventId(eventId);
+        response.setTicketNumber(ticketNumber);
+        if (ticketId == 0 && token != null) {
+            ticketId = token.getTicketId();
+        }
+        response.setTicketId(ticketId != 0 ? ticketId : null);
+        if (token != null) {
+            response.setSeat(token.getSeat());
+        }
+        response.setOutcome(outcome);
+        response.setAdmitted(TicketValidityIndex.Outcome.ADMITTED.name().equals(outcome));
+        if (!response.isAdmitted() && usedAtMillis != 0) {
+            response.setFirstScannedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(usedAtMillis), ZoneId.systemDefault()));
+        }
+        return response;
+    }
+
+    /**
+     * Accepts a bare ticket number as well as the unsigned QR content issued before tokens, of the
+     * form {@code TICKET:<number>} with optional {@code |}-separated details after it.
+     */
+    static String ticketNumberOf(String scannedCode) {
+        if (scannedCode == null || scannedCode.isBlank()) {
+            throw new IllegalArgumentException("Nothing was scanned");
+        }
+        String code = scannedCode.trim();
+        if (code.startsWith(QR_PREFIX)) {
+            code = code.substring(QR_PREFIX.length());
+            int details = code.indexOf('|');
+            if (details >= 0) {
+                code = code.substring(0, details);
+            }
+        }
+        return code;
+    }
+
+    private Map<String, Object> describe(GateIndex gate) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("eventId", gate.eventId);
+        map.put("openedAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(gate.openedAtMillis), ZoneId.systemDefault()));
+        map.put("tickets", gate.index.size());
+        map.put("used", gate.index.usedCount());
+        map.put("admitted", gate.admitted.get());
+        map.put("pendingWrites", pendingCount.get());
+        return map;
+    }
+
+    private static final class GateIndex {
+        private final Long eventId;
+        private final TicketValidityIndex index;
+        private final long openedAtMillis;
+        private final AtomicInteger admitted = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private GateIndex(Long eventId, TicketValidityIndex index, long openedAtMillis) {
+            this.eventId = eventId;
+            this.index = index;
+            this.openedAtMillis = openedAtMillis;
+        }
+    }
+}
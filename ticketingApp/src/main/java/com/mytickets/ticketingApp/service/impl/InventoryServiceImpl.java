@@ -0,0 +1,290 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.Event;
+import com.mytickets.ticketingApp.model.TicketStatus;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.service.InventoryService;
+import com.mytickets.ticketingApp.util.StripedCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps sellable inventory per event and pricing tier in striped in-memory counters so that
+ * purchases never have to lock the events row. Sold units are accumulated per event/tier and
+ * written back to Event.availableTickets and PricingTier.available in periodic batches.
+ * Counters are sourced from the number of AVAILABLE ticket rows, which is the real sellable stock.
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Long, StripedCounter> eventCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, TierCounter> tierCounters = new ConcurrentHashMap<>();
+
+    // Units sold since the last flush, not yet reflected in the database columns
+    private final ConcurrentMap<Long, LongAdder> pendingEventSales = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, LongAdder> pendingTierSales = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter flushedUnits;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        flushedUnits = Counter.builder("ticketing.inventory.flushed.units")
+                .description("Sold units written back to the events and pricing tiers tables")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.inventory.pending.units", pendingEventSales, InventoryServiceImpl::sumPending)
+                .description("Sold units waiting for the next inventory flush")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.inventory.tracked.events", eventCounters, Map::size)
+                .description("Events with an in-memory inventory counter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean reserve(Long eventId, Long pricingTierId) {
+        StripedCounter eventCounter = eventCounter(eventId);
+        if (!eventCounter.tryDecrement()) {
+            return false;
+        }
+
+        StripedCounter tierCounter = pricingTierId != null ? tierCounter(eventId, pricingTierId) : null;
+        if (tierCounter != null && !tierCounter.tryDecrement()) {
+            eventCounter.add(1);
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        recordSale(eventId, pricingTierId);
+                    } else {
+                        release(eventId, eventCounter, pricingTierId, tierCounter);
+                    }
+                }
+            });
+        } else {
+            recordSale(eventId, pricingTierId);
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean isAvailable(Long eventId, Long pricingTierId) {
+        if (eventCounter(eventId).sum() == 0) {
+            return false;
+        }
+        return pricingTierId == null || tierCounter(eventId, pricingTierId).sum() > 0;
+    }
+
+    @Override
+    public long getAvailableTickets(Long eventId) {
+        return eventCounter(eventId).sum();
+    }
+
+    @Override
+    public long getAvailableInTier(Long eventId, Long pricingTierId) {
+        return tierCounter(eventId, pricingTierId).sum();
+    }
+
+    @Override
+    public void refresh(Long eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(eventId);
+                }
+            });
+        } else {
+            evict(eventId);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.inventory.flush-interval-ms:1000}")
+    public int flush() {
+        Map<Long, Long> eventUnits = drain(pendingEventSales);
+        Map<Long, Long> tierUnits = drain(pendingTierSales);
+        if (eventUnits.isEmpty() && tierUnits.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                eventUnits.forEach((eventId, units) ->
+                        eventRepository.subtractAvailableTickets(eventId, units.intValue()));
+                tierUnits.forEach((tierId, units) ->
+                        pricingTierRepository.subtractAvailable(tierId, units.intValue()));
+            });
+        } catch (RuntimeException e) {
+            // Put the units back so the next run retries them
+            eventUnits.forEach((eventId, units) -> pending(pendingEventSales, eventId).add(units));
+            tierUnits.forEach((tierId, units) -> pending(pendingTierSales, tierId).add(units));
+            logger.error("Inventory flush failed, will retry: {}", e.getMessage());
+            return 0;
+        }
+
+        int written = eventUnits.values().stream().mapToInt(Long::intValue).sum();
+        flushedUnits.increment(written);
+        return written;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, StripedCounter> events = new HashMap<>();
+        for (Object[] row : ticketRepository.countByStatusGroupedByEvent(TicketStatus.AVAILABLE)) {
+            events.put((Long) row[0], new StripedCounter((Long) row[1]));
+        }
+
+        Map<Long, TierCounter> tiers = new HashMap<>();
+        for (Object[] row : ticketRepository.countByStatusGroupedByPricingTier(TicketStatus.AVAILABLE)) {
+            tiers.put((Long) row[1], new TierCounter((Long) row[0], new StripedCounter((Long) row[2])));
+        }
+
+        eventCounters.clear();
+        eventCounters.putAll(events);
+        tierCounters.clear();
+        tierCounters.putAll(tiers);
+
+        logger.info("Rebuilt inventory counters for {} events and {} pricing tiers", events.size(), tiers.size());
+    }
+
+    @Override
+    public Map<String, Object> getDrift(Long eventId) {
+        long cached = getAvailableTickets(eventId);
+        long pending = pending(pendingEventSales, eventId).sum();
+        long ticketRows = ticketRepository.countByEventIdAndStatus(eventId, TicketStatus.AVAILABLE);
+        Integer persisted = eventRepository.findById(eventId)
+                .map(Event::getAvailableTickets)
+                .orElse(null);
+
+        Map<String, Object> drift = new HashMap<>();
+        drift.put("eventId", eventId);
+        drift.put("cachedAvailable", cached);
+        drift.put("pendingFlush", pending);
+        drift.put("availableTicketRows", ticketRows);
+        drift.put("persistedAvailable", persisted);
+        // Ticket rows versus the counter; non-zero only while purchases are in flight or after a missed refresh
+        drift.put("counterDrift", ticketRows - cached);
+        // What the events column will still disagree by once pending sales are flushed
+        drift.put("columnDrift", persisted != null ? persisted - pending - cached : null);
+        return drift;
+    }
+
+    @Override
+    public List<Map<String, Object>> getDriftReport() {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (Long eventId : new TreeSet<>(eventCounters.keySet())) {
+            report.add(getDrift(eventId));
+        }
+        return report;
+    }
+
+    private StripedCounter eventCounter(Long eventId) {
+        return eventCounters.computeIfAbsent(eventId, id ->
+                new StripedCounter(ticketRepository.countByEventIdAndStatus(id, TicketStatus.AVAILABLE)));
+    }
+
+    private StripedCounter tierCounter(Long eventId, Long pricingTierId) {
+        return tierCounters.computeIfAbsent(pricingTierId, id -> new TierCounter(eventId,
+                new StripedCounter(ticketRepository.countByPricingTierIdAndStatus(id, TicketStatus.AVAILABLE))))
+                .counter;
+    }
+
+    private void recordSale(Long eventId, Long pricingTierId) {
+        pending(pendingEventSales, eventId).increment();
+        if (pricingTierId != null) {
+            pending(pendingTierSales, pricingTierId).increment();
+        }
+    }
+
+    // Each counter instance is one generation of the figures. One reloaded while the reservation was
+    // in flight already counts the rolled-back ticket as available, so the unit only goes back to
+    // the counter it was taken from.
+    private void release(Long eventId, StripedCounter eventCounter, Long pricingTierId, StripedCounter tierCounter) {
+        if (eventCounters.get(eventId) == eventCounter) {
+            eventCounter.add(1);
+        }
+        TierCounter tier = pricingTierId != null ? tierCounters.get(pricingTierId) : null;
+        if (tier != null && tier.counter == tierCounter) {
+            tierCounter.add(1);
+        }
+    }
+
+    private void evict(Long eventId) {
+        eventCounters.remove(eventId);
+        tierCounters.values().removeIf(tier -> tier.eventId.equals(eventId));
+    }
+
+    private static LongAdder pending(ConcurrentMap<Long, LongAdder> sales, Long id) {
+        return sales.computeIfAbsent(id, key -> new LongAdder());
+    }
+
+    private static Map<Long, Long> drain(ConcurrentMap<Long, LongAdder> sales) {
+        Map<Long, Long> drained = new HashMap<>();
+        sales.forEach((id, adder) -> {
+            long units = adder.sumThenReset();
+            if (units > 0) {
+                drained.put(id, units);
+            }
+        });
+        return drained;
+    }
+
+    private static double sumPending(ConcurrentMap<Long, LongAdder> sales) {
+        return sales.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static class TierCounter {
+        private final Long eventId;
+        private final StripedCounter counter;
+
+        private TierCounter(Long eventId, StripedCounter counter) {
+            this.eventId = eventId;
+            this.counter = counter;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.mytickets.ticketingApp.service.impl;
 
+import com.mytickets.ticketingApp.aspect.RetryOnConflict;
 import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
 import com.mytickets.ticketingApp.model.Event;
 import com.mytickets.ticketingApp.model.PricingTier;
 import com.mytickets.ticketingApp.repository.EventRepository;
 import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
 import com.mytickets.ticketingApp.service.PricingTierService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,9 @@ public class PricingTierServiceImpl implements PricingTierService {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
     @Override
     public List<PricingTier> getAllPricingTiers() {
         return pricingTierRepository.findAll();
@@ -70,10 +75,15 @@ public class PricingTierServiceImpl implements PricingTierService {
             }
         }
 
-        return pricingTierRepository.save(pricingTier);
+        PricingTier saved = pricingTierRepository.save(pricingTier);
+        if (saved.getEvent() != null) {
+            catalogSearchService.eventChanged(saved.getEvent().getId());
+        }
+        return saved;
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public PricingTier updatePricingTier(Long id, PricingTier updatedPricingTier) {
         PricingTier existingPricingTier = pricingTierRepository.findById(id)
@@ -115,10 +125,15 @@ public class PricingTierServiceImpl implements PricingTierService {
             }
         }
 
-        return pricingTierRepository.save(existingPricingTier);
+        PricingTier saved = pricingTierRepository.save(existingPricingTier);
+        if (saved.getEvent() != null) {
+            catalogSearchService.eventChanged(saved.getEvent().getId());
+        }
+        return saved;
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void deletePricingTier(Long id) {
         PricingTier pricingTier = pricingTierRepository.findById(id)
@@ -141,5 +156,8 @@ public class PricingTierServiceImpl implements PricingTierService {
         }
 
         pricingTierRepository.deleteById(id);
+        if (pricingTier.getEvent() != null) {
+            catalogSearchService.eventChanged(pricingTier.getEvent().getId());
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 // src/main/java/com/mytickets/ticketingApp/service/impl/QRCodeServiceImpl.java
 package com.mytickets.ticketingApp.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.MultiFormatReader;
@@ -13,41 +15,172 @@ import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.HybridBinarizer;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.mytickets.ticketingApp.service.QRCodeService;
+import com.mytickets.ticketingApp.util.BitMatrixPngEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
-
-import javax.imageio.ImageIO;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 @Service
 public class QRCodeServiceImpl implements QRCodeService {
 
+    // Slices per worker thread, so one slow slice does not leave the other cores idle at the end of a batch
+    private static final int SLICES_PER_THREAD = 4;
+
+    // Part of every ticket QR ETag; bump it whenever the rendered bytes for the same input change
+    private static final String TICKET_QR_RENDER_VERSION = "3";
+    private static final int MIN_TICKET_QR_SIZE = 64;
+
+    // QRCodeWriter keeps no state between calls, so one instance serves every thread
+    private static final QRCodeWriter QR_CODE_WRITER = new QRCodeWriter();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 means one thread per available core
+    @Value("${app.qrcode.render-threads:0}")
+    private int renderThreads;
+
+    @Value("${app.qrcode.render-queue-capacity:256}")
+    private int renderQueueCapacity;
+
+    @Value("${app.ticket.service.qrcode.width:250}")
+    private int defaultTicketQRCodeSize;
+
+    @Value("${app.qrcode.max-size:1024}")
+    private int maxTicketQRCodeSize;
+
+    @Value("${app.qrcode.cache-max-bytes:67108864}")
+    private long cacheMaxBytes;
+
+    private ThreadPoolExecutor renderPool;
+    private Counter renderFailures;
+    // Keyed by size and token; weighed by encoded PNG bytes so the bound is a memory bound
+    private Cache<String, byte[]> ticketQRCodes;
+
+    @PostConstruct
+    public void init() {
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Rendering is pure CPU work, so more threads than cores only adds contention. When the queue
+        // is full the submitting thread renders the slice itself, which throttles producers naturally.
+        renderPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(renderQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "qr-render-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        renderFailures = Counter.builder("ticketing.qrcode.render.failures")
+                .description("QR codes that could not be rendered in a batch")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.qrcode.render.queued", renderPool, pool -> pool.getQueue().size())
+                .description("QR rendering slices waiting for a worker")
+                .register(meterRegistry);
+
+        ticketQRCodes = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String key, byte[] png) -> png.length + key.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, ticketQRCodes, "ticketQRCodes");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+
     public String generateQRCodeAsBase64(String content, int width, int height) {
+        // Use smaller dimensions to reduce the size of the base64 output
+        return Base64.getEncoder().encodeToString(generateQRCodeBytes(content, 100, 100));
+    }
+
+    @Override
+    public int normalizeTicketQRCodeSize(Integer requestedSize) {
+        if (requestedSize == null) {
+            return defaultTicketQRCodeSize;
+        }
+        return Math.max(MIN_TICKET_QR_SIZE, Math.min(maxTicketQRCodeSize, requestedSize));
+    }
+
+    @Override
+    public byte[] getTicketQRCodePng(String token, int size) {
+        return ticketQRCodes.get(cacheKey(token, size), key -> generateQRCodeBytes(token, size, size));
+    }
+
+    @Override
+    public String getTicketQRCodeETag(String token, int size) {
         try {
-            // Use smaller dimensions to reduce the size of the base64 output
-            int smallerWidth = 100;  // Reduced from the likely 250 or higher
-            int smallerHeight = 100;
-
-            BufferedImage qrCodeImage = generateQRCodeImage(content, smallerWidth, smallerHeight);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(qrCodeImage, "png", baos);
-            byte[] imageBytes = baos.toByteArray();
-
-            return Base64.getEncoder().encodeToString(imageBytes);
-        } catch (Exception e) {
-            // Log the error
-            System.err.println("Error generating QR code: " + e.getMessage());
-            throw new RuntimeException("Error generating QR code", e);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((TICKET_QR_RENDER_VERSION + "|" + cacheKey(token, size))
+                    .getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
+    @Override
+    public CompletableFuture<Void> prerenderTicketQRCodes(List<String> tokens, int size) {
+        return runSliced(tokens.size(), i -> {
+            try {
+                getTicketQRCodePng(tokens.get(i), size);
+            } catch (RuntimeException e) {
+                // Rendered again on the first request for it
+                renderFailures.increment();
+            }
+        });
+    }
+
+    private static String cacheKey(String token, int size) {
+        return size + ":" + token;
+    }
+
+    // Splits [0, count) into slices and runs them on the render pool
+    private CompletableFuture<Void> runSliced(int count, IntConsumer task) {
+        if (count == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int slices = Math.min(count, renderPool.getMaximumPoolSize() * SLICES_PER_THREAD);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[slices];
+        for (int slice = 0; slice < slices; slice++) {
+            int from = (int) ((long) slice * count / slices);
+            int to = (int) ((long) (slice + 1) * count / slices);
+            futures[slice] = CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    task.accept(i);
+                }
+            }, renderPool);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
     @Override
     public BufferedImage generateQRCodeImage(String content, int width, int height) throws WriterException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, width, height);
+        BitMatrix bitMatrix = QR_CODE_WRITER.encode(content, BarcodeFormat.QR_CODE, width, height);
 
         return MatrixToImageWriter.toBufferedImage(bitMatrix);
     }
@@ -69,12 +202,9 @@ public class QRCodeServiceImpl implements QRCodeService {
     @Override
     public byte[] generateQRCodeBytes(String content, int width, int height) {
         try {
-            BufferedImage image = generateQRCodeImage(content, width, height);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "png", baos);
-
-            return baos.toByteArray();
-        } catch (IOException | WriterException e) {
+            // Straight from the module matrix to a 1-bit PNG, skipping the ARGB image and ImageIO
+            return BitMatrixPngEncoder.encode(QR_CODE_WRITER.encode(content, BarcodeFormat.QR_CODE, width, height));
+        } catch (WriterException | IllegalArgumentException e) {
             throw new RuntimeException("Failed to generate QR code", e);
         }
     }
@@ -0,0 +1,154 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.ListingStatus;
+import com.mytickets.ticketingApp.model.TicketListing;
+import com.mytickets.ticketingApp.payload.response.ListingSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.OrderBookResponse;
+import com.mytickets.ticketingApp.repository.TicketListingRepository;
+import com.mytickets.ticketingApp.service.ResaleOrderBookService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
+import com.mytickets.ticketingApp.util.ListingOrderBook;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a {@link ListingOrderBook} of the active resale listings of each event, so the listing
+ * pages, counts and price depth are read from memory instead of a join and sort per request.
+ * Listing writes on this node patch the books after their transaction commits; a periodic rebuild
+ * picks up writes made on other nodes. The first read on a node builds the books if no rebuild has
+ * run yet.
+ */
+@Service
+public class ResaleOrderBookServiceImpl implements ResaleOrderBookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResaleOrderBookServiceImpl.class);
+
+    private static final int MAX_DEPTH = 100;
+    private static final int MAX_BUCKETS = 200;
+
+    @Autowired
+    private TicketListingRepository ticketListingRepository;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Event id to its book; swapped whole by a rebuild, patched in place by single writes
+    private volatile Map<Long, ListingOrderBook<ListingSummaryResponse>> books;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("ticketing.listings.book.asks", this, service -> {
+                    Map<Long, ListingOrderBook<ListingSummaryResponse>> current = service.books;
+                    return current == null ? 0 : current.values().stream().mapToInt(ListingOrderBook::size).sum();
+                })
+                .description("Active resale listings held in the order books")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<ListingSummaryResponse> getCheapestListings(Long eventId, int limit) {
+        ListingOrderBook<ListingSummaryResponse> book = books().get(eventId);
+        if (book == null) {
+            return List.of();
+        }
+        return book.cheapest(limit, listing -> !seatHoldService.isListingHeld(listing.getId()));
+    }
+
+    @Override
+    public int countListings(Long eventId) {
+        ListingOrderBook<ListingSummaryResponse> book = books().get(eventId);
+        return book == null ? 0 : book.size();
+    }
+
+    @Override
+    public OrderBookResponse getOrderBook(Long eventId, int depth, Double bucketWidth) {
+        ListingOrderBook<ListingSummaryResponse> book = books().get(eventId);
+        if (book == null) {
+            book = new ListingOrderBook<>();
+        }
+        return new OrderBookResponse(eventId, book.size(), book.bestPrice(),
+                book.depth(Math.max(1, Math.min(depth, MAX_DEPTH))),
+                bucketWidth == null ? List.of() : book.histogram(bucketWidth, MAX_BUCKETS));
+    }
+
+    @Override
+    public void listingChanged(TicketListing listing) {
+        // Read now, while the listing's ticket and seller can still be loaded
+        ListingSummaryResponse summary = ListingSummaryResponse.of(listing);
+        boolean active = listing.getStatus() == ListingStatus.ACTIVE;
+        afterCommit(() -> {
+            Map<Long, ListingOrderBook<ListingSummaryResponse>> current = books;
+            if (current == null || summary.getEventId() == null) {
+                return;
+            }
+            if (active) {
+                current.computeIfAbsent(summary.getEventId(), id -> new ListingOrderBook<>())
+                        .put(summary.getId(), summary.getAskingPrice(), summary);
+            } else {
+                ListingOrderBook<ListingSummaryResponse> book = current.get(summary.getEventId());
+                if (book != null) {
+                    book.remove(summary.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Build fresh books from every active listing and swap them in. A write patched into the old
+     * books while this runs may be missing from the new ones until the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.listings.book-rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Map<Long, ListingOrderBook<ListingSummaryResponse>> rebuilt = new ConcurrentHashMap<>();
+        List<ListingSummaryResponse> listings = ticketListingRepository.findActiveListingSummaries();
+        for (ListingSummaryResponse listing : listings) {
+            rebuilt.computeIfAbsent(listing.getEventId(), id -> new ListingOrderBook<>())
+                    .put(listing.getId(), listing.getAskingPrice(), listing);
+        }
+        books = rebuilt;
+        logger.debug("Rebuilt resale order books of {} listings over {} events in {} ms",
+                listings.size(), rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Map<Long, ListingOrderBook<ListingSummaryResponse>> books() {
+        Map<Long, ListingOrderBook<ListingSummaryResponse>> current = books;
+        if (current == null) {
+            synchronized (this) {
+                if (books == null) {
+                    rebuild();
+                }
+                current = books;
+            }
+        }
+        return current;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import com.mytickets.ticketingApp.model.TicketStatus;
+import com.mytickets.ticketingApp.payload.response.SeatAllocationResponse;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.service.SeatAllocationService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
+import com.mytickets.ticketingApp.util.SeatMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Seat maps are built on first use from one query over the tier's tickets, counting a seat as free
+ * when it is AVAILABLE and not held for checkout. From then on an allocation is a search of the
+ * row bitsets plus one in-memory hold per seat. The maps are rebuilt every
+ * app.seat-map.rebuild-interval-ms, which returns seats whose holds ran out and removes seats sold
+ * on other nodes; a map nobody asked for during app.seat-map.idle-ms is dropped instead.
+ *
+ * The seat hold, not the map, is what makes a seat the buyer's: a seat the map still showed free
+ * but someone else holds fails to hold, is taken out of the map, and the search runs again.
+ */
+@Service
+public class SeatAllocationServiceImpl implements SeatAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatAllocationServiceImpl.class);
+
+    // Each retry follows a hold lost to a buyer outside the allocator, which takes that seat out of the map
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ticket.service.max-purchase-per-transaction:10}")
+    private int maxQuantity;
+
+    @Value("${app.seat-map.idle-ms:600000}")
+    private long idleMs;
+
+    private final ConcurrentMap<Long, TrackedSeatMap> seatMaps = new ConcurrentHashMap<>();
+
+    private Timer allocationTimer;
+
+    @PostConstruct
+    public void init() {
+        allocationTimer = Timer.builder("ticketing.seats.allocate")
+                .description("Time to find and hold a block of adjacent seats")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.seats.maps", seatMaps, Map::size)
+                .description("Pricing tiers with a seat map in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SeatAllocationResponse allocateBestAvailable(Long pricingTierId, String section, int quantity, Long buyerId) {
+        if (quantity < 1 || quantity > maxQuantity) {
+            throw new IllegalArgumentException("Between 1 and " + maxQuantity + " seats can be allocated at once");
+        }
+        String wantedSection = section != null && !section.isBlank() ? section : null;
+        return allocationTimer.record(() -> allocate(pricingTierId, wantedSection, quantity, buyerId));
+    }
+
+    @Override
+    public void release(Long pricingTierId, List<Long> ticketIds, Long buyerId) {
+        SeatMap seatMap = seatMap(pricingTierId);
+        for (Long ticketId : ticketIds) {
+            if (seatHoldService.isTicketHeld(ticketId) && !seatHoldService.isTicketHeldByOther(ticketId, buyerId)) {
+                seatHoldService.releaseTicket(ticketId);
+                seatMap.release(ticketId);
+            }
+        }
+    }
+
+    @Override
+    public void markSold(Long pricingTierId, Long ticketId) {
+        TrackedSeatMap tracked = pricingTierId != null ? seatMaps.get(pricingTierId) : null;
+        if (tracked != null) {
+            tracked.seatMap.markTaken(ticketId);
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Integer>> getAvailability(Long pricingTierId) {
+        return seatMap(pricingTierId).availableByRow();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.seat-map.rebuild-interval-ms:15000}")
+    public int rebuildSeatMaps() {
+        long idleSince = System.currentTimeMillis() - idleMs;
+        int rebuilt = 0;
+        for (Map.Entry<Long, TrackedSeatMap> entry : seatMaps.entrySet()) {
+            if (entry.getValue().lastUsedMs < idleSince) {
+                seatMaps.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            try {
+                // Replaced rather than updated, so buyers keep working on the old map meanwhile
+                seatMaps.replace(entry.getKey(), entry.getValue(),
+                        new TrackedSeatMap(build(entry.getKey()), entry.getValue().lastUsedMs));
+                rebuilt++;
+            } catch (RuntimeException e) {
+                logger.error("Could not rebuild the seat map of pricing tier {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return rebuilt;
+    }
+
+    private SeatAllocationResponse allocate(Long pricingTierId, String section, int quantity, Long buyerId) {
+        SeatMap seatMap = seatMap(pricingTierId);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            SeatMap.Block block = seatMap.reserveBest(section, quantity);
+            if (block == null) {
+                break;
+            }
+
+            LocalDateTime expiresAt = hold(seatMap, block, buyerId);
+            if (expiresAt != null) {
+                SeatAllocationResponse response = new SeatAllocationResponse();
+                response.setPricingTierId(pricingTierId);
+                response.setSection(block.getSection());
+                response.setRow(block.getRow());
+                List<Long> ticketIds = new ArrayList<>(quantity);
+                for (long ticketId : block.getTicketIds()) {
+                    ticketIds.add(ticketId);
+                }
+                response.setTicketIds(ticketIds);
+                response.setSeats(Arrays.asList(block.getSeats()));
+                response.setHoldExpiresAt(expiresAt);
+                return response;
+            }
+        }
+        throw new TicketUnavailableException("No " + quantity + " adjacent seats are available"
+                + (section != null ? " in section " + section : ""));
+    }
+
+    // Holds every seat of the block, or none of them
+    private LocalDateTime hold(SeatMap seatMap, SeatMap.Block block, Long buyerId) {
+        long[] ticketIds = block.getTicketIds();
+        LocalDateTime expiresAt = null;
+        for (int i = 0; i < ticketIds.length; i++) {
+            try {
+                expiresAt = seatHoldService.holdTicket(ticketIds[i], buyerId, null);
+            } catch (TicketUnavailableException e) {
+                // Held outside the allocator: stays out of the map, the rest of the block goes back
+                for (int j = 0; j < i; j++) {
+                    seatHoldService.releaseTicket(ticketIds[j]);
+                }
+                for (int j = 0; j < ticketIds.length; j++) {
+                    if (j != i) {
+                        seatMap.release(ticketIds[j]);
+                    }
+                }
+                return null;
+            }
+        }
+        return expiresAt;
+    }
+
+    private SeatMap seatMap(Long pricingTierId) {
+        TrackedSeatMap tracked = seatMaps.get(pricingTierId);
+        if (tracked == null) {
+            if (!pricingTierRepository.existsById(pricingTierId)) {
+                throw new ResourceNotFoundException("PricingTier", "id", pricingTierId);
+            }
+            // Built outside the map so a slow query does not block other tiers; a concurrent build loses
+            TrackedSeatMap built = new TrackedSeatMap(build(pricingTierId), System.currentTimeMillis());
+            tracked = Objects.requireNonNullElse(seatMaps.putIfAbsent(pricingTierId, built), built);
+        }
+        tracked.lastUsedMs = System.currentTimeMillis();
+        return tracked.seatMap;
+    }
+
+    private SeatMap build(Long pricingTierId) {
+        List<Object[]> rows = ticketRepository.findSeatsByPricingTierId(pricingTierId);
+        List<SeatMap.Seat> seats = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long ticketId = (Long) row[0];
+            boolean free = row[4] == TicketStatus.AVAILABLE && !seatHoldService.isTicketHeld(ticketId);
+            seats.add(new SeatMap.Seat(ticketId, (String) row[1], (String) row[2], (String) row[3], free));
+        }
+        return new SeatMap(seats);
+    }
+
+    private static final class TrackedSeatMap {
+        private final SeatMap seatMap;
+        private volatile long lastUsedMs;
+
+        private TrackedSeatMap(SeatMap seatMap, long lastUsedMs) {
+            this.seatMap = seatMap;
+            this.lastUsedMs = lastUsedMs;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import com.mytickets.ticketingApp.repository.TransactionRepository;
+import com.mytickets.ticketingApp.service.SeatHoldService;
+import com.mytickets.ticketingApp.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory checkout holds on tickets and resale listings. Live holds are indexed by target id;
+ * expiry is driven by a hierarchical timing wheel ticked from a single scheduled job, so there
+ * is no per-hold timer however many checkouts are open. Entries that come out of the wheel
+ * after their hold was released or replaced are simply ignored, and ones that come out before
+ * their hold has run out go back in.
+ */
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldServiceImpl.class);
+
+    // Keeps the IN list of the expiry update at a size every database handles comfortably
+    private static final int EXPIRY_BATCH_SIZE = 1000;
+
+    private enum HoldType { TICKET, LISTING }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.seat-hold.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.seat-hold.tick-ms:1000}")
+    private long tickMs;
+
+    private final ConcurrentMap<Long, SeatHold> ticketHolds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, SeatHold> listingHolds = new ConcurrentHashMap<>();
+
+    // Holds shorter than one wheel tick, expired on the next run
+    private final Queue<SeatHold> overdue = new ConcurrentLinkedQueue<>();
+
+    private HierarchicalTimingWheel<SeatHold> wheel;
+    private TransactionTemplate transactionTemplate;
+    private Counter expiredHolds;
+
+    @PostConstruct
+    public void init() {
+        // 64 slots per level: one minute at tick resolution, then about an hour, then about three days
+        wheel = new HierarchicalTimingWheel<>(tickMs, 64, 3, System.currentTimeMillis());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        expiredHolds = Counter.builder("ticketing.seat.holds.expired")
+                .description("Checkout holds that ran out before payment completed")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.seat.holds.active", this, SeatHoldServiceImpl::getActiveHoldCount)
+                .description("Tickets and listings currently held for checkout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LocalDateTime holdTicket(Long ticketId, Long buyerId, Long transactionId) {
+        return hold(HoldType.TICKET, ticketId, buyerId, transactionId);
+    }
+
+    @Override
+    public LocalDateTime holdListing(Long listingId, Long buyerId, Long transactionId) {
+        return hold(HoldType.LISTING, listingId, buyerId, transactionId);
+    }
+
+    @Override
+    public boolean isTicketHeld(Long ticketId) {
+        return activeHold(ticketHolds, ticketId) != null;
+    }
+
+    @Override
+    public boolean isListingHeld(Long listingId) {
+        return activeHold(listingHolds, listingId) != null;
+    }
+
+    @Override
+    public boolean isTicketHeldByOther(Long ticketId, Long buyerId) {
+        SeatHold hold = activeHold(ticketHolds, ticketId);
+        return hold != null && !hold.buyerId.equals(buyerId);
+    }
+
+    @Override
+    public boolean isListingHeldByOther(Long listingId, Long buyerId) {
+        SeatHold hold = activeHold(listingHolds, listingId);
+        return hold != null && !hold.buyerId.equals(buyerId);
+    }
+
+    @Override
+    public Optional<LocalDateTime> getTicketHoldExpiry(Long ticketId) {
+        return Optional.ofNullable(activeHold(ticketHolds, ticketId)).map(hold -> toLocalDateTime(hold.expiresAtMs));
+    }
+
+    @Override
+    public Optional<LocalDateTime> getListingHoldExpiry(Long listingId) {
+        return Optional.ofNullable(activeHold(listingHolds, listingId)).map(hold -> toLocalDateTime(hold.expiresAtMs));
+    }
+
+    @Override
+    public void releaseTicket(Long ticketId) {
+        ticketHolds.remove(ticketId);
+    }
+
+    @Override
+    public void releaseListing(Long listingId) {
+        listingHolds.remove(listingId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.seat-hold.tick-ms:1000}")
+    public int expireHolds() {
+        long now = System.currentTimeMillis();
+        List<SeatHold> due = wheel.advance(now);
+        SeatHold late;
+        while ((late = overdue.poll()) != null) {
+            due.add(late);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        int expired = 0;
+        List<Long> transactionIds = new ArrayList<>();
+        for (SeatHold hold : due) {
+            // The wheel hands out a whole tick at once, so a hold can come out up to a tick early
+            if (hold.expiresAtMs > now) {
+                if (!wheel.schedule(hold, hold.expiresAtMs)) {
+                    overdue.add(hold);
+                }
+                continue;
+            }
+            if (holdsFor(hold.type).remove(hold.targetId, hold)) {
+                expired++;
+            }
+            // Also covers holds that were replaced by a newer checkout; completed transactions are left untouched
+            if (hold.transactionId != null) {
+                transactionIds.add(hold.transactionId);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < transactionIds.size(); from += EXPIRY_BATCH_SIZE) {
+                    List<Long> batch = transactionIds.subList(from, Math.min(from + EXPIRY_BATCH_SIZE, transactionIds.size()));
+                    transactionRepository.failPendingTransactions(batch);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to expire {} pending transactions: {}", transactionIds.size(), e.getMessage());
+        }
+
+        expiredHolds.increment(expired);
+        return expired;
+    }
+
+    @Override
+    public int getActiveHoldCount() {
+        return ticketHolds.size() + listingHolds.size();
+    }
+
+    private LocalDateTime hold(HoldType type, Long targetId, Long buyerId, Long transactionId) {
+        long now = System.currentTimeMillis();
+        SeatHold hold = new SeatHold(type, targetId, buyerId, transactionId, now + ttlSeconds * 1000);
+        ConcurrentMap<Long, SeatHold> holds = holdsFor(type);
+
+        SeatHold current = holds.compute(targetId, (id, existing) ->
+                existing == null || existing.expiresAtMs <= now || existing.buyerId.equals(buyerId) ? hold : existing);
+        if (current != hold) {
+            throw new TicketUnavailableException(
+                    (type == HoldType.TICKET ? "Ticket " : "Listing ") + targetId + " is held by another buyer");
+        }
+
+        if (!wheel.schedule(hold, hold.expiresAtMs)) {
+            overdue.add(hold);
+        }
+
+        // A checkout that fails to start must not keep the seat
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        holds.remove(targetId, hold);
+                    }
+                }
+            });
+        }
+
+        return toLocalDateTime(hold.expiresAtMs);
+    }
+
+    // Holds past their expiry count as released even before the wheel has swept them
+    private SeatHold activeHold(ConcurrentMap<Long, SeatHold> holds, Long targetId) {
+        SeatHold hold = holds.get(targetId);
+        return hold != null && hold.expiresAtMs > System.currentTimeMillis() ? hold : null;
+    }
+
+    private ConcurrentMap<Long, SeatHold> holdsFor(HoldType type) {
+        return type == HoldType.TICKET ? ticketHolds : listingHolds;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    private static final class SeatHold {
+        private final HoldType type;
+        private final Long targetId;
+        private final Long buyerId;
+        private final Long transactionId;
+        private final long expiresAtMs;
+
+        private SeatHold(HoldType type, Long targetId, Long buyerId, Long transactionId, long expiresAtMs) {
+            this.type = type;
+            this.targetId = targetId;
+            this.buyerId = buyerId;
+            this.transactionId = transactionId;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
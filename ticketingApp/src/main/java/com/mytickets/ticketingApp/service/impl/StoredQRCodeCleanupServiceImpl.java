@@ -0,0 +1,138 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.service.StoredQRCodeCleanupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background job that nulls out stored QR code images in small keyset batches, each in its own
+ * short transaction, so it never holds locks on many ticket rows at once. Only rows that still
+ * have an image are selected, which makes the job resumable: after a restart it scans from the
+ * start again but has nothing left to do for the rows it already cleared. Once a pass finds no
+ * more images the job goes idle until it is restarted.
+ */
+@Service
+public class StoredQRCodeCleanupServiceImpl implements StoredQRCodeCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredQRCodeCleanupServiceImpl.class);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.qrcode.cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.qrcode.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.qrcode.cleanup.batches-per-run:20}")
+    private int batchesPerRun;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter clearedCounter;
+
+    // Highest ticket id examined so far in the current pass
+    private long cursor;
+    private long cleared;
+    private boolean finished;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        clearedCounter = Counter.builder("ticketing.qrcode.cleanup.cleared")
+                .description("Tickets whose stored QR code image was cleared")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.qrcode.cleanup.initial-delay-ms:60000}",
+            fixedDelayString = "${app.qrcode.cleanup.interval-ms:5000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        for (int batch = 0; batch < batchesPerRun; batch++) {
+            if (clearNextBatch() == 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized int clearNextBatch() {
+        if (finished) {
+            return 0;
+        }
+        if (startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+
+        Integer count = transactionTemplate.execute(status -> {
+            List<Long> ids = ticketRepository.findIdsWithStoredQrCode(cursor, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            ticketRepository.clearStoredQrCodes(ids);
+            cursor = ids.get(ids.size() - 1);
+            return ids.size();
+        });
+
+        if (count == null || count == 0) {
+            finished = true;
+            finishedAt = LocalDateTime.now();
+            logger.info("Stored QR code cleanup finished, {} tickets cleared", cleared);
+            return 0;
+        }
+
+        cleared += count;
+        clearedCounter.increment(count);
+        logger.debug("Cleared stored QR codes of {} tickets up to id {}", count, cursor);
+        return count;
+    }
+
+    @Override
+    public synchronized void restart() {
+        cursor = 0;
+        cleared = 0;
+        finished = false;
+        startedAt = null;
+        finishedAt = null;
+        logger.info("Stored QR code cleanup restarted");
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("cursor", cursor);
+        status.put("cleared", cleared);
+        status.put("finished", finished);
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        return status;
+    }
+}
@@ -0,0 +1,258 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.config.BatchTicketRequest;
+import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
+import com.mytickets.ticketingApp.model.PricingTier;
+import com.mytickets.ticketingApp.model.Ticket;
+import com.mytickets.ticketingApp.model.TicketStatus;
+import com.mytickets.ticketingApp.payload.request.TicketImportRequest;
+import com.mytickets.ticketingApp.payload.response.TicketImportProgress;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.service.InventoryService;
+import com.mytickets.ticketingApp.service.QRCodeService;
+import com.mytickets.ticketingApp.service.TicketImportService;
+import com.mytickets.ticketingApp.service.TicketTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Bulk ticket creation that goes around the persistence context. Ticket ids come from an identity
+ * column, which stops Hibernate from batching inserts, so rows are written with plain JDBC batches
+ * instead (the PostgreSQL driver folds each batch into multi-row inserts when the connection URL
+ * sets reWriteBatchedInserts). Every chunk commits on its own with the event and pricing tier
+ * counts it adds, so a stadium-sized import never holds one long transaction. No QR image is
+ * stored; when asked to, each committed chunk's codes are rendered into the QR cache in the
+ * background so the first scans after an on-sale are served from memory.
+ */
+@Service
+public class TicketImportServiceImpl implements TicketImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketImportServiceImpl.class);
+
+    // "row" is a reserved word in some databases
+    private static final String INSERT_TICKET_SQL = "INSERT INTO tickets (ticket_number, original_price, current_price, " +
+            "section, \"row\", seat, status, is_used, event_id, pricing_tier_id, qr_generation, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private QRCodeService qrCodeService;
+
+    @Autowired
+    private TicketTokenService ticketTokenService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ticket.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.ticket.import.max-tickets:200000}")
+    private int maxTickets;
+
+    // One import at a time; a second stadium queues behind the first instead of competing for connections
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TransactionTemplate transactionTemplate;
+    private Counter importedTickets;
+    private Timer chunkTimer;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        importedTickets = Counter.builder("ticketing.tickets.imported")
+                .description("Tickets created through the bulk import path")
+                .register(meterRegistry);
+        chunkTimer = Timer.builder("ticketing.tickets.import.chunk")
+                .description("Time to write and commit one chunk of imported tickets")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TicketImportProgress importTickets(Long eventId, Long pricingTierId, List<BatchTicketRequest.TicketInfo> seats,
+                                              boolean generateQrCodes, Consumer<TicketImportProgress> progressListener) {
+        eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+
+        PricingTier pricingTier = pricingTierRepository.findById(pricingTierId)
+                .orElseThrow(() -> new ResourceNotFoundException("PricingTier", "id", pricingTierId));
+
+        if (pricingTier.getEvent() == null || !pricingTier.getEvent().getId().equals(eventId)) {
+            throw new RuntimeException("Pricing tier does not belong to the specified event");
+        }
+        if (seats == null || seats.isEmpty()) {
+            throw new RuntimeException("Nothing to import");
+        }
+        if (seats.size() > maxTickets) {
+            throw new RuntimeException("Cannot import more than " + maxTickets + " tickets at once");
+        }
+
+        TicketImportProgress progress = new TicketImportProgress();
+        progress.setEventId(eventId);
+        progress.setPricingTierId(pricingTierId);
+        progress.setTotal(seats.size());
+
+        long started = System.nanoTime();
+        try {
+            for (int from = 0; from < seats.size(); from += chunkSize) {
+                List<BatchTicketRequest.TicketInfo> chunk = seats.subList(from, Math.min(from + chunkSize, seats.size()));
+                List<String> ticketNumbers = new ArrayList<>(chunk.size());
+                List<Object[]> rows = new ArrayList<>(chunk.size());
+                for (BatchTicketRequest.TicketInfo seat : chunk) {
+                    String ticketNumber = UUID.randomUUID().toString();
+                    ticketNumbers.add(ticketNumber);
+                    rows.add(new Object[] {
+                            ticketNumber, pricingTier.getPrice(), pricingTier.getPrice(),
+                            seat.getSection(), seat.getRow(), seat.getSeat(),
+                            TicketStatus.AVAILABLE.name(), false, eventId, pricingTierId
+                    });
+                }
+
+                chunkTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_TICKET_SQL, rows);
+                    eventRepository.addTickets(eventId, rows.size());
+                    pricingTierRepository.addTickets(pricingTierId, rows.size());
+                    inventoryService.refresh(eventId);
+                }));
+
+                if (generateQrCodes) {
+                    // Tokens carry the generated ids, so they are read back once per chunk; the rendering
+                    // runs on the render pool and the import itself never waits for it
+                    qrCodeService.prerenderTicketQRCodes(ticketTokenService.findTokens(ticketNumbers),
+                            qrCodeService.normalizeTicketQRCodeSize(null));
+                }
+
+                importedTickets.increment(rows.size());
+                progress.setImported(progress.getImported() + rows.size());
+                progress.setChunks(progress.getChunks() + 1);
+                progress.setChunkTicketNumbers(ticketNumbers);
+                report(progress, started, progressListener);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Ticket import for event {} stopped after {} of {} tickets: {}",
+                    eventId, progress.getImported(), progress.getTotal(), e.getMessage());
+            progress.setError(e.getMessage());
+            progress.setDone(true);
+            progress.setChunkTicketNumbers(Collections.emptyList());
+            report(progress, started, progressListener);
+            throw new RuntimeException("Ticket import failed after " + progress.getImported() + " tickets: " + e.getMessage(), e);
+        }
+
+        progress.setDone(true);
+        progress.setChunkTicketNumbers(Collections.emptyList());
+        report(progress, started, progressListener);
+
+        logger.info("Imported {} tickets for event {} in {} ms ({} tickets/s)", progress.getImported(), eventId,
+                progress.getElapsedMs(), Math.round(progress.getTicketsPerSecond()));
+        return progress;
+    }
+
+    @Override
+    public CompletableFuture<TicketImportProgress> submitImport(TicketImportRequest request,
+                                                                Consumer<TicketImportProgress> progressListener) {
+        List<BatchTicketRequest.TicketInfo> seats = expandSeats(request);
+        return CompletableFuture.supplyAsync(() -> importTickets(request.getEventId(), request.getPricingTierId(),
+                seats, request.isGenerateQrCodes(), progressListener), importExecutor);
+    }
+
+    @Override
+    public List<BatchTicketRequest.TicketInfo> expandSeats(TicketImportRequest request) {
+        List<BatchTicketRequest.TicketInfo> seats = new ArrayList<>();
+        if (request.getSections() != null) {
+            for (TicketImportRequest.SectionLayout layout : request.getSections()) {
+                if ((long) layout.getRows() * layout.getSeatsPerRow() + seats.size() > maxTickets) {
+                    throw new RuntimeException("Cannot import more than " + maxTickets + " tickets at once");
+                }
+                for (int row = 1; row <= layout.getRows(); row++) {
+                    for (int seat = 1; seat <= layout.getSeatsPerRow(); seat++) {
+                        BatchTicketRequest.TicketInfo info = new BatchTicketRequest.TicketInfo();
+                        info.setSection(layout.getSection());
+                        info.setRow(String.valueOf(row));
+                        info.setSeat(String.valueOf(seat));
+                        seats.add(info);
+                    }
+                }
+            }
+        }
+
+        int quantity = request.getQuantity() != null ? request.getQuantity() : 0;
+        if (quantity > 0) {
+            // General admission entries carry no data, so one shared instance is enough
+            seats.addAll(Collections.nCopies(quantity, new BatchTicketRequest.TicketInfo()));
+        }
+        return seats;
+    }
+
+    @Override
+    public List<Ticket> importAndLoad(Long eventId, Long pricingTierId, List<BatchTicketRequest.TicketInfo> seats,
+                                      boolean generateQrCodes) {
+        List<String> ticketNumbers = new ArrayList<>(seats.size());
+        importTickets(eventId, pricingTierId, seats, generateQrCodes,
+                progress -> ticketNumbers.addAll(progress.getChunkTicketNumbers()));
+
+        List<Ticket> tickets = new ArrayList<>(ticketNumbers.size());
+        for (int from = 0; from < ticketNumbers.size(); from += chunkSize) {
+            tickets.addAll(ticketRepository.findByTicketNumberIn(
+                    ticketNumbers.subList(from, Math.min(from + chunkSize, ticketNumbers.size()))));
+        }
+        return tickets;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    private static void report(TicketImportProgress progress, long startedNanos, Consumer<TicketImportProgress> listener) {
+        long elapsedMs = (System.nanoTime() - startedNanos) / 1_000_000;
+        progress.setElapsedMs(elapsedMs);
+        progress.setTicketsPerSecond(progress.getImported() * 1000.0 / Math.max(1, elapsedMs));
+        if (listener != null) {
+            listener.accept(progress);
+        }
+    }
+}
@@ -1,20 +1,30 @@
 // ticketingApp/src/main/java/com/mytickets/ticketingApp/service/impl/TicketListingServiceImpl.java
 package com.mytickets.ticketingApp.service.impl;
 
+import com.mytickets.ticketingApp.aspect.RetryOnConflict;
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
 import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import com.mytickets.ticketingApp.repository.TicketListingRepository;
 import com.mytickets.ticketingApp.repository.TicketRepository;
 import com.mytickets.ticketingApp.repository.TransactionRepository;
 import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.service.AvailabilityStreamService;
+import com.mytickets.ticketingApp.service.ResaleOrderBookService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
 import com.mytickets.ticketingApp.service.TicketListingService;
+import com.mytickets.ticketingApp.service.TicketTokenService;
 import com.mytickets.ticketingApp.service.UserBalanceService;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class TicketListingServiceImpl implements TicketListingService {
@@ -34,11 +44,31 @@ public class TicketListingServiceImpl implements TicketListingService {
     @Autowired
     private UserBalanceService userBalanceService;
 
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private TicketTokenService ticketTokenService;
+
+    @Autowired
+    private ResaleOrderBookService resaleOrderBookService;
+
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
+
     @Override
     public List<TicketListing> getAllListings() {
         return ticketListingRepository.findAll();
     }
 
+    @Override
+    public CursorPage<TicketListing> scrollActiveListings(String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        long afterId = cursor == null || cursor.isEmpty() ? 0L : KeysetCursor.decode(cursor, false).getId();
+        return CursorPage.of(ticketListingRepository.findActivePageAfter(afterId, limit), limit,
+                listing -> KeysetCursor.of(listing.getId()));
+    }
+
     @Override
     public Optional<TicketListing> getListingById(Long id) {
         return ticketListingRepository.findById(id);
@@ -51,12 +81,19 @@ public class TicketListingServiceImpl implements TicketListingService {
 
     @Override
     public List<TicketListing> getActiveListingsByEvent(Long eventId) {
-        return ticketListingRepository.findActiveListingsByEvent(eventId);
+        return withoutHeldListings(ticketListingRepository.findActiveListingsByEvent(eventId));
     }
 
     @Override
     public List<TicketListing> getActiveListingsByEventOrderByPrice(Long eventId) {
-        return ticketListingRepository.findActiveListingsByEventOrderByPriceAsc(eventId);
+        return withoutHeldListings(ticketListingRepository.findActiveListingsByEventOrderByPriceAsc(eventId));
+    }
+
+    // Listings in someone's checkout are not offered to other buyers
+    private List<TicketListing> withoutHeldListings(List<TicketListing> listings) {
+        return listings.stream()
+                .filter(listing -> !seatHoldService.isListingHeld(listing.getId()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -99,7 +136,9 @@ public class TicketListingServiceImpl implements TicketListingService {
                 ticket.setCurrentPrice(listing.getAskingPrice());
                 ticketRepository.save(ticket);
 
-                return ticketListingRepository.save(existing);
+                TicketListing reactivated = ticketListingRepository.save(existing);
+                listingChanged(reactivated);
+                return reactivated;
             }
         }
 
@@ -119,10 +158,13 @@ public class TicketListingServiceImpl implements TicketListingService {
         listing.setStatus(ListingStatus.ACTIVE);
         listing.setListingDate(LocalDateTime.now());
 
-        return ticketListingRepository.save(listing);
+        TicketListing created = ticketListingRepository.save(listing);
+        listingChanged(created);
+        return created;
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public TicketListing updateListing(Long id, TicketListing updatedListing) {
         TicketListing existingListing = ticketListingRepository.findById(id)
@@ -148,10 +190,13 @@ public class TicketListingServiceImpl implements TicketListingService {
         ticket.setCurrentPrice(updatedListing.getAskingPrice());
         ticketRepository.save(ticket);
 
-        return ticketListingRepository.save(existingListing);
+        TicketListing saved = ticketListingRepository.save(existingListing);
+        listingChanged(saved);
+        return saved;
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public void cancelListing(Long id) {
         TicketListing listing = ticketListingRepository.findById(id)
@@ -171,9 +216,11 @@ public class TicketListingServiceImpl implements TicketListingService {
         ticketRepository.save(ticket);
 
         ticketListingRepository.save(listing);
+        listingChanged(listing);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public TicketListing purchaseListing(Long listingId, Long buyerId) {
         TicketListing listing = ticketListingRepository.findById(listingId)
@@ -182,9 +229,9 @@ public class TicketListingServiceImpl implements TicketListingService {
         User buyer = userRepository.findById(buyerId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + buyerId));
 
-        // Check if listing is active
+        // Already sold to someone else is an expected outcome of contention, not an error
         if (listing.getStatus() != ListingStatus.ACTIVE) {
-            throw new RuntimeException("Listing is not active");
+            throw new TicketUnavailableException("Listing " + listingId + " is no longer available");
         }
 
         // Check if buyer is not the seller
@@ -192,6 +239,10 @@ public class TicketListingServiceImpl implements TicketListingService {
             throw new RuntimeException("You cannot purchase your own listing");
         }
 
+        if (seatHoldService.isListingHeldByOther(listingId, buyerId)) {
+            throw new TicketUnavailableException("Listing " + listingId + " is held by another buyer");
+        }
+
         // Update listing status
         listing.setStatus(ListingStatus.SOLD);
 
@@ -201,17 +252,30 @@ public class TicketListingServiceImpl implements TicketListingService {
         ticket.setOwner(buyer);
         ticket.setStatus(TicketStatus.RESOLD);
         ticket.setPurchaseDate(LocalDateTime.now()); // Update purchase date for new owner
+        // The seller's QR code must stop scanning once the buyer owns the ticket
+        ticketTokenService.reissue(ticket);
         ticketRepository.save(ticket);
 
         // IMPORTANT: DO NOT handle payment here - payment should be handled separately
         // The payment (balance deduction and seller credit) should be done in the transaction service
         // when processPaymentWithBalance is called
 
-        return ticketListingRepository.save(listing);
+        seatHoldService.releaseListing(listingId);
+        TicketListing sold = ticketListingRepository.save(listing);
+        listingChanged(sold);
+        return sold;
     }
 
     @Override
     public Long countActiveListingsByEvent(Long eventId) {
-        return ticketListingRepository.countActiveListingsByEvent(eventId);
+        return (long) resaleOrderBookService.countListings(eventId);
+    }
+
+    // The listing moved in its event's order book, so the event's cheapest price and count may have too
+    private void listingChanged(TicketListing listing) {
+        resaleOrderBookService.listingChanged(listing);
+        if (listing.getTicket() != null && listing.getTicket().getEvent() != null) {
+            availabilityStreamService.availabilityChanged(listing.getTicket().getEvent().getId());
+        }
     }
-}
\ No newline at end of file
+}
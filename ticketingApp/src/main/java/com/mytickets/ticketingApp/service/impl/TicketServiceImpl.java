@@ -1,15 +1,29 @@
 package com.mytickets.ticketingApp.service.impl;
 
+import com.mytickets.ticketingApp.aspect.RetryOnConflict;
+import com.mytickets.ticketingApp.config.BatchTicketRequest;
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
 import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.TicketViewResponse;
 import com.mytickets.ticketingApp.repository.*;
+import com.mytickets.ticketingApp.service.AvailabilityStreamService;
+import com.mytickets.ticketingApp.service.GateScanService;
+import com.mytickets.ticketingApp.service.InventoryService;
 import com.mytickets.ticketingApp.service.QRCodeService;
+import com.mytickets.ticketingApp.service.SeatAllocationService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
+import com.mytickets.ticketingApp.service.TicketImportService;
 import com.mytickets.ticketingApp.service.TicketService;
+import com.mytickets.ticketingApp.service.TicketTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +31,8 @@ import java.util.UUID;
 @Service
 public class TicketServiceImpl implements TicketService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TicketServiceImpl.class);
+
     @Autowired
     private TicketListingRepository ticketListingRepository;
 
@@ -38,6 +54,27 @@ public class TicketServiceImpl implements TicketService {
     @Autowired
     private QRCodeService qrCodeService;
 
+    @Autowired
+    private GateScanService gateScanService;
+
+    @Autowired
+    private TicketTokenService ticketTokenService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TicketImportService ticketImportService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private SeatAllocationService seatAllocationService;
+
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
+
     @Override
     public List<Ticket> getAllTickets() {
         return ticketRepository.findAll();
@@ -64,8 +101,8 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
-    public List<Ticket> getUpcomingTicketsByOwner(Long ownerId) {
-        return ticketRepository.findUpcomingTicketsByOwner(ownerId);
+    public List<TicketViewResponse> getUpcomingTicketsByOwner(Long ownerId) {
+        return ticketRepository.findUpcomingViewsByOwnerId(ownerId);
     }
 
     @Override
@@ -81,10 +118,7 @@ public class TicketServiceImpl implements TicketService {
             ticket.setStatus(TicketStatus.AVAILABLE);
         }
 
-        // Generate QR code
-        String qrCodeContent = "TICKET:" + ticket.getTicketNumber();
-        String qrCodeBase64 = qrCodeService.generateQRCodeAsBase64(qrCodeContent, 250, 250);
-        ticket.setQrCodeUrl(qrCodeBase64);
+        // The QR code is rendered from the ticket number when it is first requested, not stored
 
         // Update event available tickets count
         Event event = ticket.getEvent();
@@ -101,65 +135,22 @@ public class TicketServiceImpl implements TicketService {
             managedEvent.setTotalTickets(totalTickets + 1);
 
             eventRepository.save(managedEvent);
+            inventoryService.refresh(managedEvent.getId());
+            availabilityStreamService.availabilityChanged(managedEvent.getId());
         }
 
         return ticketRepository.save(ticket);
     }
 
     @Override
-    @Transactional
     public List<Ticket> createTicketsForEvent(Long eventId, Long pricingTierId, int quantity) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found with id: " + eventId));
-
-        PricingTier pricingTier = pricingTierRepository.findById(pricingTierId)
-                .orElseThrow(() -> new RuntimeException("Pricing tier not found with id: " + pricingTierId));
-
-        if (!pricingTier.getEvent().getId().equals(eventId)) {
-            throw new RuntimeException("Pricing tier does not belong to the specified event");
-        }
-
-        // Update pricing tier quantities
-        int tierAvailable = pricingTier.getAvailable() != null ? pricingTier.getAvailable() : 0;
-        pricingTier.setAvailable(tierAvailable + quantity);
-
-        int tierQuantity = pricingTier.getQuantity() != null ? pricingTier.getQuantity() : 0;
-        pricingTier.setQuantity(tierQuantity + quantity);
-
-        pricingTierRepository.save(pricingTier);
-
-        // Update event ticket counts
-        int eventAvailableTickets = event.getAvailableTickets() != null ? event.getAvailableTickets() : 0;
-        event.setAvailableTickets(eventAvailableTickets + quantity);
-
-        int eventTotalTickets = event.getTotalTickets() != null ? event.getTotalTickets() : 0;
-        event.setTotalTickets(eventTotalTickets + quantity);
-
-        eventRepository.save(event);
-
-        // Create tickets
-        List<Ticket> tickets = new ArrayList<>();
-        for (int i = 0; i < quantity; i++) {
-            Ticket ticket = new Ticket();
-            ticket.setTicketNumber(UUID.randomUUID().toString());
-            ticket.setOriginalPrice(pricingTier.getPrice());
-            ticket.setCurrentPrice(pricingTier.getPrice());
-            ticket.setStatus(TicketStatus.AVAILABLE);
-            ticket.setEvent(event);
-            ticket.setPricingTier(pricingTier);
-
-            // Generate QR code
-            String qrCodeContent = "TICKET:" + ticket.getTicketNumber();
-            String qrCodeBase64 = qrCodeService.generateQRCodeAsBase64(qrCodeContent, 250, 250);
-            ticket.setQrCodeUrl(qrCodeBase64);
-
-            tickets.add(ticketRepository.save(ticket));
-        }
-
-        return tickets;
+        // Batched and committed in chunks by the import service, so no surrounding transaction here
+        return ticketImportService.importAndLoad(eventId, pricingTierId,
+                Collections.nCopies(quantity, new BatchTicketRequest.TicketInfo()), true);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public Ticket updateTicket(Long id, Ticket updatedTicket) {
         Ticket existingTicket = ticketRepository.findById(id)
@@ -179,6 +170,9 @@ public class TicketServiceImpl implements TicketService {
         }
 
         if (updatedTicket.getStatus() != null) {
+            if (updatedTicket.getStatus() != existingTicket.getStatus()) {
+                refreshInventory(existingTicket);
+            }
             existingTicket.setStatus(updatedTicket.getStatus());
         }
 
@@ -192,25 +186,20 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public Ticket updateTicketStatus(Long id, TicketStatus status) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + id));
 
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setStatus(status);
 
-        // If ticket is being marked as PURCHASED, update event available tickets
-        if (status == TicketStatus.PURCHASED) {
-            Event event = ticket.getEvent();
-            if (event != null) {
-                int availableTickets = event.getAvailableTickets() != null ?
-                        event.getAvailableTickets() : 0;
-
-                if (availableTickets > 0) {
-                    event.setAvailableTickets(availableTickets - 1);
-                    eventRepository.save(event);
-                }
-            }
+        // If an available ticket is being marked as PURCHASED, take it out of the event and tier counts
+        if (status == TicketStatus.PURCHASED && previousStatus == TicketStatus.AVAILABLE) {
+            reserveInventory(ticket);
+        } else if (status != previousStatus) {
+            refreshInventory(ticket);
         }
 
         return ticketRepository.save(ticket);
@@ -219,10 +208,12 @@ public class TicketServiceImpl implements TicketService {
     @Override
     @Transactional
     public void deleteTicket(Long id) {
+        ticketRepository.findById(id).ifPresent(this::refreshInventory);
         ticketRepository.deleteById(id);
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public Ticket purchaseTicket(Long ticketId, Long buyerId) {
         Ticket ticket = ticketRepository.findById(ticketId)
@@ -231,27 +222,13 @@ public class TicketServiceImpl implements TicketService {
         User buyer = userRepository.findById(buyerId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + buyerId));
 
-        // Check if ticket is available
+        // Cheap early exit; the conditional update in claimTicket is what actually guards the sale
         if (ticket.getStatus() != TicketStatus.AVAILABLE) {
-            throw new RuntimeException("Ticket is not available for purchase");
+            throw new TicketUnavailableException("Ticket is not available for purchase");
         }
 
-        // Update ticket details
-        ticket.setOwner(buyer);
-        ticket.setStatus(TicketStatus.PURCHASED);
-        ticket.setPurchaseDate(LocalDateTime.now());
-
-        // Update event available tickets count
+        claimTicket(ticket, buyer);
         Event event = ticket.getEvent();
-        if (event != null) {
-            int availableTickets = event.getAvailableTickets() != null ?
-                    event.getAvailableTickets() : 0;
-
-            if (availableTickets > 0) {
-                event.setAvailableTickets(availableTickets - 1);
-                eventRepository.save(event);
-            }
-        }
 
         // Create transaction record
         Transaction transaction = new Transaction();
@@ -266,16 +243,84 @@ public class TicketServiceImpl implements TicketService {
 
         transactionRepository.save(transaction);
 
-        return ticketRepository.save(ticket);
+        return ticket;
+    }
+
+    @Override
+    @Transactional
+    public Ticket claimTicket(Ticket ticket, User buyer) {
+        // Sold-out events are turned away from memory without touching the database. This also loads
+        // the counters before the claim below, so they are never sourced from this transaction's own write
+        if (ticket.getEvent() != null) {
+            Long pricingTierId = ticket.getPricingTier() != null ? ticket.getPricingTier().getId() : null;
+            if (!inventoryService.isAvailable(ticket.getEvent().getId(), pricingTierId)) {
+                throw new TicketUnavailableException("Event is sold out");
+            }
+        }
+
+        // A seat another buyer is checking out stays theirs until the hold is released or expires.
+        // The counters checked above still include held seats, so this is what turns the sale away
+        if (seatHoldService.isTicketHeldByOther(ticket.getId(), buyer.getId())) {
+            throw new TicketUnavailableException("Ticket " + ticket.getId() + " is held by another buyer");
+        }
+
+        LocalDateTime purchaseDate = LocalDateTime.now();
+
+        int claimed = ticketRepository.claimAvailableTicket(ticket.getId(), buyer, TicketStatus.PURCHASED, purchaseDate);
+        if (claimed == 0) {
+            throw new TicketUnavailableException(ticket.getId());
+        }
+
+        reserveInventory(ticket);
+        // Kept out of the seat map even if this transaction rolls back; the next rebuild puts it back
+        seatAllocationService.markSold(ticket.getPricingTier() != null ? ticket.getPricingTier().getId() : null, ticket.getId());
+
+        // Keep the managed entity in line with the row that was just written
+        ticket.setOwner(buyer);
+        ticket.setStatus(TicketStatus.PURCHASED);
+        ticket.setPurchaseDate(purchaseDate);
+
+        return ticket;
+    }
+
+    // Counters live in InventoryService and are written back to the events and pricing tier
+    // rows in batches, so concurrent purchases on the same event never queue on one row lock
+    private void reserveInventory(Ticket ticket) {
+        if (ticket.getEvent() == null) {
+            return;
+        }
+
+        Long eventId = ticket.getEvent().getId();
+        Long pricingTierId = ticket.getPricingTier() != null ? ticket.getPricingTier().getId() : null;
+
+        // The ticket row is the source of truth; a failed reservation only means the counter drifted
+        if (!inventoryService.reserve(eventId, pricingTierId)) {
+            logger.warn("Inventory counter for event {} was exhausted while ticket {} was still available",
+                    eventId, ticket.getId());
+            inventoryService.refresh(eventId);
+        }
+        availabilityStreamService.availabilityChanged(eventId);
+    }
+
+    private void refreshInventory(Ticket ticket) {
+        if (ticket.getEvent() != null) {
+            inventoryService.refresh(ticket.getEvent().getId());
+            availabilityStreamService.availabilityChanged(ticket.getEvent().getId());
+        }
     }
 
     @Override
     public String generateQRCode(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        String token = findQRCodeToken(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
 
-        String qrCodeContent = "TICKET:" + ticket.getTicketNumber();
-        return qrCodeService.generateQRCodeAsBase64(qrCodeContent, 250, 250);
+        byte[] png = qrCodeService.getTicketQRCodePng(token, qrCodeService.normalizeTicketQRCodeSize(null));
+        return Base64.getEncoder().encodeToString(png);
+    }
+
+    @Override
+    public Optional<String> findQRCodeToken(Long ticketId) {
+        return ticketTokenService.findToken(ticketId);
     }
 
     @Override
@@ -303,6 +348,7 @@ public class TicketServiceImpl implements TicketService {
 
         ticket.setUsed(true);
         ticketRepository.save(ticket);
+        gateScanService.recordUsed(ticket.getEvent().getId(), ticket.getTicketNumber());
     }
 
     @Override
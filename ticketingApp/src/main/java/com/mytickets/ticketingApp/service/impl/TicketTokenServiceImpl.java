@@ -0,0 +1,160 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.Ticket;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.service.TicketTokenService;
+import com.mytickets.ticketingApp.util.TicketTokenCodec;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tokens are signed with the active key from app.qr.signing-keys and accepted under any key listed
+ * there. The revocation set holds the current generation of every ticket that has changed hands
+ * for an event that has not long passed, which is a small fraction of all tickets. It is updated
+ * at once for resales on this node and reloaded every app.qr.revocation-refresh-ms for the others.
+ */
+@Service
+public class TicketTokenServiceImpl implements TicketTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketTokenServiceImpl.class);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Comma-separated keyId:secret pairs, key ids 0 to 255
+    @Value("${app.qr.signing-keys}")
+    private String signingKeys;
+
+    @Value("${app.qr.active-key-id:1}")
+    private int activeKeyId;
+
+    @Value("${app.qr.revocation-window-hours:24}")
+    private int revocationWindowHours;
+
+    private TicketTokenCodec codec;
+    // Current generation by ticket id, and the numbers of the same tickets for unsigned codes
+    private volatile ConcurrentMap<Long, Integer> generations = new ConcurrentHashMap<>();
+    private volatile Set<String> reissuedTicketNumbers = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        Map<Integer, String> secrets = new HashMap<>();
+        for (String pair : signingKeys.split(",")) {
+            int separator = pair.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("app.qr.signing-keys entries must look like keyId:secret");
+            }
+            secrets.put(Integer.parseInt(pair.substring(0, separator).trim()), pair.substring(separator + 1));
+        }
+        codec = new TicketTokenCodec(secrets, activeKeyId);
+
+        Gauge.builder("ticketing.qrcode.tokens.revoked", this, service -> service.generations.size())
+                .description("Resold tickets whose earlier QR tokens are rejected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<String> findToken(Long ticketId) {
+        List<Object[]> rows = ticketRepository.findTokenFieldsById(ticketId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(encode(rows.get(0)));
+    }
+
+    @Override
+    public List<String> findTokens(Collection<String> ticketNumbers) {
+        List<String> tokens = new ArrayList<>(ticketNumbers.size());
+        for (Object[] row : ticketRepository.findTokenFieldsByTicketNumberIn(ticketNumbers)) {
+            tokens.add(encode(row));
+        }
+        return tokens;
+    }
+
+    @Override
+    public void reissue(Ticket ticket) {
+        int generation = (ticket.getQrGeneration() != null ? ticket.getQrGeneration() : 0) + 1;
+        ticket.setQrGeneration(generation);
+
+        Long ticketId = ticket.getId();
+        String ticketNumber = ticket.getTicketNumber();
+        // Revoking before the commit would reject the current owner's code if the resale rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revoke(ticketId, ticketNumber, generation);
+                }
+            });
+        } else {
+            revoke(ticketId, ticketNumber, generation);
+        }
+    }
+
+    @Override
+    public TicketTokenCodec.Token verify(String code) {
+        return codec.decode(code);
+    }
+
+    @Override
+    public boolean isRevoked(long ticketId, int generation) {
+        Integer current = generations.get(ticketId);
+        return current != null && generation < current;
+    }
+
+    @Override
+    public boolean isRevoked(String ticketNumber) {
+        return reissuedTicketNumbers.contains(ticketNumber);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.qr.revocation-refresh-ms:10000}")
+    public int refreshRevocations() {
+        ConcurrentMap<Long, Integer> loaded = new ConcurrentHashMap<>();
+        Set<String> loadedNumbers = ConcurrentHashMap.newKeySet();
+        for (Object[] row : ticketRepository.findReissuedQrTokens(LocalDateTime.now().minusHours(revocationWindowHours))) {
+            loaded.put((Long) row[0], (Integer) row[2]);
+            loadedNumbers.add((String) row[1]);
+        }
+        // A resale committed here while the query ran is picked up again on the next refresh
+        generations = loaded;
+        reissuedTicketNumbers = loadedNumbers;
+        logger.debug("Loaded {} reissued ticket tokens", loaded.size());
+        return loaded.size();
+    }
+
+    private void revoke(Long ticketId, String ticketNumber, int generation) {
+        generations.merge(ticketId, generation, Math::max);
+        reissuedTicketNumbers.add(ticketNumber);
+    }
+
+    // Row of [id, eventId, section, row, seat, qrGeneration]
+    private String encode(Object[] row) {
+        return codec.encode((Long) row[1], (Long) row[0], row[5] != null ? (Integer) row[5] : 0,
+                seatLabel((String) row[2], (String) row[3], (String) row[4]));
+    }
+
+    private static String seatLabel(String section, String row, String seat) {
+        StringJoiner label = new StringJoiner("/");
+        for (String part : new String[] {section, row, seat}) {
+            if (part != null && !part.isBlank()) {
+                label.add(part.trim());
+            }
+        }
+        return label.length() == 0 ? null : label.toString();
+    }
+}
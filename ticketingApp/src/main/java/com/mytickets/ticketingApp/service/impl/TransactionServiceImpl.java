@@ -1,17 +1,29 @@
 package com.mytickets.ticketingApp.service.impl;
 
+import com.mytickets.ticketingApp.aspect.RetryOnConflict;
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
 import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import com.mytickets.ticketingApp.repository.TicketListingRepository;
 import com.mytickets.ticketingApp.repository.TicketRepository;
 import com.mytickets.ticketingApp.repository.TransactionRepository;
 import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.service.AvailabilityStreamService;
 import com.mytickets.ticketingApp.service.EmailService;
+import com.mytickets.ticketingApp.service.ResaleOrderBookService;
+import com.mytickets.ticketingApp.service.SeatHoldService;
 import com.mytickets.ticketingApp.service.StripeService;
+import com.mytickets.ticketingApp.service.TicketService;
+import com.mytickets.ticketingApp.service.TicketTokenService;
 import com.mytickets.ticketingApp.service.TransactionService;
 import com.mytickets.ticketingApp.service.UserBalanceService;
+import com.mytickets.ticketingApp.service.WaitingRoomService;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,17 +55,50 @@ public class TransactionServiceImpl implements TransactionService {
     @Autowired
     private StripeService stripeService;
 
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private TicketTokenService ticketTokenService;
+
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
+
+    @Autowired
+    private ResaleOrderBookService resaleOrderBookService;
+
     @Override
     @Transactional
     public Transaction createTicketPurchaseTransaction(Long ticketId, Long buyerId, String paymentMethod) {
+        return createTicketPurchaseTransaction(ticketId, buyerId, paymentMethod, null);
+    }
+
+    @Override
+    @Transactional
+    public Transaction createTicketPurchaseTransaction(Long ticketId, Long buyerId, String paymentMethod, Long admittedEventId) {
         // Validate ticket exists and is available
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found with id: " + ticketId));
 
+        if (ticket.getEvent() != null) {
+            waitingRoomService.checkAdmission(ticket.getEvent().getId(), admittedEventId);
+        }
+
         if (ticket.getStatus() != TicketStatus.AVAILABLE) {
             throw new RuntimeException("Ticket is not available for purchase");
         }
 
+        // Fail fast before creating anything if someone else is already checking out this seat
+        if (seatHoldService.isTicketHeldByOther(ticketId, buyerId)) {
+            throw new TicketUnavailableException("Ticket " + ticketId + " is held by another buyer");
+        }
+
         // Validate buyer exists
         User buyer = userRepository.findById(buyerId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + buyerId));
@@ -71,6 +116,10 @@ public class TransactionServiceImpl implements TransactionService {
 
         transaction.setTicket(ticket);
         transaction.setTransactionDate(LocalDateTime.now());
+        transaction = transactionRepository.save(transaction);
+
+        // Hold the seat before asking Stripe for a payment intent; released again if this transaction rolls back
+        seatHoldService.holdTicket(ticketId, buyerId, transaction.getId());
 
         // Create Stripe PaymentIntent for card payments
         if ("card".equals(paymentMethod)) {
@@ -99,7 +148,7 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElseThrow(() -> new RuntimeException("Listing not found with id: " + listingId));
 
         if (listing.getStatus() != ListingStatus.ACTIVE) {
-            throw new RuntimeException("Listing is not active");
+            throw new TicketUnavailableException("Listing " + listingId + " is no longer available");
         }
 
         // Validate buyer exists
@@ -111,6 +160,10 @@ public class TransactionServiceImpl implements TransactionService {
             throw new RuntimeException("You cannot purchase your own listing");
         }
 
+        if (seatHoldService.isListingHeldByOther(listingId, buyerId)) {
+            throw new TicketUnavailableException("Listing " + listingId + " is held by another buyer");
+        }
+
         // Validate ticket and seller
         Ticket ticket = listing.getTicket();
         if (ticket == null) {
@@ -131,6 +184,9 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setSeller(seller);
         transaction.setTicket(ticket);
         transaction.setTransactionDate(LocalDateTime.now());
+        transaction = transactionRepository.save(transaction);
+
+        seatHoldService.holdListing(listingId, buyerId, transaction.getId());
 
         // Create Stripe PaymentIntent for card payments
         if ("card".equals(paymentMethod)) {
@@ -156,6 +212,20 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionRepository.findAll();
     }
 
+    @Override
+    public CursorPage<Transaction> scrollTransactions(String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<Transaction> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = transactionRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor, true);
+            rows = transactionRepository.findPageBefore(after.getDate(), after.getId(), limit);
+        }
+        return CursorPage.of(rows, limit, transaction ->
+                KeysetCursor.of(transaction.getTransactionDate(), transaction.getId()));
+    }
+
     @Override
     public Optional<Transaction> getTransactionById(Long id) {
         return transactionRepository.findById(id);
@@ -220,25 +290,9 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Transactional
     protected void completeTicketPurchase(Transaction transaction) {
-        Ticket ticket = transaction.getTicket();
-        User buyer = transaction.getBuyer();
-
-        // Update ticket ownership and status
-        ticket.setOwner(buyer);
-        ticket.setStatus(TicketStatus.PURCHASED);
-        ticket.setPurchaseDate(LocalDateTime.now());
-
-        // Update event available tickets count
-        Event event = ticket.getEvent();
-        if (event != null) {
-            int availableTickets = event.getAvailableTickets() != null ?
-                    event.getAvailableTickets() : 0;
-            if (availableTickets > 0) {
-                event.setAvailableTickets(availableTickets - 1);
-            }
-        }
-
-        ticketRepository.save(ticket);
+        // Ticket ownership, status and the event/tier counters are updated atomically
+        ticketService.claimTicket(transaction.getTicket(), transaction.getBuyer());
+        seatHoldService.releaseTicket(transaction.getTicket().getId());
     }
 
     @Transactional
@@ -247,6 +301,16 @@ public class TransactionServiceImpl implements TransactionService {
         TicketListing listing = ticketListingRepository.findByTicketId(transaction.getTicket().getId())
                 .orElseThrow(() -> new RuntimeException("Listing not found for ticket"));
 
+        // Sold or withdrawn while the buyer was paying
+        if (listing.getStatus() != ListingStatus.ACTIVE) {
+            throw new TicketUnavailableException("Listing " + listing.getId() + " is no longer available");
+        }
+
+        // The buyer's hold may have lapsed while paying; that is only fatal if someone else picked the listing up
+        if (seatHoldService.isListingHeldByOther(listing.getId(), transaction.getBuyer().getId())) {
+            throw new TicketUnavailableException("Listing " + listing.getId() + " is held by another buyer");
+        }
+
         // Update listing status
         listing.setStatus(ListingStatus.SOLD);
 
@@ -258,13 +322,21 @@ public class TransactionServiceImpl implements TransactionService {
         ticket.setOwner(buyer);
         ticket.setStatus(TicketStatus.RESOLD);
         ticket.setPurchaseDate(LocalDateTime.now());
+        // The seller's QR code must stop scanning once the buyer owns the ticket
+        ticketTokenService.reissue(ticket);
 
         // For secondary purchases, the seller balance is handled in the payment processing methods
         ticketListingRepository.save(listing);
         ticketRepository.save(ticket);
+        seatHoldService.releaseListing(listing.getId());
+        resaleOrderBookService.listingChanged(listing);
+        if (ticket.getEvent() != null) {
+            availabilityStreamService.availabilityChanged(ticket.getEvent().getId());
+        }
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public Transaction processPaymentWithBalance(Long transactionId, Long buyerId) {
         Transaction transaction = transactionRepository.findById(transactionId)
@@ -340,12 +412,22 @@ public class TransactionServiceImpl implements TransactionService {
             // If anything fails, mark transaction as failed
             transaction.setStatus(TransactionStatus.FAILED);
             transactionRepository.save(transaction);
+
+            // Losing the race for the ticket is an expected outcome, not a processing error, and a
+            // version conflict has to reach the retry around this method unwrapped
+            if (e instanceof TicketUnavailableException) {
+                throw (TicketUnavailableException) e;
+            }
+            if (e instanceof OptimisticLockingFailureException) {
+                throw (OptimisticLockingFailureException) e;
+            }
             throw new RuntimeException("Payment processing failed: " + e.getMessage());
         }
     }
 
 
     @Override
+    @RetryOnConflict
     @Transactional
     public Transaction processPayment(Long transactionId, String paymentMethod, String paymentDetails) {
         Transaction transaction = transactionRepository.findById(transactionId)
@@ -409,6 +491,15 @@ public class TransactionServiceImpl implements TransactionService {
             // If anything fails, mark transaction as failed
             transaction.setStatus(TransactionStatus.FAILED);
             transactionRepository.save(transaction);
+
+            // Losing the race for the ticket is an expected outcome, not a processing error, and a
+            // version conflict has to reach the retry around this method unwrapped
+            if (e instanceof TicketUnavailableException) {
+                throw (TicketUnavailableException) e;
+            }
+            if (e instanceof OptimisticLockingFailureException) {
+                throw (OptimisticLockingFailureException) e;
+            }
             throw new RuntimeException("Payment processing failed: " + e.getMessage());
         }
     }
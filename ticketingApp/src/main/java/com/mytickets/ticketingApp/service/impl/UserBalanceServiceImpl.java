@@ -1,14 +1,18 @@
 // src/main/java/com/mytickets/ticketingApp/service/impl/UserBalanceServiceImpl.java
 package com.mytickets.ticketingApp.service.impl;
 
+import com.mytickets.ticketingApp.aspect.RetryOnConflict;
 import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
 import com.mytickets.ticketingApp.exception.TicketingAppException;
 import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import com.mytickets.ticketingApp.repository.BalanceTransactionRepository;
 import com.mytickets.ticketingApp.repository.UserBalanceRepository;
 import com.mytickets.ticketingApp.repository.UserRepository;
 import com.mytickets.ticketingApp.service.UserBalanceService;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,6 +46,7 @@ public class UserBalanceServiceImpl implements UserBalanceService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public UserBalance addToBalance(Long userId, Double amount, String description,
                                     String referenceType, Long referenceId) {
@@ -69,6 +74,7 @@ public class UserBalanceServiceImpl implements UserBalanceService {
     }
 
     @Override
+    @RetryOnConflict
     @Transactional
     public UserBalance useFromBalance(Long userId, Double amount, String description,
                                       String referenceType, Long referenceId) {
@@ -117,6 +123,20 @@ public class UserBalanceServiceImpl implements UserBalanceService {
         return balanceTransactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
     }
 
+    @Override
+    public CursorPage<BalanceTransaction> scrollBalanceHistory(Long userId, String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        List<BalanceTransaction> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = balanceTransactionRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor, true);
+            rows = balanceTransactionRepository.findPageByUserIdBefore(userId, after.getDate(), after.getId(), limit);
+        }
+        return CursorPage.of(rows, limit, transaction ->
+                KeysetCursor.of(transaction.getTransactionDate(), transaction.getId()));
+    }
+
     @Override
     public Double getCurrentBalance(Long userId) {
         UserBalance userBalance = getOrCreateUserBalance(userId);
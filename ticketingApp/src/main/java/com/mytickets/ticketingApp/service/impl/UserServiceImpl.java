@@ -3,6 +3,7 @@ package com.mytickets.ticketingApp.service.impl;
 import com.mytickets.ticketingApp.model.ERole;
 import com.mytickets.ticketingApp.model.Role;
 import com.mytickets.ticketingApp.model.User;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
 import com.mytickets.ticketingApp.repository.RoleRepository;
 import com.mytickets.ticketingApp.repository.TicketRepository;
 import com.mytickets.ticketingApp.repository.EventRepository;
@@ -10,7 +11,9 @@ import com.mytickets.ticketingApp.repository.TransactionRepository;
 import com.mytickets.ticketingApp.repository.UserRepository;
 import com.mytickets.ticketingApp.service.EmailService;
 import com.mytickets.ticketingApp.service.UserService;
+import com.mytickets.ticketingApp.util.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -49,6 +52,13 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public CursorPage<User> scrollUsers(String cursor, int size) {
+        Pageable limit = CursorPage.limit(size);
+        long afterId = cursor == null || cursor.isEmpty() ? 0L : KeysetCursor.decode(cursor, false).getId();
+        return CursorPage.of(userRepository.findPageAfter(afterId, limit), limit, user -> KeysetCursor.of(user.getId()));
+    }
+
     @Override
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
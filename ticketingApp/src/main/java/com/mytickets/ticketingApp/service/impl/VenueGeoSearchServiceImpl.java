@@ -0,0 +1,197 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.NearbyVenueResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.VenueRepository;
+import com.mytickets.ticketingApp.service.VenueGeoSearchService;
+import com.mytickets.ticketingApp.util.GeoGrid;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proximity search over venues with coordinates, answered from a {@link GeoGrid} kept next to the
+ * venue rows it returns, instead of an exact city match and client-side filtering. Nearby events
+ * are one query for the upcoming events of the nearest venues. Venue writes on this node patch the
+ * grid after their transaction commits; a periodic rebuild picks up writes made on other nodes.
+ */
+@Service
+public class VenueGeoSearchServiceImpl implements VenueGeoSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VenueGeoSearchServiceImpl.class);
+
+    // About 28 km north to south, so a city-sized radius reads a handful of cells
+    private static final double CELL_DEGREES = 0.25;
+    private static final double MAX_RADIUS_KM = 500;
+    private static final int MAX_LIMIT = 100;
+    // Nearest venues whose events are looked up for one nearby event search
+    private static final int MAX_EVENT_VENUES = 500;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Swapped whole by a rebuild; patched in place by single writes
+    private volatile Located located;
+    private Timer lookupTimer;
+
+    @PostConstruct
+    public void init() {
+        lookupTimer = Timer.builder("ticketing.geo.lookup")
+                .description("Time to find the venues in a radius or box")
+                .register(meterRegistry);
+        Gauge.builder("ticketing.geo.venues", this, service -> service.located == null ? 0 : service.located.grid.size())
+                .description("Venues held in the proximity index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<NearbyVenueResponse> findVenuesNear(double latitude, double longitude, double radiusKm, int limit) {
+        checkRadius(radiusKm);
+        Located current = located();
+        return venues(current, lookupTimer.record(() -> current.grid.withinRadius(latitude, longitude, radiusKm, clamp(limit))));
+    }
+
+    @Override
+    public List<NearbyVenueResponse> findVenuesWithin(double minLatitude, double minLongitude,
+                                                      double maxLatitude, double maxLongitude, int limit) {
+        Located current = located();
+        return venues(current, lookupTimer.record(() ->
+                current.grid.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, clamp(limit))));
+    }
+
+    @Override
+    public List<EventSummaryResponse> findUpcomingEventsNear(double latitude, double longitude, double radiusKm, int limit) {
+        checkRadius(radiusKm);
+        Located current = located();
+        List<GeoGrid.Hit> hits = lookupTimer.record(() ->
+                current.grid.withinRadius(latitude, longitude, radiusKm, MAX_EVENT_VENUES));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Double> distances = new HashMap<>();
+        hits.forEach(hit -> distances.put(hit.getId(), hit.getDistanceKm()));
+
+        List<EventSummaryResponse> events = eventRepository.findUpcomingSummariesByVenueIds(distances.keySet(), LocalDateTime.now());
+        events.forEach(event -> event.setDistanceKm(distances.get(event.getVenue().getId())));
+        events.sort(Comparator.comparing(EventSummaryResponse::getDistanceKm)
+                .thenComparing(EventSummaryResponse::getEventDate)
+                .thenComparing(EventSummaryResponse::getId));
+        return events.size() > clamp(limit) ? new ArrayList<>(events.subList(0, clamp(limit))) : events;
+    }
+
+    @Override
+    public void venueChanged(Long venueId) {
+        afterCommit(() -> {
+            Located current = located;
+            if (current != null) {
+                venueRepository.findLocatedVenueById(venueId)
+                        .ifPresentOrElse(current::put, () -> current.remove(venueId));
+            }
+        });
+    }
+
+    @Override
+    public void venueRemoved(Long venueId) {
+        afterCommit(() -> {
+            Located current = located;
+            if (current != null) {
+                current.remove(venueId);
+            }
+        });
+    }
+
+    /**
+     * Build a fresh grid from every located venue and swap it in. A write patched into the old grid
+     * while this runs may be missing from the new one until the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.geo.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Located rebuilt = new Located();
+        venueRepository.findLocatedVenues().forEach(rebuilt::put);
+        located = rebuilt;
+        logger.debug("Rebuilt venue proximity index of {} venues in {} ms",
+                rebuilt.venues.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Located located() {
+        Located current = located;
+        if (current == null) {
+            synchronized (this) {
+                if (located == null) {
+                    rebuild();
+                }
+                current = located;
+            }
+        }
+        return current;
+    }
+
+    private List<NearbyVenueResponse> venues(Located current, List<GeoGrid.Hit> hits) {
+        List<NearbyVenueResponse> venues = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit hit : hits) {
+            NearbyVenueResponse venue = current.venues.get(hit.getId());
+            if (venue != null) {
+                venues.add(venue.withDistance(hit.getDistanceKm()));
+            }
+        }
+        return venues;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static void checkRadius(double radiusKm) {
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + (int) MAX_RADIUS_KM + " km");
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static final class Located {
+        private final GeoGrid grid = new GeoGrid(CELL_DEGREES);
+        private final Map<Long, NearbyVenueResponse> venues = new ConcurrentHashMap<>();
+
+        private void put(NearbyVenueResponse venue) {
+            grid.put(venue.getId(), venue.getLatitude(), venue.getLongitude());
+            venues.put(venue.getId(), venue);
+        }
+
+        private void remove(Long venueId) {
+            grid.remove(venueId);
+            venues.remove(venueId);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.mytickets.ticketingApp.service.impl;
 import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
 import com.mytickets.ticketingApp.model.Venue;
 import com.mytickets.ticketingApp.repository.VenueRepository;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
+import com.mytickets.ticketingApp.service.VenueGeoSearchService;
 import com.mytickets.ticketingApp.service.VenueService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -21,6 +23,12 @@ public class VenueServiceImpl implements VenueService {
     @Autowired
     private VenueRepository venueRepository;
 
+    @Autowired
+    private CatalogSearchService catalogSearchService;
+
+    @Autowired
+    private VenueGeoSearchService venueGeoSearchService;
+
     @Override
     @Cacheable("venues")
     public List<Venue> getAllVenues() {
@@ -40,7 +48,9 @@ public class VenueServiceImpl implements VenueService {
             evict = { @CacheEvict(value = "venues", allEntries = true) }
     )
     public Venue createVenue(Venue venue) {
-        return venueRepository.save(venue);
+        Venue saved = venueRepository.save(venue);
+        venueGeoSearchService.venueChanged(saved.getId());
+        return saved;
     }
 
     @Override
@@ -64,8 +74,13 @@ public class VenueServiceImpl implements VenueService {
         existingVenue.setCountry(updatedVenue.getCountry());
         existingVenue.setCapacity(updatedVenue.getCapacity());
         existingVenue.setVenueMap(updatedVenue.getVenueMap());
+        existingVenue.setLatitude(updatedVenue.getLatitude());
+        existingVenue.setLongitude(updatedVenue.getLongitude());
 
-        return venueRepository.save(existingVenue);
+        Venue saved = venueRepository.save(existingVenue);
+        catalogSearchService.venueChanged(id);
+        venueGeoSearchService.venueChanged(id);
+        return saved;
     }
 
     @Override
@@ -78,6 +93,7 @@ public class VenueServiceImpl implements VenueService {
     })
     public void deleteVenue(Long id) {
         venueRepository.deleteById(id);
+        venueGeoSearchService.venueRemoved(id);
     }
 
     @Override
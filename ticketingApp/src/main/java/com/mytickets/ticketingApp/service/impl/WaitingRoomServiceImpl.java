@@ -0,0 +1,385 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.AdmissionRequiredException;
+import com.mytickets.ticketingApp.model.WaitingRoomState;
+import com.mytickets.ticketingApp.payload.response.QueueStatusResponse;
+import com.mytickets.ticketingApp.repository.WaitingRoomStateRepository;
+import com.mytickets.ticketingApp.service.WaitingRoomService;
+import com.mytickets.ticketingApp.util.HmacSigner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for on-sales. Each open event queue is just two counters: the last position
+ * handed out and the highest position admitted so far, advanced at a fixed rate by a scheduled job.
+ * Buyers carry their position in a signed queue token, so status checks are pure in-memory work,
+ * and a queue lost in a restart is rebuilt from the positions and watermarks in the tokens its
+ * buyers keep polling with. Admitted buyers receive a short-lived signed pass for checkout.
+ *
+ * Which rooms are open is stored in the waiting_rooms table: a token only restores a room that is
+ * still open there, and a periodic sync opens and closes rooms on this node as other nodes change them.
+ *
+ * Joining again returns the place already held, and an admitted place is good for at most
+ * app.waiting-room.checkouts-per-admission checkouts, after which the buyer queues again. Positions,
+ * watermarks and spent passes are kept per node and every node runs its own admission job, so the
+ * admission rate is per node: with N nodes up to N times admitPerSecond buyers get in each second.
+ */
+@Service
+public class WaitingRoomServiceImpl implements WaitingRoomService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitingRoomServiceImpl.class);
+
+    private static final String QUEUE_TOKEN = "Q";
+    private static final String ADMISSION_PASS = "P";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WaitingRoomStateRepository waitingRoomStateRepository;
+
+    @Value("${app.waiting-room.secret}")
+    private String secret;
+
+    @Value("${app.waiting-room.queue-token-ttl-seconds:7200}")
+    private long queueTokenTtlSeconds;
+
+    @Value("${app.waiting-room.pass-ttl-seconds:300}")
+    private long passTtlSeconds;
+
+    @Value("${app.waiting-room.max-poll-interval-seconds:15}")
+    private int maxPollIntervalSeconds;
+
+    @Value("${app.waiting-room.checkouts-per-admission:3}")
+    private int checkoutsPerAdmission;
+
+    private final ConcurrentMap<Long, WaitingRoom> rooms = new ConcurrentHashMap<>();
+
+    private HmacSigner signer;
+
+    @PostConstruct
+    public void init() {
+        signer = new HmacSigner(secret);
+
+        Gauge.builder("ticketing.waiting.room.queued", rooms, WaitingRoomServiceImpl::countQueued)
+                .description("Buyers waiting to be admitted across all open queues")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void openRoom(Long eventId, int admitPerSecond) {
+        if (admitPerSecond <= 0) {
+            throw new IllegalArgumentException("Admission rate must be positive");
+        }
+
+        WaitingRoom room = rooms.compute(eventId, (id, existing) -> {
+            if (existing != null && existing.open) {
+                existing.admitPerSecond = admitPerSecond;
+                return existing;
+            }
+            return new WaitingRoom(id, System.currentTimeMillis(), admitPerSecond);
+        });
+        waitingRoomStateRepository.save(new WaitingRoomState(eventId, true, admitPerSecond, room.epoch));
+        logger.info("Waiting room for event {} admitting {} buyers per second", eventId, admitPerSecond);
+    }
+
+    @Override
+    public void closeRoom(Long eventId) {
+        WaitingRoom room = rooms.get(eventId);
+        if (room != null) {
+            room.open = false;
+        }
+        waitingRoomStateRepository.findById(eventId).ifPresent(state -> {
+            state.setOpen(false);
+            waitingRoomStateRepository.save(state);
+        });
+        logger.info("Waiting room for event {} closed", eventId);
+    }
+
+    @Override
+    public boolean isOpen(Long eventId) {
+        WaitingRoom room = rooms.get(eventId);
+        return room != null && room.open;
+    }
+
+    @Override
+    public QueueStatusResponse join(Long eventId, Long userId) {
+        WaitingRoom room = rooms.get(eventId);
+        if (room == null || !room.open) {
+            return notQueued(eventId);
+        }
+        long position = room.positions.computeIfAbsent(userId, id -> room.lastPosition.incrementAndGet());
+        return status(room, userId, position);
+    }
+
+    @Override
+    public QueueStatusResponse getStatus(String queueToken) {
+        String[] fields = parse(queueToken, QUEUE_TOKEN, 8);
+        if (fields == null) {
+            throw new IllegalArgumentException("Invalid queue token");
+        }
+
+        long epoch = Long.parseLong(fields[1]);
+        Long eventId = Long.valueOf(fields[2]);
+        Long userId = Long.valueOf(fields[3]);
+        long position = Long.parseLong(fields[4]);
+        long watermark = Long.parseLong(fields[5]);
+        long issuedAt = Long.parseLong(fields[7]);
+
+        if (issuedAt + queueTokenTtlSeconds * 1000 < System.currentTimeMillis()) {
+            throw new IllegalArgumentException("Queue token has expired, please join the queue again");
+        }
+
+        // After a restart the queue comes back from whatever its buyers present, if it is still open
+        WaitingRoom room = rooms.get(eventId);
+        if (room == null) {
+            room = restore(eventId);
+        }
+        if (room == null) {
+            return notQueued(eventId);
+        }
+
+        if (room.epoch > epoch) {
+            throw new IllegalArgumentException("Queue token belongs to an earlier on-sale, please join the queue again");
+        }
+        if (!room.open) {
+            return notQueued(eventId);
+        }
+
+        if (room.isSpent(position, checkoutsPerAdmission)) {
+            throw new IllegalArgumentException("Admission has been used, please join the queue again");
+        }
+
+        room.lastPosition.accumulateAndGet(position, Math::max);
+        room.admittedUpTo.accumulateAndGet(watermark, Math::max);
+        room.positions.putIfAbsent(userId, position);
+
+        return status(room, userId, position);
+    }
+
+    @Override
+    public Long verifyPass(String admissionPass, Long userId) {
+        if (admissionPass == null || admissionPass.isEmpty()) {
+            return null;
+        }
+
+        String[] fields = parse(admissionPass, ADMISSION_PASS, 5);
+        if (fields == null
+                || !fields[2].equals(String.valueOf(userId))
+                || Long.parseLong(fields[3]) < System.currentTimeMillis()) {
+            throw new AdmissionRequiredException("Waiting room pass is invalid or has expired");
+        }
+
+        Long eventId = Long.valueOf(fields[1]);
+        WaitingRoom room = rooms.get(eventId);
+        if (room != null && !room.startCheckout(userId, Long.parseLong(fields[4]), checkoutsPerAdmission)) {
+            throw new AdmissionRequiredException("Waiting room pass has been used for " + checkoutsPerAdmission
+                    + " checkouts; join the queue again");
+        }
+        return eventId;
+    }
+
+    @Override
+    public void checkAdmission(Long eventId, Long admittedEventId) {
+        if (isOpen(eventId) && !eventId.equals(admittedEventId)) {
+            throw new AdmissionRequiredException(
+                    "Event " + eventId + " is selling through a waiting room; join the queue and retry with your admission pass");
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> getRooms() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (WaitingRoom room : rooms.values()) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("eventId", room.eventId);
+            map.put("open", room.open);
+            map.put("admitPerSecond", room.admitPerSecond);
+            map.put("lastPosition", room.lastPosition.get());
+            map.put("admittedUpTo", room.admittedUpTo.get());
+            map.put("queued", room.queued());
+            result.add(map);
+        }
+        return result;
+    }
+
+    /**
+     * Bring this node's rooms in line with the shared open/closed state: open the rooms opened on
+     * other nodes, so purchases are gated everywhere, and close the ones closed elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${app.waiting-room.sync-interval-ms:5000}")
+    public void syncRooms() {
+        List<WaitingRoomState> states;
+        try {
+            states = waitingRoomStateRepository.findAll();
+        } catch (RuntimeException e) {
+            logger.error("Could not read waiting room states, keeping the current rooms: {}", e.getMessage());
+            return;
+        }
+
+        for (WaitingRoomState state : states) {
+            if (state.isOpen()) {
+                rooms.compute(state.getEventId(), (id, existing) -> {
+                    if (existing != null && existing.epoch == state.getOpenedAt()) {
+                        existing.admitPerSecond = state.getAdmitPerSecond();
+                        return existing;
+                    }
+                    // A newer on-sale was opened elsewhere; the earlier queue's tokens are now rejected
+                    return existing != null && existing.epoch > state.getOpenedAt()
+                            ? existing : new WaitingRoom(id, state.getOpenedAt(), state.getAdmitPerSecond());
+                });
+            } else {
+                WaitingRoom room = rooms.get(state.getEventId());
+                if (room != null) {
+                    room.open = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move each open queue's admission watermark forward by its rate. Credit that cannot be used
+     * because nobody is waiting is dropped, so a quiet queue does not bank a burst for later.
+     */
+    @Scheduled(fixedRateString = "${app.waiting-room.admit-interval-ms:250}")
+    public void admit() {
+        long now = System.currentTimeMillis();
+        for (WaitingRoom room : rooms.values()) {
+            if (!room.open) {
+                continue;
+            }
+
+            long elapsed = room.lastAdmitMs == 0 ? 0 : now - room.lastAdmitMs;
+            room.lastAdmitMs = now;
+            room.credit += room.admitPerSecond * elapsed / 1000.0;
+
+            long whole = (long) room.credit;
+            room.credit -= whole;
+            if (whole > 0) {
+                long last = room.lastPosition.get();
+                // Never backwards: a room restored from a token may know of a watermark past its last position
+                room.admittedUpTo.accumulateAndGet(whole, (current, step) -> Math.max(current, Math.min(last, current + step)));
+            }
+        }
+    }
+
+    private WaitingRoom restore(Long eventId) {
+        WaitingRoomState state = waitingRoomStateRepository.findById(eventId)
+                .filter(WaitingRoomState::isOpen)
+                .orElse(null);
+        if (state == null) {
+            return null;
+        }
+        return rooms.computeIfAbsent(eventId, id -> {
+            logger.info("Restoring waiting room for event {} from a queue token", id);
+            return new WaitingRoom(id, state.getOpenedAt(), state.getAdmitPerSecond());
+        });
+    }
+
+    private QueueStatusResponse status(WaitingRoom room, Long userId, long position) {
+        long admittedUpTo = room.admittedUpTo.get();
+        long ahead = Math.max(0, position - admittedUpTo);
+        long now = System.currentTimeMillis();
+
+        QueueStatusResponse response = new QueueStatusResponse();
+        response.setEventId(room.eventId);
+        response.setOpen(true);
+        response.setPosition(position);
+        response.setAdmittedUpTo(admittedUpTo);
+        response.setAhead(ahead);
+        response.setEstimatedWaitSeconds((ahead + room.admitPerSecond - 1) / room.admitPerSecond);
+        response.setAdmitted(ahead == 0);
+        // Poll more often as the front of the queue gets closer
+        response.setPollAfterSeconds((int) Math.max(1, Math.min(maxPollIntervalSeconds, response.getEstimatedWaitSeconds() / 4)));
+        response.setQueueToken(signer.sign(String.join("|", QUEUE_TOKEN,
+                String.valueOf(room.epoch), String.valueOf(room.eventId), String.valueOf(userId),
+                String.valueOf(position), String.valueOf(admittedUpTo), String.valueOf(room.admitPerSecond),
+                String.valueOf(now))));
+
+        if (response.isAdmitted()) {
+            long expiresAt = now + passTtlSeconds * 1000;
+            response.setAdmissionPass(signer.sign(String.join("|", ADMISSION_PASS,
+                    String.valueOf(room.eventId), String.valueOf(userId), String.valueOf(expiresAt),
+                    String.valueOf(position))));
+            response.setPassExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault()));
+        }
+
+        return response;
+    }
+
+    private QueueStatusResponse notQueued(Long eventId) {
+        QueueStatusResponse response = new QueueStatusResponse();
+        response.setEventId(eventId);
+        response.setOpen(false);
+        response.setAdmitted(true);
+        return response;
+    }
+
+    private String[] parse(String token, String kind, int fieldCount) {
+        String payload = signer.verify(token);
+        if (payload == null) {
+            return null;
+        }
+        String[] fields = payload.split("\\|");
+        return fields.length == fieldCount && kind.equals(fields[0]) ? fields : null;
+    }
+
+    private static double countQueued(ConcurrentMap<Long, WaitingRoom> rooms) {
+        return rooms.values().stream().filter(room -> room.open).mapToLong(WaitingRoom::queued).sum();
+    }
+
+    private static final class WaitingRoom {
+        private final Long eventId;
+        // When this on-sale opened; tokens from an earlier opening of the same event are rejected
+        private final long epoch;
+        private final AtomicLong lastPosition = new AtomicLong();
+        private final AtomicLong admittedUpTo = new AtomicLong();
+        // Place held by each queued buyer, and checkouts started from each admitted place
+        private final ConcurrentMap<Long, Long> positions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, Integer> checkouts = new ConcurrentHashMap<>();
+        private volatile int admitPerSecond;
+        private volatile boolean open = true;
+
+        // Only touched by the admission job
+        private double credit;
+        private long lastAdmitMs;
+
+        private WaitingRoom(Long eventId, long epoch, int admitPerSecond) {
+            this.eventId = eventId;
+            this.epoch = epoch;
+            this.admitPerSecond = admitPerSecond;
+        }
+
+        private long queued() {
+            return Math.max(0, lastPosition.get() - admittedUpTo.get());
+        }
+
+        private boolean isSpent(long position, int maxCheckouts) {
+            return checkouts.getOrDefault(position, 0) >= maxCheckouts;
+        }
+
+        // Once the place is used up the buyer loses it, so joining again goes to the back
+        private boolean startCheckout(Long userId, long position, int maxCheckouts) {
+            int started = checkouts.merge(position, 1, Integer::sum);
+            if (started >= maxCheckouts) {
+                positions.remove(userId, position);
+            }
+            return started <= maxCheckouts;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.mytickets.ticketingApp.util;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a ZXing {@link BitMatrix} as a 1-bit grayscale PNG without going through a
+ * BufferedImage and ImageIO. Scanlines are packed straight from the matrix rows, eight modules
+ * per byte, so the raw image is 1/32 the size of the ARGB raster MatrixToImageWriter builds.
+ * The deflater, checksum and buffers are kept per thread and reused, so encoding a code
+ * allocates little more than the returned array.
+ */
+public final class BitMatrixPngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] IHDR = {'I', 'H', 'D', 'R'};
+    private static final byte[] IDAT = {'I', 'D', 'A', 'T'};
+    private static final byte[] IEND = {'I', 'E', 'N', 'D'};
+
+    private static final byte BIT_DEPTH = 1;
+    private static final byte COLOR_TYPE_GRAYSCALE = 0;
+    private static final byte FILTER_NONE = 0;
+
+    private static final ThreadLocal<Encoder> ENCODERS = ThreadLocal.withInitial(Encoder::new);
+
+    private BitMatrixPngEncoder() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * @return PNG bytes with set modules black and unset modules white, one pixel per module
+     */
+    public static byte[] encode(BitMatrix matrix) {
+        return ENCODERS.get().encode(matrix);
+    }
+
+    private static final class Encoder {
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        private final CRC32 crc = new CRC32();
+        private BitArray row = new BitArray(0);
+        private byte[] raw = new byte[0];
+        private byte[] out = new byte[4096];
+        private int pos;
+
+        private byte[] encode(BitMatrix matrix) {
+            int width = matrix.getWidth();
+            int height = matrix.getHeight();
+            int stride = (width + 7) >>> 3;
+            int rawLength = height * (stride + 1);
+            if (raw.length < rawLength) {
+                raw = new byte[rawLength];
+            }
+
+            for (int y = 0; y < height; y++) {
+                row = matrix.getRow(y, row);
+                int[] bits = row.getBitArray();
+                int offset = y * (stride + 1);
+                raw[offset] = FILTER_NONE;
+                for (int i = 0; i < stride; i++) {
+                    // BitArray keeps the leftmost module in the lowest bit, PNG wants it in the highest,
+                    // and a set module is black, which is 0 in grayscale. Unused bits at the end of a
+                    // scanline are ignored by decoders.
+                    int modules = (bits[i >>> 2] >>> ((i & 3) << 3)) & 0xFF;
+                    raw[offset + 1 + i] = (byte) ~(Integer.reverse(modules) >>> 24);
+                }
+            }
+
+            pos = 0;
+            write(SIGNATURE, 0, SIGNATURE.length);
+
+            int chunk = beginChunk(IHDR);
+            writeInt(width);
+            writeInt(height);
+            writeByte(BIT_DEPTH);
+            writeByte(COLOR_TYPE_GRAYSCALE);
+            writeByte((byte) 0); // deflate
+            writeByte((byte) 0); // adaptive filtering
+            writeByte((byte) 0); // not interlaced
+            endChunk(chunk);
+
+            chunk = beginChunk(IDAT);
+            deflater.reset();
+            deflater.setInput(raw, 0, rawLength);
+            deflater.finish();
+            while (!deflater.finished()) {
+                ensureCapacity(1024);
+                pos += deflater.deflate(out, pos, out.length - pos);
+            }
+            endChunk(chunk);
+
+            endChunk(beginChunk(IEND));
+            return Arrays.copyOf(out, pos);
+        }
+
+        // Leaves room for the length, writes the type and returns where the chunk starts
+        private int beginChunk(byte[] type) {
+            int start = pos;
+            writeInt(0);
+            write(type, 0, type.length);
+            return start;
+        }
+
+        private void endChunk(int start) {
+            int dataLength = pos - start - 8;
+            putInt(start, dataLength);
+            crc.reset();
+            crc.update(out, start + 4, dataLength + 4);
+            writeInt((int) crc.getValue());
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, out, pos, length);
+            pos += length;
+        }
+
+        private void writeByte(byte value) {
+            ensureCapacity(1);
+            out[pos++] = value;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(4);
+            putInt(pos, value);
+            pos += 4;
+        }
+
+        private void putInt(int at, int value) {
+            out[at] = (byte) (value >>> 24);
+            out[at + 1] = (byte) (value >>> 16);
+            out[at + 2] = (byte) (value >>> 8);
+            out[at + 3] = (byte) value;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (pos + extra > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, pos + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column store of the attributes events are browsed by, for filtering, sorting and counting facets
+ * in one pass without a query. Every event is a row. City, type and status are dictionary coded
+ * with a bitmap of rows per value, availability is a bitmap of its own, and date and lowest price
+ * are plain columns. Rows freed by removed events are reused.
+ *
+ * A query walks the live rows once. A row failing no filter is a match; a row failing exactly one
+ * facet filter is counted for that facet only, so each facet's counts show what picking another
+ * value there would return while the other filters stay as they are. Date and price ranges are
+ * not facets and always apply. Reads share a lock; writes take it exclusively.
+ */
+public class EventFacetIndex {
+
+    public static final String CITY = "city";
+    public static final String TYPE = "type";
+    public static final String STATUS = "status";
+    public static final String AVAILABLE = "available";
+
+    private static final int CITY_DIMENSION = 0;
+    private static final int TYPE_DIMENSION = 1;
+    private static final int STATUS_DIMENSION = 2;
+    private static final int AVAILABLE_DIMENSION = 3;
+
+    public enum Sort {
+        DATE, DATE_DESC, PRICE, PRICE_DESC;
+
+        /**
+         * @param sort "date" or "price", with a leading "-" for descending
+         */
+        public static Sort of(String sort) {
+            switch (sort == null ? "" : sort.trim().toLowerCase(Locale.ROOT)) {
+                case "":
+                case "date":
+                    return DATE;
+                case "-date":
+                    return DATE_DESC;
+                case "price":
+                    return PRICE;
+                case "-price":
+                    return PRICE_DESC;
+                default:
+                    throw new IllegalArgumentException("Unsupported sort: " + sort);
+            }
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Deque<Integer> freeRows = new ArrayDeque<>();
+    private final Dictionary cities = new Dictionary();
+    private final Dictionary types = new Dictionary();
+    private final Dictionary statuses = new Dictionary();
+
+    private int rows;
+    private long[] ids = new long[64];
+    private long[] dates = new long[64];
+    // NaN when the event has no tier with tickets left
+    private double[] prices = new double[64];
+    private int[] cityCodes = new int[64];
+    private int[] typeCodes = new int[64];
+    private int[] statusCodes = new int[64];
+
+    /**
+     * Add an event or replace its row.
+     *
+     * @param eventDate Any monotonic encoding of the date, e.g. epoch seconds
+     * @param lowestPrice Lowest price still on sale, or null
+     */
+    public void put(long id, String city, String type, String status, long eventDate, Double lowestPrice,
+                    boolean hasTickets) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowsById.get(id);
+            int row;
+            if (existing != null) {
+                row = existing;
+                unlink(row);
+            } else {
+                row = freeRows.isEmpty() ? rows++ : freeRows.pop();
+                ensureCapacity(rows);
+                rowsById.put(id, row);
+            }
+            ids[row] = id;
+            dates[row] = eventDate;
+            prices[row] = lowestPrice == null ? Double.NaN : lowestPrice;
+            cityCodes[row] = cities.link(city, row);
+            typeCodes[row] = types.link(type, row);
+            statusCodes[row] = statuses.link(status, row);
+            available.set(row, hasTickets);
+            live.set(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(id);
+            if (row != null) {
+                unlink(row);
+                live.clear(row);
+                available.clear(row);
+                freeRows.push(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            // Rows holding any of the picked values of each facet; null where nothing is picked
+            BitSet[] picked = {
+                    cities.union(query.cities),
+                    types.union(query.types),
+                    statuses.union(query.statuses),
+                    query.availableOnly ? available : null
+            };
+            int[][] counts = {
+                    new int[cities.size()], new int[types.size()], new int[statuses.size()], new int[2]
+            };
+            boolean priceFiltered = query.minPrice != null || query.maxPrice != null;
+            double minPrice = query.minPrice == null ? Double.NEGATIVE_INFINITY : query.minPrice;
+            double maxPrice = query.maxPrice == null ? Double.POSITIVE_INFINITY : query.maxPrice;
+
+            Comparator<Integer> order = comparator(query.sort);
+            int keep = query.offset + query.limit;
+            PriorityQueue<Integer> page = new PriorityQueue<>(Math.max(1, Math.min(keep, rowsById.size())), order.reversed());
+            int total = 0;
+
+            for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+                if (dates[row] < query.from || dates[row] > query.to) {
+                    continue;
+                }
+                if (priceFiltered && !(prices[row] >= minPrice && prices[row] <= maxPrice)) {
+                    continue;
+                }
+                int failed = -1;
+                boolean more = false;
+                for (int dimension = 0; dimension < picked.length; dimension++) {
+                    if (picked[dimension] != null && !picked[dimension].get(row)) {
+                        more = failed >= 0;
+                        failed = dimension;
+                        if (more) {
+                            break;
+                        }
+                    }
+                }
+                if (more) {
+                    continue;
+                }
+                if (failed < 0) {
+                    total++;
+                    for (int dimension = 0; dimension < counts.length; dimension++) {
+                        counts[dimension][code(dimension, row)]++;
+                    }
+                    if (keep > 0) {
+                        page.add(row);
+                        if (page.size() > keep) {
+                            page.poll();
+                        }
+                    }
+                } else {
+                    counts[failed][code(failed, row)]++;
+                }
+            }
+
+            List<Long> pageIds = new ArrayList<>(page.size());
+            while (page.size() > query.offset) {
+                pageIds.add(ids[page.poll()]);
+            }
+            Collections.reverse(pageIds);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(CITY, cities.counts(counts[CITY_DIMENSION]));
+            facets.put(TYPE, types.counts(counts[TYPE_DIMENSION]));
+            facets.put(STATUS, statuses.counts(counts[STATUS_DIMENSION]));
+            Map<String, Integer> availability = new LinkedHashMap<>();
+            availability.put("true", counts[AVAILABLE_DIMENSION][1]);
+            availability.put("false", counts[AVAILABLE_DIMENSION][0]);
+            facets.put(AVAILABLE, availability);
+            return new Result(pageIds, total, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int code(int dimension, int row) {
+        switch (dimension) {
+            case CITY_DIMENSION:
+                return cityCodes[row];
+            case TYPE_DIMENSION:
+                return typeCodes[row];
+            case STATUS_DIMENSION:
+                return statusCodes[row];
+            default:
+                return available.get(row) ? 1 : 0;
+        }
+    }
+
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> byDate = Comparator.comparingLong(row -> dates[row]);
+        Comparator<Integer> byPrice = Comparator.comparingDouble(row -> prices[row]);
+        // Events with nothing on sale go last either way
+        Comparator<Integer> onSaleFirst = Comparator.comparing(row -> Double.isNaN(prices[row]));
+        Comparator<Integer> order;
+        switch (sort) {
+            case DATE_DESC:
+                order = byDate.reversed();
+                break;
+            case PRICE:
+                order = onSaleFirst.thenComparing(byPrice).thenComparing(byDate);
+                break;
+            case PRICE_DESC:
+                order = onSaleFirst.thenComparing(byPrice.reversed()).thenComparing(byDate);
+                break;
+            default:
+                order = byDate;
+                break;
+        }
+        return order.thenComparingLong(row -> ids[row]);
+    }
+
+    private void unlink(int row) {
+        cities.unlink(cityCodes[row], row);
+        types.unlink(typeCodes[row], row);
+        statuses.unlink(statusCodes[row], row);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        cityCodes = Arrays.copyOf(cityCodes, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+    }
+
+    /**
+     * Values of one facet, coded in the order first seen, each with the bitmap of rows holding it.
+     * Codes are never reused, so a value whose events are all gone just counts zero.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> rows = new ArrayList<>();
+
+        private int link(String value, int row) {
+            String key = value == null ? "" : value;
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = values.size();
+                codes.put(key, code);
+                values.add(key);
+                rows.add(new BitSet());
+            }
+            rows.get(code).set(row);
+            return code;
+        }
+
+        private void unlink(int code, int row) {
+            rows.get(code).clear(row);
+        }
+
+        private BitSet union(Collection<String> picked) {
+            if (picked == null || picked.isEmpty()) {
+                return null;
+            }
+            BitSet union = new BitSet();
+            for (String value : picked) {
+                Integer code = codes.get(value);
+                if (code != null) {
+                    union.or(rows.get(code));
+                }
+            }
+            return union;
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private Map<String, Integer> counts(int[] counts) {
+            List<Integer> order = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0 && !values.get(code).isEmpty()) {
+                    order.add(code);
+                }
+            }
+            order.sort(Comparator.<Integer>comparingInt(code -> -counts[code]).thenComparing(values::get));
+            Map<String, Integer> byValue = new LinkedHashMap<>();
+            for (int code : order) {
+                byValue.put(values.get(code), counts[code]);
+            }
+            return byValue;
+        }
+    }
+
+    /**
+     * Filters, sort and page of one browse request. Facets left empty do not filter.
+     */
+    public static final class Query {
+        private Collection<String> cities = List.of();
+        private Collection<String> types = List.of();
+        private Collection<String> statuses = List.of();
+        private long from = Long.MIN_VALUE;
+        private long to = Long.MAX_VALUE;
+        private Double minPrice;
+        private Double maxPrice;
+        private boolean availableOnly;
+        private Sort sort = Sort.DATE;
+        private int offset;
+        private int limit = 20;
+
+        public Query cities(Collection<String> cities) {
+            this.cities = cities == null ? List.of() : cities;
+            return this;
+        }
+
+        public Query types(Collection<String> types) {
+            this.types = types == null ? List.of() : types;
+            return this;
+        }
+
+        public Query statuses(Collection<String> statuses) {
+            this.statuses = statuses == null ? List.of() : statuses;
+            return this;
+        }
+
+        public Query dates(long from, long to) {
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        public Query prices(Double minPrice, Double maxPrice) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        public Query availableOnly(boolean availableOnly) {
+            this.availableOnly = availableOnly;
+            return this;
+        }
+
+        public Query sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public Query page(int offset, int limit) {
+            this.offset = Math.max(0, offset);
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+    }
+
+    public static final class Result {
+        private final List<Long> ids;
+        private final int total;
+        private final Map<String, Map<String, Integer>> facets;
+
+        private Result(List<Long> ids, int total, Map<String, Map<String, Integer>> facets) {
+            this.ids = ids;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        /**
+         * @return Ids of the requested page, in sort order
+         */
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return Per facet, the count of each value, largest first
+         */
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.mytickets.ticketingApp.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes rows of a fixed set of columns straight to an output stream, one row at a time, so an
+ * export holds nothing but the row being written and the writer's buffer. Numbers and booleans
+ * are written as they are, dates in ISO-8601 and enums by name.
+ *
+ * JSON Lines puts one flat object per line. CSV follows RFC 4180 with a header row, and prefixes
+ * text that a spreadsheet would read as a formula with a single quote.
+ */
+public abstract class ExportWriter implements AutoCloseable {
+
+    /** Format of every export endpoint when the client does not ask for one. */
+    public static final String DEFAULT_FORMAT = "jsonl";
+
+    public enum Format {
+        JSONL("application/x-ndjson", "jsonl"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    protected final String[] columns;
+
+    protected ExportWriter(String[] columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Open a writer over {@code out}. Closing the writer flushes it but leaves {@code out} open.
+     */
+    public static ExportWriter open(Format format, OutputStream out, String... columns) throws IOException {
+        return format == Format.CSV ? new CsvWriter(out, columns) : new JsonLinesWriter(out, columns);
+    }
+
+    /**
+     * @param values One value per column, in column order
+     */
+    public abstract void write(Object[] values) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private static final class JsonLinesWriter extends ExportWriter {
+        private static final JsonFactory JSON = JsonFactory.builder().build();
+
+        private final JsonGenerator generator;
+
+        private JsonLinesWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Each object ends its own line below, with nothing between root values
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Boolean) {
+                    generator.writeBoolean((Boolean) value);
+                } else if (value instanceof Integer || value instanceof Long) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Double) {
+                    generator.writeNumber((Double) value);
+                } else if (value instanceof BigDecimal) {
+                    generator.writeNumber((BigDecimal) value);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvWriter extends ExportWriter {
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            writeRow(columns);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            writeRow(values);
+        }
+
+        private void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i]);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(Object value) throws IOException {
+            String text = value.toString();
+            if (value instanceof CharSequence && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Points on the globe bucketed into a fixed grid of latitude/longitude cells, for radius and
+ * bounding-box lookups that only look at the cells the area touches. Cells wrap around the
+ * antimeridian, and a radius reaching a pole covers every longitude. When an area would touch
+ * more cells than there are points, the points are scanned directly instead.
+ *
+ * Distances are great-circle distances on a sphere of the Earth's mean radius. Reads share a lock;
+ * writes take it exclusively.
+ */
+public class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180;
+
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+
+    /**
+     * @param cellDegrees Side of a cell; about the radius most lookups use works best
+     */
+    public GeoGrid(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Cell size must be between 0 and 90 degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * Add a point or move it.
+     */
+    public void put(long id, double latitude, double longitude) {
+        checkCoordinates(latitude, longitude);
+        Point point = new Point(id, latitude, longitude);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            points.put(id, point);
+            cells.computeIfAbsent(cellKey(latCell(latitude), lonCell(longitude)), key -> new ArrayList<>()).add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Up to {@code limit} points within the radius, nearest first
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        checkCoordinates(latitude, longitude);
+        if (!(radiusKm >= 0)) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+        double radiusDegrees = radiusKm / KM_PER_DEGREE;
+        double minLat = latitude - radiusDegrees;
+        double maxLat = latitude + radiusDegrees;
+        double minLon = -180;
+        double maxLon = 180;
+        if (minLat > -90 && maxLat < 90) {
+            // Widest longitude span of the circle, reached north or south of its centre
+            double sin = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+            if (sin < 1) {
+                double lonDegrees = Math.toDegrees(Math.asin(sin));
+                minLon = longitude - lonDegrees;
+                maxLon = longitude + lonDegrees;
+            }
+        }
+
+        TopHits hits = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            forEachCandidate(Math.max(-90, minLat), Math.min(90, maxLat), minLon, maxLon, point -> {
+                double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                if (distance <= radiusKm) {
+                    hits.offer(point.id, distance);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.sorted();
+    }
+
+    /**
+     * A box crossing the antimeridian has {@code minLongitude} greater than {@code maxLongitude}.
+     *
+     * @return Up to {@code limit} points inside the box, nearest its centre first
+     */
+    public List<Hit> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int limit) {
+        checkCoordinates(minLatitude, minLongitude);
+        checkCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("Minimum latitude is above the maximum");
+        }
+        double span = minLongitude <= maxLongitude ? maxLongitude - minLongitude : maxLongitude + 360 - minLongitude;
+        double centreLat = (minLatitude + maxLatitude) / 2;
+        double centreLon = normalizeLongitude(minLongitude + span / 2);
+        double maxLon = minLongitude + span;
+
+        TopHits hits = new TopHits(limit);
+        lock.readLock().lock();
+        try {
+            forEachCandidate(minLatitude, maxLatitude, minLongitude, maxLon, point -> {
+                double lon = point.longitude < minLongitude ? point.longitude + 360 : point.longitude;
+                if (point.latitude >= minLatitude && point.latitude <= maxLatitude && lon <= maxLon) {
+                    hits.offer(point.id, distanceKm(centreLat, centreLon, point.latitude, point.longitude));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.sorted();
+    }
+
+    /**
+     * Haversine distance between two points.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Visit every point in the cells the area touches, which is a superset of the points inside it.
+     * Longitudes may run past 180, for areas crossing the antimeridian.
+     */
+    private void forEachCandidate(double minLat, double maxLat, double minLon, double maxLon,
+                                  Consumer<Point> visitor) {
+        int fromLat = latCell(minLat);
+        int toLat = latCell(maxLat);
+        int fromLon;
+        int lonSpan;
+        if (maxLon - minLon >= 360 - cellDegrees) {
+            fromLon = 0;
+            lonSpan = lonCells;
+        } else {
+            fromLon = Math.floorMod((int) Math.floor((minLon + 180) / cellDegrees), lonCells);
+            lonSpan = Math.min(lonCells, (int) Math.floor((maxLon + 180) / cellDegrees)
+                    - (int) Math.floor((minLon + 180) / cellDegrees) + 1);
+        }
+
+        if ((long) (toLat - fromLat + 1) * lonSpan > points.size()) {
+            points.values().forEach(visitor);
+            return;
+        }
+        for (int lat = fromLat; lat <= toLat; lat++) {
+            for (int step = 0; step < lonSpan; step++) {
+                List<Point> cell = cells.get(cellKey(lat, (fromLon + step) % lonCells));
+                if (cell != null) {
+                    cell.forEach(visitor);
+                }
+            }
+        }
+    }
+
+    private void removeLocked(long id) {
+        Point previous = points.remove(id);
+        if (previous != null) {
+            long key = cellKey(latCell(previous.latitude), lonCell(previous.longitude));
+            List<Point> cell = cells.get(key);
+            cell.remove(previous);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private int latCell(double latitude) {
+        return Math.min(latCells - 1, (int) Math.floor((latitude + 90) / cellDegrees));
+    }
+
+    private int lonCell(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells);
+    }
+
+    private long cellKey(int latCell, int lonCell) {
+        return (long) latCell * lonCells + lonCell;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude > 180 ? longitude - 360 : longitude;
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+    }
+
+    private static final class Point {
+        private final long id;
+        private final double latitude;
+        private final double longitude;
+
+        private Point(long id, double latitude, double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    public static final class Hit {
+        private final long id;
+        private final double distanceKm;
+
+        private Hit(long id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    /**
+     * The nearest {@code limit} hits offered, ties going to the lower id.
+     */
+    private static final class TopHits {
+        private static final Comparator<Hit> FARTHEST_FIRST = Comparator.comparingDouble(Hit::getDistanceKm)
+                .thenComparingLong(Hit::getId).reversed();
+
+        private final int limit;
+        private final PriorityQueue<Hit> heap;
+
+        private TopHits(int limit) {
+            this.limit = Math.max(0, limit);
+            this.heap = new PriorityQueue<>(Math.max(1, Math.min(this.limit, 1024)), FARTHEST_FIRST);
+        }
+
+        private void offer(long id, double distanceKm) {
+            if (heap.size() < limit) {
+                heap.add(new Hit(id, distanceKm));
+            } else if (limit > 0) {
+                Hit farthest = heap.peek();
+                if (distanceKm < farthest.distanceKm || (distanceKm == farthest.distanceKm && id < farthest.id)) {
+                    heap.poll();
+                    heap.add(new Hit(id, distanceKm));
+                }
+            }
+        }
+
+        private List<Hit> sorted() {
+            List<Hit> sorted = new ArrayList<>(heap);
+            sorted.sort(FARTHEST_FIRST.reversed());
+            return sorted;
+        }
+    }
+}
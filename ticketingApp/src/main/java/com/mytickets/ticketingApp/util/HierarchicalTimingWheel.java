@@ -0,0 +1,141 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical hashed timing wheel for large numbers of short-lived timeouts.
+ * Scheduling is O(1) and concurrent; a single caller drives time forward with
+ * {@link #advance(long)} and receives the items that have come due. Items in
+ * coarser levels are cascaded down as their bucket comes round, so no timer
+ * or thread is needed per item.
+ *
+ * Cancellation is deliberately not supported: callers keep their own index of
+ * live items and ignore stale ones when they come out of the wheel.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelTickMs;
+    private final List<List<Queue<Entry<T>>>> levels;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Start of the current level-0 tick, only moved under the write lock
+    private volatile long currentTime;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levelCount, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1 || levelCount <= 0) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelTickMs = new long[levelCount];
+        this.levels = new ArrayList<>(levelCount);
+
+        long levelTick = tickMs;
+        for (int level = 0; level < levelCount; level++) {
+            levelTickMs[level] = levelTick;
+            List<Queue<Entry<T>>> buckets = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                buckets.add(new ConcurrentLinkedQueue<>());
+            }
+            levels.add(buckets);
+            levelTick = Math.multiplyExact(levelTick, wheelSize);
+        }
+
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * Schedule an item.
+     *
+     * @return false when the expiration already falls inside the current tick; the caller should treat it as due
+     */
+    public boolean schedule(T item, long expirationMs) {
+        lock.readLock().lock();
+        try {
+            if (!place(new Entry<>(item, expirationMs))) {
+                return false;
+            }
+            size.incrementAndGet();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMs}, cascading coarse buckets as their time arrives.
+     *
+     * @return Items whose expiration is at or before the end of the last tick passed
+     */
+    public List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            while (currentTime + tickMs <= nowMs) {
+                currentTime += tickMs;
+
+                // Coarsest first, so cascaded entries land in finer buckets that are drained in this same tick
+                for (int level = levels.size() - 1; level >= 0; level--) {
+                    long levelTick = levelTickMs[level];
+                    if (currentTime % levelTick != 0) {
+                        continue;
+                    }
+
+                    Queue<Entry<T>> bucket = levels.get(level).get((int) ((currentTime / levelTick) % wheelSize));
+                    Entry<T> entry;
+                    while ((entry = bucket.poll()) != null) {
+                        if (!place(entry)) {
+                            size.decrementAndGet();
+                            expired.add(entry.item);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private boolean place(Entry<T> entry) {
+        long now = currentTime;
+        if (entry.expirationMs < now + tickMs) {
+            return false;
+        }
+
+        int top = levels.size() - 1;
+        for (int level = 0; level <= top; level++) {
+            long levelTick = levelTickMs[level];
+            long levelStart = now - (now % levelTick);
+            if (entry.expirationMs < levelStart + levelTick * wheelSize || level == top) {
+                // Anything past the top level's span parks in its farthest bucket and is re-placed when that comes round
+                long expiration = Math.min(entry.expirationMs, levelStart + levelTick * (wheelSize - 1));
+                levels.get(level).get((int) ((expiration / levelTick) % wheelSize)).add(entry);
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long expirationMs;
+
+        private Entry(T item, long expirationMs) {
+            this.item = item;
+            this.expirationMs = expirationMs;
+        }
+    }
+}
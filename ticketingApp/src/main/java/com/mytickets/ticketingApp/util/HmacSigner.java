@@ -0,0 +1,72 @@
+package com.mytickets.ticketingApp.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Produces and checks compact self-verifying tokens of the form
+ * {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))}.
+ * The payload is not encrypted, only protected against tampering.
+ */
+public class HmacSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    // Mac instances are not thread-safe and relatively costly to initialise
+    private final ThreadLocal<Mac> mac;
+
+    public HmacSigner(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("Signing secret must not be empty");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String sign(String payload) {
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(mac.get().doFinal(payloadBytes));
+    }
+
+    /**
+     * @return The original payload, or null if the token is malformed or the signature does not match
+     */
+    public String verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0 || separator == token.length() - 1) {
+            return null;
+        }
+
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            byte[] expected = mac.get().doFinal(payloadBytes);
+
+            // Constant-time comparison so the signature cannot be guessed byte by byte
+            return MessageDigest.isEqual(expected, signature) ? new String(payloadBytes, StandardCharsets.UTF_8) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
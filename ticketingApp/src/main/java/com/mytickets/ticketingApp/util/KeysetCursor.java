@@ -0,0 +1,79 @@
+package com.mytickets.ticketingApp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row a client has seen in a keyset-paged list: the row's id, and for lists
+ * ordered by a date, the date as well. The next page starts strictly after it, so the database
+ * seeks straight to it through an index instead of reading and discarding every earlier row the
+ * way OFFSET does.
+ *
+ * Cursors travel as unpadded base64url so clients treat them as opaque and pass them back as they
+ * came; anything that does not decode is rejected with an IllegalArgumentException.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime date;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    /**
+     * @return Cursor for a list ordered by id alone
+     */
+    public static KeysetCursor of(Long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    /**
+     * @return Cursor for a list ordered by a date, with the id breaking ties between equal dates
+     */
+    public static KeysetCursor of(LocalDateTime date, Long id) {
+        if (date == null) {
+            throw new IllegalArgumentException("Cursor date must not be null");
+        }
+        return new KeysetCursor(date, id);
+    }
+
+    public String encode() {
+        String raw = date == null ? String.valueOf(id) : date.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Cursor from a previous page
+     * @param dated Whether the list it came from is ordered by a date
+     */
+    public static KeysetCursor decode(String cursor, boolean dated) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (dated != (separator >= 0)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (!dated) {
+                return of(Long.valueOf(raw));
+            }
+            return of(LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException and bad base64 both land here
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
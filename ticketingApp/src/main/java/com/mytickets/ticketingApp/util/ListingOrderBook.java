@@ -0,0 +1,161 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * The asks of one event's resale market, cheapest first, in a concurrent skip list keyed by price
+ * and then id. Reads walk the skip list without locking and see every ask that was in the book for
+ * their whole walk. Writes to one book are serialized, which keeps its count exact.
+ */
+public class ListingOrderBook<T> {
+
+    private static final Comparator<Ask> CHEAPEST_FIRST = Comparator.comparingDouble((Ask ask) -> ask.price)
+            .thenComparingLong(ask -> ask.id);
+
+    private final ConcurrentNavigableMap<Ask, T> asks = new ConcurrentSkipListMap<>(CHEAPEST_FIRST);
+    private final Map<Long, Ask> asksById = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    /**
+     * Add an ask or reprice it.
+     */
+    public synchronized void put(long id, double price, T value) {
+        if (!(price >= 0)) {
+            throw new IllegalArgumentException("Asking price must not be negative");
+        }
+        Ask ask = new Ask(id, price);
+        // In before the old price goes: a reader may see a repriced ask at both prices for an
+        // instant, but never at neither
+        asks.put(ask, value);
+        Ask previous = asksById.put(id, ask);
+        if (previous == null) {
+            size++;
+        } else if (CHEAPEST_FIRST.compare(previous, ask) != 0) {
+            asks.remove(previous);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Ask previous = asksById.remove(id);
+        if (previous != null) {
+            asks.remove(previous);
+            size--;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The lowest asking price, or null when the book is empty
+     */
+    public Double bestPrice() {
+        Map.Entry<Ask, T> first = asks.firstEntry();
+        return first == null ? null : first.getKey().price;
+    }
+
+    /**
+     * @return Up to {@code limit} asks the filter accepts, cheapest first
+     */
+    public List<T> cheapest(int limit, Predicate<T> filter) {
+        List<T> values = new ArrayList<>(Math.min(Math.max(limit, 0), size + 1));
+        for (T value : asks.values()) {
+            if (values.size() >= limit) {
+                break;
+            }
+            if (filter.test(value)) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return The cheapest {@code levels} distinct prices with the number of asks at each
+     */
+    public List<Level> depth(int levels) {
+        List<Level> depth = new ArrayList<>(Math.min(Math.max(levels, 0), 64));
+        for (Ask ask : asks.keySet()) {
+            Level last = depth.isEmpty() ? null : depth.get(depth.size() - 1);
+            if (last != null && last.price == ask.price) {
+                last.count++;
+            } else if (depth.size() < levels) {
+                depth.add(new Level(ask.price, 1));
+            } else {
+                break;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Asks counted into price buckets {@code bucketWidth} wide, from the bucket holding the best
+     * price up to the bucket holding the highest; buckets without asks are included.
+     *
+     * @throws IllegalArgumentException If the width is not positive or the range needs more than
+     * {@code maxBuckets} buckets
+     */
+    public List<Level> histogram(double bucketWidth, int maxBuckets) {
+        if (!(bucketWidth > 0)) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        Map.Entry<Ask, T> first = asks.firstEntry();
+        Map.Entry<Ask, T> last = asks.lastEntry();
+        if (first == null || last == null) {
+            return List.of();
+        }
+        long from = (long) Math.floor(first.getKey().price / bucketWidth);
+        long to = (long) Math.floor(last.getKey().price / bucketWidth);
+        if (to - from + 1 > maxBuckets) {
+            throw new IllegalArgumentException("Bucket width of " + bucketWidth + " needs more than " + maxBuckets + " buckets");
+        }
+        List<Level> histogram = new ArrayList<>((int) (to - from + 1));
+        for (long bucket = from; bucket <= to; bucket++) {
+            histogram.add(new Level(bucket * bucketWidth, 0));
+        }
+        for (Ask ask : asks.keySet()) {
+            // An ask priced above the range read at the start went in after it; leave it out
+            int index = (int) ((long) Math.floor(ask.price / bucketWidth) - from);
+            if (index >= 0 && index < histogram.size()) {
+                histogram.get(index).count++;
+            }
+        }
+        return histogram;
+    }
+
+    private static final class Ask {
+        private final long id;
+        private final double price;
+
+        private Ask(long id, double price) {
+            this.id = id;
+            this.price = price;
+        }
+    }
+
+    /**
+     * A price, or the lower bound of a price bucket, and the asks at it.
+     */
+    public static final class Level {
+        private final double price;
+        private int count;
+
+        private Level(double price, int count) {
+            this.price = price;
+            this.count = count;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -10,54 +10,49 @@ import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 
 public class QRCodeGenerator {
 
     private static final Logger logger = LoggerFactory.getLogger(QRCodeGenerator.class);
 
+    // Neither is modified by encoding, so both are shared instead of being built for every code
+    private static final QRCodeWriter QR_CODE_WRITER = new QRCodeWriter();
+    private static final Map<EncodeHintType, Object> HINTS;
+
+    static {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
+        hints.put(EncodeHintType.MARGIN, 2);
+        HINTS = Collections.unmodifiableMap(hints);
+    }
+
     private QRCodeGenerator() {
         // Private constructor to prevent instantiation
     }
 
     public static String generateQRCodeBase64(String content, int width, int height) {
-        try {
-            BufferedImage qrCodeImage = generateQRCodeImage(content, width, height);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(qrCodeImage, "png", baos);
-            byte[] imageBytes = baos.toByteArray();
-            return Base64.getEncoder().encodeToString(imageBytes);
-        } catch (IOException | WriterException e) {
-            logger.error("Error generating QR code: {}", e.getMessage());
-            throw new RuntimeException("Error generating QR code", e);
-        }
+        return Base64.getEncoder().encodeToString(generateQRCodeBytes(content, width, height));
     }
 
     public static BufferedImage generateQRCodeImage(String content, int width, int height) throws WriterException {
-        Map<EncodeHintType, Object> hints = new HashMap<>();
-        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
-        hints.put(EncodeHintType.MARGIN, 2);
-
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, width, height, hints);
-        return MatrixToImageWriter.toBufferedImage(bitMatrix);
+        return MatrixToImageWriter.toBufferedImage(generateQRCodeMatrix(content, width, height));
     }
 
     public static byte[] generateQRCodeBytes(String content, int width, int height) {
         try {
-            BufferedImage qrCodeImage = generateQRCodeImage(content, width, height);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(qrCodeImage, "png", baos);
-            return baos.toByteArray();
-        } catch (IOException | WriterException e) {
+            return BitMatrixPngEncoder.encode(generateQRCodeMatrix(content, width, height));
+        } catch (WriterException e) {
             logger.error("Error generating QR code: {}", e.getMessage());
             throw new RuntimeException("Error generating QR code", e);
         }
     }
+
+    private static BitMatrix generateQRCodeMatrix(String content, int width, int height) throws WriterException {
+        return QR_CODE_WRITER.encode(content, BarcodeFormat.QR_CODE, width, height, HINTS);
+    }
 }
\ No newline at end of file
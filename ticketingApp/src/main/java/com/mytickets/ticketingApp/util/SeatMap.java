@@ -0,0 +1,306 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.*;
+
+/**
+ * Seat layout of one pricing tier with a free-seat bitset per row, for picking the best block of
+ * adjacent seats without going through the ticket rows. Rows are ranked front to back by their
+ * label (numbers numerically, letters as A..Z, AA..), and within a row seats are placed by seat
+ * number, so a missing number leaves a gap that no block can span. Seats without a row or seat
+ * label are general admission and are not part of the map.
+ *
+ * Each row is locked on its own while it is searched and updated, so buyers competing for the same
+ * section only wait for each other on the row they both want, and only for the few word operations
+ * a search takes.
+ */
+public class SeatMap {
+
+    private final List<Row> rows;
+    // Packed row index and position of every seat, by ticket id
+    private final Map<Long, Long> locations = new HashMap<>();
+
+    /**
+     * @param seats Every seat of the tier, whether free or not
+     */
+    public SeatMap(List<Seat> seats) {
+        Map<String, Map<String, List<Seat>>> bySectionAndRow = new HashMap<>();
+        for (Seat seat : seats) {
+            if (isBlank(seat.row) || isBlank(seat.seat)) {
+                continue;
+            }
+            bySectionAndRow.computeIfAbsent(seat.section != null ? seat.section.trim() : "", s -> new HashMap<>())
+                    .computeIfAbsent(seat.row.trim(), r -> new ArrayList<>())
+                    .add(seat);
+        }
+
+        List<Row> built = new ArrayList<>();
+        for (Map.Entry<String, Map<String, List<Seat>>> section : bySectionAndRow.entrySet()) {
+            for (Map.Entry<String, List<Seat>> row : section.getValue().entrySet()) {
+                built.add(new Row(section.getKey(), row.getKey(), row.getValue()));
+            }
+        }
+        built.sort(Comparator.comparing((Row row) -> row.label, SeatMap::compareLabels)
+                .thenComparing(row -> row.section, SeatMap::compareLabels));
+        this.rows = Collections.unmodifiableList(built);
+
+        for (int r = 0; r < rows.size(); r++) {
+            long[] ticketIds = rows.get(r).ticketIds;
+            for (int position = 0; position < ticketIds.length; position++) {
+                if (ticketIds[position] != 0) {
+                    locations.put(ticketIds[position], ((long) r << 32) | position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the best block of {@code quantity} adjacent free seats: in the frontmost row that has
+     * one, the block closest to the middle of the row.
+     * @param section Only consider this section, or null for any
+     * @return The block, or null if no row has one that size free
+     */
+    public Block reserveBest(String section, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        for (Row row : rows) {
+            if (section != null && !row.section.equalsIgnoreCase(section.trim())) {
+                continue;
+            }
+            Block block = row.reserveBest(quantity);
+            if (block != null) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put seats back, e.g. when the buyer gives up the block or part of it could not be held.
+     */
+    public void release(long... ticketIds) {
+        setFree(ticketIds, true);
+    }
+
+    /**
+     * Take seats out of the map that were sold or held outside it.
+     */
+    public void markTaken(long... ticketIds) {
+        setFree(ticketIds, false);
+    }
+
+    public boolean contains(long ticketId) {
+        return locations.containsKey(ticketId);
+    }
+
+    public int available() {
+        int available = 0;
+        for (Row row : rows) {
+            available += row.available();
+        }
+        return available;
+    }
+
+    /**
+     * @return Free seats per row, sections in label order, rows front to back
+     */
+    public Map<String, Map<String, Integer>> availableByRow() {
+        Map<String, Map<String, Integer>> result = new TreeMap<>(SeatMap::compareLabels);
+        for (Row row : rows) {
+            result.computeIfAbsent(row.section, s -> new LinkedHashMap<>()).put(row.label, row.available());
+        }
+        return result;
+    }
+
+    private void setFree(long[] ticketIds, boolean free) {
+        for (long ticketId : ticketIds) {
+            Long location = locations.get(ticketId);
+            if (location != null) {
+                rows.get((int) (location >>> 32)).setFree((int) (long) location, free);
+            }
+        }
+    }
+
+    /**
+     * Orders numbers numerically and before letters, and letter labels as A..Z, AA..ZZ.
+     */
+    static int compareLabels(String a, String b) {
+        Integer first = parseNumber(a);
+        Integer second = parseNumber(b);
+        if (first != null && second != null) {
+            return Integer.compare(first, second);
+        }
+        if (first != null || second != null) {
+            return first != null ? -1 : 1;
+        }
+        return a.length() != b.length() ? Integer.compare(a.length(), b.length()) : a.compareToIgnoreCase(b);
+    }
+
+    private static Integer parseNumber(String label) {
+        if (label.isEmpty() || label.length() > 9) {
+            return null;
+        }
+        for (int i = 0; i < label.length(); i++) {
+            if (!Character.isDigit(label.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.parseInt(label);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public static final class Block {
+        private final String section;
+        private final String row;
+        private final long[] ticketIds;
+        private final String[] seats;
+
+        private Block(String section, String row, long[] ticketIds, String[] seats) {
+            this.section = section;
+            this.row = row;
+            this.ticketIds = ticketIds;
+            this.seats = seats;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public String getRow() {
+            return row;
+        }
+
+        /**
+         * Ticket ids from left to right.
+         */
+        public long[] getTicketIds() {
+            return ticketIds;
+        }
+
+        public String[] getSeats() {
+            return seats;
+        }
+    }
+
+    public static final class Seat {
+        private final long ticketId;
+        private final String section;
+        private final String row;
+        private final String seat;
+        private final boolean free;
+
+        public Seat(long ticketId, String section, String row, String seat, boolean free) {
+            this.ticketId = ticketId;
+            this.section = section;
+            this.row = row;
+            this.seat = seat;
+            this.free = free;
+        }
+    }
+
+    private static final class Row {
+        private final String section;
+        private final String label;
+        // Ticket id by position, 0 where the numbering has a gap
+        private final long[] ticketIds;
+        private final String[] seatLabels;
+        // Bit i of word i / 64 is set while the seat at position i is free
+        private final long[] free;
+
+        private Row(String section, String label, List<Seat> seats) {
+            this.section = section;
+            this.label = label;
+
+            // Numbered seats sit at their number, so gaps in the numbering stay gaps; anything else,
+            // and numbering too sparse to be a real row, is laid out in label order
+            seats.sort(Comparator.comparing(seat -> seat.seat.trim(), SeatMap::compareLabels));
+            boolean numbered = seats.stream().allMatch(seat -> parseNumber(seat.seat.trim()) != null);
+            int first = numbered ? parseNumber(seats.get(0).seat.trim()) : 0;
+            int width = numbered ? parseNumber(seats.get(seats.size() - 1).seat.trim()) - first + 1 : seats.size();
+            if (width > seats.size() * 4 + 64) {
+                numbered = false;
+                width = seats.size();
+            }
+
+            this.ticketIds = new long[width];
+            this.seatLabels = new String[width];
+            this.free = new long[(width + 63) >>> 6];
+            for (int i = 0; i < seats.size(); i++) {
+                Seat seat = seats.get(i);
+                int position = numbered ? parseNumber(seat.seat.trim()) - first : i;
+                if (ticketIds[position] != 0) {
+                    // Two tickets for one seat; the first keeps it
+                    continue;
+                }
+                ticketIds[position] = seat.ticketId;
+                seatLabels[position] = seat.seat.trim();
+                if (seat.free) {
+                    free[position >>> 6] |= 1L << position;
+                }
+            }
+        }
+
+        private synchronized Block reserveBest(int quantity) {
+            if (quantity > ticketIds.length) {
+                return null;
+            }
+
+            // After this, bit i is set when the quantity seats starting at i are all free
+            long[] starts = free.clone();
+            for (int k = 1; k < quantity; k++) {
+                for (int w = 0; w < starts.length; w++) {
+                    long next = w + 1 < starts.length ? starts[w + 1] : 0;
+                    starts[w] &= (starts[w] >>> 1) | (next << 63);
+                }
+            }
+
+            // Twice the distance between the block's middle and the row's, to stay in integers
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int w = 0; w < starts.length; w++) {
+                long word = starts[w];
+                while (word != 0) {
+                    int start = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    int distance = Math.abs(2 * start + quantity - ticketIds.length);
+                    if (distance < bestDistance) {
+                        best = start;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            if (best < 0) {
+                return null;
+            }
+
+            long[] blockIds = new long[quantity];
+            String[] blockSeats = new String[quantity];
+            for (int i = 0; i < quantity; i++) {
+                int position = best + i;
+                free[position >>> 6] &= ~(1L << position);
+                blockIds[i] = ticketIds[position];
+                blockSeats[i] = seatLabels[position];
+            }
+            return new Block(section, label, blockIds, blockSeats);
+        }
+
+        private synchronized void setFree(int position, boolean isFree) {
+            if (isFree) {
+                free[position >>> 6] |= 1L << position;
+            } else {
+                free[position >>> 6] &= ~(1L << position);
+            }
+        }
+
+        private synchronized int available() {
+            int available = 0;
+            for (long word : free) {
+                available += Long.bitCount(word);
+            }
+            return available;
+        }
+    }
+}
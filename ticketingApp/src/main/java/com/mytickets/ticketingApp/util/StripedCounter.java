@@ -0,0 +1,86 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative counter split across several independently updated stripes.
+ * Threads start on a random stripe and only fall back to scanning the others
+ * when their own stripe is empty, so concurrent reservations rarely contend
+ * on the same memory location.
+ */
+public class StripedCounter {
+
+    // Each logical stripe is padded to its own cache line to avoid false sharing
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    public StripedCounter(long initialValue) {
+        this(initialValue, defaultStripes());
+    }
+
+    public StripedCounter(long initialValue, int stripes) {
+        if (initialValue < 0) {
+            throw new IllegalArgumentException("Initial value must not be negative");
+        }
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+
+        long share = initialValue / this.stripes;
+        long remainder = initialValue % this.stripes;
+        for (int i = 0; i < this.stripes; i++) {
+            cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes one unit if any stripe still has one.
+     *
+     * @return true when a unit was reserved, false when the counter is exhausted
+     */
+    public boolean tryDecrement() {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+
+        // A unit released into a stripe we already scanned would be missed on a
+        // single pass, so re-scan while the total still looks positive
+        do {
+            for (int i = 0; i < stripes; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+                long current = cells.get(index);
+                while (current > 0) {
+                    if (cells.compareAndSet(index, current, current - 1)) {
+                        return true;
+                    }
+                    current = cells.get(index);
+                }
+            }
+        } while (sum() > 0);
+
+        return false;
+    }
+
+    public void add(long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Use tryDecrement to take units from the counter");
+        }
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, delta);
+    }
+
+    /**
+     * Current total across all stripes. Not an atomic snapshot while updates are in flight.
+     */
+    public long sum() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    private static int defaultStripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(1, processors - 1)) << 1;
+    }
+}
@@ -0,0 +1,318 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted completions for a search box, held in a radix trie. Text is folded the way
+ * {@link TextIndex} folds it, and each entry is reachable from the start of its text and from the
+ * start of each of its next few words, so "fest" finds "Rock Festival".
+ *
+ * Every node keeps the best {@link #MAX_SUGGESTIONS} entries at or below it, highest weight first,
+ * so a lookup is a walk down the typed prefix and a copy of at most that many values, whatever the
+ * size of the trie. Writes pay instead: an insert offers the entry to each node on its path, and a
+ * removal rebuilds the list of each node on the path that held it. Reads share a lock; writes take
+ * it exclusively.
+ */
+public class SuggestTrie<T> {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    // Word starts an entry can be found from, the first word included
+    private static final int MAX_WORDS = 4;
+    private static final char[] EMPTY = new char[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node<T> root = new Node<>(EMPTY);
+    private final Map<String, Entry<T>> entries = new HashMap<>();
+
+    /**
+     * Add an entry or replace whatever was held under its key. Text without a letter or digit
+     * removes the entry.
+     */
+    public void put(String key, String text, double weight, T value) {
+        List<String> paths = paths(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (paths.isEmpty()) {
+                return;
+            }
+            Entry<T> entry = new Entry<>(key, weight, value, paths);
+            for (String path : paths) {
+                insert(root, path, 0, entry);
+            }
+            entries.put(key, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param limit At most {@link #MAX_SUGGESTIONS}
+     * @return Values of the best entries with a word starting with the prefix, best first; empty
+     * when the prefix has no letter or digit
+     */
+    public List<T> suggest(String prefix, int limit) {
+        String folded = fold(prefix);
+        int count = Math.min(limit, MAX_SUGGESTIONS);
+        if (folded.isEmpty() || count <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node<T> node = find(folded);
+            if (node == null) {
+                return List.of();
+            }
+            count = Math.min(count, node.top.length);
+            List<T> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(node.top[i].value);
+            }
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower case, without accents, words separated by single spaces.
+     */
+    public static String fold(String text) {
+        return String.join(" ", TextIndex.tokenize(text));
+    }
+
+    private static List<String> paths(String text) {
+        List<String> words = TextIndex.tokenize(text);
+        List<String> paths = new ArrayList<>(Math.min(words.size(), MAX_WORDS));
+        for (int i = 0; i < Math.min(words.size(), MAX_WORDS); i++) {
+            String path = String.join(" ", words.subList(i, words.size()));
+            if (!paths.contains(path)) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @return The node whose path starts with the prefix and is shortest, or null
+     */
+    private Node<T> find(String prefix) {
+        Node<T> node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int index = Arrays.binarySearch(node.firsts, prefix.charAt(depth));
+            if (index < 0) {
+                return null;
+            }
+            node = node.children[index];
+            for (int i = 0; i < node.label.length && depth < prefix.length(); i++, depth++) {
+                if (node.label[i] != prefix.charAt(depth)) {
+                    return null;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Hang the entry at the end of the path below the node, which has matched the path up to depth.
+     */
+    private void insert(Node<T> node, String path, int depth, Entry<T> entry) {
+        node.offer(entry);
+        if (depth == path.length()) {
+            node.own.add(entry);
+            return;
+        }
+        int index = Arrays.binarySearch(node.firsts, path.charAt(depth));
+        if (index < 0) {
+            Node<T> leaf = new Node<>(path.substring(depth).toCharArray());
+            leaf.own.add(entry);
+            leaf.offer(entry);
+            node.addChild(-index - 1, leaf);
+            return;
+        }
+
+        Node<T> child = node.children[index];
+        int common = 0;
+        while (common < child.label.length && depth + common < path.length()
+                && child.label[common] == path.charAt(depth + common)) {
+            common++;
+        }
+        if (common < child.label.length) {
+            // The path leaves the edge part way along; split it there
+            Node<T> split = new Node<>(Arrays.copyOf(child.label, common));
+            child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+            split.addChild(0, child);
+            split.top = child.top;
+            node.children[index] = split;
+            child = split;
+        }
+        insert(child, path, depth + common, entry);
+    }
+
+    private void removeLocked(String key) {
+        Entry<T> entry = entries.remove(key);
+        if (entry != null) {
+            for (String path : entry.paths) {
+                delete(root, path, 0, entry);
+            }
+        }
+    }
+
+    private void delete(Node<T> node, String path, int depth, Entry<T> entry) {
+        if (depth == path.length()) {
+            node.own.remove(entry);
+            node.dropFromTop(entry);
+            return;
+        }
+        int index = Arrays.binarySearch(node.firsts, path.charAt(depth));
+        Node<T> child = node.children[index];
+        delete(child, path, depth + child.label.length, entry);
+        if (child.own.isEmpty() && child.children.length == 0) {
+            node.removeChild(index);
+        } else if (child.own.isEmpty() && child.children.length == 1) {
+            // Nothing ends here any more; fold the edge into the one below it
+            Node<T> below = child.children[0];
+            char[] label = Arrays.copyOf(child.label, child.label.length + below.label.length);
+            System.arraycopy(below.label, 0, label, child.label.length, below.label.length);
+            below.label = label;
+            node.children[index] = below;
+        }
+        node.dropFromTop(entry);
+    }
+
+    private static final class Entry<T> {
+        private final String key;
+        private final double weight;
+        private final T value;
+        private final List<String> paths;
+
+        private Entry(String key, double weight, T value, List<String> paths) {
+            this.key = key;
+            this.weight = weight;
+            this.value = value;
+            this.paths = paths;
+        }
+    }
+
+    private static final class Node<T> {
+        private static final Comparator<Entry<?>> BEST_FIRST = Comparator.<Entry<?>>comparingDouble(entry -> -entry.weight)
+                .thenComparing(entry -> entry.key);
+
+        private char[] label;
+        // First character of each child's label, sorted, for a binary search
+        private char[] firsts = EMPTY;
+        private Node<T>[] children = newArray(0);
+        private final List<Entry<T>> own = new ArrayList<>(1);
+        private Entry<T>[] top = newEntries(0);
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private void addChild(int index, Node<T> child) {
+            char[] newFirsts = new char[firsts.length + 1];
+            Node<T>[] newChildren = newArray(children.length + 1);
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirsts[index] = child.label[0];
+            newChildren[index] = child;
+            System.arraycopy(firsts, index, newFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        private void removeChild(int index) {
+            char[] newFirsts = new char[firsts.length - 1];
+            Node<T>[] newChildren = newArray(children.length - 1);
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(firsts, index + 1, newFirsts, index, firsts.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        private void offer(Entry<T> entry) {
+            for (Entry<T> held : top) {
+                if (held == entry) {
+                    return;
+                }
+            }
+            if (top.length == MAX_SUGGESTIONS && BEST_FIRST.compare(entry, top[top.length - 1]) >= 0) {
+                return;
+            }
+            int position = 0;
+            while (position < top.length && BEST_FIRST.compare(top[position], entry) < 0) {
+                position++;
+            }
+            Entry<T>[] newTop = newEntries(Math.min(top.length + 1, MAX_SUGGESTIONS));
+            System.arraycopy(top, 0, newTop, 0, position);
+            newTop[position] = entry;
+            System.arraycopy(top, position, newTop, position + 1, newTop.length - position - 1);
+            top = newTop;
+        }
+
+        /**
+         * After the entry left this subtree, refill the list from the children's if it was on it.
+         */
+        private void dropFromTop(Entry<T> entry) {
+            if (Arrays.asList(top).contains(entry)) {
+                updateTop();
+            }
+        }
+
+        /**
+         * Merge the entries ending here with the children's best, once each, as one entry can
+         * reach a node through several of its words.
+         */
+        private void updateTop() {
+            List<Entry<T>> candidates = new ArrayList<>(own);
+            for (Node<T> child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BEST_FIRST);
+            List<Entry<T>> best = new ArrayList<>(Math.min(candidates.size(), MAX_SUGGESTIONS));
+            for (Entry<T> candidate : candidates) {
+                if (best.size() == MAX_SUGGESTIONS) {
+                    break;
+                }
+                if (!best.contains(candidate)) {
+                    best.add(candidate);
+                }
+            }
+            top = best.toArray(newEntries(best.size()));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newArray(int length) {
+            return (Node<T>[]) new Node<?>[length];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Entry<T>[] newEntries(int length) {
+            return (Entry<T>[]) new Entry<?>[length];
+        }
+    }
+}
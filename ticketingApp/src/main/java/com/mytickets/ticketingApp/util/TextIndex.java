@@ -0,0 +1,344 @@
+package com.mytickets.ticketingApp.util;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over a few text fields per document, for search-as-you-type. Text is
+ * folded to lower case without accents and split on anything that is not a letter or digit.
+ *
+ * Each query term matches index terms three ways: exactly, as a prefix of a longer term (the word
+ * still being typed), or, when neither finds anything, through the trigrams the terms share, which
+ * catches a word inside a longer one and small typos. Every query term has to match somewhere in a
+ * document. A document scores, per query term, the best of its matches weighted by how the term
+ * matched, how rare the matched term is and the weights of the fields it is in; the scores add up
+ * and the top {@code limit} are returned, ties going to the lower id.
+ *
+ * Postings are sorted arrays of document ids with a bit per field the term occurs in. A document
+ * keeps its term list so replacing or removing it only touches its own postings. Reads share a
+ * lock; writes take it exclusively.
+ */
+public class TextIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.6f;
+    private static final float INFIX = 0.4f;
+    private static final float FUZZY = 0.3f;
+    // Least share of trigrams two terms need in common to count as a typo of each other
+    private static final float MIN_SIMILARITY = 0.4f;
+    // Cap on index terms one query term expands to, so a single letter stays cheap
+    private static final int MAX_EXPANSIONS = 64;
+
+    private final float[] fieldWeights;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sorted, so the terms starting with a prefix are one range
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    private final Map<Long, String[]> termsByDocument = new HashMap<>();
+
+    /**
+     * @param fieldWeights Weight of each field, in the order {@link #put} takes them; at most 8
+     */
+    public TextIndex(float... fieldWeights) {
+        if (fieldWeights.length == 0 || fieldWeights.length > Byte.SIZE) {
+            throw new IllegalArgumentException("Between 1 and 8 fields are supported");
+        }
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * Index a document, replacing whatever was indexed under its id. Null fields are skipped.
+     */
+    public void put(long id, String... fields) {
+        Map<String, Integer> fieldsByTerm = new HashMap<>();
+        for (int field = 0; field < Math.min(fields.length, fieldWeights.length); field++) {
+            int bit = 1 << field;
+            for (String term : tokenize(fields[field])) {
+                fieldsByTerm.merge(term, bit, (a, b) -> a | b);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Integer> entry : fieldsByTerm.entrySet()) {
+                Postings postings = terms.get(entry.getKey());
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(entry.getKey(), postings);
+                    for (String trigram : trigrams(entry.getKey())) {
+                        termsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(entry.getKey());
+                    }
+                }
+                postings.add(id, entry.getValue().byteValue());
+            }
+            if (!fieldsByTerm.isEmpty()) {
+                termsByDocument.put(id, fieldsByTerm.keySet().toArray(new String[0]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Ids of the best matching documents, best first; empty when the query has no terms
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            double documents = termsByDocument.size();
+            List<List<Match>> matchesPerTerm = new ArrayList<>(queryTerms.size());
+            for (String queryTerm : queryTerms) {
+                List<Match> matches = expand(queryTerm);
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+                matchesPerTerm.add(matches);
+            }
+            // Start from the query term with the fewest postings so the candidate set stays small
+            matchesPerTerm.sort(Comparator.comparingLong(TextIndex::postingCount));
+
+            Map<Long, Float> scores = null;
+            for (List<Match> matches : matchesPerTerm) {
+                Map<Long, Float> termScores = new HashMap<>();
+                for (Match match : matches) {
+                    float idf = (float) Math.log(1 + documents / match.postings.size);
+                    for (int i = 0; i < match.postings.size; i++) {
+                        long id = match.postings.ids[i];
+                        if (scores == null || scores.containsKey(id)) {
+                            float score = match.weight * idf * fieldWeight(match.postings.fields[i]);
+                            termScores.merge(id, score, Math::max);
+                        }
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Long, Float> entry : termScores.entrySet()) {
+                        entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                    }
+                }
+                scores = termScores;
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByDocument.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lower-cased, accent-free words of the text, in order.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private List<Match> expand(String queryTerm) {
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<String, Postings> entry : terms.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || matches.size() == MAX_EXPANSIONS) {
+                break;
+            }
+            // A prefix covering more of the term ranks closer to an exact match
+            float weight = term.length() == queryTerm.length()
+                    ? EXACT : PREFIX * (0.5f + 0.5f * queryTerm.length() / term.length());
+            matches.add(new Match(entry.getValue(), weight));
+        }
+        if (matches.isEmpty()) {
+            expandByTrigrams(queryTerm, matches);
+        }
+        return matches;
+    }
+
+    private void expandByTrigrams(String queryTerm, List<Match> matches) {
+        Set<String> queryTrigrams = trigrams(queryTerm);
+        if (queryTrigrams.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (String term : termsByTrigram.getOrDefault(trigram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<String, Float>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String term = entry.getKey();
+            float weight;
+            if (entry.getValue() == queryTrigrams.size() && term.contains(queryTerm)) {
+                weight = INFIX;
+            } else {
+                int termTrigrams = Math.max(1, term.length() - 2);
+                float similarity = (float) entry.getValue() / (queryTrigrams.size() + termTrigrams - entry.getValue());
+                if (similarity < MIN_SIMILARITY) {
+                    continue;
+                }
+                weight = FUZZY * similarity;
+            }
+            candidates.add(Map.entry(term, weight));
+        }
+        candidates.sort(Map.Entry.<String, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        for (Map.Entry<String, Float> candidate : candidates.subList(0, Math.min(MAX_EXPANSIONS, candidates.size()))) {
+            matches.add(new Match(terms.get(candidate.getKey()), candidate.getValue()));
+        }
+    }
+
+    private void removeLocked(long id) {
+        String[] previous = termsByDocument.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> sharing = termsByTrigram.get(trigram);
+                    if (sharing != null && sharing.remove(term) && sharing.isEmpty()) {
+                        termsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private float fieldWeight(byte fields) {
+        float weight = 0;
+        for (int field = 0; field < fieldWeights.length; field++) {
+            if ((fields & (1 << field)) != 0) {
+                weight += fieldWeights[field];
+            }
+        }
+        return weight;
+    }
+
+    private static List<Long> top(Map<Long, Float> scores, int limit) {
+        Comparator<Map.Entry<Long, Float>> worstFirst = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(limit + 1, worstFirst);
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (worstFirst.compare(entry, best.peek()) > 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<Long> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    private static long postingCount(List<Match> matches) {
+        long count = 0;
+        for (Match match : matches) {
+            count += match.postings.size;
+        }
+        return count;
+    }
+
+    private static Set<String> trigrams(String term) {
+        if (term.length() < 3) {
+            return Set.of();
+        }
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static final class Match {
+        private final Postings postings;
+        private final float weight;
+
+        private Match(Postings postings, float weight) {
+            this.postings = postings;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Document ids in ascending order, each with the bit set of fields the term occurs in.
+     */
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private byte[] fields = new byte[2];
+        private int size;
+
+        private void add(long id, byte fieldBits) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                fields[at] = fieldBits;
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(fields, at, fields, at + 1, size - at);
+            ids[at] = id;
+            fields[at] = fieldBits;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(fields, at + 1, fields, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.mytickets.ticketingApp.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Signed ticket tokens that a scanner can check without the database. A token is
+ * {@code T1:} followed by the base32 form of
+ * {@code keyId, eventId, ticketId, generation, seat, mac}: the numbers as variable-length
+ * integers, the seat as a length-prefixed UTF-8 label of at most {@link #MAX_SEAT_BYTES} bytes,
+ * and the first eight bytes of an HMAC-SHA256 over everything before it.
+ *
+ * Base32 upper case and digits are all in the QR alphanumeric set, which packs a character in
+ * 5.5 bits instead of the 8 of byte mode, so a typical token is around 40 characters and fits a
+ * version 2 code where {@code TICKET:<uuid>} needs version 3. Several keys can be held at once,
+ * each with a one-byte id: tokens are signed with the active key and accepted under any of them,
+ * so a key can be rotated in before the old one is retired.
+ */
+public class TicketTokenCodec {
+
+    public static final String PREFIX = "T1:";
+    public static final int MAX_SEAT_BYTES = 24;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 8;
+    // Signed along with the token so a MAC made for another purpose with the same secret never verifies here
+    private static final byte[] DOMAIN = "ticket-qr-token".getBytes(StandardCharsets.UTF_8);
+    private static final char[] BASE32 = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+
+    private final int activeKeyId;
+    // Indexed by key id; Mac instances are not thread-safe, so one per thread and key
+    private final ThreadLocal<Mac>[] macs;
+
+    /**
+     * @param secrets Signing secrets by key id, 0 to 255
+     * @param activeKeyId Key new tokens are signed with
+     */
+    @SuppressWarnings("unchecked")
+    public TicketTokenCodec(Map<Integer, String> secrets, int activeKeyId) {
+        if (!secrets.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("No signing secret for active key " + activeKeyId);
+        }
+        this.activeKeyId = activeKeyId;
+        this.macs = new ThreadLocal[256];
+        for (Map.Entry<Integer, String> entry : secrets.entrySet()) {
+            int keyId = entry.getKey();
+            if (keyId < 0 || keyId > 255) {
+                throw new IllegalArgumentException("Key id must be between 0 and 255: " + keyId);
+            }
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                throw new IllegalArgumentException("Signing secret for key " + keyId + " must not be empty");
+            }
+            SecretKeySpec key = new SecretKeySpec(entry.getValue().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+            macs[keyId] = ThreadLocal.withInitial(() -> newMac(key));
+        }
+    }
+
+    public String encode(long eventId, long ticketId, int generation, String seat) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(activeKeyId);
+        writeVarLong(out, eventId);
+        writeVarLong(out, ticketId);
+        writeVarLong(out, generation);
+        byte[] seatBytes = truncate(seat);
+        out.write(seatBytes.length);
+        out.write(seatBytes, 0, seatBytes.length);
+
+        byte[] body = out.toByteArray();
+        byte[] token = Arrays.copyOf(body, body.length + MAC_BYTES);
+        System.arraycopy(mac(activeKeyId, body, body.length), 0, token, body.length, MAC_BYTES);
+        return PREFIX + toBase32(token);
+    }
+
+    /**
+     * @return The token's contents, or null if it is malformed, signed with an unknown key or
+     *         its signature does not match
+     */
+    public Token decode(String text) {
+        if (text == null || !text.startsWith(PREFIX)) {
+            return null;
+        }
+        byte[] token = fromBase32(text, PREFIX.length());
+        if (token == null || token.length < 1 + 3 + 1 + MAC_BYTES) {
+            return null;
+        }
+
+        int keyId = token[0] & 0xFF;
+        if (macs[keyId] == null) {
+            return null;
+        }
+        int bodyLength = token.length - MAC_BYTES;
+        byte[] expected = Arrays.copyOf(mac(keyId, token, bodyLength), MAC_BYTES);
+        // Constant-time comparison so the signature cannot be guessed byte by byte
+        if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(token, bodyLength, token.length))) {
+            return null;
+        }
+
+        int[] pos = {1};
+        long eventId = readVarLong(token, pos, bodyLength);
+        long ticketId = readVarLong(token, pos, bodyLength);
+        long generation = readVarLong(token, pos, bodyLength);
+        if (eventId < 0 || ticketId < 0 || generation < 0 || generation > Integer.MAX_VALUE || pos[0] >= bodyLength) {
+            return null;
+        }
+        int seatLength = token[pos[0]++] & 0xFF;
+        if (pos[0] + seatLength != bodyLength) {
+            return null;
+        }
+        String seat = seatLength == 0 ? null : new String(token, pos[0], seatLength, StandardCharsets.UTF_8);
+        return new Token(keyId, eventId, ticketId, (int) generation, seat);
+    }
+
+    public static boolean isToken(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    private byte[] mac(int keyId, byte[] body, int length) {
+        Mac mac = macs[keyId].get();
+        mac.update(DOMAIN);
+        mac.update(body, 0, length);
+        return mac.doFinal();
+    }
+
+    // Cut on a character boundary so the label still decodes
+    private static byte[] truncate(String seat) {
+        if (seat == null || seat.isEmpty()) {
+            return new byte[0];
+        }
+        byte[] bytes = seat.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_SEAT_BYTES) {
+            return bytes;
+        }
+        int length = MAX_SEAT_BYTES;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // -1 when the number runs past the end or is longer than a long
+    private static long readVarLong(byte[] bytes, int[] pos, int end) {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            if (pos[0] >= end) {
+                return -1;
+            }
+            int b = bytes[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    static String toBase32(byte[] bytes) {
+        StringBuilder text = new StringBuilder((bytes.length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : bytes) {
+            buffer = (buffer << 8) | (b & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                text.append(BASE32[(buffer >>> (bits - 5)) & 31]);
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            text.append(BASE32[(buffer << (5 - bits)) & 31]);
+        }
+        return text.toString();
+    }
+
+    // null if a character is outside the alphabet
+    static byte[] fromBase32(String text, int from) {
+        byte[] bytes = new byte[(text.length() - from) * 5 / 8];
+        int buffer = 0;
+        int bits = 0;
+        int length = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int value = c >= 'A' && c <= 'Z' ? c - 'A' : c >= '2' && c <= '7' ? c - '2' + 26 : -1;
+            if (value < 0) {
+                return null;
+            }
+            buffer = (buffer << 5) | value;
+            bits += 5;
+            if (bits >= 8) {
+                bytes[length++] = (byte) (buffer >>> (bits - 8));
+                bits -= 8;
+            }
+        }
+        return bytes;
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    public static final class Token {
+        private final int keyId;
+        private final long eventId;
+        private final long ticketId;
+        private final int generation;
+        private final String seat;
+
+        private Token(int keyId, long eventId, long ticketId, int generation, String seat) {
+            this.keyId = keyId;
+            this.eventId = eventId;
+            this.ticketId = ticketId;
+            this.generation = generation;
+            this.seat = seat;
+        }
+
+        public int getKeyId() {
+            return keyId;
+        }
+
+        public long getEventId() {
+            return eventId;
+        }
+
+        public long getTicketId() {
+            return ticketId;
+        }
+
+        /**
+         * Bumped each time the ticket changes hands, so codes issued to earlier owners can be revoked.
+         */
+        public int getGeneration() {
+            return generation;
+        }
+
+        /**
+         * Section, row and seat as printed on the ticket, possibly shortened; null for general admission.
+         */
+        public String getSeat() {
+            return seat;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.mytickets.ticketingApp.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission index for the tickets of one event, answering "may this ticket enter, and if so mark
+ * it used" with a single compare-and-set and no locks. UUID ticket numbers, which is what the
+ * application issues, are stored as two longs in an open-addressing table built once when doors
+ * open, so a 50,000 seat venue takes a few megabytes. Any other ticket number, and tickets added
+ * after the table was built, go to a concurrent overflow map. Tickets can also be looked up by id,
+ * which is what a signed QR token carries.
+ *
+ * Each entry's state is one int: the low two bits say whether the ticket is valid, used or not
+ * admissible, and for used tickets the remaining bits hold the second, counted from when the index
+ * was created, of the scan that let it in, so a repeated scan can say when the ticket was first used.
+ */
+public class TicketValidityIndex {
+
+    public enum Outcome {
+        ADMITTED,
+        ALREADY_USED,
+        NOT_VALID,
+        UNKNOWN
+    }
+
+    private static final int EMPTY = 0;
+    private static final int VALID = 1;
+    private static final int USED = 2;
+    private static final int NOT_VALID = 3;
+    private static final int STATE_MASK = 3;
+
+    private final long createdAtMillis;
+    private final int mask;
+    // Most and least significant halves of each slot's UUID, side by side
+    private final long[] keys;
+    private final long[] ticketIds;
+    // Open-addressing table from ticket id to slot + 1, 0 meaning empty
+    private final int[] slotsById;
+    private final AtomicIntegerArray states;
+    private final ConcurrentMap<String, Entry> overflow = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Entry> overflowById = new ConcurrentHashMap<>();
+
+    private final LongAdder size = new LongAdder();
+    private final LongAdder used = new LongAdder();
+
+    /**
+     * @param expectedTickets Number of tickets {@link #add} will be called for
+     */
+    public TicketValidityIndex(int expectedTickets, long createdAtMillis) {
+        // Kept at most half full so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(16, expectedTickets * 2 - 1)) << 1;
+        this.createdAtMillis = createdAtMillis;
+        this.mask = capacity - 1;
+        this.keys = new long[capacity * 2];
+        this.ticketIds = new long[capacity];
+        this.slotsById = new int[capacity];
+        this.states = new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * Add a ticket while the index is being built. Not safe to call once scanning has started,
+     * use {@link #addLate} then.
+     */
+    public void add(String ticketNumber, long ticketId, boolean admissible, boolean alreadyUsed) {
+        long[] uuid = parseUuid(ticketNumber);
+        int state = !admissible ? NOT_VALID : alreadyUsed ? USED : VALID;
+        if (uuid == null || size.sum() >= (mask + 1) / 2) {
+            addLate(ticketNumber, ticketId, admissible, alreadyUsed);
+            return;
+        }
+
+        int slot = slotOf(uuid[0], uuid[1]);
+        while (states.get(slot) != EMPTY) {
+            if (keys[slot * 2] == uuid[0] && keys[slot * 2 + 1] == uuid[1]) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot * 2] = uuid[0];
+        keys[slot * 2 + 1] = uuid[1];
+        ticketIds[slot] = ticketId;
+        states.set(slot, state);
+        count(state);
+
+        int idSlot = slotOf(ticketId, 0);
+        while (slotsById[idSlot] != 0) {
+            idSlot = (idSlot + 1) & mask;
+        }
+        slotsById[idSlot] = slot + 1;
+    }
+
+    /**
+     * Add a ticket while scans are running, e.g. one bought after doors opened.
+     */
+    public void addLate(String ticketNumber, long ticketId, boolean admissible, boolean alreadyUsed) {
+        int state = !admissible ? NOT_VALID : alreadyUsed ? USED : VALID;
+        Entry entry = new Entry(ticketId, state);
+        if (overflow.putIfAbsent(ticketNumber, entry) == null) {
+            overflowById.putIfAbsent(ticketId, entry);
+            count(state);
+        }
+    }
+
+    /**
+     * Admit the ticket if it is valid and unused, marking it used in the same atomic step, so of
+     * two simultaneous scans of one ticket exactly one is admitted.
+     */
+    public Scan consume(String ticketNumber, long nowMillis) {
+        int slot = find(ticketNumber);
+        return slot >= 0 ? consumeSlot(slot, nowMillis) : consumeEntry(overflow.get(ticketNumber), nowMillis);
+    }
+
+    /**
+     * {@link #consume} for a ticket known by its id.
+     */
+    public Scan consumeById(long ticketId, long nowMillis) {
+        int idSlot = slotOf(ticketId, 0);
+        while (slotsById[idSlot] != 0) {
+            int slot = slotsById[idSlot] - 1;
+            if (ticketIds[slot] == ticketId) {
+                return consumeSlot(slot, nowMillis);
+            }
+            idSlot = (idSlot + 1) & mask;
+        }
+        return consumeEntry(overflowById.get(ticketId), nowMillis);
+    }
+
+    public long size() {
+        return size.sum();
+    }
+
+    public long usedCount() {
+        return used.sum();
+    }
+
+    private Scan consumeSlot(int slot, long nowMillis) {
+        int usedState = usedState(nowMillis);
+        while (true) {
+            int state = states.get(slot);
+            if ((state & STATE_MASK) != VALID) {
+                return result(state, ticketIds[slot]);
+            }
+            if (states.compareAndSet(slot, state, usedState)) {
+                used.increment();
+                return new Scan(Outcome.ADMITTED, ticketIds[slot], nowMillis);
+            }
+        }
+    }
+
+    private Scan consumeEntry(Entry entry, long nowMillis) {
+        if (entry == null) {
+            return new Scan(Outcome.UNKNOWN, 0, 0);
+        }
+        int usedState = usedState(nowMillis);
+        while (true) {
+            int state = entry.state.get();
+            if ((state & STATE_MASK) != VALID) {
+                return result(state, entry.ticketId);
+            }
+            if (entry.state.compareAndSet(state, usedState)) {
+                used.increment();
+                return new Scan(Outcome.ADMITTED, entry.ticketId, nowMillis);
+            }
+        }
+    }
+
+    private int usedState(long nowMillis) {
+        // Seconds are stored plus one so that 0 can stand for "used before the index was built"
+        return USED | (int) ((Math.max(0, nowMillis - createdAtMillis) / 1000 + 1) << 2);
+    }
+
+    private Scan result(int state, long ticketId) {
+        if ((state & STATE_MASK) == USED) {
+            int seconds = state >>> 2;
+            return new Scan(Outcome.ALREADY_USED, ticketId, seconds == 0 ? 0 : createdAtMillis + (seconds - 1) * 1000L);
+        }
+        return new Scan(Outcome.NOT_VALID, ticketId, 0);
+    }
+
+    private void count(int state) {
+        size.increment();
+        if (state == USED) {
+            used.increment();
+        }
+    }
+
+    private int find(String ticketNumber) {
+        long[] uuid = parseUuid(ticketNumber);
+        if (uuid == null) {
+            return -1;
+        }
+        int slot = slotOf(uuid[0], uuid[1]);
+        while (states.get(slot) != EMPTY) {
+            if (keys[slot * 2] == uuid[0] && keys[slot * 2 + 1] == uuid[1]) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slotOf(long mostSignificant, long leastSignificant) {
+        // Version 4 UUIDs are random, but mix anyway in case numbers come from another generator
+        long hash = (mostSignificant ^ leastSignificant) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Parses the canonical 8-4-4-4-12 hex form of a UUID without allocating a UUID or substrings.
+     * @return Most and least significant halves, or null if the text is not a canonical UUID
+     */
+    static long[] parseUuid(String text) {
+        if (text == null || text.length() != 36) {
+            return null;
+        }
+        long[] halves = new long[2];
+        int nibbles = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = text.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return null;
+                }
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                return null;
+            }
+            halves[nibbles >>> 4] = (halves[nibbles >>> 4] << 4) | digit;
+            nibbles++;
+        }
+        return halves;
+    }
+
+    public static final class Scan {
+        private final Outcome outcome;
+        private final long ticketId;
+        private final long usedAtMillis;
+
+        private Scan(Outcome outcome, long ticketId, long usedAtMillis) {
+            this.outcome = outcome;
+            this.ticketId = ticketId;
+            this.usedAtMillis = usedAtMillis;
+        }
+
+        /**
+         * For answers reached without an index, so both kinds of scan are reported alike.
+         */
+        public static Scan of(Outcome outcome, long ticketId, long usedAtMillis) {
+            return new Scan(outcome, ticketId, usedAtMillis);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public long getTicketId() {
+            return ticketId;
+        }
+
+        /**
+         * When the ticket was let in, to the second; 0 when it has not been or was let in before
+         * the index was built.
+         */
+        public long getUsedAtMillis() {
+            return usedAtMillis;
+        }
+    }
+
+    private static final class Entry {
+        private final long ticketId;
+        private final AtomicInteger state;
+
+        private Entry(long ticketId, int state) {
+            this.ticketId = ticketId;
+            this.state = new AtomicInteger(state);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.mytickets.ticketingApp.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IdempotencyAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        IdempotencyAspect aspect = new IdempotencyAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aspect, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(aspect, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(aspect, "maxKeys", 100L);
+        ReflectionTestUtils.setField(aspect, "waitTimeoutMs", 5000L);
+        aspect.init();
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new PaymentEndpoint());
+        factory.addAspect(aspect);
+        endpoint = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void collapse_ShouldReplayTheFirstResponseForARepeatedKey() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        callAs("buyer@example.com", "key-1");
+
+        // When
+        ResponseEntity<?> first = endpoint.pay(calls, 7L);
+        ResponseEntity<?> retry = endpoint.pay(calls, 7L);
+
+        // Then
+        assertThat(calls).hasValue(1);
+        assertThat(retry).isSameAs(first);
+        assertThat(collapsed("completed")).isEqualTo(1);
+    }
+
+    @Test
+    void collapse_ShouldKeepKeysApartPerUserAndRunRequestsWithoutAKey() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        callAs("buyer@example.com", "shared-key");
+        endpoint.pay(calls, 7L);
+        callAs("other@example.com", "shared-key");
+        endpoint.pay(calls, 7L);
+        callAs("buyer@example.com", null);
+        endpoint.pay(calls, 7L);
+        endpoint.pay(calls, 7L);
+
+        // Then
+        assertThat(calls).hasValue(4);
+        assertThat(collapsed("completed")).isZero();
+    }
+
+    @Test
+    void collapse_ShouldRefuseAKeyReusedForADifferentRequest() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        callAs("buyer@example.com", "key-1");
+        endpoint.pay(calls, 7L);
+
+        // When
+        ResponseEntity<?> reused = endpoint.pay(calls, 8L);
+
+        // Then
+        assertThat(calls).hasValue(1);
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(meterRegistry.counter("ticketing.idempotency.mismatched",
+                "method", "PaymentEndpoint.pay").count()).isEqualTo(1);
+    }
+
+    @Test
+    void collapse_ShouldFingerprintTheBodyButNotTheHeaders() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        callAs("buyer@example.com", "key-1");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ticketId", 5);
+        body.put("quantity", 2);
+        ResponseEntity<?> first = endpoint.purchase(calls, body, "pass-1");
+
+        // When - a retry with a fresh queue pass and the same body in another key order
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("quantity", 2);
+        reordered.put("ticketId", 5);
+        ResponseEntity<?> retry = endpoint.purchase(calls, reordered, "pass-2");
+        ResponseEntity<?> otherBody = endpoint.purchase(calls, Map.of("ticketId", 6, "quantity", 2), "pass-2");
+
+        // Then
+        assertThat(calls).hasValue(1);
+        assertThat(retry).isSameAs(first);
+        assertThat(otherBody.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void collapse_ShouldForgetKeysOfFailedRequests() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        callAs("buyer@example.com", "key-1");
+
+        // When
+        assertThatThrownBy(() -> endpoint.failOnce(calls)).isInstanceOf(IllegalStateException.class);
+        ResponseEntity<?> retry = endpoint.failOnce(calls);
+
+        // Then
+        assertThat(calls).hasValue(2);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void collapse_ShouldMakeConcurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+        // Given - the first request is still running when its retries arrive
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        Future<ResponseEntity<?>> first = executor.submit(() -> {
+            callAs("buyer@example.com", "key-1");
+            return endpoint.slowPay(calls, started, release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        List<Future<ResponseEntity<?>>> retries = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            retries.add(executor.submit(() -> {
+                callAs("buyer@example.com", "key-1");
+                return endpoint.slowPay(calls, started, release);
+            }));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        ResponseEntity<?> response = first.get(5, TimeUnit.SECONDS);
+        for (Future<ResponseEntity<?>> retry : retries) {
+            assertThat(retry.get(5, TimeUnit.SECONDS)).isSameAs(response);
+        }
+        executor.shutdown();
+        assertThat(calls).hasValue(1);
+        assertThat(collapsed("in_flight") + collapsed("completed")).isEqualTo(3);
+    }
+
+    private static void callAs(String username, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (key != null) {
+            request.addHeader(IdempotencyAspect.HEADER, key);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+    private double collapsed(String state) {
+        return meterRegistry.counter("ticketing.idempotency.collapsed",
+                "method", "PaymentEndpoint.pay", "state", state).count()
+                + meterRegistry.counter("ticketing.idempotency.collapsed",
+                "method", "PaymentEndpoint.slowPay", "state", state).count();
+    }
+
+    public static class PaymentEndpoint {
+
+        @Idempotent
+        public ResponseEntity<?> pay(AtomicInteger calls, @PathVariable Long transactionId) {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(Map.of("transactionId", transactionId));
+        }
+
+        @Idempotent
+        public ResponseEntity<?> purchase(AtomicInteger calls, @RequestBody Map<String, Object> requestData,
+                                          @RequestHeader("X-Queue-Pass") String admissionPass) {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(Map.of("ticketId", requestData.get("ticketId")));
+        }
+
+        @Idempotent
+        public ResponseEntity<?> failOnce(AtomicInteger calls) {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Payment provider timed out");
+            }
+            return ResponseEntity.ok(Map.of("success", true));
+        }
+
+        @Idempotent
+        public ResponseEntity<?> slowPay(AtomicInteger calls, CountDownLatch started, CountDownLatch release)
+                throws InterruptedException {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return ResponseEntity.ok(Map.of("success", true));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mytickets.ticketingApp.aspect;
+
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OptimisticRetryAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ContendedService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        OptimisticRetryAspect aspect = new OptimisticRetryAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aspect, "defaultMaxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "defaultBackoffMs", 1L);
+        ReflectionTestUtils.setField(aspect, "maxBackoffMs", 5L);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ContendedService());
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    @Test
+    void retry_ShouldRerunMethodUntilConflictClears() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String result = service.update(calls, 2);
+
+        // Then
+        assertThat(result).isEqualTo("updated");
+        assertThat(calls).hasValue(3);
+        assertThat(count("ticketing.optimistic.calls")).isEqualTo(1);
+        assertThat(count("ticketing.optimistic.conflicts")).isEqualTo(2);
+        assertThat(count("ticketing.optimistic.exhausted")).isZero();
+    }
+
+    @Test
+    void retry_ShouldGiveUpAfterMaxAttempts() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When / Then
+        assertThatThrownBy(() -> service.update(calls, 10))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(calls).hasValue(3);
+        assertThat(count("ticketing.optimistic.conflicts")).isEqualTo(3);
+        assertThat(count("ticketing.optimistic.exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void retry_ShouldCountSoldOutcomesWithoutRetrying() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When / Then
+        assertThatThrownBy(() -> service.buy(calls))
+                .isInstanceOf(TicketUnavailableException.class);
+        assertThat(calls).hasValue(1);
+        assertThat(count("ticketing.optimistic.sold")).isEqualTo(1);
+        assertThat(count("ticketing.optimistic.conflicts")).isZero();
+    }
+
+    @Test
+    void isConflict_ShouldLookThroughWrappingExceptions() {
+        RuntimeException wrapped = new RuntimeException("Payment processing failed",
+                new jakarta.persistence.OptimisticLockException("stale"));
+
+        assertThat(OptimisticRetryAspect.isConflict(wrapped)).isTrue();
+        assertThat(OptimisticRetryAspect.isConflict(new RuntimeException("Insufficient balance"))).isFalse();
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    static class ContendedService {
+
+        @RetryOnConflict
+        public String update(AtomicInteger calls, int conflicts) {
+            if (calls.incrementAndGet() <= conflicts) {
+                throw new ObjectOptimisticLockingFailureException("Ticket", 1L);
+            }
+            return "updated";
+        }
+
+        @RetryOnConflict
+        public void buy(AtomicInteger calls) {
+            calls.incrementAndGet();
+            throw new TicketUnavailableException(1L);
+        }
+    }
+}
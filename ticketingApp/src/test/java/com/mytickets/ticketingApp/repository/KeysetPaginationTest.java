@@ -0,0 +1,222 @@
+package com.mytickets.ticketingApp.repository;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.CursorPage;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.service.impl.AuditServiceImpl;
+import com.mytickets.ticketingApp.service.impl.CatalogSearchServiceImpl;
+import com.mytickets.ticketingApp.service.impl.CatalogSnapshotServiceImpl;
+import com.mytickets.ticketingApp.service.impl.EventServiceImpl;
+import com.mytickets.ticketingApp.util.KeysetCursor;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:keyset-pages;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AuditServiceImpl.class, EventServiceImpl.class, CatalogSnapshotServiceImpl.class, CatalogSearchServiceImpl.class,
+        JacksonAutoConfiguration.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class KeysetPaginationTest {
+
+    // Rows share dates five at a time, so a page boundary regularly falls between equal dates
+    private static final int ROWS = 47;
+    private static final int PAGE_SIZE = 6;
+
+    @Autowired
+    private AuditServiceImpl auditService;
+
+    @Autowired
+    private EventServiceImpl eventService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private BalanceTransactionRepository balanceTransactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        for (int i = 0; i < 2; i++) {
+            User user = new User();
+            user.setEmail("keyset" + i + "@example.com");
+            user.setFirstName("Key");
+            user.setLastName("Set " + i);
+            users.add(userRepository.save(user));
+        }
+
+        for (int i = 0; i < ROWS; i++) {
+            // Saved out of date order, so the pages cannot simply follow insertion order
+            LocalDateTime date = base.minusMinutes((i * 7 % ROWS) / 5);
+
+            AuditLog log = new AuditLog();
+            log.setAction("TEST");
+            log.setEntityType("Ticket");
+            log.setEntityId((long) i);
+            log.setTimestamp(date);
+            auditLogRepository.save(log);
+
+            Event event = new Event();
+            event.setName("Keyset Event " + i);
+            event.setDescription("Keyset test");
+            event.setEventDate(date.plusDays(30));
+            event.setEventType(EventType.THEATER);
+            eventRepository.save(event);
+
+            BalanceTransaction transaction = new BalanceTransaction();
+            transaction.setUser(users.get(i % 2));
+            transaction.setAmount(10.0);
+            transaction.setType(BalanceTransactionType.CREDIT);
+            transaction.setTransactionDate(date);
+            balanceTransactionRepository.save(transaction);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        auditLogRepository.deleteAll();
+        eventRepository.deleteAll();
+        balanceTransactionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void scrollLogs_ShouldVisitEveryLogOnceNewestFirstInOneStatementPerPage() {
+        // Given
+        List<Long> expected = auditLogRepository.findAll().stream()
+                .sorted(Comparator.comparing(AuditLog::getTimestamp).thenComparing(AuditLog::getId).reversed())
+                .map(AuditLog::getId)
+                .collect(Collectors.toList());
+
+        // When
+        List<Long> visited = walk(cursor -> budget.expect("audit page", 1,
+                () -> auditService.scrollLogs(cursor, PAGE_SIZE)), AuditLog::getId);
+
+        // Then
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void scrollEvents_ShouldVisitEveryEventOnceByDateInOneStatementPerPage() {
+        // Given
+        List<Long> expected = eventRepository.findAll().stream()
+                .sorted(Comparator.comparing(Event::getEventDate).thenComparing(Event::getId))
+                .map(Event::getId)
+                .collect(Collectors.toList());
+
+        // When
+        List<Long> visited = walk(cursor -> budget.expect("event page", 1,
+                () -> eventService.scrollEvents(cursor, PAGE_SIZE)), EventSummaryResponse::getId);
+
+        // Then
+        assertThat(visited).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void balancePages_ShouldOnlySeekWithinTheOwnersHistory() {
+        // Given
+        User owner = users.get(1);
+        Pageable limit = CursorPage.limit(PAGE_SIZE);
+
+        // When
+        List<Long> visited = walk(cursor -> {
+            List<BalanceTransaction> rows;
+            if (cursor == null) {
+                rows = balanceTransactionRepository.findFirstPageByUserId(owner.getId(), limit);
+            } else {
+                KeysetCursor after = KeysetCursor.decode(cursor, true);
+                rows = balanceTransactionRepository.findPageByUserIdBefore(owner.getId(), after.getDate(), after.getId(), limit);
+            }
+            return CursorPage.of(rows, limit, row -> KeysetCursor.of(row.getTransactionDate(), row.getId()));
+        }, BalanceTransaction::getId);
+
+        // Then
+        assertThat(visited).hasSize(ROWS / 2).doesNotHaveDuplicates()
+                .allSatisfy(id -> assertThat(balanceTransactionRepository.findById(id).orElseThrow().getUser().getId())
+                        .isEqualTo(owner.getId()));
+    }
+
+    @Test
+    void userPages_ShouldEndWithoutACursor() {
+        // When
+        CursorPage<User> page = CursorPage.of(userRepository.findPageAfter(0L, CursorPage.limit(2)), CursorPage.limit(2),
+                user -> KeysetCursor.of(user.getId()));
+
+        // Then
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void scrollLogs_ShouldRejectACursorFromAnIdOrderedList() {
+        // Given
+        String cursor = KeysetCursor.of(1L).encode();
+
+        // When / Then
+        assertThatThrownBy(() -> auditService.scrollLogs(cursor, PAGE_SIZE)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private <T> List<Long> walk(Function<String, CursorPage<T>> pages, Function<T, Long> idOf) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        CursorPage<T> page;
+        do {
+            page = pages.apply(cursor);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+            page.getItems().forEach(item -> ids.add(idOf.apply(item)));
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+        return ids;
+    }
+}
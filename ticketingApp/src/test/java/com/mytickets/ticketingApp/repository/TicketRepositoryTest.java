@@ -0,0 +1,190 @@
+package com.mytickets.ticketingApp.repository;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.TicketViewResponse;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticket-views;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketRepositoryTest {
+
+    // 3 events x 2 tiers x 10 tickets, a third of them owned by one of 4 buyers
+    private static final int EVENTS = 3;
+    private static final int TICKETS_PER_TIER = 10;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private final List<User> buyers = new ArrayList<>();
+    private final List<PricingTier> tiers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+
+        for (int i = 0; i < 4; i++) {
+            User buyer = new User();
+            buyer.setEmail("fan" + i + "@example.com");
+            buyer.setFirstName("Fan");
+            buyer.setLastName(String.valueOf(i));
+            buyers.add(userRepository.save(buyer));
+        }
+
+        int seat = 0;
+        for (int e = 0; e < EVENTS; e++) {
+            Venue venue = new Venue();
+            venue.setName("Arena " + e);
+            venue.setAddress(e + " Arena Road");
+            venue.setCity("Leeds");
+            venue.setCountry("UK");
+            venue.setCapacity(1000);
+            venue = venueRepository.save(venue);
+
+            Event event = new Event();
+            event.setName("Tour Date " + e);
+            event.setDescription("Ticket view test");
+            event.setEventDate(LocalDateTime.now().plusDays(e == 0 ? -2 : e * 7));
+            event.setEventType(EventType.CONCERT);
+            event.setVenue(venue);
+            event = eventRepository.save(event);
+
+            for (String name : new String[] {"Standing", "Seated"}) {
+                PricingTier tier = new PricingTier();
+                tier.setName(name);
+                tier.setPrice(60.0);
+                tier.setQuantity(TICKETS_PER_TIER);
+                tier.setAvailable(TICKETS_PER_TIER);
+                tier.setEvent(event);
+                tier = pricingTierRepository.save(tier);
+                tiers.add(tier);
+
+                for (int t = 0; t < TICKETS_PER_TIER; t++, seat++) {
+                    Ticket ticket = new Ticket();
+                    ticket.setOriginalPrice(60.0);
+                    ticket.setCurrentPrice(60.0);
+                    ticket.setEvent(event);
+                    ticket.setPricingTier(tier);
+                    ticket.setSection(name);
+                    ticket.setRow("A");
+                    ticket.setSeat(String.valueOf(t + 1));
+                    if (seat % 3 == 0) {
+                        ticket.setOwner(buyers.get(seat % 4));
+                        ticket.setStatus(TicketStatus.PURCHASED);
+                        ticket.setPurchaseDate(LocalDateTime.now());
+                    }
+                    ticketRepository.save(ticket);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ticketRepository.deleteAllInBatch();
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+        venueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findAllViews_ShouldStayInOneStatementWhereEntitiesTakeOnePerRow() {
+        // Given
+        int tickets = EVENTS * 2 * TICKETS_PER_TIER;
+        long entityStatements = budget.count(() -> ticketRepository.findAll());
+
+        // When
+        List<TicketViewResponse> views = budget.expect("admin ticket list", 1, ticketRepository::findAllViews);
+
+        // Then
+        assertThat(entityStatements).isGreaterThan(tickets);
+        assertThat(views).hasSize(tickets);
+        assertThat(views).filteredOn(view -> view.getOwner() != null).hasSize(tickets / 3)
+                .allSatisfy(view -> assertThat(view.getOwner().getFirstName()).isEqualTo("Fan"));
+        assertThat(views).allSatisfy(view -> {
+            assertThat(view.getEvent().getVenue().getName()).startsWith("Arena ");
+            assertThat(view.getPricingTier().getPrice()).isEqualTo(60.0);
+        });
+    }
+
+    @Test
+    void ownerViews_ShouldStayInOneStatement() {
+        // Given
+        User buyer = buyers.get(0);
+
+        // When
+        List<TicketViewResponse> mine = budget.expect("my tickets", 1,
+                () -> ticketRepository.findViewsByOwnerId(buyer.getId()));
+        List<TicketViewResponse> upcoming = budget.expect("my upcoming tickets", 1,
+                () -> ticketRepository.findUpcomingViewsByOwnerId(buyer.getId()));
+
+        // Then - owned seats are every third, and every fourth of those is buyer 0's
+        assertThat(mine).hasSize(5).allSatisfy(view -> assertThat(view.getOwner().getId()).isEqualTo(buyer.getId()));
+        assertThat(upcoming).isNotEmpty().hasSizeLessThan(mine.size())
+                .allSatisfy(view -> assertThat(view.getEvent().getEventDate()).isAfter(LocalDateTime.now()))
+                .isSortedAccordingTo((a, b) -> a.getEvent().getEventDate().compareTo(b.getEvent().getEventDate()));
+    }
+
+    @Test
+    void findViewsByPricingTierIdAndStatus_ShouldStayInOneStatement() {
+        // Given
+        PricingTier tier = tiers.get(1);
+
+        // When
+        List<TicketViewResponse> available = budget.expect("available by tier", 1,
+                () -> ticketRepository.findViewsByPricingTierIdAndStatus(tier.getId(), TicketStatus.AVAILABLE));
+
+        // Then
+        assertThat(available).isNotEmpty().allSatisfy(view -> {
+            assertThat(view.getStatus()).isEqualTo(TicketStatus.AVAILABLE);
+            assertThat(view.getPricingTier().getId()).isEqualTo(tier.getId());
+            assertThat(view.getOwner()).isNull();
+            assertThat(view.isUsed()).isFalse();
+        });
+    }
+}
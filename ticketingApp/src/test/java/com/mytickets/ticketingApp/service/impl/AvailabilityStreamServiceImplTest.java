@@ -0,0 +1,168 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
+import com.mytickets.ticketingApp.exception.TooManyStreamsException;
+import com.mytickets.ticketingApp.payload.response.OrderBookResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.service.InventoryService;
+import com.mytickets.ticketingApp.service.ResaleOrderBookService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class AvailabilityStreamServiceImplTest {
+
+    private static final String CLIENT = "203.0.113.7";
+
+    private AvailabilityStreamServiceImpl availabilityStreamService;
+    private EventRepository eventRepository;
+    private InventoryService inventoryService;
+    private ResaleOrderBookService resaleOrderBookService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        inventoryService = mock(InventoryService.class);
+        resaleOrderBookService = mock(ResaleOrderBookService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(eventRepository.existsById(1L)).thenReturn(true);
+        when(inventoryService.getAvailableTickets(1L)).thenReturn(10L);
+        when(resaleOrderBookService.getOrderBook(1L, 1, null)).thenReturn(book(1L, 2, 40.0));
+
+        availabilityStreamService = new AvailabilityStreamServiceImpl();
+        ReflectionTestUtils.setField(availabilityStreamService, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(availabilityStreamService, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(availabilityStreamService, "resaleOrderBookService", resaleOrderBookService);
+        ReflectionTestUtils.setField(availabilityStreamService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(availabilityStreamService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(availabilityStreamService, "maxSubscribers", 3);
+        ReflectionTestUtils.setField(availabilityStreamService, "maxStreamsPerClient", 3);
+        ReflectionTestUtils.setField(availabilityStreamService, "streamTimeoutMs", 60_000L);
+        // One fan-out thread, so waiting on an empty task waits for every send queued before it
+        ReflectionTestUtils.setField(availabilityStreamService, "fanoutThreads", 1);
+        availabilityStreamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        availabilityStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe_ShouldSendTheCurrentFiguresAtOnce() {
+        // When
+        availabilityStreamService.subscribe(1L, CLIENT);
+        availabilityStreamService.subscribe(1L, CLIENT);
+
+        // Then - both streams are sent the figures read for the first
+        assertThat(updatesSent()).isEqualTo(2);
+        verify(inventoryService, times(1)).getAvailableTickets(1L);
+        assertThat(availabilityStreamService.getSubscriberCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("ticketing.availability.subscribers").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_ShouldCoalesceChangesAndSkipUnchangedFigures() throws Exception {
+        // Given
+        availabilityStreamService.subscribe(1L, CLIENT);
+        availabilityStreamService.subscribe(1L, CLIENT);
+        when(inventoryService.getAvailableTickets(1L)).thenReturn(7L);
+
+        // When - three sales in one window
+        availabilityStreamService.availabilityChanged(1L);
+        availabilityStreamService.availabilityChanged(1L);
+        availabilityStreamService.availabilityChanged(1L);
+        availabilityStreamService.flush();
+        awaitFanout();
+
+        // Then - read once, one update per stream
+        verify(inventoryService, times(2)).getAvailableTickets(1L);
+        assertThat(updatesSent()).isEqualTo(4);
+
+        // When - a change that leaves the figures where they were, and a flush with nothing changed
+        availabilityStreamService.availabilityChanged(1L);
+        availabilityStreamService.flush();
+        availabilityStreamService.flush();
+        awaitFanout();
+
+        // Then
+        verify(inventoryService, times(3)).getAvailableTickets(1L);
+        assertThat(updatesSent()).isEqualTo(4);
+    }
+
+    @Test
+    void availabilityChanged_ShouldIgnoreEventsNobodyWatches() {
+        // When
+        availabilityStreamService.availabilityChanged(2L);
+        availabilityStreamService.flush();
+
+        // Then
+        verifyNoInteractions(inventoryService, resaleOrderBookService);
+    }
+
+    @Test
+    void subscribe_ShouldRefuseStreamsBeyondTheCap() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            availabilityStreamService.subscribe(1L, "198.51.100." + i);
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> availabilityStreamService.subscribe(1L, CLIENT)).isInstanceOf(IllegalStateException.class);
+        assertThat(availabilityStreamService.getSubscriberCount()).isEqualTo(3);
+
+        // Then - the refused stream does not count against its client
+        ReflectionTestUtils.setField(availabilityStreamService, "maxSubscribers", 10);
+        for (int i = 0; i < 3; i++) {
+            availabilityStreamService.subscribe(1L, CLIENT);
+        }
+        assertThat(availabilityStreamService.getSubscriberCount()).isEqualTo(6);
+    }
+
+    @Test
+    void subscribe_ShouldRefuseAClientBeyondItsShare() {
+        // Given
+        ReflectionTestUtils.setField(availabilityStreamService, "maxSubscribers", 10);
+        for (int i = 0; i < 3; i++) {
+            availabilityStreamService.subscribe(1L, CLIENT);
+        }
+
+        // When / Then - other clients are still served
+        assertThatThrownBy(() -> availabilityStreamService.subscribe(1L, CLIENT)).isInstanceOf(TooManyStreamsException.class);
+        availabilityStreamService.subscribe(1L, "198.51.100.1");
+        assertThat(availabilityStreamService.getSubscriberCount()).isEqualTo(4);
+    }
+
+    @Test
+    void subscribe_ShouldKeepNothingForUnknownEvents() {
+        // When / Then
+        assertThatThrownBy(() -> availabilityStreamService.subscribe(404L, CLIENT)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(availabilityStreamService.getSubscriberCount()).isZero();
+        verifyNoInteractions(inventoryService, resaleOrderBookService);
+    }
+
+    private double updatesSent() {
+        return meterRegistry.get("ticketing.availability.updates.sent").counter().count();
+    }
+
+    private void awaitFanout() throws Exception {
+        ThreadPoolExecutor fanoutPool = (ThreadPoolExecutor) ReflectionTestUtils.getField(availabilityStreamService, "fanoutPool");
+        fanoutPool.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static OrderBookResponse book(Long eventId, int count, Double bestPrice) {
+        return new OrderBookResponse(eventId, count, bestPrice, List.of(), List.of());
+    }
+}
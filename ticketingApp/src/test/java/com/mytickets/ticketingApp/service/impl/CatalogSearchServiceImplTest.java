@@ -0,0 +1,240 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.request.EventDiscoveryRequest;
+import com.mytickets.ticketingApp.payload.response.EventDiscoveryResponse;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.SuggestionResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.repository.VenueRepository;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-search;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CatalogSearchServiceImpl.class, CatalogSnapshotServiceImpl.class, EventServiceImpl.class, VenueServiceImpl.class,
+        PricingTierServiceImpl.class, VenueGeoSearchServiceImpl.class, JacksonAutoConfiguration.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogSearchServiceImplTest {
+
+    @Autowired
+    private CatalogSearchServiceImpl catalogSearchService;
+
+    @Autowired
+    private EventServiceImpl eventService;
+
+    @Autowired
+    private VenueServiceImpl venueService;
+
+    @Autowired
+    private PricingTierServiceImpl pricingTierService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private User creator;
+    private Venue arena;
+    private Event rock;
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+
+        creator = new User();
+        creator.setEmail("search@example.com");
+        creator.setFirstName("Sear");
+        creator.setLastName("Ch");
+        creator = userRepository.save(creator);
+
+        arena = venueRepository.save(venue("Riverside Arena", "Lisbon"));
+        Venue club = venueRepository.save(venue("Blue Note", "Porto"));
+
+        eventRepository.save(event("Jazz at Night", "Late session with the house trio", club));
+        rock = eventRepository.save(event("Rock Festival", "Three stages of rock and jazz fusion", arena));
+        eventRepository.save(event("Indoor Football", "Five-a-side final", arena));
+        catalogSearchService.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+        venueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void searchEvents_ShouldRankAcrossFieldsWithoutQuerying() {
+        // When
+        List<EventSummaryResponse> jazz = budget.expect("search", 0, () -> catalogSearchService.searchEvents("jaz", 10));
+        List<EventSummaryResponse> byCity = budget.expect("search", 0, () -> catalogSearchService.searchEvents("lisbon", 10));
+        List<EventSummaryResponse> byVenue = catalogSearchService.searchEvents("river foot", 10);
+
+        // Then
+        assertThat(jazz).extracting(EventSummaryResponse::getName).containsExactly("Jazz at Night", "Rock Festival");
+        assertThat(jazz.get(0).getVenue().getName()).isEqualTo("Blue Note");
+        assertThat(jazz.get(0).getCreator()).isNull();
+        assertThat(byCity).hasSize(2);
+        assertThat(byVenue).extracting(EventSummaryResponse::getName).containsExactly("Indoor Football");
+        assertThat(catalogSearchService.searchEvents("jazz", 1)).hasSize(1);
+    }
+
+    @Test
+    void eventWrites_ShouldUpdateTheIndexAfterCommit() {
+        // Given
+        Event created = eventService.createEvent(event("Chamber Quartet", "Strings by candlelight", arena), creator.getId());
+        Long football = catalogSearchService.searchEvents("football", 10).get(0).getId();
+
+        // When
+        List<EventSummaryResponse> afterCreate = catalogSearchService.searchEvents("candle", 10);
+        Event rename = event("Futsal Cup", "Five-a-side final", arena);
+        rename.setStatus(EventStatus.SCHEDULED);
+        eventService.updateEvent(football, rename);
+        List<EventSummaryResponse> oldName = catalogSearchService.searchEvents("football", 10);
+        List<EventSummaryResponse> newName = catalogSearchService.searchEvents("futsal", 10);
+        eventService.deleteEvent(created.getId());
+
+        // Then
+        assertThat(afterCreate).extracting(EventSummaryResponse::getId).containsExactly(created.getId());
+        assertThat(oldName).isEmpty();
+        assertThat(newName).extracting(EventSummaryResponse::getId).containsExactly(football);
+        assertThat(catalogSearchService.searchEvents("quartet", 10)).isEmpty();
+    }
+
+    @Test
+    void venueUpdate_ShouldReindexItsEvents() {
+        // Given
+        Venue moved = venue("Riverside Arena", "Braga");
+        moved.setAddress(arena.getAddress());
+
+        // When
+        venueService.updateVenue(arena.getId(), moved);
+
+        // Then
+        assertThat(catalogSearchService.searchEvents("lisbon", 10)).isEmpty();
+        assertThat(catalogSearchService.searchEvents("braga", 10))
+                .extracting(EventSummaryResponse::getName)
+                .containsExactlyInAnyOrder("Rock Festival", "Indoor Football");
+    }
+
+    @Test
+    void discoverEvents_ShouldFilterOnTierPricesKeptInSyncByTierWrites() {
+        // Given
+        PricingTier tier = new PricingTier();
+        tier.setName("Standard");
+        tier.setPrice(30.0);
+        tier.setQuantity(10);
+        tier.setEvent(rock);
+        pricingTierService.createPricingTier(tier);
+
+        EventDiscoveryRequest underFifty = new EventDiscoveryRequest();
+        underFifty.setCities(List.of("Lisbon"));
+        underFifty.setMaxPrice(50.0);
+        EventDiscoveryRequest byPrice = new EventDiscoveryRequest();
+        byPrice.setSort("price");
+
+        // When
+        EventDiscoveryResponse cheap = budget.expect("discover", 0, () -> catalogSearchService.discoverEvents(underFifty));
+        EventDiscoveryResponse all = catalogSearchService.discoverEvents(byPrice);
+
+        // Then - events without a tier on sale sort after those with one
+        assertThat(cheap.getEvents()).extracting(EventSummaryResponse::getName).containsExactly("Rock Festival");
+        assertThat(cheap.getEvents().get(0).getFromPrice()).isEqualTo(30.0);
+        assertThat(cheap.getTotal()).isEqualTo(1);
+        assertThat(cheap.getFacets().get("city")).containsEntry("Lisbon", 1);
+        assertThat(all.getTotal()).isEqualTo(3);
+        assertThat(all.getEvents().get(0).getId()).isEqualTo(rock.getId());
+        assertThat(all.getFacets().get("city")).containsEntry("Lisbon", 2).containsEntry("Porto", 1);
+    }
+
+    @Test
+    void suggest_ShouldCompleteEventsVenuesAndCitiesByPopularity() {
+        // Given - most of its tickets already sold
+        Event rocket = event("Rocket Science Live", "A talk with demonstrations", arena);
+        rocket.setAvailableTickets(10);
+        eventService.createEvent(rocket, creator.getId());
+
+        // When
+        List<SuggestionResponse> r = budget.expect("suggest", 0, () -> catalogSearchService.suggest("r", 10));
+        List<SuggestionResponse> lis = catalogSearchService.suggest("lis", 10);
+        List<SuggestionResponse> science = catalogSearchService.suggest("scien", 10);
+
+        // Then - the arena adds up the pull of all three of its events
+        assertThat(r).extracting(SuggestionResponse::getText)
+                .containsExactly("Riverside Arena", "Rocket Science Live", "Rock Festival");
+        assertThat(r.get(0).getType()).isEqualTo(SuggestionResponse.VENUE);
+        assertThat(r.get(1).getDetail()).isEqualTo("Riverside Arena, Lisbon");
+        assertThat(lis).extracting(SuggestionResponse::getType, SuggestionResponse::getText, SuggestionResponse::getDetail)
+                .containsExactly(tuple(SuggestionResponse.CITY, "Lisbon", "Portugal"));
+        assertThat(science).extracting(SuggestionResponse::getText).containsExactly("Rocket Science Live");
+        assertThat(catalogSearchService.suggest("r", 1)).hasSize(1);
+    }
+
+    private Venue venue(String name, String city) {
+        Venue venue = new Venue();
+        venue.setName(name);
+        venue.setAddress("1 Main Street");
+        venue.setCity(city);
+        venue.setCountry("Portugal");
+        return venue;
+    }
+
+    private Event event(String name, String description, Venue venue) {
+        Event event = new Event();
+        event.setName(name);
+        event.setDescription(description);
+        event.setEventDate(LocalDateTime.now().plusDays(14));
+        event.setEventType(EventType.CONCERT);
+        event.setTotalTickets(100);
+        event.setAvailableTickets(100);
+        event.setVenue(venue);
+        event.setCreator(creator);
+        return event;
+    }
+}
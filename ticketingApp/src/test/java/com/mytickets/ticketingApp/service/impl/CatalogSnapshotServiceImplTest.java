@@ -0,0 +1,176 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.service.CatalogSnapshotService.Listing;
+import com.mytickets.ticketingApp.service.CatalogSnapshotService.Snapshot;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-snapshot;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CatalogSnapshotServiceImpl.class, CatalogSearchServiceImpl.class, EventServiceImpl.class, JacksonAutoConfiguration.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogSnapshotServiceImplTest {
+
+    @Autowired
+    private CatalogSnapshotServiceImpl catalogSnapshotService;
+
+    @Autowired
+    private EventServiceImpl eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private User creator;
+    private final List<Event> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+
+        creator = new User();
+        creator.setEmail("catalog@example.com");
+        creator.setFirstName("Cat");
+        creator.setLastName("Alog");
+        creator = userRepository.save(creator);
+
+        // One past event, then upcoming ones with and without tickets left
+        for (int i = 0; i < 4; i++) {
+            Event event = new Event();
+            event.setName("Catalog Event " + i);
+            event.setDescription("Snapshot test");
+            event.setEventDate(LocalDateTime.now().plusDays(i == 0 ? -3 : 10 - i));
+            event.setEventType(EventType.SPORTS);
+            event.setTotalTickets(100);
+            event.setAvailableTickets(i == 3 ? 0 : 100);
+            event.setCreator(creator);
+            events.add(eventRepository.save(event));
+        }
+        catalogSnapshotService.refresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void get_ShouldServeEachListingFromMemoryOnceEncoded() throws Exception {
+        // Given
+        catalogSnapshotService.get(Listing.ALL);
+
+        // When
+        Snapshot all = budget.expect("all events", 0, () -> catalogSnapshotService.get(Listing.ALL));
+        Snapshot upcoming = budget.expect("upcoming", 0, () -> catalogSnapshotService.get(Listing.UPCOMING));
+        Snapshot available = budget.expect("available", 0, () -> catalogSnapshotService.get(Listing.AVAILABLE));
+
+        // Then - upcoming runs soonest first, and only the full listing names the creator
+        JsonNode allEvents = objectMapper.readTree(all.getJson());
+        assertThat(allEvents).hasSize(4);
+        assertThat(allEvents.get(0).get("creator").get("lastName").asText()).isEqualTo("Alog");
+        JsonNode upcomingEvents = objectMapper.readTree(upcoming.getJson());
+        assertThat(upcomingEvents).hasSize(3);
+        assertThat(upcomingEvents.get(0).get("name").asText()).isEqualTo("Catalog Event 3");
+        assertThat(upcomingEvents.get(0).has("creator")).isFalse();
+        assertThat(objectMapper.readTree(available.getJson())).hasSize(2);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(all.getGzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(all.getJson());
+        }
+    }
+
+    @Test
+    void eTag_ShouldOnlyChangeWithTheContent() {
+        // Given
+        String before = catalogSnapshotService.get(Listing.ALL).getETag();
+
+        // When - a reload that finds nothing new keeps the validator
+        catalogSnapshotService.refresh();
+        String unchanged = catalogSnapshotService.get(Listing.ALL).getETag();
+        Event edit = new Event();
+        edit.setName("Catalog Event 1 (rescheduled)");
+        edit.setDescription("Snapshot test");
+        edit.setEventDate(events.get(1).getEventDate().plusDays(1));
+        edit.setEventType(EventType.SPORTS);
+        edit.setStatus(EventStatus.SCHEDULED);
+        eventService.updateEvent(events.get(1).getId(), edit);
+        String changed = catalogSnapshotService.get(Listing.ALL).getETag();
+
+        // Then
+        assertThat(before).startsWith("\"");
+        assertThat(catalogSnapshotService.get(Listing.ALL).getGzipETag()).isNotEqualTo(changed).endsWith("-gz\"");
+        assertThat(unchanged).isEqualTo(before);
+        assertThat(changed).isNotEqualTo(before);
+        assertThat(new String(catalogSnapshotService.get(Listing.ALL).getJson())).contains("(rescheduled)");
+    }
+
+    @Test
+    void createAndDelete_ShouldPatchTheSnapshotAfterCommit() throws Exception {
+        // Given
+        Event event = new Event();
+        event.setName("Late Addition");
+        event.setDescription("Snapshot test");
+        event.setEventDate(LocalDateTime.now().plusDays(1));
+        event.setEventType(EventType.CONCERT);
+        event.setTotalTickets(50);
+
+        // When
+        Event created = eventService.createEvent(event, creator.getId());
+        JsonNode withNew = objectMapper.readTree(catalogSnapshotService.get(Listing.AVAILABLE).getJson());
+        eventService.deleteEvent(events.get(2).getId());
+        JsonNode afterDelete = objectMapper.readTree(catalogSnapshotService.get(Listing.UPCOMING).getJson());
+
+        // Then - the new event starts soonest
+        assertThat(withNew).hasSize(3);
+        assertThat(withNew.get(0).get("id").asLong()).isEqualTo(created.getId());
+        assertThat(afterDelete).hasSize(3);
+        afterDelete.forEach(node -> assertThat(node.get("id").asLong()).isNotEqualTo(events.get(2).getId()));
+    }
+}
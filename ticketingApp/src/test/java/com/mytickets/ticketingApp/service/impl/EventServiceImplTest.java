@@ -0,0 +1,176 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.repository.VenueRepository;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:event-listing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({EventServiceImpl.class, CatalogSnapshotServiceImpl.class, CatalogSearchServiceImpl.class, JacksonAutoConfiguration.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EventServiceImplTest {
+
+    private static final int EVENTS = 12;
+
+    @Autowired
+    private EventServiceImpl eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private User creator;
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+
+        creator = new User();
+        creator.setEmail("organiser@example.com");
+        creator.setFirstName("Olive");
+        creator.setLastName("Organiser");
+        creator = userRepository.save(creator);
+
+        // Every event at its own venue, so loading entities would cost a venue select per event
+        for (int i = 0; i < EVENTS; i++) {
+            Venue venue = new Venue();
+            venue.setName("Hall " + i);
+            venue.setAddress(i + " Main Street");
+            venue.setCity(i % 2 == 0 ? "Lisbon" : "Porto");
+            venue.setCountry("Portugal");
+            venue.setCapacity(500);
+            venue = venueRepository.save(venue);
+
+            Event event = new Event();
+            event.setName((i % 3 == 0 ? "Jazz_Night " : "Rock Show ") + i);
+            event.setDescription("Listing test " + i);
+            event.setEventDate(LocalDateTime.now().plusDays(i % 4 == 0 ? -1 : i + 1));
+            event.setTotalTickets(100);
+            event.setAvailableTickets(i % 5 == 0 ? 0 : 100);
+            event.setEventType(i % 2 == 0 ? EventType.CONCERT : EventType.SPORTS);
+            event.setVenue(venue);
+            event.setCreator(creator);
+            eventRepository.save(event);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        eventRepository.deleteAll();
+        venueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void listings_ShouldEachRunASingleStatement() {
+        // When / Then
+        List<EventSummaryResponse> all = budget.expect("all events", 1, eventService::getAllEvents);
+        assertThat(all).hasSize(EVENTS).allSatisfy(event -> {
+            assertThat(event.getVenue().getName()).startsWith("Hall ");
+            assertThat(event.getVenueName()).isEqualTo(event.getVenue().getName());
+            assertThat(event.getVenueCity()).isEqualTo(event.getVenue().getCity());
+            assertThat(event.getCreator().getLastName()).isEqualTo("Organiser");
+        });
+
+        assertThat(budget.expect("by type", 1, () -> eventService.findEventsByType(EventType.CONCERT))).hasSize(EVENTS / 2);
+        assertThat(budget.expect("by status", 1, () -> eventService.findEventsByStatus(EventStatus.SCHEDULED))).hasSize(EVENTS);
+        assertThat(budget.expect("upcoming", 1, eventService::findUpcomingEvents)).hasSize(EVENTS - 3);
+        assertThat(budget.expect("available", 1, eventService::findUpcomingEventsWithAvailableTickets)).hasSize(EVENTS - 5);
+        assertThat(budget.expect("by city", 1, () -> eventService.findUpcomingEventsByCity("Porto")))
+                .allSatisfy(event -> assertThat(event.getVenue().getCity()).isEqualTo("Porto"))
+                .hasSize(6);
+        assertThat(budget.expect("by venue", 1, () -> eventService.findEventsByVenue(all.get(0).getVenue().getId()))).hasSize(1);
+        assertThat(budget.expect("search", 1, () -> eventService.searchEventsByName("rock"))).hasSize(8);
+    }
+
+    @Test
+    void listings_ShouldCostFewerStatementsThanLoadingEntities() {
+        // Given - the eager venue and creator of every event
+        long entityStatements = budget.count(() -> eventRepository.findAll());
+
+        // When
+        long summaryStatements = budget.count(eventService::getAllEvents);
+
+        // Then
+        assertThat(entityStatements).isGreaterThan(EVENTS);
+        assertThat(summaryStatements).isEqualTo(1);
+    }
+
+    @Test
+    void searchEventsByName_ShouldMatchWildcardCharactersLiterally() {
+        // When
+        List<EventSummaryResponse> underscored = eventService.searchEventsByName("jazz_");
+        List<EventSummaryResponse> notAWildcard = eventService.searchEventsByName("k_s");
+        List<EventSummaryResponse> percent = eventService.searchEventsByName("%");
+
+        // Then - as a wildcard, k_s would match every Rock Show
+        assertThat(underscored).hasSize(4);
+        assertThat(notAWildcard).isEmpty();
+        assertThat(percent).isEmpty();
+    }
+
+    @Test
+    void getEventsPage_ShouldSortAndCountWithoutLoadingEntities() {
+        // When
+        Page<EventSummaryResponse> page = budget.expect("page", 2, () ->
+                eventService.getEventsPage(PageRequest.of(1, 5, Sort.by(Sort.Direction.DESC, "eventDate"))));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(EVENTS);
+        assertThat(page.getContent()).hasSize(5)
+                .isSortedAccordingTo((a, b) -> b.getEventDate().compareTo(a.getEventDate()));
+        assertThat(page.getContent()).allSatisfy(event -> assertThat(event.getCreator()).isNull());
+    }
+
+    @Test
+    void findEventsByCreator_ShouldCheckTheCreatorAndListInTwoStatements() {
+        // When / Then
+        assertThat(budget.expect("by creator", 2, () -> eventService.findEventsByCreator(creator.getId()))).hasSize(EVENTS);
+    }
+}
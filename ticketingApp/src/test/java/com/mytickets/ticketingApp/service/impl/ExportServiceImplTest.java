@@ -0,0 +1,211 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytickets.ticketingApp.exception.TicketingAppException;
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.repository.*;
+import com.mytickets.ticketingApp.util.ExportWriter;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exports;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "app.export.flush-every-rows=7"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ExportServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExportServiceImplTest {
+
+    private static final int TICKETS_PER_EVENT = 20;
+
+    @Autowired
+    private ExportServiceImpl exportService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private final List<Event> events = new ArrayList<>();
+    private LocalDateTime firstSale;
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+
+        User buyer = new User();
+        buyer.setEmail("accounts@example.com");
+        buyer.setFirstName("Acc");
+        buyer.setLastName("Ounts");
+        buyer = userRepository.save(buyer);
+
+        firstSale = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        for (int e = 0; e < 2; e++) {
+            Event event = new Event();
+            event.setName("Export Night, part " + e);
+            event.setDescription("Export test");
+            event.setEventDate(LocalDateTime.now().plusDays(30));
+            event.setEventType(EventType.CONCERT);
+            events.add(eventRepository.save(event));
+
+            for (int t = 0; t < TICKETS_PER_EVENT; t++) {
+                Ticket ticket = new Ticket();
+                ticket.setOriginalPrice(25.0);
+                ticket.setCurrentPrice(25.0);
+                ticket.setEvent(event);
+                ticket.setSeat(String.valueOf(t + 1));
+                if (t % 4 == 0) {
+                    ticket.setOwner(buyer);
+                    ticket.setStatus(TicketStatus.PURCHASED);
+                    ticket = ticketRepository.save(ticket);
+
+                    Transaction transaction = new Transaction();
+                    transaction.setAmount(25.0);
+                    transaction.setBuyer(buyer);
+                    transaction.setTicket(ticket);
+                    transaction.setType(TransactionType.PRIMARY_PURCHASE);
+                    transaction.setStatus(TransactionStatus.COMPLETED);
+                    transaction.setTransactionDate(firstSale.plusHours(e * TICKETS_PER_EVENT + t));
+                    transactionRepository.save(transaction);
+                } else {
+                    ticketRepository.save(ticket);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+        ticketRepository.deleteAllInBatch();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportTickets_ShouldWriteEveryTicketFromASingleQuery() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        double exportedBefore = meterRegistry.get("ticketing.export.rows").tag("dataset", "tickets").counter().count();
+
+        // When
+        long written = budget.expect("ticket export", 1,
+                () -> export(() -> exportService.exportTickets(null, ExportWriter.Format.JSONL, out)));
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2 * TICKETS_PER_EVENT);
+        assertThat(lines).hasSize(2 * TICKETS_PER_EVENT);
+        JsonNode owned = new ObjectMapper().readTree(lines[0]);
+        assertThat(owned.get("ownerEmail").asText()).isEqualTo("accounts@example.com");
+        assertThat(owned.get("eventName").asText()).isEqualTo("Export Night, part 0");
+        assertThat(owned.get("status").asText()).isEqualTo("PURCHASED");
+        assertThat(meterRegistry.get("ticketing.export.rows").tag("dataset", "tickets").counter().count())
+                .isEqualTo(exportedBefore + 2 * TICKETS_PER_EVENT);
+    }
+
+    @Test
+    void exportTickets_ShouldLimitToTheEvent() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = exportService.exportTickets(events.get(1).getId(), ExportWriter.Format.CSV, out);
+
+        // Then - the header plus one line per ticket, with the comma in the name quoted
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(written).isEqualTo(TICKETS_PER_EVENT);
+        assertThat(lines).hasSize(TICKETS_PER_EVENT + 1);
+        assertThat(lines[0]).startsWith("id,ticketNumber,eventId,eventName");
+        assertThat(lines[1]).contains("\"Export Night, part 1\"");
+    }
+
+    @Test
+    void parseFormat_ShouldAcceptNamesAndExtensionsAndRejectTheRest() {
+        // When / Then - every endpoint falls back to the same format
+        assertThat(exportService.parseFormat(ExportWriter.DEFAULT_FORMAT)).isEqualTo(ExportWriter.Format.JSONL);
+        assertThat(exportService.parseFormat("CSV")).isEqualTo(ExportWriter.Format.CSV);
+        assertThatThrownBy(() -> exportService.parseFormat("xlsx")).isInstanceOf(TicketingAppException.class);
+    }
+
+    @Test
+    void exportTransactions_ShouldWriteTheRangeInDateOrder() throws Exception {
+        // Given - only the first event's sales fall in the range
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = budget.expect("transaction export", 1, () -> export(() -> exportService.exportTransactions(
+                firstSale, firstSale.plusHours(TICKETS_PER_EVENT - 1), ExportWriter.Format.CSV, out)));
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(written).isEqualTo(TICKETS_PER_EVENT / 4);
+        assertThat(lines).hasSize(TICKETS_PER_EVENT / 4 + 1);
+        assertThat(lines[1]).contains("PRIMARY_PURCHASE", "COMPLETED", "accounts@example.com");
+        List<String> dates = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            dates.add(lines[i].split(",")[2]);
+        }
+        assertThat(dates).isSorted();
+    }
+
+    private long export(ExportCall call) {
+        try {
+            return call.run();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface ExportCall {
+        long run() throws Exception;
+    }
+}
@@ -0,0 +1,428 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.config.BatchTicketRequest;
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.ScanResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:gate-scan;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        // Most cases scan by ticket number, as the pre-token printouts did
+        "app.qr.accept-unsigned=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({GateScanServiceImpl.class, TicketImportServiceImpl.class, QRCodeServiceImpl.class, InventoryServiceImpl.class,
+        TicketTokenServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GateScanServiceImplTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GateScanServiceImplTest.class);
+
+    @Autowired
+    private GateScanServiceImpl gateScanService;
+
+    @Autowired
+    private TicketImportServiceImpl ticketImportService;
+
+    @Autowired
+    private TicketTokenServiceImpl ticketTokenService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event();
+        event.setName("Arena Night");
+        event.setDescription("Gate scanning test");
+        event.setEventDate(LocalDateTime.now().plusHours(2));
+        event.setTotalTickets(0);
+        event.setAvailableTickets(0);
+        event.setEventType(EventType.CONCERT);
+        event = eventRepository.save(event);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(gateScanService, "acceptUnsigned", true);
+        gateScanService.closeDoors(event.getId());
+        ticketRepository.deleteAllInBatch();
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    void scan_ShouldAdmitEachTicketOnceAndPersistUsedFlagsInBatches() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        Ticket resold = ticket(TicketStatus.RESOLD);
+        Ticket unsold = ticket(TicketStatus.AVAILABLE);
+        gateScanService.openDoors(event.getId());
+
+        // When
+        ScanResponse first = gateScanService.scan(event.getId(), "TICKET:" + sold.getTicketNumber() + "|EVENT:Arena Night|SEAT:GA");
+        ScanResponse repeat = gateScanService.scan(event.getId(), sold.getTicketNumber());
+        ScanResponse secondHand = gateScanService.scan(event.getId(), resold.getTicketNumber());
+        ScanResponse notSold = gateScanService.scan(event.getId(), unsold.getTicketNumber());
+        ScanResponse forged = gateScanService.scan(event.getId(), UUID.randomUUID().toString());
+
+        // Then
+        assertThat(first.isAdmitted()).isTrue();
+        assertThat(first.getTicketId()).isEqualTo(sold.getId());
+        assertThat(repeat.getOutcome()).isEqualTo("ALREADY_USED");
+        assertThat(repeat.getFirstScannedAt()).isNotNull();
+        assertThat(secondHand.isAdmitted()).isTrue();
+        assertThat(notSold.getOutcome()).isEqualTo("NOT_VALID");
+        assertThat(forged.getOutcome()).isEqualTo("UNKNOWN");
+
+        // Nothing written until the batch goes out
+        assertThat(ticketRepository.findById(sold.getId()).orElseThrow().getUsed()).isFalse();
+        assertThat(gateScanService.flush()).isEqualTo(2);
+        Ticket reloaded = ticketRepository.findById(sold.getId()).orElseThrow();
+        assertThat(reloaded.getUsed()).isTrue();
+        assertThat(reloaded.getVersion()).isEqualTo(sold.getVersion() + 1);
+        assertThat(ticketRepository.findById(unsold.getId()).orElseThrow().getUsed()).isFalse();
+    }
+
+    @Test
+    void scan_ShouldPickUpTicketsSoldAfterDoorsOpened() {
+        // Given
+        gateScanService.openDoors(event.getId());
+        Ticket late = ticket(TicketStatus.PURCHASED);
+
+        // When
+        ScanResponse first = gateScanService.scan(event.getId(), late.getTicketNumber());
+        ScanResponse repeat = gateScanService.scan(event.getId(), late.getTicketNumber());
+
+        // Then
+        assertThat(first.isAdmitted()).isTrue();
+        assertThat(repeat.getOutcome()).isEqualTo("ALREADY_USED");
+    }
+
+    @Test
+    void scan_ShouldAdmitTicketsThatWereOnSaleWhenDoorsOpened() {
+        // Given
+        Ticket onSale = ticket(TicketStatus.AVAILABLE);
+        gateScanService.openDoors(event.getId());
+
+        // When - scanned before it is bought, then bought and scanned again
+        ScanResponse beforeSale = gateScanService.scan(event.getId(), onSale.getTicketNumber());
+        onSale.setStatus(TicketStatus.PURCHASED);
+        ticketRepository.save(onSale);
+        ScanResponse afterSale = gateScanService.scan(event.getId(), onSale.getTicketNumber());
+        ScanResponse repeat = gateScanService.scan(event.getId(), onSale.getTicketNumber());
+
+        // Then
+        assertThat(beforeSale.getOutcome()).isEqualTo("NOT_VALID");
+        assertThat(beforeSale.getTicketId()).isEqualTo(onSale.getId());
+        assertThat(afterSale.isAdmitted()).isTrue();
+        assertThat(repeat.getOutcome()).isEqualTo("ALREADY_USED");
+        assertThat(gateScanService.flush()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_ShouldKeepUsedFlagsQueuedWhenTheWriteFails() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        gateScanService.openDoors(event.getId());
+        assertThat(gateScanService.scan(event.getId(), sold.getTicketNumber()).isAdmitted()).isTrue();
+        TransactionTemplate working = (TransactionTemplate) ReflectionTestUtils.getField(gateScanService, "transactionTemplate");
+        TransactionTemplate failing = mock(TransactionTemplate.class);
+        doThrow(new IllegalStateException("database unavailable")).when(failing).executeWithoutResult(any());
+        ReflectionTestUtils.setField(gateScanService, "transactionTemplate", failing);
+
+        // When - the write fails, and the doors are reopened before it has gone out
+        int written = gateScanService.flush();
+        gateScanService.closeDoors(event.getId());
+        gateScanService.openDoors(event.getId());
+        ScanResponse again = gateScanService.scan(event.getId(), sold.getTicketNumber());
+        ReflectionTestUtils.setField(gateScanService, "transactionTemplate", working);
+
+        // Then - nothing lost, and the next run writes it
+        assertThat(written).isZero();
+        assertThat(again.getOutcome()).isEqualTo("ALREADY_USED");
+        assertThat(ticketRepository.findById(sold.getId()).orElseThrow().getUsed()).isFalse();
+        assertThat(gateScanService.flush()).isEqualTo(1);
+        assertThat(ticketRepository.findById(sold.getId()).orElseThrow().getUsed()).isTrue();
+    }
+
+    @Test
+    void scan_ShouldFallBackToConditionalUpdateWhenDoorsAreNotOpen() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+
+        // When
+        ScanResponse first = gateScanService.scan(event.getId(), sold.getTicketNumber());
+        ScanResponse repeat = gateScanService.scan(event.getId(), sold.getTicketNumber());
+
+        // Then - written straight away, nothing left for the batch job
+        assertThat(first.isAdmitted()).isTrue();
+        assertThat(repeat.getOutcome()).isEqualTo("ALREADY_USED");
+        assertThat(ticketRepository.findById(sold.getId()).orElseThrow().getUsed()).isTrue();
+        assertThat(gateScanService.flush()).isZero();
+    }
+
+    @Test
+    void scanBatch_ShouldGiveOneVerdictPerCodeInScanOrder() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        gateScanService.openDoors(event.getId());
+        Ticket late = ticket(TicketStatus.PURCHASED);
+        Event otherEvent = eventRepository.save(copyOf(event));
+        Ticket elsewhere = ticket(TicketStatus.PURCHASED, otherEvent);
+
+        // When
+        List<ScanResponse> results = gateScanService.scanBatch(event.getId(), List.of(
+                sold.getTicketNumber(), late.getTicketNumber(), "TICKET:" + sold.getTicketNumber(),
+                elsewhere.getTicketNumber(), "not-a-ticket", late.getTicketNumber()));
+
+        // Then
+        assertThat(results).extracting(ScanResponse::getOutcome).containsExactly(
+                "ADMITTED", "ADMITTED", "ALREADY_USED", "NOT_VALID", "UNKNOWN", "ALREADY_USED");
+        assertThat(gateScanService.flush()).isEqualTo(2);
+        assertThat(ticketRepository.findById(late.getId()).orElseThrow().getUsed()).isTrue();
+        assertThat(ticketRepository.findById(elsewhere.getId()).orElseThrow().getUsed()).isFalse();
+    }
+
+    @Test
+    void scanBatch_ShouldGiveBlankCodesTheirOwnVerdict() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        gateScanService.openDoors(event.getId());
+
+        // When
+        List<ScanResponse> results = gateScanService.scanBatch(event.getId(),
+                Arrays.asList("", sold.getTicketNumber(), null, "   "));
+
+        // Then - the misreads do not cost the real scan its verdict
+        assertThat(results).extracting(ScanResponse::getOutcome).containsExactly(
+                "UNKNOWN", "ADMITTED", "UNKNOWN", "UNKNOWN");
+        assertThatThrownBy(() -> gateScanService.scan(event.getId(), " "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void scanBatch_ShouldRejectEveryTicketOnceTheEventIsCancelled() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        gateScanService.openDoors(event.getId());
+        event.setStatus(EventStatus.CANCELLED);
+        eventRepository.save(event);
+
+        // When
+        gateScanService.refreshEventStatus();
+        List<ScanResponse> results = gateScanService.scanBatch(event.getId(), List.of(sold.getTicketNumber()));
+
+        // Then
+        assertThat(results).extracting(ScanResponse::getOutcome).containsExactly("EVENT_CANCELLED");
+        assertThat(gateScanService.flush()).isZero();
+    }
+
+    @Test
+    void scan_ShouldTurnAwayForgedAndWrongEventTokensOnTheTokenAlone() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        sold.setSection("Floor");
+        sold.setRow("3");
+        sold.setSeat("18");
+        sold = ticketRepository.save(sold);
+        Event otherEvent = eventRepository.save(copyOf(event));
+        Ticket elsewhere = ticket(TicketStatus.PURCHASED, otherEvent);
+        String token = ticketTokenService.findToken(sold.getId()).orElseThrow();
+        String forgedToken = token.substring(0, token.length() - 1) + (token.endsWith("A") ? "B" : "A");
+        gateScanService.openDoors(event.getId());
+
+        // When
+        List<ScanResponse> results = gateScanService.scanBatch(event.getId(), List.of(
+                token, token, forgedToken, ticketTokenService.findToken(elsewhere.getId()).orElseThrow()));
+
+        // Then
+        assertThat(results).extracting(ScanResponse::getOutcome).containsExactly(
+                "ADMITTED", "ALREADY_USED", "FORGED", "WRONG_EVENT");
+        assertThat(results.get(0).getTicketId()).isEqualTo(sold.getId());
+        assertThat(results.get(0).getSeat()).isEqualTo("Floor/3/18");
+        assertThat(gateScanService.flush()).isEqualTo(1);
+    }
+
+    @Test
+    void scan_ShouldRejectCodesIssuedBeforeAResale() {
+        // Given
+        Ticket ticket = ticket(TicketStatus.PURCHASED);
+        String sellersToken = ticketTokenService.findToken(ticket.getId()).orElseThrow();
+        ticket.setStatus(TicketStatus.RESOLD);
+        ticketTokenService.reissue(ticket);
+        ticket = ticketRepository.save(ticket);
+        String buyersToken = ticketTokenService.findToken(ticket.getId()).orElseThrow();
+
+        // When - the set is rebuilt from the database, as on a node that did not handle the resale
+        int reissued = ticketTokenService.refreshRevocations();
+        ScanResponse seller = gateScanService.scan(event.getId(), sellersToken);
+        ScanResponse sellerUnsigned = gateScanService.scan(event.getId(), "TICKET:" + ticket.getTicketNumber());
+        ScanResponse buyer = gateScanService.scan(event.getId(), buyersToken);
+
+        // Then
+        assertThat(reissued).isEqualTo(1);
+        assertThat(buyersToken).isNotEqualTo(sellersToken);
+        assertThat(seller.getOutcome()).isEqualTo("REVOKED");
+        assertThat(sellerUnsigned.getOutcome()).isEqualTo("REVOKED");
+        assertThat(buyer.isAdmitted()).isTrue();
+        assertThat(buyer.getTicketNumber()).isEqualTo(ticket.getTicketNumber());
+    }
+
+    @Test
+    void scan_ShouldTreatUnsignedCodesAsForgedUnlessAccepted() {
+        // Given
+        Ticket sold = ticket(TicketStatus.PURCHASED);
+        String token = ticketTokenService.findToken(sold.getId()).orElseThrow();
+        gateScanService.openDoors(event.getId());
+        ReflectionTestUtils.setField(gateScanService, "acceptUnsigned", false);
+
+        // When
+        ScanResponse bare = gateScanService.scan(event.getId(), sold.getTicketNumber());
+        ScanResponse legacy = gateScanService.scan(event.getId(), "TICKET:" + sold.getTicketNumber());
+        ScanResponse signed = gateScanService.scan(event.getId(), token);
+
+        // Then - a guessed ticket number gets nobody in, the signed code does
+        assertThat(bare.getOutcome()).isEqualTo("FORGED");
+        assertThat(legacy.getOutcome()).isEqualTo("FORGED");
+        assertThat(signed.isAdmitted()).isTrue();
+    }
+
+    /**
+     * Door rush used to track scan throughput. Run with
+     * {@code mvn test -Dtest=GateScanServiceImplTest -Dbenchmark=true}; each run appends a line
+     * to target/benchmarks/gate-scan.csv.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void scan_Benchmark50kTickets() throws Exception {
+        // Given
+        PricingTier tier = new PricingTier();
+        tier.setName("Floor");
+        tier.setPrice(60.0);
+        tier.setQuantity(0);
+        tier.setAvailable(0);
+        tier.setEvent(event);
+        tier = pricingTierRepository.save(tier);
+        int tickets = 50_000;
+        List<String> ticketNumbers = new ArrayList<>();
+        ticketImportService.importTickets(event.getId(), tier.getId(),
+                Collections.nCopies(tickets, new BatchTicketRequest.TicketInfo()), false,
+                progress -> ticketNumbers.addAll(progress.getChunkTicketNumbers()));
+        jdbcTemplate.update("UPDATE tickets SET status = 'PURCHASED'");
+        Collections.shuffle(ticketNumbers);
+
+        // When
+        long openStarted = System.nanoTime();
+        gateScanService.openDoors(event.getId());
+        long openMs = (System.nanoTime() - openStarted) / 1_000_000;
+
+        long scanStarted = System.nanoTime();
+        int admitted = 0;
+        for (String ticketNumber : ticketNumbers) {
+            if (gateScanService.scan(event.getId(), "TICKET:" + ticketNumber).isAdmitted()) {
+                admitted++;
+            }
+        }
+        long scanNanos = System.nanoTime() - scanStarted;
+
+        long flushStarted = System.nanoTime();
+        int written = gateScanService.flush();
+        long flushMs = (System.nanoTime() - flushStarted) / 1_000_000;
+
+        // Then
+        assertThat(admitted).isEqualTo(tickets);
+        assertThat(written).isEqualTo(tickets);
+        double scansPerSecond = tickets * 1_000_000_000.0 / scanNanos;
+        logger.info("Opened doors in {} ms, scanned {} tickets at {} scans/s, wrote used flags in {} ms",
+                openMs, tickets, Math.round(scansPerSecond), flushMs);
+
+        Path report = Path.of("target", "benchmarks", "gate-scan.csv");
+        Files.createDirectories(report.getParent());
+        if (!Files.exists(report)) {
+            Files.writeString(report, "timestamp,tickets,open_ms,scans_per_second,flush_ms\n");
+        }
+        Files.writeString(report, String.format("%s,%d,%d,%.0f,%d%n", LocalDateTime.now(), tickets, openMs,
+                scansPerSecond, flushMs), StandardOpenOption.APPEND);
+    }
+
+    private Ticket ticket(TicketStatus status) {
+        return ticket(status, event);
+    }
+
+    private Ticket ticket(TicketStatus status, Event forEvent) {
+        Ticket ticket = new Ticket();
+        ticket.setOriginalPrice(40.0);
+        ticket.setCurrentPrice(40.0);
+        ticket.setStatus(status);
+        ticket.setEvent(forEvent);
+        return ticketRepository.save(ticket);
+    }
+
+    private static Event copyOf(Event source) {
+        Event copy = new Event();
+        copy.setName(source.getName() + " (late show)");
+        copy.setDescription(source.getDescription());
+        copy.setEventDate(source.getEventDate().plusHours(3));
+        copy.setTotalTickets(0);
+        copy.setAvailableTickets(0);
+        copy.setEventType(source.getEventType());
+        return copy;
+    }
+}
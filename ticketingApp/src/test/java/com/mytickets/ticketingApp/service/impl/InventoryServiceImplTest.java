@@ -0,0 +1,191 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({InventoryServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InventoryServiceImplTest {
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Event event;
+    private PricingTier tier;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event();
+        event.setName("Inventory Night");
+        event.setDescription("Counters under test");
+        event.setEventDate(LocalDateTime.now().plusDays(20));
+        event.setEventType(EventType.CONCERT);
+        event.setTotalTickets(3);
+        event.setAvailableTickets(3);
+        event = eventRepository.save(event);
+
+        tier = new PricingTier();
+        tier.setName("Standard");
+        tier.setPrice(40.0);
+        tier.setQuantity(3);
+        tier.setAvailable(3);
+        tier.setEvent(event);
+        tier = pricingTierRepository.save(tier);
+
+        for (int i = 0; i < 3; i++) {
+            ticket();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(inventoryService, "eventRepository", eventRepository);
+        inventoryService.flush();
+        ticketRepository.deleteAll();
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    void flush_ShouldWriteSoldUnitsBackClampedAtZero() {
+        // Given - the columns already lag the ticket rows, as after a manual edit
+        event.setAvailableTickets(2);
+        event = eventRepository.save(event);
+        tier.setAvailable(1);
+        tier = pricingTierRepository.save(tier);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThat(inventoryService.reserve(event.getId(), tier.getId())).isTrue();
+        }
+        int written = inventoryService.flush();
+
+        // Then - sold out in memory, and neither column driven below zero
+        assertThat(inventoryService.reserve(event.getId(), tier.getId())).isFalse();
+        assertThat(written).isEqualTo(3);
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getAvailableTickets()).isZero();
+        assertThat(pricingTierRepository.findById(tier.getId()).orElseThrow().getAvailable()).isZero();
+        assertThat(inventoryService.flush()).isZero();
+    }
+
+    @Test
+    void flush_ShouldKeepUnitsForTheNextRunWhenTheWriteFails() {
+        // Given
+        EventRepository failing = mock(EventRepository.class);
+        when(failing.subtractAvailableTickets(anyLong(), anyInt())).thenThrow(new IllegalStateException("Database unavailable"));
+        inventoryService.reserve(event.getId(), null);
+        inventoryService.reserve(event.getId(), null);
+
+        // When
+        ReflectionTestUtils.setField(inventoryService, "eventRepository", failing);
+        int failed = inventoryService.flush();
+        ReflectionTestUtils.setField(inventoryService, "eventRepository", eventRepository);
+
+        // Then - still pending, and written on the next run
+        assertThat(failed).isZero();
+        assertThat(inventoryService.getDrift(event.getId())).containsEntry("pendingFlush", 2L);
+        assertThat(inventoryService.flush()).isEqualTo(2);
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getAvailableTickets()).isEqualTo(1);
+        assertThat(inventoryService.getDrift(event.getId())).containsEntry("pendingFlush", 0L);
+    }
+
+    @Test
+    void getDrift_ShouldReportRowsTheCounterMissedUntilARebuild() {
+        // Given - counter loaded, then a ticket row added behind its back
+        assertThat(inventoryService.getAvailableTickets(event.getId())).isEqualTo(3);
+        ticket();
+
+        // When
+        Map<String, Object> before = inventoryService.getDrift(event.getId());
+        inventoryService.rebuild();
+        Map<String, Object> after = inventoryService.getDrift(event.getId());
+
+        // Then
+        assertThat(before).containsEntry("cachedAvailable", 3L)
+                .containsEntry("availableTicketRows", 4L)
+                .containsEntry("counterDrift", 1L)
+                .containsEntry("persistedAvailable", 3)
+                .containsEntry("columnDrift", 0L);
+        assertThat(after).containsEntry("cachedAvailable", 4L).containsEntry("counterDrift", 0L);
+        assertThat(inventoryService.getAvailableInTier(event.getId(), tier.getId())).isEqualTo(4);
+        assertThat(inventoryService.getDriftReport()).extracting(drift -> drift.get("eventId")).contains(event.getId());
+    }
+
+    @Test
+    void reserve_ShouldNotReleaseIntoCountersReloadedWhileInFlight() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertThat(inventoryService.getAvailableTickets(event.getId())).isEqualTo(3);
+
+        // When - the counters are reloaded from the ticket rows before the checkout rolls back
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(inventoryService.reserve(event.getId(), tier.getId())).isTrue();
+            inventoryService.rebuild();
+            status.setRollbackOnly();
+        });
+
+        // Then - the reloaded figures already include the unsold ticket
+        assertThat(inventoryService.getAvailableTickets(event.getId())).isEqualTo(3);
+        assertThat(inventoryService.getAvailableInTier(event.getId(), tier.getId())).isEqualTo(3);
+    }
+
+    private Ticket ticket() {
+        Ticket ticket = new Ticket();
+        ticket.setOriginalPrice(40.0);
+        ticket.setCurrentPrice(40.0);
+        ticket.setEvent(event);
+        ticket.setPricingTier(tier);
+        return ticketRepository.save(ticket);
+    }
+}
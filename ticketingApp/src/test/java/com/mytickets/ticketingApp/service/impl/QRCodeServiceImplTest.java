@@ -0,0 +1,104 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QRCodeServiceImplTest {
+
+    private QRCodeServiceImpl qrCodeService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        qrCodeService = new QRCodeServiceImpl();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(qrCodeService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(qrCodeService, "renderThreads", 3);
+        ReflectionTestUtils.setField(qrCodeService, "renderQueueCapacity", 4);
+        ReflectionTestUtils.setField(qrCodeService, "defaultTicketQRCodeSize", 250);
+        ReflectionTestUtils.setField(qrCodeService, "maxTicketQRCodeSize", 1024);
+        ReflectionTestUtils.setField(qrCodeService, "cacheMaxBytes", 1_048_576L);
+        qrCodeService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        qrCodeService.shutdown();
+    }
+
+    @Test
+    void prerenderTicketQRCodes_ShouldCacheEveryCode() throws Exception {
+        // Given - more slices than the queue holds, so some run on the calling thread
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.add("TICKET:" + i);
+        }
+
+        // When
+        qrCodeService.prerenderTicketQRCodes(tokens, 100).join();
+
+        // Then
+        for (int i = 0; i < tokens.size(); i += 7) {
+            byte[] png = qrCodeService.getTicketQRCodePng(tokens.get(i), 100);
+            assertThat(qrCodeService.getTicketQRCodePng(tokens.get(i), 100)).isSameAs(png);
+            assertThat(qrCodeService.readQRCode(ImageIO.read(new ByteArrayInputStream(png)))).isEqualTo(tokens.get(i));
+        }
+    }
+
+    @Test
+    void prerenderTicketQRCodes_ShouldSkipCodesThatFailToRender() {
+        // Given - far beyond the capacity of any QR code version
+        List<String> tokens = List.of("TICKET:1", "X".repeat(10_000), "TICKET:3");
+
+        // When
+        qrCodeService.prerenderTicketQRCodes(tokens, 100).join();
+
+        // Then
+        assertThat(meterRegistry.get("ticketing.qrcode.render.failures").counter().count()).isEqualTo(1);
+        assertThat(qrCodeService.getTicketQRCodePng("TICKET:3", 100)).isNotEmpty();
+    }
+
+    @Test
+    void getTicketQRCodePng_ShouldRenderOnceAndServeFromCache() throws Exception {
+        // Given
+        qrCodeService.prerenderTicketQRCodes(List.of("A-1", "A-2"), 250).join();
+
+        // When
+        byte[] first = qrCodeService.getTicketQRCodePng("A-1", 250);
+        byte[] second = qrCodeService.getTicketQRCodePng("A-1", 250);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(qrCodeService.readQRCode(ImageIO.read(new ByteArrayInputStream(first)))).isEqualTo("A-1");
+        assertThat(ImageIO.read(new ByteArrayInputStream(qrCodeService.getTicketQRCodePng("A-1", 400))).getWidth())
+                .isEqualTo(400);
+    }
+
+    @Test
+    void getTicketQRCodeETag_ShouldBeStrongAndDependOnTicketAndSize() {
+        String eTag = qrCodeService.getTicketQRCodeETag("A-1", 250);
+
+        assertThat(eTag).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+        assertThat(qrCodeService.getTicketQRCodeETag("A-1", 250)).isEqualTo(eTag);
+        assertThat(qrCodeService.getTicketQRCodeETag("A-1", 400)).isNotEqualTo(eTag);
+        assertThat(qrCodeService.getTicketQRCodeETag("A-2", 250)).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void normalizeTicketQRCodeSize_ShouldClampToSupportedRange() {
+        assertThat(qrCodeService.normalizeTicketQRCodeSize(null)).isEqualTo(250);
+        assertThat(qrCodeService.normalizeTicketQRCodeSize(1)).isEqualTo(64);
+        assertThat(qrCodeService.normalizeTicketQRCodeSize(300)).isEqualTo(300);
+        assertThat(qrCodeService.normalizeTicketQRCodeSize(100_000)).isEqualTo(1024);
+    }
+}
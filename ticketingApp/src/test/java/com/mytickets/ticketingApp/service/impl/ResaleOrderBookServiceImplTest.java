@@ -0,0 +1,241 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.ListingSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.OrderBookResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.TicketListingRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import com.mytickets.ticketingApp.repository.TransactionRepository;
+import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.service.EmailService;
+import com.mytickets.ticketingApp.service.StripeService;
+import com.mytickets.ticketingApp.service.TicketService;
+import com.mytickets.ticketingApp.service.WaitingRoomService;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:resale-book;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ResaleOrderBookServiceImpl.class, TicketListingServiceImpl.class, SeatHoldServiceImpl.class,
+        TicketTokenServiceImpl.class, UserBalanceServiceImpl.class, AvailabilityStreamServiceImpl.class,
+        InventoryServiceImpl.class, TransactionServiceImpl.class, JacksonAutoConfiguration.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ResaleOrderBookServiceImplTest {
+
+    @Autowired
+    private ResaleOrderBookServiceImpl resaleOrderBookService;
+
+    @Autowired
+    private TicketListingServiceImpl ticketListingService;
+
+    @Autowired
+    private SeatHoldServiceImpl seatHoldService;
+
+    @Autowired
+    private TransactionServiceImpl transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TicketListingRepository ticketListingRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Collaborators of the checkout that a resale completion never reaches
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private StripeService stripeService;
+
+    @MockitoBean
+    private TicketService ticketService;
+
+    @MockitoBean
+    private WaitingRoomService waitingRoomService;
+
+    private StatementBudget budget;
+    private Event event;
+    private User seller;
+    private User buyer;
+    private final List<Long> listingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+        seller = userRepository.save(user("seller@example.com", "Sally", "Seller"));
+        buyer = userRepository.save(user("buyer@example.com", "Bob", "Buyer"));
+
+        event = new Event();
+        event.setName("Resale Night");
+        event.setDescription("A sold-out show with a busy resale market");
+        event.setEventDate(LocalDateTime.now().plusDays(10));
+        event.setEventType(EventType.CONCERT);
+        event.setTotalTickets(100);
+        event.setAvailableTickets(0);
+        event = eventRepository.save(event);
+
+        // Listed before the books are built, so the first read loads them
+        for (double price : new double[] {60.0, 35.0, 45.0}) {
+            listingIds.add(ticketListingService.createListing(listing(price), ticket().getId(), seller.getId()).getId());
+        }
+        resaleOrderBookService.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+        ticketListingRepository.deleteAll();
+        ticketRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+        listingIds.clear();
+    }
+
+    @Test
+    void reads_ShouldBeServedFromTheBookWithoutQuerying() {
+        // When
+        List<ListingSummaryResponse> cheapest = budget.expect("cheapest", 0,
+                () -> resaleOrderBookService.getCheapestListings(event.getId(), 10));
+        OrderBookResponse book = budget.expect("book", 0,
+                () -> resaleOrderBookService.getOrderBook(event.getId(), 10, 20.0));
+        Long count = budget.expect("count", 0, () -> ticketListingService.countActiveListingsByEvent(event.getId()));
+
+        // Then
+        assertThat(cheapest).extracting(ListingSummaryResponse::getAskingPrice).containsExactly(35.0, 45.0, 60.0);
+        assertThat(cheapest.get(0).getSellerLastName()).isEqualTo("Seller");
+        assertThat(cheapest.get(0).getTicketNumber()).isNotNull();
+        assertThat(book.getBestPrice()).isEqualTo(35.0);
+        assertThat(book.getDepth()).hasSize(3);
+        assertThat(book.getHistogram()).extracting(level -> level.getCount()).containsExactly(1, 1, 1);
+        assertThat(count).isEqualTo(3);
+        assertThat(resaleOrderBookService.countListings(-1L)).isZero();
+    }
+
+    @Test
+    void listingWrites_ShouldUpdateTheBookAfterCommit() {
+        // Given
+        TicketListing cheaper = new TicketListing();
+        cheaper.setAskingPrice(30.0);
+
+        // When - reprice the dearest, cancel one and sell another
+        ticketListingService.updateListing(listingIds.get(0), cheaper);
+        ticketListingService.cancelListing(listingIds.get(1));
+        ticketListingService.purchaseListing(listingIds.get(2), buyer.getId());
+        ticketListingService.createListing(listing(50.0), ticket().getId(), seller.getId());
+
+        // Then
+        assertThat(resaleOrderBookService.getCheapestListings(event.getId(), 10))
+                .extracting(ListingSummaryResponse::getAskingPrice).containsExactly(30.0, 50.0);
+        assertThat(resaleOrderBookService.countListings(event.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void completeListingPurchase_ShouldTakeThePaidListingOutOfTheBook() {
+        // Given - a checkout for the cheapest listing
+        Long ticketId = ticketListingRepository.findById(listingIds.get(1)).orElseThrow().getTicket().getId();
+        Transaction transaction = new Transaction();
+        transaction.setAmount(35.0);
+        transaction.setType(TransactionType.SECONDARY_PURCHASE);
+        transaction.setBuyer(buyer);
+        transaction.setSeller(seller);
+        transaction.setTicket(ticketRepository.findById(ticketId).orElseThrow());
+        Long transactionId = transactionRepository.save(transaction).getId();
+
+        // When - the buyer's payment goes through, loaded inside its transaction as processPayment does
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                transactionService.completeListingPurchase(transactionRepository.findById(transactionId).orElseThrow()));
+
+        // Then
+        assertThat(resaleOrderBookService.getCheapestListings(event.getId(), 10))
+                .extracting(ListingSummaryResponse::getAskingPrice).containsExactly(45.0, 60.0);
+        assertThat(resaleOrderBookService.getOrderBook(event.getId(), 10, null).getBestPrice()).isEqualTo(45.0);
+        assertThat(resaleOrderBookService.countListings(event.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void getCheapestListings_ShouldLeaveOutListingsInACheckout() {
+        // Given
+        seatHoldService.holdListing(listingIds.get(1), buyer.getId(), null);
+
+        // When
+        List<ListingSummaryResponse> offered = resaleOrderBookService.getCheapestListings(event.getId(), 10);
+
+        // Then - still counted, as it is still listed
+        assertThat(offered).extracting(ListingSummaryResponse::getAskingPrice).containsExactly(45.0, 60.0);
+        assertThat(resaleOrderBookService.countListings(event.getId())).isEqualTo(3);
+    }
+
+    private Ticket ticket() {
+        Ticket ticket = new Ticket();
+        ticket.setOriginalPrice(80.0);
+        ticket.setCurrentPrice(80.0);
+        ticket.setEvent(event);
+        ticket.setOwner(seller);
+        ticket.setStatus(TicketStatus.PURCHASED);
+        return ticketRepository.save(ticket);
+    }
+
+    private static TicketListing listing(double price) {
+        TicketListing listing = new TicketListing();
+        listing.setAskingPrice(price);
+        return listing;
+    }
+
+    private static User user(String email, String firstName, String lastName) {
+        User user = new User();
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return user;
+    }
+}
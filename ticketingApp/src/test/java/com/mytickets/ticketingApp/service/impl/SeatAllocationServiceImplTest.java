@@ -0,0 +1,160 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.SeatAllocationResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seat-allocation;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SeatAllocationServiceImpl.class, SeatHoldServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SeatAllocationServiceImplTest {
+
+    @Autowired
+    private SeatAllocationServiceImpl seatAllocationService;
+
+    @Autowired
+    private SeatHoldServiceImpl seatHoldService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @AfterEach
+    void cleanUp() {
+        ticketRepository.deleteAllInBatch();
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    void allocateBestAvailable_ShouldHoldTheBlockAndSkipSeatsHeldElsewhere() {
+        // Given - one row of 9 seats, the middle one already held by a buyer who picked it from the list
+        PricingTier tier = createEventWithTier();
+        Map<String, Long> ids = createRow(tier, "A", 9);
+        seatHoldService.holdTicket(ids.get("5"), 99L, null);
+
+        // When
+        SeatAllocationResponse first = seatAllocationService.allocateBestAvailable(tier.getId(), null, 3, 1L);
+        SeatAllocationResponse second = seatAllocationService.allocateBestAvailable(tier.getId(), "A-section", 3, 2L);
+
+        // Then - both blocks are clear of seat 5 and held for their buyers
+        assertThat(first.getRow()).isEqualTo("A");
+        assertThat(first.getSeats()).doesNotContain("5").hasSize(3);
+        assertThat(second.getSeats()).doesNotContain("5").doesNotContainAnyElementsOf(first.getSeats());
+        assertThat(first.getTicketIds()).allSatisfy(id -> assertThat(seatHoldService.isTicketHeldByOther(id, 2L)).isTrue());
+        assertThat(second.getHoldExpiresAt()).isAfter(LocalDateTime.now());
+        assertThatThrownBy(() -> seatAllocationService.allocateBestAvailable(tier.getId(), null, 3, 3L))
+                .isInstanceOf(TicketUnavailableException.class);
+    }
+
+    @Test
+    void release_ShouldReturnOnlyTheBuyersOwnSeats() {
+        // Given
+        PricingTier tier = createEventWithTier();
+        createRow(tier, "A", 4);
+        SeatAllocationResponse block = seatAllocationService.allocateBestAvailable(tier.getId(), null, 4, 1L);
+
+        // When
+        seatAllocationService.release(tier.getId(), block.getTicketIds(), 2L);
+        int afterOtherBuyer = seatAllocationService.getAvailability(tier.getId()).get("A-section").get("A");
+        seatAllocationService.release(tier.getId(), block.getTicketIds(), 1L);
+
+        // Then
+        assertThat(afterOtherBuyer).isZero();
+        assertThat(seatAllocationService.getAvailability(tier.getId()).get("A-section").get("A")).isEqualTo(4);
+        assertThat(block.getTicketIds()).noneSatisfy(id -> assertThat(seatHoldService.isTicketHeld(id)).isTrue());
+    }
+
+    @Test
+    void rebuildSeatMaps_ShouldDropSeatsSoldSinceTheMapWasBuilt() {
+        // Given
+        PricingTier tier = createEventWithTier();
+        Map<String, Long> ids = createRow(tier, "A", 3);
+        assertThat(seatAllocationService.getAvailability(tier.getId()).get("A-section").get("A")).isEqualTo(3);
+        Ticket sold = ticketRepository.findById(ids.get("2")).orElseThrow();
+        sold.setStatus(TicketStatus.PURCHASED);
+        ticketRepository.save(sold);
+
+        // When
+        int rebuilt = seatAllocationService.rebuildSeatMaps();
+
+        // Then
+        assertThat(rebuilt).isPositive();
+        assertThat(seatAllocationService.getAvailability(tier.getId()).get("A-section").get("A")).isEqualTo(2);
+        assertThatThrownBy(() -> seatAllocationService.allocateBestAvailable(tier.getId(), null, 2, 1L))
+                .isInstanceOf(TicketUnavailableException.class);
+    }
+
+    private Map<String, Long> createRow(PricingTier tier, String row, int seats) {
+        Map<String, Long> ids = new HashMap<>();
+        for (int seat = 1; seat <= seats; seat++) {
+            Ticket ticket = new Ticket();
+            ticket.setOriginalPrice(40.0);
+            ticket.setCurrentPrice(40.0);
+            ticket.setEvent(tier.getEvent());
+            ticket.setPricingTier(tier);
+            ticket.setSection("A-section");
+            ticket.setRow(row);
+            ticket.setSeat(String.valueOf(seat));
+            ids.put(String.valueOf(seat), ticketRepository.save(ticket).getId());
+        }
+        return ids;
+    }
+
+    private PricingTier createEventWithTier() {
+        Event event = new Event();
+        event.setName("Theatre Night");
+        event.setDescription("Seat allocation test");
+        event.setEventDate(LocalDateTime.now().plusDays(14));
+        event.setTotalTickets(0);
+        event.setAvailableTickets(0);
+        event.setEventType(EventType.THEATER);
+        event = eventRepository.save(event);
+
+        PricingTier tier = new PricingTier();
+        tier.setName("Stalls");
+        tier.setPrice(40.0);
+        tier.setQuantity(0);
+        tier.setAvailable(0);
+        tier.setEvent(event);
+        return pricingTierRepository.save(tier);
+    }
+}
@@ -0,0 +1,167 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import com.mytickets.ticketingApp.model.Transaction;
+import com.mytickets.ticketingApp.model.TransactionStatus;
+import com.mytickets.ticketingApp.model.TransactionType;
+import com.mytickets.ticketingApp.repository.TransactionRepository;
+import com.mytickets.ticketingApp.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seat-holds;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SeatHoldServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SeatHoldServiceImplTest {
+
+    private static final long BUYER = 1L;
+    private static final long OTHER_BUYER = 2L;
+
+    @Autowired
+    private SeatHoldServiceImpl seatHoldService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(seatHoldService, "ttlSeconds", 600L);
+        for (long id = 1; id <= 10; id++) {
+            seatHoldService.releaseTicket(id);
+            seatHoldService.releaseListing(id);
+        }
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void holdTicket_ShouldKeepTheSeatForItsBuyerUntilReleased() {
+        // Given
+        seatHoldService.holdTicket(1L, BUYER, null);
+
+        // When / Then - the holder may restart checkout, anyone else is turned away
+        assertThat(seatHoldService.isTicketHeld(1L)).isTrue();
+        assertThat(seatHoldService.isTicketHeldByOther(1L, BUYER)).isFalse();
+        assertThat(seatHoldService.isTicketHeldByOther(1L, OTHER_BUYER)).isTrue();
+        assertThat(seatHoldService.holdTicket(1L, BUYER, null)).isEqualTo(seatHoldService.getTicketHoldExpiry(1L).orElseThrow());
+        assertThatThrownBy(() -> seatHoldService.holdTicket(1L, OTHER_BUYER, null))
+                .isInstanceOf(TicketUnavailableException.class);
+
+        // When
+        seatHoldService.releaseTicket(1L);
+
+        // Then
+        assertThat(seatHoldService.isTicketHeld(1L)).isFalse();
+        assertThat(seatHoldService.getTicketHoldExpiry(1L)).isEmpty();
+        seatHoldService.holdTicket(1L, OTHER_BUYER, null);
+        assertThat(seatHoldService.isTicketHeldByOther(1L, BUYER)).isTrue();
+    }
+
+    @Test
+    void holdListing_ShouldBeDroppedWhenTheCheckoutRollsBack() {
+        // Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            seatHoldService.holdListing(2L, BUYER, null);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> seatHoldService.holdListing(3L, BUYER, null));
+
+        // Then
+        assertThat(seatHoldService.isListingHeld(2L)).isFalse();
+        assertThat(seatHoldService.isListingHeldByOther(3L, OTHER_BUYER)).isTrue();
+        assertThat(seatHoldService.getActiveHoldCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expireHolds_ShouldFailPendingTransactionsInBatches() {
+        // Given - more lapsed checkouts than fit in one update, and one that was paid in time
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            transactions.add(transaction(TransactionStatus.PENDING));
+        }
+        transactions.add(transaction(TransactionStatus.COMPLETED));
+        transactions = transactionRepository.saveAll(transactions);
+
+        // Holds that run out at once
+        ReflectionTestUtils.setField(seatHoldService, "ttlSeconds", 0L);
+        for (int i = 0; i < transactions.size(); i++) {
+            seatHoldService.holdTicket(1000L + i, BUYER, transactions.get(i).getId());
+        }
+
+        // When
+        int expired = seatHoldService.expireHolds();
+
+        // Then
+        assertThat(expired).isEqualTo(1201);
+        assertThat(seatHoldService.getActiveHoldCount()).isZero();
+        assertThat(seatHoldService.isTicketHeld(1000L)).isFalse();
+        assertThat(transactionRepository.findAll()).extracting(Transaction::getStatus)
+                .containsOnly(TransactionStatus.FAILED, TransactionStatus.COMPLETED)
+                .filteredOn(status -> status == TransactionStatus.FAILED).hasSize(1200);
+        assertThat(seatHoldService.expireHolds()).isZero();
+    }
+
+    @Test
+    void expireHolds_ShouldKeepHoldsThatComeOutOfTheWheelEarly() {
+        // Given - a coarse wheel, so a hold one second out falls due with the current tick
+        Object wheel = ReflectionTestUtils.getField(seatHoldService, "wheel");
+        ReflectionTestUtils.setField(seatHoldService, "wheel",
+                new HierarchicalTimingWheel<>(60_000, 64, 3, System.currentTimeMillis()));
+        Transaction pending = transactionRepository.save(transaction(TransactionStatus.PENDING));
+        ReflectionTestUtils.setField(seatHoldService, "ttlSeconds", 1L);
+        seatHoldService.holdTicket(4L, BUYER, pending.getId());
+
+        // When
+        int expired = seatHoldService.expireHolds();
+        ReflectionTestUtils.setField(seatHoldService, "wheel", wheel);
+
+        // Then - still held, and the checkout still open
+        assertThat(expired).isZero();
+        assertThat(seatHoldService.isTicketHeld(4L)).isTrue();
+        assertThat(transactionRepository.findById(pending.getId()).orElseThrow().getStatus())
+                .isEqualTo(TransactionStatus.PENDING);
+    }
+
+    private static Transaction transaction(TransactionStatus status) {
+        Transaction transaction = new Transaction();
+        transaction.setAmount(50.0);
+        transaction.setType(TransactionType.PRIMARY_PURCHASE);
+        transaction.setStatus(status);
+        return transaction;
+    }
+}
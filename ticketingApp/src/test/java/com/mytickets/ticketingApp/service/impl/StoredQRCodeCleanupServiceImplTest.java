@@ -0,0 +1,130 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.Event;
+import com.mytickets.ticketingApp.model.EventType;
+import com.mytickets.ticketingApp.model.Ticket;
+import com.mytickets.ticketingApp.model.TicketStatus;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:qrcode-cleanup;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "app.qrcode.cleanup.batch-size=4"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({StoredQRCodeCleanupServiceImpl.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StoredQRCodeCleanupServiceImplTest {
+
+    @Autowired
+    private StoredQRCodeCleanupServiceImpl cleanupService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        event = new Event();
+        event.setName("Legacy Show");
+        event.setDescription("Tickets created before on-demand QR codes");
+        event.setEventDate(LocalDateTime.now().plusDays(30));
+        event.setTotalTickets(0);
+        event.setAvailableTickets(0);
+        event.setEventType(EventType.CONCERT);
+        event = eventRepository.save(event);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ticketRepository.deleteAllInBatch();
+        eventRepository.deleteAll();
+        cleanupService.restart();
+    }
+
+    @Test
+    void clearNextBatch_ShouldWorkThroughStoredImagesInBatches() {
+        // Given - 10 tickets with a stored image and 3 without
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 13; i++) {
+            tickets.add(ticket(i < 10 ? "iVBORw0KGgo" + i : null));
+        }
+        ticketRepository.saveAll(tickets);
+
+        // When
+        List<Integer> batches = new ArrayList<>();
+        int count;
+        while ((count = cleanupService.clearNextBatch()) > 0) {
+            batches.add(count);
+        }
+
+        // Then
+        assertThat(batches).containsExactly(4, 4, 2);
+        assertThat(ticketRepository.findAll()).allSatisfy(ticket -> {
+            assertThat(ticket.getQrCodeUrl()).isNull();
+            assertThat(ticket.getVersion()).isZero();
+        });
+        assertThat(cleanupService.getStatus())
+                .containsEntry("cleared", 10L)
+                .containsEntry("finished", true);
+    }
+
+    @Test
+    void restart_ShouldPickUpOnlyImagesThatAreStillStored() {
+        // Given - the first pass has finished
+        ticketRepository.saveAll(List.of(ticket("stored"), ticket("stored")));
+        cleanupService.sweep();
+        assertThat(cleanupService.clearNextBatch()).isZero();
+
+        // When - a row with an image reappears and the job is restarted
+        ticketRepository.save(ticket("restored"));
+        cleanupService.restart();
+
+        // Then
+        assertThat(cleanupService.clearNextBatch()).isEqualTo(1);
+        assertThat(cleanupService.clearNextBatch()).isZero();
+    }
+
+    private Ticket ticket(String qrCodeUrl) {
+        Ticket ticket = new Ticket();
+        ticket.setTicketNumber(UUID.randomUUID().toString());
+        ticket.setOriginalPrice(50.0);
+        ticket.setCurrentPrice(50.0);
+        ticket.setStatus(TicketStatus.AVAILABLE);
+        ticket.setQrCodeUrl(qrCodeUrl);
+        ticket.setEvent(event);
+        return ticket;
+    }
+}
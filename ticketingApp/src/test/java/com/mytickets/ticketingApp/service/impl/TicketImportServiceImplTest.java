@@ -0,0 +1,217 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.config.BatchTicketRequest;
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.request.TicketImportRequest;
+import com.mytickets.ticketingApp.payload.response.TicketImportProgress;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.PricingTierRepository;
+import com.mytickets.ticketingApp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticket-import;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "app.ticket.import.chunk-size=1000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TicketImportServiceImpl.class, QRCodeServiceImpl.class, InventoryServiceImpl.class, TicketTokenServiceImpl.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketImportServiceImplTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketImportServiceImplTest.class);
+
+    @Autowired
+    private TicketImportServiceImpl ticketImportService;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private QRCodeServiceImpl qrCodeService;
+
+    @Autowired
+    private TicketTokenServiceImpl ticketTokenService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @AfterEach
+    void cleanUp() {
+        ticketRepository.deleteAllInBatch();
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    void importTickets_ShouldCommitInChunksAndKeepCountsInStep() {
+        // Given
+        PricingTier tier = createEventWithTier();
+        Long eventId = tier.getEvent().getId();
+        TicketImportRequest request = request(eventId, tier.getId(), 5, 10, 20, 500);
+        List<TicketImportProgress> updates = new ArrayList<>();
+
+        // When
+        TicketImportProgress result = ticketImportService.importTickets(eventId, tier.getId(),
+                ticketImportService.expandSeats(request), false,
+                progress -> updates.add(copyOf(progress)));
+
+        // Then - 5 sections x 10 rows x 20 seats plus 500 general admission, in chunks of 1000
+        assertThat(result.isDone()).isTrue();
+        assertThat(result.getImported()).isEqualTo(1500);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(updates).extracting(TicketImportProgress::getImported).containsExactly(1000, 1500, 1500);
+
+        assertThat(ticketRepository.countByEventIdAndStatus(eventId, TicketStatus.AVAILABLE)).isEqualTo(1500);
+        assertThat(ticketRepository.findByTicketNumberIn(updates.get(0).getChunkTicketNumbers())).hasSize(1000)
+                .allSatisfy(ticket -> assertThat(ticket.getVersion()).isZero());
+
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        assertThat(event.getTotalTickets()).isEqualTo(1500);
+        assertThat(event.getAvailableTickets()).isEqualTo(1500);
+        PricingTier reloaded = pricingTierRepository.findById(tier.getId()).orElseThrow();
+        assertThat(reloaded.getQuantity()).isEqualTo(1500);
+        assertThat(reloaded.getAvailable()).isEqualTo(1500);
+        assertThat(inventoryService.getAvailableInTier(eventId, tier.getId())).isEqualTo(1500);
+    }
+
+    @Test
+    void importTickets_ShouldLeaveQrCodesOutOfTheTicketRows() throws IOException {
+        // Given - spans several chunks, each warming the QR cache after it commits
+        PricingTier tier = createEventWithTier();
+        Long eventId = tier.getEvent().getId();
+        List<String> ticketNumbers = new ArrayList<>();
+
+        // When
+        TicketImportProgress result = ticketImportService.importTickets(eventId, tier.getId(),
+                ticketImportService.expandSeats(request(eventId, tier.getId(), 1, 5, 300, 0)), true,
+                progress -> ticketNumbers.addAll(progress.getChunkTicketNumbers()));
+
+        // Then
+        assertThat(result.getImported()).isEqualTo(1500);
+        assertThat(ticketRepository.findByTicketNumberIn(ticketNumbers.subList(0, 200)))
+                .allSatisfy(ticket -> assertThat(ticket.getQrCodeUrl()).isNull());
+
+        Ticket last = ticketRepository.findByTicketNumber(ticketNumbers.get(1499)).orElseThrow();
+        String token = ticketTokenService.findToken(last.getId()).orElseThrow();
+        byte[] png = qrCodeService.getTicketQRCodePng(token, 250);
+        assertThat(qrCodeService.readQRCode(ImageIO.read(new ByteArrayInputStream(png)))).isEqualTo(token);
+        assertThat(ticketTokenService.verify(token).getTicketId()).isEqualTo(last.getId());
+        assertThat(ticketTokenService.verify(token).getEventId()).isEqualTo(eventId);
+    }
+
+    /**
+     * Stadium-sized import used to track throughput. Run with
+     * {@code mvn test -Dtest=TicketImportServiceImplTest -Dbenchmark=true}; each run appends a line
+     * to target/benchmarks/ticket-import.csv.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void importTickets_Benchmark100kSeats() throws Exception {
+        // Given - 40 sections of 50 rows x 50 seats
+        PricingTier tier = createEventWithTier();
+        Long eventId = tier.getEvent().getId();
+        List<BatchTicketRequest.TicketInfo> seats = ticketImportService.expandSeats(request(eventId, tier.getId(), 40, 50, 50, 0));
+
+        // When
+        TicketImportProgress result = ticketImportService.importTickets(eventId, tier.getId(), seats, false, null);
+
+        // Then
+        assertThat(result.getImported()).isEqualTo(100_000);
+        assertThat(ticketRepository.countByEventIdAndStatus(eventId, TicketStatus.AVAILABLE)).isEqualTo(100_000);
+
+        logger.info("Imported {} tickets in {} ms: {} tickets/s", result.getImported(), result.getElapsedMs(),
+                Math.round(result.getTicketsPerSecond()));
+        Path report = Path.of("target", "benchmarks", "ticket-import.csv");
+        Files.createDirectories(report.getParent());
+        if (!Files.exists(report)) {
+            Files.writeString(report, "timestamp,tickets,chunks,elapsed_ms,tickets_per_second\n");
+        }
+        Files.writeString(report, String.format("%s,%d,%d,%d,%.0f%n", LocalDateTime.now(), result.getImported(),
+                result.getChunks(), result.getElapsedMs(), result.getTicketsPerSecond()), StandardOpenOption.APPEND);
+    }
+
+    private PricingTier createEventWithTier() {
+        Event event = new Event();
+        event.setName("Stadium Opener");
+        event.setDescription("Bulk import test");
+        event.setEventDate(LocalDateTime.now().plusDays(60));
+        event.setTotalTickets(0);
+        event.setAvailableTickets(0);
+        event.setEventType(EventType.SPORTS);
+        event = eventRepository.save(event);
+
+        PricingTier tier = new PricingTier();
+        tier.setName("Standard");
+        tier.setPrice(75.0);
+        tier.setQuantity(0);
+        tier.setAvailable(0);
+        tier.setEvent(event);
+        return pricingTierRepository.save(tier);
+    }
+
+    private static TicketImportRequest request(Long eventId, Long tierId, int sections, int rows, int seatsPerRow, int quantity) {
+        TicketImportRequest request = new TicketImportRequest();
+        request.setEventId(eventId);
+        request.setPricingTierId(tierId);
+        List<TicketImportRequest.SectionLayout> layouts = new ArrayList<>();
+        for (int i = 1; i <= sections; i++) {
+            TicketImportRequest.SectionLayout layout = new TicketImportRequest.SectionLayout();
+            layout.setSection(String.valueOf(100 + i));
+            layout.setRows(rows);
+            layout.setSeatsPerRow(seatsPerRow);
+            layouts.add(layout);
+        }
+        request.setSections(layouts);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private static TicketImportProgress copyOf(TicketImportProgress progress) {
+        TicketImportProgress copy = new TicketImportProgress();
+        copy.setImported(progress.getImported());
+        copy.setChunkTicketNumbers(progress.getChunkTicketNumbers());
+        return copy;
+    }
+}
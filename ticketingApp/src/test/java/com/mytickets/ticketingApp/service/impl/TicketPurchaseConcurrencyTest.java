@@ -0,0 +1,168 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.TicketUnavailableException;
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:purchase-stress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TicketServiceImpl.class, QRCodeServiceImpl.class, InventoryServiceImpl.class,
+        SeatHoldServiceImpl.class, TicketImportServiceImpl.class, GateScanServiceImpl.class, TicketTokenServiceImpl.class,
+        SeatAllocationServiceImpl.class, AvailabilityStreamServiceImpl.class, ResaleOrderBookServiceImpl.class,
+        JacksonAutoConfiguration.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketPurchaseConcurrencyTest {
+
+    private static final int TICKETS = 200;
+    private static final int BUYERS = 20;
+    private static final int ATTEMPTS = 4000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TicketServiceImpl ticketService;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PricingTierRepository pricingTierRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+        ticketRepository.deleteAll();
+        pricingTierRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentPurchases_ShouldNeverOversellOrLoseCounterUpdates() throws Exception {
+        // Given
+        Event event = new Event();
+        event.setName("Stress Test Concert");
+        event.setDescription("On-sale stress test");
+        event.setEventDate(LocalDateTime.now().plusDays(30));
+        event.setTotalTickets(TICKETS);
+        event.setAvailableTickets(TICKETS);
+        event.setEventType(EventType.CONCERT);
+        event = eventRepository.save(event);
+
+        PricingTier tier = new PricingTier();
+        tier.setName("Standard");
+        tier.setPrice(50.0);
+        tier.setQuantity(TICKETS);
+        tier.setAvailable(TICKETS);
+        tier.setEvent(event);
+        tier = pricingTierRepository.save(tier);
+
+        List<Long> ticketIds = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setOriginalPrice(50.0);
+            ticket.setCurrentPrice(50.0);
+            ticket.setEvent(event);
+            ticket.setPricingTier(tier);
+            ticketIds.add(ticketRepository.save(ticket).getId());
+        }
+
+        List<Long> buyerIds = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            User buyer = new User();
+            buyer.setEmail("buyer" + i + "@example.com");
+            buyer.setFirstName("Buyer");
+            buyer.setLastName(String.valueOf(i));
+            buyerIds.add(userRepository.save(buyer).getId());
+        }
+
+        AtomicInteger purchased = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When - every attempt targets a random seat so most of them collide
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long ticketId = ticketIds.get(random.nextInt(TICKETS));
+                Long buyerId = buyerIds.get(random.nextInt(BUYERS));
+                try {
+                    start.await();
+                    ticketService.purchaseTicket(ticketId, buyerId);
+                    purchased.incrementAndGet();
+                } catch (TicketUnavailableException e) {
+                    soldOut.incrementAndGet();
+                } catch (Exception e) {
+                    unexpected.incrementAndGet();
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then - push the write-behind counters to the database before comparing
+        inventoryService.flush();
+
+        Event reloadedEvent = eventRepository.findById(event.getId()).orElseThrow();
+        PricingTier reloadedTier = pricingTierRepository.findById(tier.getId()).orElseThrow();
+        long purchasedTickets = ticketRepository.countByEventIdAndStatus(event.getId(), TicketStatus.PURCHASED);
+        long availableTickets = ticketRepository.countByEventIdAndStatus(event.getId(), TicketStatus.AVAILABLE);
+
+        assertThat(unexpected.get()).isZero();
+        assertThat(purchased.get() + soldOut.get()).isEqualTo(ATTEMPTS);
+        assertThat(purchasedTickets).isEqualTo(purchased.get());
+        assertThat(transactionRepository.count()).isEqualTo(purchased.get());
+        assertThat(inventoryService.getAvailableTickets(event.getId())).isEqualTo(availableTickets);
+        assertThat(reloadedEvent.getAvailableTickets()).isEqualTo((int) availableTickets);
+        assertThat(reloadedTier.getAvailable()).isEqualTo((int) availableTickets);
+        assertThat(purchasedTickets + availableTickets).isEqualTo(TICKETS);
+    }
+}
@@ -0,0 +1,183 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.model.*;
+import com.mytickets.ticketingApp.payload.response.EventSummaryResponse;
+import com.mytickets.ticketingApp.payload.response.NearbyVenueResponse;
+import com.mytickets.ticketingApp.repository.EventRepository;
+import com.mytickets.ticketingApp.repository.UserRepository;
+import com.mytickets.ticketingApp.repository.VenueRepository;
+import com.mytickets.ticketingApp.util.StatementBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:venue-geo;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({VenueGeoSearchServiceImpl.class, VenueServiceImpl.class, CatalogSearchServiceImpl.class,
+        JacksonAutoConfiguration.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class VenueGeoSearchServiceImplTest {
+
+    @Autowired
+    private VenueGeoSearchServiceImpl venueGeoSearchService;
+
+    @Autowired
+    private VenueServiceImpl venueService;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementBudget budget;
+    private User creator;
+    private Venue baixa;
+    private Venue belem;
+    private Venue porto;
+
+    @BeforeEach
+    void setUp() {
+        budget = new StatementBudget(entityManagerFactory);
+
+        creator = new User();
+        creator.setEmail("geo@example.com");
+        creator.setFirstName("Ge");
+        creator.setLastName("O");
+        creator = userRepository.save(creator);
+
+        baixa = venueRepository.save(venue("Baixa Hall", "Lisbon", 38.7110, -9.1370));
+        belem = venueRepository.save(venue("Belem Stage", "Lisbon", 38.6970, -9.2060));
+        porto = venueRepository.save(venue("Coliseu do Porto", "Porto", 41.1470, -8.6060));
+        venueRepository.save(venue("Unmapped Club", "Lisbon", null, null));
+        venueGeoSearchService.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        eventRepository.deleteAll();
+        venueRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findVenuesNear_ShouldReturnVenuesInTheRadiusNearestFirstWithoutQuerying() {
+        // When - from Rossio, about 0.4 km from Baixa and 6 km from Belem
+        List<NearbyVenueResponse> near = budget.expect("near", 0,
+                () -> venueGeoSearchService.findVenuesNear(38.7139, -9.1394, 10, 20));
+        List<NearbyVenueResponse> wide = venueGeoSearchService.findVenuesNear(38.7139, -9.1394, 400, 20);
+
+        // Then
+        assertThat(near).extracting(NearbyVenueResponse::getName).containsExactly("Baixa Hall", "Belem Stage");
+        assertThat(near.get(0).getDistanceKm()).isLessThan(1);
+        assertThat(wide).extracting(NearbyVenueResponse::getId).containsExactly(baixa.getId(), belem.getId(), porto.getId());
+        assertThatThrownBy(() -> venueGeoSearchService.findVenuesNear(38.7, -9.1, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> venueGeoSearchService.findVenuesNear(95, -9.1, 10, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findVenuesWithin_ShouldReturnVenuesInsideTheBox() {
+        // When
+        List<NearbyVenueResponse> north = venueGeoSearchService.findVenuesWithin(40, -10, 42, -8, 100);
+
+        // Then
+        assertThat(north).extracting(NearbyVenueResponse::getId).containsExactly(porto.getId());
+    }
+
+    @Test
+    void findUpcomingEventsNear_ShouldSortByVenueDistanceThenDate() {
+        // Given
+        Event later = eventRepository.save(event("Late Show", baixa, 20));
+        Event sooner = eventRepository.save(event("Early Show", baixa, 5));
+        Event belemShow = eventRepository.save(event("Riverside Show", belem, 1));
+        eventRepository.save(event("Past Show", baixa, -1));
+        eventRepository.save(event("Porto Show", porto, 3));
+
+        // When
+        List<EventSummaryResponse> events = budget.expect("events near", 1,
+                () -> venueGeoSearchService.findUpcomingEventsNear(38.7139, -9.1394, 25, 20));
+
+        // Then
+        assertThat(events).extracting(EventSummaryResponse::getId)
+                .containsExactly(sooner.getId(), later.getId(), belemShow.getId());
+        assertThat(events.get(2).getDistanceKm()).isGreaterThan(events.get(0).getDistanceKm());
+        assertThat(venueGeoSearchService.findUpcomingEventsNear(38.7139, -9.1394, 25, 1)).hasSize(1);
+    }
+
+    @Test
+    void venueWrites_ShouldUpdateTheIndexAfterCommit() {
+        // Given
+        Venue moved = venue("Belem Stage", "Porto", 41.1500, -8.6100);
+
+        // When
+        venueService.updateVenue(belem.getId(), moved);
+        Venue created = venueService.createVenue(venue("Alfama Room", "Lisbon", 38.7120, -9.1300));
+        venueService.deleteVenue(baixa.getId());
+
+        // Then
+        assertThat(venueGeoSearchService.findVenuesNear(38.7139, -9.1394, 10, 20))
+                .extracting(NearbyVenueResponse::getId).containsExactly(created.getId());
+        assertThat(venueGeoSearchService.findVenuesNear(41.1470, -8.6060, 10, 20))
+                .extracting(NearbyVenueResponse::getId).containsExactly(porto.getId(), belem.getId());
+    }
+
+    private Venue venue(String name, String city, Double latitude, Double longitude) {
+        Venue venue = new Venue();
+        venue.setName(name);
+        venue.setAddress("1 Main Street");
+        venue.setCity(city);
+        venue.setCountry("Portugal");
+        venue.setLatitude(latitude);
+        venue.setLongitude(longitude);
+        return venue;
+    }
+
+    private Event event(String name, Venue venue, int daysAhead) {
+        Event event = new Event();
+        event.setName(name);
+        event.setDescription("An evening of live music");
+        event.setEventDate(LocalDateTime.now().plusDays(daysAhead));
+        event.setEventType(EventType.CONCERT);
+        event.setTotalTickets(100);
+        event.setAvailableTickets(100);
+        event.setVenue(venue);
+        event.setCreator(creator);
+        return event;
+    }
+}
@@ -3,6 +3,8 @@ package com.mytickets.ticketingApp.service.impl;
 import com.mytickets.ticketingApp.exception.ResourceNotFoundException;
 import com.mytickets.ticketingApp.model.Venue;
 import com.mytickets.ticketingApp.repository.VenueRepository;
+import com.mytickets.ticketingApp.service.CatalogSearchService;
+import com.mytickets.ticketingApp.service.VenueGeoSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +27,12 @@ public class VenueServiceImplTest {
     @Mock
     private VenueRepository venueRepository;
 
+    @Mock
+    private CatalogSearchService catalogSearchService;
+
+    @Mock
+    private VenueGeoSearchService venueGeoSearchService;
+
     @InjectMocks
     private VenueServiceImpl venueService;
 
@@ -84,6 +92,7 @@ public class VenueServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getName()).isEqualTo("Test Venue");
         verify(venueRepository, times(1)).save(venue);
+        verify(venueGeoSearchService, times(1)).venueChanged(venue.getId());
     }
 
     @Test
@@ -113,6 +122,8 @@ public class VenueServiceImplTest {
         assertThat(result.getCapacity()).isEqualTo(2000);
         verify(venueRepository, times(1)).findById(1L);
         verify(venueRepository, times(1)).save(any(Venue.class));
+        verify(catalogSearchService, times(1)).venueChanged(1L);
+        verify(venueGeoSearchService, times(1)).venueChanged(1L);
     }
 
     @Test
@@ -133,6 +144,7 @@ public class VenueServiceImplTest {
 
         // Then
         verify(venueRepository, times(1)).deleteById(1L);
+        verify(venueGeoSearchService, times(1)).venueRemoved(1L);
     }
 
     @Test
@@ -0,0 +1,230 @@
+package com.mytickets.ticketingApp.service.impl;
+
+import com.mytickets.ticketingApp.exception.AdmissionRequiredException;
+import com.mytickets.ticketingApp.model.WaitingRoomState;
+import com.mytickets.ticketingApp.payload.response.QueueStatusResponse;
+import com.mytickets.ticketingApp.repository.WaitingRoomStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WaitingRoomServiceImplTest {
+
+    private static final String SECRET = "test-waiting-room-secret";
+    private static final Long EVENT_ID = 7L;
+
+    private WaitingRoomServiceImpl waitingRoomService;
+    // The waiting_rooms table, shared by every instance a test creates
+    private Map<Long, WaitingRoomState> storedStates;
+
+    @BeforeEach
+    void setUp() {
+        storedStates = new HashMap<>();
+        waitingRoomService = newService();
+    }
+
+    @Test
+    void join_ShouldQueueBuyersUntilTheAdmissionRateReachesThem() throws InterruptedException {
+        // Given
+        waitingRoomService.openRoom(EVENT_ID, 1000);
+        QueueStatusResponse first = waitingRoomService.join(EVENT_ID, 1L);
+        QueueStatusResponse second = waitingRoomService.join(EVENT_ID, 2L);
+
+        // Then - nobody is admitted before the admission job runs
+        assertThat(first.getPosition()).isEqualTo(1);
+        assertThat(second.getPosition()).isEqualTo(2);
+        assertThat(second.isAdmitted()).isFalse();
+        assertThat(second.getAdmissionPass()).isNull();
+
+        // When
+        waitingRoomService.admit();
+        Thread.sleep(50);
+        waitingRoomService.admit();
+
+        // Then
+        QueueStatusResponse status = waitingRoomService.getStatus(second.getQueueToken());
+        assertThat(status.isAdmitted()).isTrue();
+        assertThat(status.getAdmissionPass()).isNotNull();
+        assertThat(waitingRoomService.verifyPass(status.getAdmissionPass(), 2L)).isEqualTo(EVENT_ID);
+    }
+
+    @Test
+    void verifyPass_ShouldRejectPassesIssuedToAnotherBuyerOrTamperedWith() throws InterruptedException {
+        // Given
+        waitingRoomService.openRoom(EVENT_ID, 1000);
+        QueueStatusResponse joined = waitingRoomService.join(EVENT_ID, 1L);
+        waitingRoomService.admit();
+        Thread.sleep(20);
+        waitingRoomService.admit();
+        String pass = waitingRoomService.getStatus(joined.getQueueToken()).getAdmissionPass();
+
+        // When / Then
+        assertThrows(AdmissionRequiredException.class, () -> waitingRoomService.verifyPass(pass, 2L));
+        assertThrows(AdmissionRequiredException.class, () -> waitingRoomService.verifyPass(pass + "x", 1L));
+        assertThat(waitingRoomService.verifyPass(null, 1L)).isNull();
+    }
+
+    @Test
+    void join_ShouldKeepTheBuyersPlaceUntilItsCheckoutsAreUsed() throws InterruptedException {
+        // Given
+        waitingRoomService.openRoom(EVENT_ID, 1000);
+        QueueStatusResponse first = waitingRoomService.join(EVENT_ID, 1L);
+        waitingRoomService.join(EVENT_ID, 2L);
+
+        // When - joining again, as a refreshed page does
+        QueueStatusResponse again = waitingRoomService.join(EVENT_ID, 1L);
+
+        // Then
+        assertThat(again.getPosition()).isEqualTo(first.getPosition());
+
+        // When - admitted, and the pass used for as many checkouts as allowed
+        waitingRoomService.admit();
+        Thread.sleep(20);
+        waitingRoomService.admit();
+        String pass = waitingRoomService.getStatus(first.getQueueToken()).getAdmissionPass();
+        waitingRoomService.verifyPass(pass, 1L);
+        waitingRoomService.verifyPass(pass, 1L);
+
+        // Then - neither the pass nor the place admit again, and joining goes to the back
+        assertThrows(AdmissionRequiredException.class, () -> waitingRoomService.verifyPass(pass, 1L));
+        assertThrows(IllegalArgumentException.class, () -> waitingRoomService.getStatus(first.getQueueToken()));
+        assertThat(waitingRoomService.join(EVENT_ID, 1L).getPosition()).isEqualTo(3);
+    }
+
+    @Test
+    void checkAdmission_ShouldOnlyGateEventsWithAnOpenRoom() {
+        // Given
+        waitingRoomService.openRoom(EVENT_ID, 10);
+
+        // When / Then
+        assertThrows(AdmissionRequiredException.class, () -> waitingRoomService.checkAdmission(EVENT_ID, null));
+        assertThrows(AdmissionRequiredException.class, () -> waitingRoomService.checkAdmission(EVENT_ID, 8L));
+        assertDoesNotThrow(() -> waitingRoomService.checkAdmission(EVENT_ID, EVENT_ID));
+        assertDoesNotThrow(() -> waitingRoomService.checkAdmission(8L, null));
+
+        waitingRoomService.closeRoom(EVENT_ID);
+        assertDoesNotThrow(() -> waitingRoomService.checkAdmission(EVENT_ID, null));
+    }
+
+    @Test
+    void getStatus_ShouldRebuildTheQueueFromTokensAfterARestart() {
+        // Given
+        waitingRoomService.openRoom(EVENT_ID, 5);
+        QueueStatusResponse joined = null;
+        for (long userId = 1; userId <= 10; userId++) {
+            joined = waitingRoomService.join(EVENT_ID, userId);
+        }
+
+        // When - a fresh instance with the same secret sees only the last buyer's token
+        WaitingRoomServiceImpl restarted = newService();
+        QueueStatusResponse status = restarted.getStatus(joined.getQueueToken());
+
+        // Then
+        assertThat(restarted.isOpen(EVENT_ID)).isTrue();
+        assertThat(status.getPosition()).isEqualTo(10);
+        assertThat(restarted.join(EVENT_ID, 11L).getPosition()).isEqualTo(11);
+    }
+
+    @Test
+    void admit_ShouldNotUnadmitBuyersInARestoredRoom() throws InterruptedException {
+        // Given - ten buyers, all admitted before the restart
+        waitingRoomService.openRoom(EVENT_ID, 1000);
+        List<QueueStatusResponse> joined = new ArrayList<>();
+        for (long userId = 1; userId <= 10; userId++) {
+            joined.add(waitingRoomService.join(EVENT_ID, userId));
+        }
+        waitingRoomService.admit();
+        Thread.sleep(50);
+        waitingRoomService.admit();
+        String thirdToken = waitingRoomService.getStatus(joined.get(2).getQueueToken()).getQueueToken();
+
+        // When - the restarted node first hears from the third buyer, whose token carries watermark 10
+        WaitingRoomServiceImpl restarted = newService();
+        restarted.getStatus(thirdToken);
+        restarted.admit();
+        Thread.sleep(20);
+        restarted.admit();
+
+        // Then - the seventh buyer, still holding the token from joining, is still admitted
+        QueueStatusResponse seventh = restarted.getStatus(joined.get(6).getQueueToken());
+        assertThat(seventh.getAdmittedUpTo()).isEqualTo(10);
+        assertThat(seventh.isAdmitted()).isTrue();
+    }
+
+    @Test
+    void getStatus_ShouldNotReopenARoomClosedBeforeTheRestart() {
+        // Given
+        waitingRoomService.openRoom(EVENT_ID, 5);
+        QueueStatusResponse joined = waitingRoomService.join(EVENT_ID, 1L);
+        waitingRoomService.closeRoom(EVENT_ID);
+
+        // When
+        WaitingRoomServiceImpl restarted = newService();
+        QueueStatusResponse status = restarted.getStatus(joined.getQueueToken());
+
+        // Then
+        assertThat(status.isOpen()).isFalse();
+        assertThat(restarted.isOpen(EVENT_ID)).isFalse();
+        assertDoesNotThrow(() -> restarted.checkAdmission(EVENT_ID, null));
+    }
+
+    @Test
+    void syncRooms_ShouldFollowRoomsOpenedAndClosedOnOtherNodes() {
+        // Given
+        WaitingRoomServiceImpl otherNode = newService();
+
+        // When
+        otherNode.openRoom(EVENT_ID, 5);
+        waitingRoomService.syncRooms();
+
+        // Then - purchases are gated on this node too
+        assertThat(waitingRoomService.isOpen(EVENT_ID)).isTrue();
+        assertThrows(AdmissionRequiredException.class, () -> waitingRoomService.checkAdmission(EVENT_ID, null));
+
+        // When
+        otherNode.closeRoom(EVENT_ID);
+        waitingRoomService.syncRooms();
+
+        // Then
+        assertThat(waitingRoomService.isOpen(EVENT_ID)).isFalse();
+    }
+
+    private WaitingRoomServiceImpl newService() {
+        WaitingRoomStateRepository repository = mock(WaitingRoomStateRepository.class);
+        when(repository.save(any(WaitingRoomState.class))).thenAnswer(invocation -> {
+            WaitingRoomState state = invocation.getArgument(0);
+            storedStates.put(state.getEventId(), new WaitingRoomState(state.getEventId(), state.isOpen(),
+                    state.getAdmitPerSecond(), state.getOpenedAt()));
+            return state;
+        });
+        when(repository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(storedStates.get(invocation.<Long>getArgument(0))));
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(storedStates.values()));
+
+        WaitingRoomServiceImpl service = new WaitingRoomServiceImpl();
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "waitingRoomStateRepository", repository);
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "queueTokenTtlSeconds", 7200L);
+        ReflectionTestUtils.setField(service, "passTtlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "maxPollIntervalSeconds", 15);
+        ReflectionTestUtils.setField(service, "checkoutsPerAdmission", 2);
+        service.init();
+        return service;
+    }
+}
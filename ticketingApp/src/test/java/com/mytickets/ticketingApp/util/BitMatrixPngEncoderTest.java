@@ -0,0 +1,53 @@
+package com.mytickets.ticketingApp.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BitMatrixPngEncoderTest {
+
+    @Test
+    void encode_ShouldMatchTheImageMatrixToImageWriterProduces() throws Exception {
+        // Given - widths that do and do not fill the last byte of a scanline
+        for (int size : new int[] {64, 101, 250}) {
+            BitMatrix matrix = new QRCodeWriter().encode("TICKET:" + size, BarcodeFormat.QR_CODE, size, size);
+
+            // When
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(BitMatrixPngEncoder.encode(matrix)));
+
+            // Then
+            BufferedImage expected = MatrixToImageWriter.toBufferedImage(matrix);
+            assertThat(decoded.getWidth()).isEqualTo(size);
+            assertThat(decoded.getHeight()).isEqualTo(size);
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    assertThat(decoded.getRGB(x, y)).as("pixel %d,%d at %d px", x, y, size).isEqualTo(expected.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    void encode_ShouldNotLeakStateBetweenCodesOnTheSameThread() throws Exception {
+        // Given - a large code leaves bigger buffers behind than the small one needs
+        BitMatrix large = new QRCodeWriter().encode("TICKET:large", BarcodeFormat.QR_CODE, 400, 400);
+        BitMatrix small = new QRCodeWriter().encode("TICKET:small", BarcodeFormat.QR_CODE, 90, 90);
+        byte[] first = BitMatrixPngEncoder.encode(small);
+
+        // When
+        BitMatrixPngEncoder.encode(large);
+        byte[] second = BitMatrixPngEncoder.encode(small);
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        assertThat(ImageIO.read(new ByteArrayInputStream(second)).getWidth()).isEqualTo(90);
+    }
+}
@@ -0,0 +1,92 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventFacetIndexTest {
+
+    private EventFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventFacetIndex();
+        index.put(1, "Lisbon", "CONCERT", "SCHEDULED", 100, 40.0, true);
+        index.put(2, "Lisbon", "SPORTS", "SCHEDULED", 200, 15.0, true);
+        index.put(3, "Porto", "CONCERT", "SCHEDULED", 300, 25.0, true);
+        index.put(4, "Porto", "CONCERT", "SCHEDULED", 400, null, false);
+        index.put(5, "Braga", "THEATER", "CANCELLED", 500, 60.0, true);
+    }
+
+    @Test
+    void query_ShouldCombineFiltersAndCountEachFacetWithoutItsOwnFilter() {
+        // When
+        EventFacetIndex.Result result = index.query(new EventFacetIndex.Query()
+                .cities(List.of("Lisbon", "Porto"))
+                .types(List.of("CONCERT")));
+
+        // Then - city counts ignore the city pick, type counts ignore the type pick
+        assertThat(result.getIds()).containsExactly(1L, 3L, 4L);
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getFacets().get(EventFacetIndex.CITY)).containsExactly(Map.entry("Porto", 2), Map.entry("Lisbon", 1));
+        assertThat(result.getFacets().get(EventFacetIndex.TYPE)).containsExactly(Map.entry("CONCERT", 3), Map.entry("SPORTS", 1));
+        assertThat(result.getFacets().get(EventFacetIndex.STATUS)).containsExactly(Map.entry("SCHEDULED", 3));
+        assertThat(result.getFacets().get(EventFacetIndex.AVAILABLE)).containsExactly(Map.entry("true", 2), Map.entry("false", 1));
+    }
+
+    @Test
+    void query_ShouldApplyRangesAndAvailabilityAndSortByPrice() {
+        // When
+        EventFacetIndex.Result cheapest = index.query(new EventFacetIndex.Query()
+                .dates(150, 600)
+                .prices(null, 50.0)
+                .sort(EventFacetIndex.Sort.PRICE));
+        EventFacetIndex.Result dearestFirst = index.query(new EventFacetIndex.Query()
+                .availableOnly(true)
+                .sort(EventFacetIndex.Sort.of("-price")));
+        EventFacetIndex.Result latestFirst = index.query(new EventFacetIndex.Query()
+                .sort(EventFacetIndex.Sort.of("-date")));
+
+        // Then - an event with nothing on sale never falls in a price range and sorts last
+        assertThat(cheapest.getIds()).containsExactly(2L, 3L);
+        assertThat(dearestFirst.getIds()).containsExactly(5L, 1L, 3L, 2L);
+        assertThat(dearestFirst.getFacets().get(EventFacetIndex.AVAILABLE)).containsEntry("false", 1);
+        assertThat(latestFirst.getIds()).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThatThrownBy(() -> EventFacetIndex.Sort.of("name")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void query_ShouldPageThroughTheSortedMatches() {
+        // When
+        EventFacetIndex.Result second = index.query(new EventFacetIndex.Query().page(2, 2));
+        EventFacetIndex.Result past = index.query(new EventFacetIndex.Query().page(10, 2));
+
+        // Then
+        assertThat(second.getIds()).containsExactly(3L, 4L);
+        assertThat(second.getTotal()).isEqualTo(5);
+        assertThat(past.getIds()).isEmpty();
+        assertThat(past.getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void putAndRemove_ShouldMoveRowsBetweenFacetValues() {
+        // Given
+        index.put(2, "Porto", "SPORTS", "SCHEDULED", 200, 15.0, false);
+        index.remove(1);
+        index.put(6, "Faro", "SPORTS", "SCHEDULED", 50, 10.0, true);
+
+        // When
+        EventFacetIndex.Result porto = index.query(new EventFacetIndex.Query().cities(List.of("Porto")));
+
+        // Then - the freed row is reused and Lisbon has nothing left to count
+        assertThat(porto.getIds()).containsExactly(2L, 3L, 4L);
+        assertThat(porto.getFacets().get(EventFacetIndex.CITY))
+                .containsExactly(Map.entry("Porto", 3), Map.entry("Braga", 1), Map.entry("Faro", 1));
+        assertThat(index.size()).isEqualTo(5);
+    }
+}
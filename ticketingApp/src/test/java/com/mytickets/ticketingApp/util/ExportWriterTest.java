@@ -0,0 +1,68 @@
+package com.mytickets.ticketingApp.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mytickets.ticketingApp.model.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExportWriterTest {
+
+    private static final String[] COLUMNS = {"id", "name", "price", "status", "date", "used", "note"};
+
+    @Test
+    void jsonLines_ShouldWriteOneTypedObjectPerLine() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (ExportWriter writer = ExportWriter.open(ExportWriter.Format.JSONL, out, COLUMNS)) {
+            writer.write(new Object[] {1L, "Front \"Row\"", 49.5, TicketStatus.PURCHASED,
+                    LocalDateTime.of(2026, 5, 1, 20, 0), true, null});
+            writer.write(new Object[] {2L, "Ünïcode", 10.0, TicketStatus.AVAILABLE, null, false, "line\nbreak"});
+        }
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("name").asText()).isEqualTo("Front \"Row\"");
+        assertThat(first.get("price").asDouble()).isEqualTo(49.5);
+        assertThat(first.get("status").asText()).isEqualTo("PURCHASED");
+        assertThat(first.get("date").asText()).isEqualTo("2026-05-01T20:00");
+        assertThat(first.get("used").isBoolean()).isTrue();
+        assertThat(first.get("note").isNull()).isTrue();
+        assertThat(new ObjectMapper().readTree(lines[1]).get("note").asText()).isEqualTo("line\nbreak");
+    }
+
+    @Test
+    void csv_ShouldQuoteWhereNeededAndDefuseFormulas() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        try (ExportWriter writer = ExportWriter.open(ExportWriter.Format.CSV, out, COLUMNS)) {
+            writer.write(new Object[] {1L, "Smith, \"Jo\"", -12.5, TicketStatus.CANCELLED, null, true, "=HYPERLINK(1)"});
+        }
+
+        // Then
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,name,price,status,date,used,note\r\n" +
+                "1,\"Smith, \"\"Jo\"\"\",-12.5,CANCELLED,,true,'=HYPERLINK(1)\r\n");
+    }
+
+    @Test
+    void format_ShouldAcceptNamesAndExtensionsOnly() {
+        // When / Then
+        assertThat(ExportWriter.Format.of("csv")).isEqualTo(ExportWriter.Format.CSV);
+        assertThat(ExportWriter.Format.of("JSONL")).isEqualTo(ExportWriter.Format.JSONL);
+        assertThatThrownBy(() -> ExportWriter.Format.of("xlsx")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius and box lookups against a {@link GeoGrid} of 100k venues, and of 1M points standing for
+ * events placed at those venues, clustered around population centres the way real venues are.
+ * Run with {@code mvn test -Dtest=GeoGridBenchmark -Dbenchmark=true}; each run appends the
+ * average time per lookup to target/benchmarks/geo-grid.csv.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoGridBenchmark {
+
+    private static final int CITIES = 2_000;
+
+    @Param({"100000", "1000000"})
+    public int points;
+
+    private GeoGrid grid;
+    private double[][] cities;
+    private int sequence;
+
+    @Setup
+    public void build() {
+        Random random = new Random(7);
+        cities = new double[CITIES][];
+        for (int i = 0; i < CITIES; i++) {
+            cities[i] = new double[] {random.nextDouble() * 120 - 55, random.nextDouble() * 360 - 180};
+        }
+        grid = new GeoGrid(0.25);
+        for (int i = 0; i < points; i++) {
+            double[] city = cities[random.nextInt(CITIES)];
+            double latitude = Math.max(-90, Math.min(90, city[0] + random.nextGaussian() * 0.2));
+            double longitude = ((city[1] + random.nextGaussian() * 0.2) + 540) % 360 - 180;
+            grid.put(i, latitude, longitude);
+        }
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit> radius25Km() {
+        double[] city = nextCity();
+        return grid.withinRadius(city[0], city[1], 25, 20);
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit> radius100Km() {
+        double[] city = nextCity();
+        return grid.withinRadius(city[0], city[1], 100, 20);
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit> mapViewport() {
+        double[] city = nextCity();
+        return grid.withinBox(city[0] - 0.5, city[1] - 0.75, city[0] + 0.5, city[1] + 0.75, 100);
+    }
+
+    private double[] nextCity() {
+        return cities[sequence++ % CITIES];
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void measureLookups() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(GeoGridBenchmark.class.getName() + "\\.")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Path report = Path.of("target", "benchmarks", "geo-grid.csv");
+        Files.createDirectories(report.getParent());
+        if (!Files.exists(report)) {
+            Files.writeString(report, "timestamp,lookup,points,microseconds_per_lookup\n");
+        }
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Files.writeString(report, String.format("%s,%s,%s,%.2f%n", LocalDateTime.now(),
+                    benchmark.substring(benchmark.lastIndexOf('.') + 1), result.getParams().getParam("points"),
+                    result.getPrimaryResult().getScore()), StandardOpenOption.APPEND);
+        }
+    }
+}
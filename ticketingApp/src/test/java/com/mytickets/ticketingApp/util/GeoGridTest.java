@@ -0,0 +1,105 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class GeoGridTest {
+
+    @Test
+    void distanceKm_ShouldMatchKnownDistances() {
+        // When / Then - Lisbon to Porto, and across the antimeridian
+        assertThat(GeoGrid.distanceKm(38.7223, -9.1393, 41.1579, -8.6291)).isCloseTo(274, within(2.0));
+        assertThat(GeoGrid.distanceKm(0, 179.5, 0, -179.5)).isCloseTo(111.2, within(0.5));
+        assertThat(GeoGrid.distanceKm(51.5, -0.12, 51.5, -0.12)).isZero();
+    }
+
+    @Test
+    void withinRadius_ShouldMatchAScanOfEveryPoint() {
+        // Given
+        GeoGrid grid = new GeoGrid(0.25);
+        double[][] points = randomPoints(grid, 100_000, 42);
+
+        // When / Then - a city, a wide area, the antimeridian and the north pole
+        double[][] queries = {{38.72, -9.14, 25}, {48.85, 2.35, 400}, {-16.5, 179.9, 120}, {89.7, 10, 60}};
+        for (double[] query : queries) {
+            List<Long> expected = scan(points, query[0], query[1], query[2]);
+            List<GeoGrid.Hit> hits = grid.withinRadius(query[0], query[1], query[2], expected.size() + 1);
+            assertThat(hits).extracting(GeoGrid.Hit::getId).containsExactlyElementsOf(expected);
+            assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(GeoGrid.Hit::getDistanceKm));
+        }
+        assertThat(grid.withinRadius(48.85, 2.35, 400, 5)).extracting(GeoGrid.Hit::getId)
+                .containsExactlyElementsOf(scan(points, 48.85, 2.35, 400).subList(0, 5));
+    }
+
+    @Test
+    void withinBox_ShouldHandleBoxesAcrossTheAntimeridian() {
+        // Given
+        GeoGrid grid = new GeoGrid(1);
+        grid.put(1, -17.7, 178.0);
+        grid.put(2, -18.1, -179.8);
+        grid.put(3, -17.9, 170.0);
+        grid.put(4, 10.0, 179.0);
+
+        // When
+        List<GeoGrid.Hit> fiji = grid.withinBox(-20, 177, -15, -178, 10);
+        List<GeoGrid.Hit> ordinary = grid.withinBox(-20, 169, -15, 171, 10);
+
+        // Then - nearest the box centre at 179.5 first
+        assertThat(fiji).extracting(GeoGrid.Hit::getId).containsExactly(2L, 1L);
+        assertThat(ordinary).extracting(GeoGrid.Hit::getId).containsExactly(3L);
+    }
+
+    @Test
+    void putAndRemove_ShouldMovePointsBetweenCells() {
+        // Given
+        GeoGrid grid = new GeoGrid(0.25);
+        grid.put(1, 38.72, -9.14);
+        grid.put(2, 41.16, -8.63);
+
+        // When
+        grid.put(1, 41.15, -8.61);
+        grid.remove(2);
+
+        // Then
+        assertThat(grid.withinRadius(38.72, -9.14, 50, 10)).isEmpty();
+        assertThat(grid.withinRadius(41.16, -8.63, 50, 10)).extracting(GeoGrid.Hit::getId).containsExactly(1L);
+        assertThat(grid.size()).isEqualTo(1);
+        assertThatThrownBy(() -> grid.put(3, 91, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> grid.withinRadius(0, 0, -1, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static double[][] randomPoints(GeoGrid grid, int count, long seed) {
+        Random random = new Random(seed);
+        double[][] points = new double[count][];
+        for (int i = 0; i < count; i++) {
+            // Uniform over the sphere, so the poles are not over-represented
+            double latitude = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            double longitude = random.nextDouble() * 360 - 180;
+            points[i] = new double[] {latitude, longitude};
+            grid.put(i, latitude, longitude);
+        }
+        return points;
+    }
+
+    private static List<Long> scan(double[][] points, double latitude, double longitude, double radiusKm) {
+        List<double[]> inside = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            double distance = GeoGrid.distanceKm(latitude, longitude, points[i][0], points[i][1]);
+            if (distance <= radiusKm) {
+                inside.add(new double[] {i, distance});
+            }
+        }
+        inside.sort(Comparator.<double[]>comparingDouble(hit -> hit[1]).thenComparingDouble(hit -> hit[0]));
+        List<Long> ids = new ArrayList<>();
+        inside.forEach(hit -> ids.add((long) hit[0]));
+        return ids;
+    }
+}
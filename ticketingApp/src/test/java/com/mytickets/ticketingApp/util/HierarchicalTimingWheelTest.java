@@ -0,0 +1,70 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advance_ShouldReleaseItemsOnlyOnceTheirTickHasPassed() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, 8, 3, START);
+        wheel.schedule("short", START + 2_500);
+        wheel.schedule("long", START + 20_000);
+
+        // When / Then
+        assertThat(wheel.advance(START + 1_999)).isEmpty();
+        assertThat(wheel.advance(START + 2_000)).containsExactly("short");
+        assertThat(wheel.advance(START + 19_000)).isEmpty();
+        assertThat(wheel.advance(START + 20_000)).containsExactly("long");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void schedule_ShouldRejectItemsDueWithinTheCurrentTick() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, 8, 2, START);
+
+        // When / Then
+        assertThat(wheel.schedule("due", START + 500)).isFalse();
+        assertThat(wheel.schedule("next", START + 1_000)).isTrue();
+    }
+
+    @Test
+    void advance_ShouldCascadeAcrossLevelsWithoutFiringEarlyOrLate() {
+        // Given - 4 slots over 3 levels spans 64 ticks; expirations beyond that park in the top level
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MS, 4, 3, START);
+        Random random = new Random(42);
+        Map<Integer, Long> expirations = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long expiration = START + TICK_MS + random.nextInt(200_000);
+            expirations.put(i, expiration);
+            wheel.schedule(i, expiration);
+        }
+
+        // When - walk time forward one tick at a time
+        List<Integer> fired = new ArrayList<>();
+        for (long now = START + TICK_MS; now <= START + 202_000; now += TICK_MS) {
+            for (Integer item : wheel.advance(now)) {
+                long expiration = expirations.get(item);
+                // Then - each item fires in the tick that contains its expiration
+                assertThat(expiration).isLessThan(now + TICK_MS);
+                assertThat(expiration).isGreaterThanOrEqualTo(now);
+                fired.add(item);
+            }
+        }
+
+        assertThat(fired).hasSize(expirations.size());
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,49 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class KeysetCursorTest {
+
+    @Test
+    void decode_ShouldReturnWhatWasEncoded() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2026, 3, 14, 19, 30, 5, 123456789);
+
+        // When
+        KeysetCursor dated = KeysetCursor.decode(KeysetCursor.of(date, 42L).encode(), true);
+        KeysetCursor plain = KeysetCursor.decode(KeysetCursor.of(9_000_000_001L).encode(), false);
+
+        // Then
+        assertThat(dated.getDate()).isEqualTo(date);
+        assertThat(dated.getId()).isEqualTo(42L);
+        assertThat(plain.getDate()).isNull();
+        assertThat(plain.getId()).isEqualTo(9_000_000_001L);
+    }
+
+    @Test
+    void encode_ShouldBeUrlSafe() {
+        // When
+        String cursor = KeysetCursor.of(LocalDateTime.of(2026, 12, 31, 23, 59), 7L).encode();
+
+        // Then
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedAndMismatchedCursors() {
+        // Given
+        String idCursor = KeysetCursor.of(5L).encode();
+        String datedCursor = KeysetCursor.of(LocalDateTime.now(), 5L).encode();
+
+        // When / Then
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!", false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(idCursor, true)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(datedCursor, false)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("bm90LWEtZGF0ZXwx", true)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ListingOrderBookTest {
+
+    private ListingOrderBook<String> book;
+
+    @BeforeEach
+    void setUp() {
+        book = new ListingOrderBook<>();
+        book.put(1, 40.0, "a");
+        book.put(2, 25.0, "b");
+        book.put(3, 40.0, "c");
+        book.put(4, 95.0, "d");
+    }
+
+    @Test
+    void cheapest_ShouldOrderByPriceThenIdAndApplyTheFilter() {
+        // When / Then
+        assertThat(book.cheapest(10, value -> true)).containsExactly("b", "a", "c", "d");
+        assertThat(book.cheapest(2, value -> !value.equals("b"))).containsExactly("a", "c");
+        assertThat(book.bestPrice()).isEqualTo(25.0);
+        assertThat(book.size()).isEqualTo(4);
+    }
+
+    @Test
+    void depthAndHistogram_ShouldCountAsksPerPriceAndBucket() {
+        // When
+        List<ListingOrderBook.Level> depth = book.depth(2);
+        List<ListingOrderBook.Level> histogram = book.histogram(25, 10);
+
+        // Then - buckets from 25 up to the one holding 95, the empty one at 50 included
+        assertThat(depth).extracting(ListingOrderBook.Level::getPrice).containsExactly(25.0, 40.0);
+        assertThat(depth).extracting(ListingOrderBook.Level::getCount).containsExactly(1, 2);
+        assertThat(histogram).extracting(ListingOrderBook.Level::getPrice).containsExactly(25.0, 50.0, 75.0);
+        assertThat(histogram).extracting(ListingOrderBook.Level::getCount).containsExactly(3, 0, 1);
+        assertThatThrownBy(() -> book.histogram(1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new ListingOrderBook<String>().histogram(10, 10)).isEmpty();
+    }
+
+    @Test
+    void putAndRemove_ShouldRepriceWithoutDoubleCounting() {
+        // When
+        book.put(4, 10.0, "d");
+        book.put(1, 40.0, "a2");
+        book.remove(2);
+        book.remove(99);
+
+        // Then
+        assertThat(book.cheapest(10, value -> true)).containsExactly("d", "a2", "c");
+        assertThat(book.size()).isEqualTo(3);
+        assertThat(book.bestPrice()).isEqualTo(10.0);
+    }
+
+    @Test
+    void concurrentWrites_ShouldLeaveOneAskPerListing() throws Exception {
+        // Given
+        ListingOrderBook<Long> concurrent = new ListingOrderBook<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When - listings repriced and withdrawn from every thread while others read
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    long id = random.nextInt(200);
+                    if (random.nextInt(5) == 0) {
+                        concurrent.remove(id);
+                    } else {
+                        concurrent.put(id, random.nextInt(100), id);
+                    }
+                    concurrent.cheapest(5, value -> true);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        List<Long> ids = concurrent.cheapest(Integer.MAX_VALUE, value -> true);
+        assertThat(ids).doesNotHaveDuplicates().hasSize(concurrent.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.mytickets.ticketingApp.util;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ImageIO path QR codes used to take (ARGB BufferedImage from MatrixToImageWriter,
+ * then ImageIO) with {@link BitMatrixPngEncoder}. Run with
+ * {@code mvn test -Dtest=QRCodePngBenchmark -Dbenchmark=true}; each run appends throughput and
+ * bytes allocated per code for both paths to target/benchmarks/qr-png.csv.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QRCodePngBenchmark {
+
+    @Param({"100", "250"})
+    public int size;
+
+    private final QRCodeWriter writer = new QRCodeWriter();
+    private int sequence;
+
+    @Benchmark
+    public byte[] imageIo() throws WriterException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(MatrixToImageWriter.toBufferedImage(writer.encode(nextContent(), BarcodeFormat.QR_CODE, size, size)),
+                "png", out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] bitMatrixPng() throws WriterException {
+        return BitMatrixPngEncoder.encode(writer.encode(nextContent(), BarcodeFormat.QR_CODE, size, size));
+    }
+
+    // Same content length as a real ticket, different on every call
+    private String nextContent() {
+        return String.format("TICKET:%08x-0000-4000-8000-000000000000", sequence++);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareEncoders() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(QRCodePngBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Path report = Path.of("target", "benchmarks", "qr-png.csv");
+        Files.createDirectories(report.getParent());
+        if (!Files.exists(report)) {
+            Files.writeString(report, "timestamp,encoder,size,codes_per_second,bytes_allocated_per_code\n");
+        }
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            Files.writeString(report, String.format("%s,%s,%s,%.0f,%.0f%n", LocalDateTime.now(),
+                    benchmark.substring(benchmark.lastIndexOf('.') + 1), result.getParams().getParam("size"),
+                    result.getPrimaryResult().getScore(),
+                    result.getSecondaryResults().get("gc.alloc.rate.norm").getScore()), StandardOpenOption.APPEND);
+        }
+    }
+}
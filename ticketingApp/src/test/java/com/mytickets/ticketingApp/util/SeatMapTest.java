@@ -0,0 +1,132 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SeatMapTest {
+
+    @Test
+    void reserveBest_ShouldTakeTheMiddleOfTheFrontmostRowWithRoom() {
+        // Given - only the last two seats of row 2 are free, and row 10 comes after 2 but before A
+        List<SeatMap.Seat> seats = new ArrayList<>();
+        long id = 1;
+        for (String row : new String[] {"B", "A", "10", "2"}) {
+            for (int seat = 1; seat <= 20; seat++) {
+                seats.add(new SeatMap.Seat(id++, "Floor", row, String.valueOf(seat), !row.equals("2") || seat > 18));
+            }
+        }
+        SeatMap seatMap = new SeatMap(seats);
+
+        // When
+        SeatMap.Block block = seatMap.reserveBest(null, 4);
+
+        // Then
+        assertThat(block.getRow()).isEqualTo("10");
+        assertThat(block.getSeats()).containsExactly("9", "10", "11", "12");
+        assertThat(seatMap.available()).isEqualTo(20 * 3 + 2 - 4);
+        assertThat(seatMap.availableByRow().get("Floor").keySet()).containsExactly("2", "10", "A", "B");
+    }
+
+    @Test
+    void reserveBest_ShouldNotSpanGapsInTheNumbering() {
+        // Given - seat 4 is missing and seat 6 is sold
+        SeatMap seatMap = new SeatMap(List.of(
+                seat(1, "A", "1", true), seat(2, "A", "2", true), seat(3, "A", "3", true),
+                seat(5, "A", "5", true), seat(6, "A", "6", false), seat(7, "A", "7", true),
+                seat(8, "B", "1", true), seat(9, "B", "2", true), seat(10, "B", "3", true)));
+
+        // When
+        SeatMap.Block first = seatMap.reserveBest(null, 3);
+        SeatMap.Block second = seatMap.reserveBest(null, 3);
+        SeatMap.Block third = seatMap.reserveBest(null, 2);
+
+        // Then
+        assertThat(first.getTicketIds()).containsExactly(1, 2, 3);
+        assertThat(second.getTicketIds()).containsExactly(8, 9, 10);
+        assertThat(third).isNull();
+    }
+
+    @Test
+    void reserveBest_ShouldOnlyLookInTheRequestedSection() {
+        // Given
+        SeatMap seatMap = new SeatMap(List.of(
+                new SeatMap.Seat(1, "Floor", "A", "1", true), new SeatMap.Seat(2, "Floor", "A", "2", true),
+                new SeatMap.Seat(3, "Balcony", "A", "1", true), new SeatMap.Seat(4, "Balcony", "A", "2", true),
+                new SeatMap.Seat(5, "Balcony", "A", null, true)));
+
+        // When
+        SeatMap.Block block = seatMap.reserveBest("balcony", 2);
+
+        // Then
+        assertThat(block.getSection()).isEqualTo("Balcony");
+        assertThat(block.getTicketIds()).containsExactly(3, 4);
+        assertThat(seatMap.contains(5)).isFalse();
+        assertThat(seatMap.reserveBest("Balcony", 1)).isNull();
+    }
+
+    @Test
+    void releaseAndMarkTaken_ShouldChangeWhichBlocksAreFree() {
+        // Given
+        SeatMap seatMap = new SeatMap(List.of(
+                seat(1, "A", "1", true), seat(2, "A", "2", true), seat(3, "A", "3", true)));
+        SeatMap.Block block = seatMap.reserveBest(null, 3);
+
+        // When
+        seatMap.release(block.getTicketIds());
+        seatMap.markTaken(2);
+
+        // Then
+        assertThat(seatMap.reserveBest(null, 2)).isNull();
+        assertThat(seatMap.reserveBest(null, 1).getTicketIds()).containsExactly(1);
+        assertThat(seatMap.available()).isEqualTo(1);
+    }
+
+    @Test
+    void reserveBest_ShouldNeverHandOutASeatTwiceUnderConcurrency() throws Exception {
+        // Given - 8 rows of 150 seats, wider than two bitset words
+        List<SeatMap.Seat> seats = new ArrayList<>();
+        long id = 1;
+        for (int row = 1; row <= 8; row++) {
+            for (int seat = 1; seat <= 150; seat++) {
+                seats.add(seat(id++, String.valueOf(row), String.valueOf(seat), true));
+            }
+        }
+        SeatMap seatMap = new SeatMap(seats);
+        Set<Long> taken = ConcurrentHashMap.newKeySet();
+        List<Long> duplicates = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int quantity = t % 4 + 1;
+            futures.add(executor.submit(() -> {
+                SeatMap.Block block;
+                while ((block = seatMap.reserveBest(null, quantity)) != null) {
+                    for (long ticketId : block.getTicketIds()) {
+                        if (!taken.add(ticketId)) {
+                            duplicates.add(ticketId);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then - the single-seat buyers pick up whatever the larger requests leave
+        assertThat(duplicates).isEmpty();
+        assertThat(taken.size() + seatMap.available()).isEqualTo(8 * 150);
+        assertThat(seatMap.reserveBest(null, 1)).isNull();
+    }
+
+    private static SeatMap.Seat seat(long ticketId, String row, String seat, boolean free) {
+        return new SeatMap.Seat(ticketId, "Floor", row, seat, free);
+    }
+}
@@ -0,0 +1,46 @@
+package com.mytickets.ticketingApp.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+/**
+ * Counts the statements Hibernate prepares while a block runs, and fails the test when a view needs
+ * more than its budget. An N+1 regression shows up here as a count that grows with the test data,
+ * long before it shows up as a slow page.
+ */
+public final class StatementBudget {
+
+    private final Statistics statistics;
+
+    public StatementBudget(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    /**
+     * Run the call and fail if it prepared more than {@code maxStatements} statements.
+     */
+    public <T> T expect(String view, long maxStatements, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        long statements = statistics.getPrepareStatementCount();
+        if (statements > maxStatements) {
+            throw new AssertionError(view + " ran " + statements + " statements, over its budget of " + maxStatements
+                    + " (entities fetched one by one: " + statistics.getEntityFetchCount()
+                    + ", collections: " + statistics.getCollectionFetchCount() + ")");
+        }
+        return result;
+    }
+
+    /**
+     * @return Statements the call prepared
+     */
+    public long count(Runnable call) {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,63 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StripedCounterTest {
+
+    @Test
+    void tryDecrement_ShouldDrainEveryStripeThenStopAtZero() {
+        // Given - fewer units than stripes, so most stripes start empty
+        StripedCounter counter = new StripedCounter(3, 8);
+
+        // When
+        int taken = 0;
+        while (counter.tryDecrement()) {
+            taken++;
+        }
+
+        // Then
+        assertThat(taken).isEqualTo(3);
+        assertThat(counter.sum()).isZero();
+        assertThat(counter.tryDecrement()).isFalse();
+    }
+
+    @Test
+    void add_ShouldMakeReleasedUnitsAvailableAgain() {
+        // Given
+        StripedCounter counter = new StripedCounter(0, 4);
+
+        // When
+        counter.add(2);
+
+        // Then - wherever the units landed, both can be taken
+        assertThat(counter.sum()).isEqualTo(2);
+        assertThat(counter.tryDecrement()).isTrue();
+        assertThat(counter.tryDecrement()).isTrue();
+        assertThat(counter.tryDecrement()).isFalse();
+    }
+
+    @Test
+    void sum_ShouldCountUnitsAcrossAllStripes() {
+        // Given - an initial value that does not split evenly
+        StripedCounter counter = new StripedCounter(1003, 8);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            counter.tryDecrement();
+        }
+        counter.add(7);
+
+        // Then
+        assertThat(counter.sum()).isEqualTo(510);
+    }
+
+    @Test
+    void negativeValues_ShouldBeRejected() {
+        // When / Then
+        assertThatThrownBy(() -> new StripedCounter(-1, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedCounter(5, 4).add(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
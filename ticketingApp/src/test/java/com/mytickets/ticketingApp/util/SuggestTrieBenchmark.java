@@ -0,0 +1,84 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completions from a {@link SuggestTrie} of event-like names for one to four typed characters.
+ * Run with {@code mvn test -Dtest=SuggestTrieBenchmark -Dbenchmark=true}; each run appends the
+ * average time per lookup to target/benchmarks/suggest-trie.csv.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestTrieBenchmark {
+
+    private static final String[] WORDS = {"rock", "jazz", "festival", "night", "live", "symphony", "opera",
+            "derby", "final", "cup", "tour", "summer", "winter", "open", "air", "arena", "hall", "comedy",
+            "show", "gala", "classic", "electric", "acoustic", "session", "league", "match", "theatre", "ballet"};
+
+    @Param({"100000"})
+    public int entries;
+
+    private SuggestTrie<String> trie;
+    private String[] prefixes;
+    private int sequence;
+
+    @Setup
+    public void build() {
+        Random random = new Random(3);
+        trie = new SuggestTrie<>();
+        for (int i = 0; i < entries; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            trie.put("event:" + i, name, random.nextInt(10_000), name);
+        }
+        prefixes = new String[1_024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            prefixes[i] = word.substring(0, 1 + random.nextInt(Math.min(4, word.length())));
+        }
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return trie.suggest(prefixes[sequence++ & (prefixes.length - 1)], 8);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void measureSuggest() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SuggestTrieBenchmark.class.getName() + "\\.")
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Path report = Path.of("target", "benchmarks", "suggest-trie.csv");
+        Files.createDirectories(report.getParent());
+        if (!Files.exists(report)) {
+            Files.writeString(report, "timestamp,entries,nanoseconds_per_lookup\n");
+        }
+        for (RunResult result : results) {
+            Files.writeString(report, String.format("%s,%s,%.1f%n", LocalDateTime.now(),
+                    result.getParams().getParam("entries"), result.getPrimaryResult().getScore()),
+                    StandardOpenOption.APPEND);
+        }
+    }
+}
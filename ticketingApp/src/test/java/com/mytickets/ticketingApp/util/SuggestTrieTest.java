@@ -0,0 +1,90 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SuggestTrieTest {
+
+    @Test
+    void suggest_ShouldMatchAnyWordStartAndRankByWeight() {
+        // Given
+        SuggestTrie<String> trie = new SuggestTrie<>();
+        trie.put("event:1", "Rock Festival", 5, "Rock Festival");
+        trie.put("event:2", "Festa do Avante", 9, "Festa do Avante");
+        trie.put("venue:1", "Rockwell Hall", 2, "Rockwell Hall");
+        trie.put("city:lisboa", "Lisboa", 7, "Lisboa");
+
+        // When / Then - case and accents are folded away
+        assertThat(trie.suggest("fest", 10)).containsExactly("Festa do Avante", "Rock Festival");
+        assertThat(trie.suggest("ROCK", 10)).containsExactly("Rock Festival", "Rockwell Hall");
+        assertThat(trie.suggest("rock f", 10)).containsExactly("Rock Festival");
+        assertThat(trie.suggest("lísb", 10)).containsExactly("Lisboa");
+        assertThat(trie.suggest("fest", 1)).containsExactly("Festa do Avante");
+        assertThat(trie.suggest("jazz", 10)).isEmpty();
+        assertThat(trie.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void putAndRemove_ShouldReplaceEntriesAndMergeEdgesBack() {
+        // Given
+        SuggestTrie<String> trie = new SuggestTrie<>();
+        trie.put("a", "Coliseu", 1, "Coliseu");
+        trie.put("b", "Coliseum", 2, "Coliseum");
+        trie.put("c", "Colombo", 3, "Colombo");
+
+        // When
+        trie.put("b", "Arena", 2, "Arena");
+        trie.remove("c");
+
+        // Then
+        assertThat(trie.suggest("col", 10)).containsExactly("Coliseu");
+        assertThat(trie.suggest("coliseum", 10)).isEmpty();
+        assertThat(trie.suggest("are", 10)).containsExactly("Arena");
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    void suggest_ShouldMatchAScanOfEveryEntryThroughRandomWrites() {
+        // Given
+        Random random = new Random(11);
+        String[] words = {"rock", "rocket", "road", "jazz", "jam", "lisbon", "lisboa", "porto", "port", "arena", "art"};
+        SuggestTrie<String> trie = new SuggestTrie<>();
+        Map<String, String> texts = new HashMap<>();
+        Map<String, Double> weights = new HashMap<>();
+
+        // When
+        for (int step = 0; step < 5_000; step++) {
+            String key = "k" + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                trie.remove(key);
+                texts.remove(key);
+                weights.remove(key);
+            } else {
+                String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                double weight = random.nextInt(50);
+                trie.put(key, text, weight, key);
+                texts.put(key, text);
+                weights.put(key, weight);
+            }
+        }
+
+        // Then
+        for (String prefix : List.of("r", "ro", "rock", "rocket", "j", "lisb", "port", "porto r", "a", "x")) {
+            List<String> expected = new ArrayList<>();
+            for (Map.Entry<String, String> entry : texts.entrySet()) {
+                String text = entry.getValue();
+                if (text.startsWith(prefix) || text.substring(text.indexOf(' ') + 1).startsWith(prefix)) {
+                    expected.add(entry.getKey());
+                }
+            }
+            expected.sort(Comparator.<String>comparingDouble(key -> -weights.get(key)).thenComparing(key -> key));
+            assertThat(trie.suggest(prefix, 10))
+                    .as(prefix)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(10, expected.size())));
+        }
+        assertThat(trie.size()).isEqualTo(texts.size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TextIndexTest {
+
+    private TextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Name, venue, description
+        index = new TextIndex(3.0f, 2.0f, 1.0f);
+        index.put(1, "Jazz at Night", "Blue Note", "Late session with the house trio");
+        index.put(2, "Rock Festival", "Riverside Arena", "Three stages of rock and jazz fusion");
+        index.put(3, "Café Jazzmatazz", "Le Petit Théâtre", "Acoustic evening");
+        index.put(4, "Symphony No. 9", "Concertgebouw", "Beethoven's ninth, full orchestra");
+    }
+
+    @Test
+    void tokenize_ShouldFoldCaseAndAccentsAndSplitOnPunctuation() {
+        // When / Then
+        assertThat(TextIndex.tokenize("Café  Théâtre—No.9, ROCK'n'roll"))
+                .containsExactly("cafe", "theatre", "no", "9", "rock", "n", "roll");
+        assertThat(TextIndex.tokenize("  ... ")).isEmpty();
+        assertThat(TextIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveDescriptionMatches() {
+        // When
+        var results = index.search("jazz", 10);
+
+        // Then - the exact title word first, then the title prefix, then the description
+        assertThat(results).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void search_ShouldTreatTheLastWordAsAPrefixAndRequireEveryWord() {
+        // When / Then
+        assertThat(index.search("rock fes", 10)).containsExactly(2L);
+        assertThat(index.search("cafe thea", 10)).containsExactly(3L);
+        assertThat(index.search("jazz beethoven", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldFallBackToInfixAndTypoMatches() {
+        // When / Then - a word inside another, and a transposed pair of letters
+        assertThat(index.search("matazz", 10)).containsExactly(3L);
+        assertThat(index.search("symphnoy", 10)).isEmpty();
+        assertThat(index.search("orchestar", 10)).containsExactly(4L);
+        assertThat(index.search("concertgebow", 10)).containsExactly(4L);
+    }
+
+    @Test
+    void putAndRemove_ShouldReplaceWhatWasIndexed() {
+        // Given
+        index.put(2, "Metal Night", "Riverside Arena", null);
+
+        // When
+        var rock = index.search("rock", 10);
+        var night = index.search("night", 10);
+        index.remove(1);
+
+        // Then
+        assertThat(rock).isEmpty();
+        assertThat(night).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("night", 10)).containsExactly(2L);
+        assertThat(index.search("blue", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void search_ShouldKeepTheTopResultsOnly() {
+        // Given
+        for (long id = 10; id < 1010; id++) {
+            index.put(id, "Open Mic " + id, null, id % 10 == 0 ? "open air" : null);
+        }
+
+        // When
+        var results = index.search("open", 5);
+
+        // Then - the ten-multiples also match in the description and win, lowest ids first
+        assertThat(results).containsExactly(10L, 20L, 30L, 40L, 50L);
+        assertThatThrownBy(() -> new TextIndex()).isInstanceOf(IllegalArgumentException.class);
+    }
+}
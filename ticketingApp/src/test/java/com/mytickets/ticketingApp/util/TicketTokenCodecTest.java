@@ -0,0 +1,107 @@
+package com.mytickets.ticketingApp.util;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketTokenCodecTest {
+
+    private final TicketTokenCodec codec = new TicketTokenCodec(Map.of(1, "first-secret"), 1);
+
+    @Test
+    void decode_ShouldReturnWhatWasEncoded() {
+        // When
+        TicketTokenCodec.Token token = codec.decode(codec.encode(4_211, 1_250_000, 3, "Floor/12/7"));
+
+        // Then
+        assertThat(token.getKeyId()).isEqualTo(1);
+        assertThat(token.getEventId()).isEqualTo(4_211);
+        assertThat(token.getTicketId()).isEqualTo(1_250_000);
+        assertThat(token.getGeneration()).isEqualTo(3);
+        assertThat(token.getSeat()).isEqualTo("Floor/12/7");
+        assertThat(codec.decode(codec.encode(1, 2, 0, null)).getSeat()).isNull();
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedAndForeignTokens() {
+        // Given
+        String token = codec.encode(4_211, 1_250_000, 0, "A/1/1");
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        String otherSecret = new TicketTokenCodec(Map.of(1, "other-secret"), 1).encode(4_211, 1_250_000, 0, "A/1/1");
+
+        // When / Then
+        assertThat(codec.decode(tampered)).isNull();
+        assertThat(codec.decode(otherSecret)).isNull();
+        assertThat(codec.decode(token.toLowerCase())).isNull();
+        assertThat(codec.decode("T1:")).isNull();
+        assertThat(codec.decode("TICKET:" + UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    void decode_ShouldAcceptEveryListedKeyWhileSigningWithTheActiveOne() {
+        // Given - key 2 rotated in, key 1 still listed for codes already handed out
+        String issuedBefore = codec.encode(1, 10, 0, null);
+        TicketTokenCodec rotated = new TicketTokenCodec(Map.of(1, "first-secret", 2, "second-secret"), 2);
+        TicketTokenCodec retired = new TicketTokenCodec(Map.of(2, "second-secret"), 2);
+
+        // When
+        String issuedAfter = rotated.encode(1, 10, 0, null);
+
+        // Then
+        assertThat(rotated.decode(issuedBefore).getKeyId()).isEqualTo(1);
+        assertThat(rotated.decode(issuedAfter).getKeyId()).isEqualTo(2);
+        assertThat(retired.decode(issuedBefore)).isNull();
+        assertThat(retired.decode(issuedAfter)).isNotNull();
+    }
+
+    @Test
+    void encode_ShouldShortenLongSeatsOnACharacterBoundary() {
+        // Given - two bytes per umlaut, so the limit falls in the middle of one
+        String label = "A" + "ü".repeat(20);
+
+        // When
+        String seat = codec.decode(codec.encode(1, 2, 0, label)).getSeat();
+
+        // Then
+        assertThat(seat).isEqualTo("A" + "ü".repeat(11));
+        assertThat(seat.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(TicketTokenCodec.MAX_SEAT_BYTES);
+    }
+
+    @Test
+    void encode_ShouldFitASmallerQrVersionThanTheUnsignedTicketNumber() throws WriterException {
+        // Given
+        String token = codec.encode(12_345, 48_000_000, 2, "B/14/22");
+        String unsigned = "TICKET:" + UUID.randomUUID();
+
+        // When
+        int tokenVersion = Encoder.encode(token, ErrorCorrectionLevel.L).getVersion().getVersionNumber();
+        int unsignedVersion = Encoder.encode(unsigned, ErrorCorrectionLevel.L).getVersion().getVersionNumber();
+
+        // Then
+        assertThat(tokenVersion).isLessThan(unsignedVersion);
+    }
+
+    @Test
+    void base32_ShouldRoundTripAnyBytes() {
+        // Given
+        byte[] bytes = new byte[37];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 71);
+        }
+
+        // When
+        String text = TicketTokenCodec.toBase32(bytes);
+
+        // Then
+        assertThat(text).matches("[A-Z2-7]+");
+        assertThat(TicketTokenCodec.fromBase32(text, 0)).isEqualTo(bytes);
+    }
+}
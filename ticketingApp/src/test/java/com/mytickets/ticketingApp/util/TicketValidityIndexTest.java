@@ -0,0 +1,141 @@
+package com.mytickets.ticketingApp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketValidityIndexTest {
+
+    private static final long OPENED = 1_700_000_000_000L;
+
+    @Test
+    void consume_ShouldAdmitOnceAndReportWhenTheTicketWasFirstUsed() {
+        // Given
+        TicketValidityIndex index = new TicketValidityIndex(3, OPENED);
+        String valid = UUID.randomUUID().toString();
+        String usedBefore = UUID.randomUUID().toString();
+        String refunded = UUID.randomUUID().toString();
+        index.add(valid, 1, true, false);
+        index.add(usedBefore, 2, true, true);
+        index.add(refunded, 3, false, false);
+
+        // When
+        TicketValidityIndex.Scan first = index.consume(valid, OPENED + 65_400);
+        TicketValidityIndex.Scan second = index.consume(valid, OPENED + 90_000);
+
+        // Then
+        assertThat(first.getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ADMITTED);
+        assertThat(first.getTicketId()).isEqualTo(1);
+        assertThat(second.getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ALREADY_USED);
+        assertThat(second.getUsedAtMillis()).isEqualTo(OPENED + 65_000);
+
+        assertThat(index.consume(usedBefore, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ALREADY_USED);
+        assertThat(index.consume(usedBefore, OPENED).getUsedAtMillis()).isZero();
+        assertThat(index.consume(refunded, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.NOT_VALID);
+        assertThat(index.consume(UUID.randomUUID().toString(), OPENED).getOutcome())
+                .isEqualTo(TicketValidityIndex.Outcome.UNKNOWN);
+        assertThat(index.usedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void consume_ShouldHandleNonUuidAndLateTicketsThroughTheOverflow() {
+        // Given
+        TicketValidityIndex index = new TicketValidityIndex(1, OPENED);
+        index.add("VIP-0001", 7, true, false);
+        String late = UUID.randomUUID().toString();
+        index.addLate(late, 8, true, false);
+
+        // When / Then
+        assertThat(index.consume("VIP-0001", OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ADMITTED);
+        assertThat(index.consume("VIP-0001", OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ALREADY_USED);
+        assertThat(index.consume(late, OPENED).getTicketId()).isEqualTo(8);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void consumeById_ShouldShareStateWithLookupsByTicketNumber() {
+        // Given
+        TicketValidityIndex index = new TicketValidityIndex(2, OPENED);
+        String built = UUID.randomUUID().toString();
+        String late = UUID.randomUUID().toString();
+        index.add(built, 41, true, false);
+        index.add("VIP-0002", 42, true, false);
+        index.addLate(late, 43, true, false);
+
+        // When
+        TicketValidityIndex.Scan byId = index.consumeById(41, OPENED);
+
+        // Then
+        assertThat(byId.getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ADMITTED);
+        assertThat(index.consume(built, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ALREADY_USED);
+        assertThat(index.consumeById(42, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ADMITTED);
+        assertThat(index.consume(late, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ADMITTED);
+        assertThat(index.consumeById(43, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.ALREADY_USED);
+        assertThat(index.consumeById(44, OPENED).getOutcome()).isEqualTo(TicketValidityIndex.Outcome.UNKNOWN);
+    }
+
+    @Test
+    void consume_ShouldAdmitEachTicketExactlyOnceUnderConcurrentScans() throws Exception {
+        // Given - every ticket is scanned by every gate at the same time
+        int tickets = 20_000;
+        int gates = 4;
+        TicketValidityIndex index = new TicketValidityIndex(tickets, OPENED);
+        List<String> ticketNumbers = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            String ticketNumber = UUID.randomUUID().toString();
+            ticketNumbers.add(ticketNumber);
+            index.add(ticketNumber, i, true, false);
+        }
+
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int gate = 0; gate < gates; gate++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (String ticketNumber : ticketNumbers) {
+                    if (index.consume(ticketNumber, OPENED).getOutcome() == TicketValidityIndex.Outcome.ADMITTED) {
+                        admitted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // When
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(admitted).hasValue(tickets);
+        assertThat(rejected).hasValue(tickets * (gates - 1));
+        assertThat(index.usedCount()).isEqualTo(tickets);
+    }
+
+    @Test
+    void parseUuid_ShouldAcceptOnlyTheCanonicalForm() {
+        UUID uuid = UUID.randomUUID();
+
+        long[] halves = TicketValidityIndex.parseUuid(uuid.toString().toUpperCase());
+
+        assertThat(halves).containsExactly(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        assertThat(TicketValidityIndex.parseUuid("1-1-1-1-1")).isNull();
+        assertThat(TicketValidityIndex.parseUuid(uuid.toString().replace('-', 'x'))).isNull();
+    }
+}